@@ -9,10 +9,10 @@
  */
 package org.dbtools.codegen.java;
 
+import org.dbtools.util.GeneratedFileWriter;
+
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.PrintStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -549,6 +549,10 @@ public class JavaClass {
     }
 
     public void writeToDisk(String directoryname, boolean overwrite) {
+        writeToDisk(directoryname, overwrite, new GeneratedFileWriter());
+    }
+
+    public void writeToDisk(String directoryname, boolean overwrite, GeneratedFileWriter fileWriter) {
         File directory = new File(directoryname);
         directory.mkdirs();
 
@@ -559,10 +563,8 @@ public class JavaClass {
                 return;
             }
 
-            PrintStream fps = new PrintStream(new FileOutputStream(outFile));
-            fps.print(this.toString());
-            fps.close();
-        } catch (FileNotFoundException ex) {
+            fileWriter.write(outFile, this.toString());
+        } catch (IOException ex) {
             ex.printStackTrace();
         }
     }
@@ -26,6 +26,7 @@ public class JavaMethod {
     private boolean abstractMethod = false;
     private boolean staticMethod = false;
     private boolean constMethod = false;
+    private boolean synchronizedMethod = false;
     private List<String> annotations;
     private List<JavaVariable> parameters;
     private List<String> exceptions;
@@ -105,6 +106,14 @@ public class JavaMethod {
         this.constMethod = constMethod;
     }
 
+    public boolean isSynchronized() {
+        return synchronizedMethod;
+    }
+
+    public void setSynchronized(boolean synchronizedMethod) {
+        this.synchronizedMethod = synchronizedMethod;
+    }
+
     @Override
     public String toString() {
         return toString(false);
@@ -146,6 +155,10 @@ public class JavaMethod {
             methodString += " final";
         }
 
+        if (isSynchronized()) {
+            methodString += " synchronized";
+        }
+
         // method name
         if (getMethodType() != MethodType.CONSTRUCTOR) {
             methodString += " " + getReturnType();
@@ -16,7 +16,13 @@ import org.dbtools.util.JavaUtil;
 import org.dbtools.util.PackageUtil;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * @author jeff
@@ -36,7 +42,16 @@ public abstract class DBObjectsBuilder {
 
     public abstract DBObjectBuilder getObjectBuilder();
 
+    /**
+     * Create a new, independent DBObjectBuilder (with its own renderers) for parallel generation.
+     * Returning null (default) forces serial generation using getObjectBuilder().
+     */
+    public DBObjectBuilder createObjectBuilder() {
+        return null;
+    }
+
     private int numberFilesGenerated;
+    private List<String> filesGenerated = new ArrayList<>();
 
     /**
      * Creates a new instance of DBObjectsBuilder
@@ -56,7 +71,6 @@ public abstract class DBObjectsBuilder {
         tables = null;
         views = null;
         queries = null;
-        numberFilesGenerated = 0;
     }
 
     private boolean validate() {
@@ -68,6 +82,10 @@ public abstract class DBObjectsBuilder {
     }
 
     public boolean build() {
+        numberFilesGenerated = 0;
+        filesGenerated.clear();
+        genConfig.getFileWriter().resetCounts();
+
         if (schemaDatabaseName != null && !schemaDatabaseName.isEmpty()) {
             return build(schemaRenderer.getDbSchema().getDatabase(schemaDatabaseName));
         } else {
@@ -117,62 +135,47 @@ public abstract class DBObjectsBuilder {
                 throw new IllegalStateException("No Table Renderer specified");
             }
 
+            List<EntityBuild> entityBuilds = new ArrayList<>();
             for (SchemaTable table : tables) {
-                // crete the directory
-                String packageDir = table.getClassName().toLowerCase();
-
-                if (genConfig.isIncludeDatabaseNameInPackage()) {
-                    packageDir = database.getName().toLowerCase() + "/" + packageDir;
-                }
-
-                String outDir = createOutputDir(outputBaseDir, packageDir);
-
                 // package
-                String packageName = packageBase + (genConfig.isIncludeDatabaseNameInPackage() ? '.' + database.getName().toLowerCase() : "");
+                String packageName = getDatabasePackageName(database);
                 packageName = JavaUtil.createTablePackageName(packageName, table.getClassName());
 
-                success = objectBuilder.build(database, table, packageName, outDir, genConfig);
-                numberFilesGenerated += objectBuilder.getNumberFilesGenerated();
+                entityBuilds.add(new EntityBuild(table, packageName, createEntityOutputDir(database, table)));
             }
 
             for (SchemaView view : views) {
-                // crete the directory
-                String packageDir = view.getClassName().toLowerCase();
-
-                if (genConfig.isIncludeDatabaseNameInPackage()) {
-                    packageDir = database.getName().toLowerCase() + "/" + packageDir;
-                }
-
-                String outDir = createOutputDir(outputBaseDir, packageDir);
-
                 // package
-                String packageName = packageBase + (genConfig.isIncludeDatabaseNameInPackage() ? '.' + database.getName().toLowerCase() : "");
-                packageName = packageName + "." + view.getClassName().toLowerCase();
+                String packageName = getDatabasePackageName(database) + "." + view.getClassName().toLowerCase();
 
-                success = objectBuilder.build(database, view, packageName, outDir, genConfig);
-                numberFilesGenerated += objectBuilder.getNumberFilesGenerated();
+                entityBuilds.add(new EntityBuild(view, packageName, createEntityOutputDir(database, view)));
             }
 
             for (SchemaQuery query : queries) {
-                // crete the directory
-                String packageDir = query.getClassName().toLowerCase();
-
-                if (genConfig.isIncludeDatabaseNameInPackage()) {
-                    packageDir = database.getName().toLowerCase() + "/" + packageDir;
-                }
+                // package
+                String packageName = getDatabasePackageName(database) + "." + query.getClassName().toLowerCase();
 
-                String outDir = createOutputDir(outputBaseDir, packageDir);
+                entityBuilds.add(new EntityBuild(query, packageName, createEntityOutputDir(database, query)));
+            }
 
-                // package
-                String packageName = packageBase + (genConfig.isIncludeDatabaseNameInPackage() ? '.' + database.getName().toLowerCase() : "");
-                packageName = packageName + "." + query.getClassName().toLowerCase();
+            DBObjectBuilder parallelObjectBuilder = genConfig.isParallelGeneration() && entityBuilds.size() > 1 ? createObjectBuilder() : null;
+            if (parallelObjectBuilder != null) {
+                buildParallel(database, entityBuilds, parallelObjectBuilder);
+            } else {
+                buildSerial(database, objectBuilder, entityBuilds);
+            }
 
-                success = objectBuilder.build(database, query, packageName, outDir, genConfig);
-                numberFilesGenerated += objectBuilder.getNumberFilesGenerated();
+            // collect results in schema order so that counts and file lists match regardless of how the entities were built
+            for (EntityBuild entityBuild : entityBuilds) {
+                if (!entityBuild.success) {
+                    success = false;
+                }
+                numberFilesGenerated += entityBuild.numberFilesGenerated;
+                filesGenerated.addAll(entityBuild.filesGenerated);
             }
 
             if (!genConfig.isInjectionSupport()) {
-                String packageName = packageBase + (genConfig.isIncludeDatabaseNameInPackage() ? '.' + database.getName().toLowerCase() : "");
+                String packageName = getDatabasePackageName(database);
 
                 String outDir = outputBaseDir;
                 if (genConfig.isIncludeDatabaseNameInPackage()) {
@@ -186,6 +189,60 @@ public abstract class DBObjectsBuilder {
         return success;
     }
 
+    private void buildSerial(SchemaDatabase database, DBObjectBuilder objectBuilder, List<EntityBuild> entityBuilds) {
+        for (EntityBuild entityBuild : entityBuilds) {
+            entityBuild.build(database, objectBuilder);
+        }
+    }
+
+    /**
+     * @param firstObjectBuilder builder for the first entity (the remaining entities each create their own)
+     */
+    private void buildParallel(final SchemaDatabase database, List<EntityBuild> entityBuilds, final DBObjectBuilder firstObjectBuilder) {
+        List<Callable<EntityBuild>> buildTasks = new ArrayList<>();
+        for (int i = 0; i < entityBuilds.size(); i++) {
+            final EntityBuild entityBuild = entityBuilds.get(i);
+            final boolean firstEntity = i == 0;
+            buildTasks.add(new Callable<EntityBuild>() {
+                @Override
+                public EntityBuild call() throws Exception {
+                    // each entity gets its own builder (and renderers) so no renderer state is shared between threads
+                    return entityBuild.build(database, firstEntity ? firstObjectBuilder : createObjectBuilder());
+                }
+            });
+        }
+
+        int parallelism = genConfig.getParallelism() > 0 ? genConfig.getParallelism() : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Future<EntityBuild> future : pool.invokeAll(buildTasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generation interrupted for database [" + database.getName() + "]", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to generate objects for database [" + database.getName() + "]", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private String getDatabasePackageName(SchemaDatabase database) {
+        return packageBase + (genConfig.isIncludeDatabaseNameInPackage() ? '.' + database.getName().toLowerCase() : "");
+    }
+
+    private String createEntityOutputDir(SchemaDatabase database, SchemaEntity entity) {
+        // crete the directory
+        String packageDir = entity.getClassName().toLowerCase();
+
+        if (genConfig.isIncludeDatabaseNameInPackage()) {
+            packageDir = database.getName().toLowerCase() + "/" + packageDir;
+        }
+
+        return createOutputDir(outputBaseDir, packageDir);
+    }
+
     private String createOutputDir(String baseDir, String name) {
         String outDir = baseDir + "/" + name;
         File newDir = new File(outDir);
@@ -262,6 +319,10 @@ public abstract class DBObjectsBuilder {
         this.outputBaseDir = outputBaseDir;
     }
 
+    public GenConfig getGenConfig() {
+        return genConfig;
+    }
+
     public void setGenConfig(GenConfig genConfig) {
         this.genConfig = genConfig;
     }
@@ -269,4 +330,55 @@ public abstract class DBObjectsBuilder {
     public int getNumberFilesGenerated() {
         return numberFilesGenerated;
     }
+
+    public List<String> getFilesGenerated() {
+        return Collections.unmodifiableList(filesGenerated);
+    }
+
+    /**
+     * Number of files written to disk during the last build (files with unchanged content are not rewritten)
+     */
+    public int getNumberFilesWritten() {
+        return genConfig.getFileWriter().getWrittenCount();
+    }
+
+    public int getNumberFilesUnchanged() {
+        return genConfig.getFileWriter().getUnchangedCount();
+    }
+
+    protected String getBuildSummary() {
+        return "Generated [" + numberFilesGenerated + "] files ([" + getNumberFilesWritten() + "] written, [" + getNumberFilesUnchanged() + "] unchanged).";
+    }
+
+    /**
+     * Single entity to be generated, along with the results of generating it
+     */
+    private final class EntityBuild {
+        private final SchemaEntity entity;
+        private final String packageName;
+        private final String outDir;
+
+        private boolean success;
+        private int numberFilesGenerated;
+        private List<String> filesGenerated = Collections.emptyList();
+
+        EntityBuild(SchemaEntity entity, String packageName, String outDir) {
+            this.entity = entity;
+            this.packageName = packageName;
+            this.outDir = outDir;
+        }
+
+        EntityBuild build(SchemaDatabase database, DBObjectBuilder objectBuilder) {
+            // builders keep running totals, so only record what this entity added
+            int startCount = objectBuilder.getNumberFilesGenerated();
+            int startFileIndex = objectBuilder.getFilesGenerated().size();
+
+            success = objectBuilder.build(database, entity, packageName, outDir, genConfig);
+
+            List<String> builderFiles = objectBuilder.getFilesGenerated();
+            numberFilesGenerated = objectBuilder.getNumberFilesGenerated() - startCount;
+            filesGenerated = new ArrayList<>(builderFiles.subList(startFileIndex, builderFiles.size()));
+            return this;
+        }
+    }
 }
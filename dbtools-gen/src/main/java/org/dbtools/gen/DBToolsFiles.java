@@ -1,8 +1,13 @@
 package org.dbtools.gen;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
 
 public class DBToolsFiles {
 
@@ -27,22 +32,37 @@ public class DBToolsFiles {
             File schemaDir = new File(schemaDirname);
             schemaDir.mkdirs();
 
-            InputStream in = DBToolsFiles.class.getResourceAsStream(sourceClasspathDir + filename);
-
+            byte[] bytes = readResource(sourceClasspathDir + filename);
             File outFile = new File(schemaDirname, filename);
 
-            FileOutputStream fos = new FileOutputStream(outFile);
-            int read;
-            byte[] bytes = new byte[1024];
+            // don't touch the file if it is already current
+            if (outFile.isFile() && outFile.length() == bytes.length && Arrays.equals(Files.readAllBytes(outFile.toPath()), bytes)) {
+                return;
+            }
 
-            while ((read = in.read(bytes)) != -1) {
-                fos.write(bytes, 0, read);
+            try (FileOutputStream fos = new FileOutputStream(outFile)) {
+                fos.write(bytes);
             }
         } catch (Exception e) {
             System.out.println("Failed to write: " + filename + " Error: [" + e.getMessage() + "]");
         }
     }
 
+    private static byte[] readResource(String resourceName) throws IOException {
+        try (InputStream in = DBToolsFiles.class.getResourceAsStream(resourceName)) {
+            if (in == null) {
+                throw new FileNotFoundException(resourceName);
+            }
 
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int read;
+            byte[] bytes = new byte[1024];
+
+            while ((read = in.read(bytes)) != -1) {
+                out.write(bytes, 0, read);
+            }
 
+            return out.toByteArray();
+        }
+    }
 }
@@ -158,30 +158,33 @@ public enum DateType {
         }
     }
 
-    public String getCursorDbStringToObjectMethod(SchemaField field, String paramValue, boolean kotlin) {
+    /**
+     * @param columnIndex expression that evaluates to the cursor column index (ex: "columnIndexes[2]")
+     */
+    public String getCursorDbStringToObjectMethod(SchemaField field, String columnIndex, boolean kotlin) {
         switch (field.getJdbcDataType()) {
             case DATETIME:
                 switch (this) {
                     default:
                     case JAVA_DATE:
                         if (kotlin && field.isNotNull()) {
-                            return "org.dbtools.android.domain.date.DBToolsDateFormatter.dbStringToDate(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))!!";
+                            return "org.dbtools.android.domain.date.DBToolsDateFormatter.dbStringToDate(cursor.getString(" + columnIndex + "))!!";
                         } else {
-                            return "org.dbtools.android.domain.date.DBToolsDateFormatter.dbStringToDate(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))";
+                            return "org.dbtools.android.domain.date.DBToolsDateFormatter.dbStringToDate(cursor.getString(" + columnIndex + "))";
                         }
 
                     case JODA:
                         if (kotlin && field.isNotNull()) {
-                            return "org.dbtools.android.domain.date.DBToolsJodaFormatter.dbStringToDateTime(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))!!";
+                            return "org.dbtools.android.domain.date.DBToolsJodaFormatter.dbStringToDateTime(cursor.getString(" + columnIndex + "))!!";
                         } else {
-                            return "org.dbtools.android.domain.date.DBToolsJodaFormatter.dbStringToDateTime(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))";
+                            return "org.dbtools.android.domain.date.DBToolsJodaFormatter.dbStringToDateTime(cursor.getString(" + columnIndex + "))";
                         }
 
                     case JSR_310:
                         if (kotlin && field.isNotNull()) {
-                            return "org.dbtools.android.domain.date.DBToolsThreeTenFormatter.dbStringToLocalDateTime(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))!!";
+                            return "org.dbtools.android.domain.date.DBToolsThreeTenFormatter.dbStringToLocalDateTime(cursor.getString(" + columnIndex + "))!!";
                         } else {
-                            return "org.dbtools.android.domain.date.DBToolsThreeTenFormatter.dbStringToLocalDateTime(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))";
+                            return "org.dbtools.android.domain.date.DBToolsThreeTenFormatter.dbStringToLocalDateTime(cursor.getString(" + columnIndex + "))";
                         }
                 }
             case DATE:
@@ -189,31 +192,31 @@ public enum DateType {
                     default:
                     case JAVA_DATE:
                         if (kotlin && field.isNotNull()) {
-                            return "org.dbtools.android.domain.date.DBToolsDateFormatter.dbStringToDate(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))!!";
+                            return "org.dbtools.android.domain.date.DBToolsDateFormatter.dbStringToDate(cursor.getString(" + columnIndex + "))!!";
                         } else {
-                            return "org.dbtools.android.domain.date.DBToolsDateFormatter.dbStringToDate(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))";
+                            return "org.dbtools.android.domain.date.DBToolsDateFormatter.dbStringToDate(cursor.getString(" + columnIndex + "))";
                         }
 
                     case JODA:
                         if (kotlin && field.isNotNull()) {
-                            return "org.dbtools.android.domain.date.DBToolsJodaFormatter.dbStringToDateTime(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))!!";
+                            return "org.dbtools.android.domain.date.DBToolsJodaFormatter.dbStringToDateTime(cursor.getString(" + columnIndex + "))!!";
                         } else {
-                            return "org.dbtools.android.domain.date.DBToolsJodaFormatter.dbStringToDateTime(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))";
+                            return "org.dbtools.android.domain.date.DBToolsJodaFormatter.dbStringToDateTime(cursor.getString(" + columnIndex + "))";
                         }
 
                     case JSR_310:
                         if (kotlin && field.isNotNull()) {
-                            return "org.dbtools.android.domain.date.DBToolsThreeTenFormatter.dbStringToLocalDate(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))!!";
+                            return "org.dbtools.android.domain.date.DBToolsThreeTenFormatter.dbStringToLocalDate(cursor.getString(" + columnIndex + "))!!";
                         } else {
-                            return "org.dbtools.android.domain.date.DBToolsThreeTenFormatter.dbStringToLocalDate(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))";
+                            return "org.dbtools.android.domain.date.DBToolsThreeTenFormatter.dbStringToLocalDate(cursor.getString(" + columnIndex + "))";
                         }
                 }
             case TIME:
                 if (this == JSR_310) {
                     if (kotlin && field.isNotNull()) {
-                        return "org.dbtools.android.domain.date.DBToolsThreeTenFormatter.dbStringToLocalTime(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))!!";
+                        return "org.dbtools.android.domain.date.DBToolsThreeTenFormatter.dbStringToLocalTime(cursor.getString(" + columnIndex + "))!!";
                     } else {
-                        return "org.dbtools.android.domain.date.DBToolsThreeTenFormatter.dbStringToLocalTime(cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")))";
+                        return "org.dbtools.android.domain.date.DBToolsThreeTenFormatter.dbStringToLocalTime(cursor.getString(" + columnIndex + "))";
                     }
                 } else {
                     return "TIME IS CURRENTLY ONLY SUPPORTED BY JSR_310";
@@ -225,32 +228,32 @@ public enum DateType {
                     case JAVA_DATE:
                         if (kotlin) {
                             if (field.isNotNull()) {
-                                return "if (!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + "))) java.util.Date(cursor.getLong(cursor.getColumnIndexOrThrow(" + paramValue + ")))!! else null!!";
+                                return "if (!cursor.isNull(" + columnIndex + ")) java.util.Date(cursor.getLong(" + columnIndex + "))!! else null!!";
                             } else {
-                                return "if (!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + "))) java.util.Date(cursor.getLong(cursor.getColumnIndexOrThrow(" + paramValue + "))) else null";
+                                return "if (!cursor.isNull(" + columnIndex + ")) java.util.Date(cursor.getLong(" + columnIndex + ")) else null";
                             }
                         } else {
-                            return "!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + ")) ? new java.util.Date(cursor.getLong(cursor.getColumnIndexOrThrow(" + paramValue + "))) : null";
+                            return "!cursor.isNull(" + columnIndex + ") ? new java.util.Date(cursor.getLong(" + columnIndex + ")) : null";
                         }
                     case JODA:
                         if (kotlin) {
                             if (field.isNotNull()) {
-                                return "if (!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + "))) org.dbtools.android.domain.date.DBToolsJodaFormatter.longToDateTime(cursor.getLong(cursor.getColumnIndexOrThrow(" + paramValue + ")))!! else null!!";
+                                return "if (!cursor.isNull(" + columnIndex + ")) org.dbtools.android.domain.date.DBToolsJodaFormatter.longToDateTime(cursor.getLong(" + columnIndex + "))!! else null!!";
                             } else {
-                                return "if (!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + "))) org.dbtools.android.domain.date.DBToolsJodaFormatter.longToDateTime(cursor.getLong(cursor.getColumnIndexOrThrow(" + paramValue + "))) else null";
+                                return "if (!cursor.isNull(" + columnIndex + ")) org.dbtools.android.domain.date.DBToolsJodaFormatter.longToDateTime(cursor.getLong(" + columnIndex + ")) else null";
                             }
                         } else {
-                            return "!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + ")) ? org.dbtools.android.domain.date.DBToolsJodaFormatter.longToDateTime(cursor.getLong(cursor.getColumnIndexOrThrow(" + paramValue + "))) : null";
+                            return "!cursor.isNull(" + columnIndex + ") ? org.dbtools.android.domain.date.DBToolsJodaFormatter.longToDateTime(cursor.getLong(" + columnIndex + ")) : null";
                         }
                     case JSR_310:
                         if (kotlin) {
                             if (field.isNotNull()) {
-                                return "if (!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + "))) org.dbtools.android.domain.date.DBToolsThreeTenFormatter.longToLocalDateTime(cursor.getLong(cursor.getColumnIndexOrThrow(" + paramValue + ")))!! else null!!";
+                                return "if (!cursor.isNull(" + columnIndex + ")) org.dbtools.android.domain.date.DBToolsThreeTenFormatter.longToLocalDateTime(cursor.getLong(" + columnIndex + "))!! else null!!";
                             } else {
-                                return "if (!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + "))) org.dbtools.android.domain.date.DBToolsThreeTenFormatter.longToLocalDateTime(cursor.getLong(cursor.getColumnIndexOrThrow(" + paramValue + "))) else null";
+                                return "if (!cursor.isNull(" + columnIndex + ")) org.dbtools.android.domain.date.DBToolsThreeTenFormatter.longToLocalDateTime(cursor.getLong(" + columnIndex + ")) else null";
                             }
                         } else {
-                            return "!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + ")) ? org.dbtools.android.domain.date.DBToolsThreeTenFormatter.longToLocalDateTime(cursor.getLong(cursor.getColumnIndexOrThrow(" + paramValue + "))) : null";
+                            return "!cursor.isNull(" + columnIndex + ") ? org.dbtools.android.domain.date.DBToolsThreeTenFormatter.longToLocalDateTime(cursor.getLong(" + columnIndex + ")) : null";
                         }
                 }
         }
@@ -1,5 +1,14 @@
 package org.dbtools.gen;
 
+import org.dbtools.renderer.SchemaRenderer;
+import org.dbtools.schema.SqlitePragmas;
+import org.dbtools.schema.dbmappings.DatabaseMapping;
+import org.dbtools.util.GeneratedFileWriter;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
 public class GenConfig {
     private boolean injectionSupport = false;
     private boolean jsr305Support = false; // @Nullable / @Nonnull
@@ -8,6 +17,16 @@ public class GenConfig {
     private boolean includeDatabaseNameInPackage = false;
     private boolean sqlQueryBuilderSupport = false; // when creating queries, use SQLBuilder (from dbtools-query)
     private boolean rxJavaSupport = false; // when creating queries, use SQLBuilder (from dbtools-query)
+    private boolean parallelGeneration = false; // generate entities concurrently
+    private int parallelism = 0; // number of generation threads (0 = number of available processors)
+    private final GeneratedFileWriter fileWriter = new GeneratedFileWriter(); // writes (or skips unchanged) generated files of this configuration
+    private boolean dirtyFieldTracking = false; // setters mark fields dirty so updates only write changed columns
+    private String schemaSnapshotDir = null; // schema snapshots used to generate incremental migrations (null = no migrations)
+    private boolean prepopulatedDatabases = false; // databases are shipped as prepopulated assets (see PrepopulatedDatabaseBuilder)
+    private SqlitePragmas sqlitePragmas = new SqlitePragmas(); // default SQLite tuning (<database> attributes override)
+    private File typeMappingFile = null; // custom type mapping file (null = default mapping file from the classpath)
+    private boolean typeMappingFileResolved = false;
+    private final Map<String, DatabaseMapping> databaseMappings = new HashMap<>(); // type mappings read by this configuration (by vendor)
 
     public GenConfig() {
     }
@@ -67,4 +86,102 @@ public class GenConfig {
     public void setSqlQueryBuilderSupport(boolean sqlQueryBuilderSupport) {
         this.sqlQueryBuilderSupport = sqlQueryBuilderSupport;
     }
+
+    public boolean isParallelGeneration() {
+        return parallelGeneration;
+    }
+
+    public void setParallelGeneration(boolean parallelGeneration) {
+        this.parallelGeneration = parallelGeneration;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * do not rewrite generated files that have not changed
+     */
+    public boolean isWriteIfChanged() {
+        return fileWriter.isWriteIfChanged();
+    }
+
+    public void setWriteIfChanged(boolean writeIfChanged) {
+        fileWriter.setWriteIfChanged(writeIfChanged);
+    }
+
+    public GeneratedFileWriter getFileWriter() {
+        return fileWriter;
+    }
+
+    public boolean isDirtyFieldTracking() {
+        return dirtyFieldTracking;
+    }
+
+    public void setDirtyFieldTracking(boolean dirtyFieldTracking) {
+        this.dirtyFieldTracking = dirtyFieldTracking;
+    }
+
+    public String getSchemaSnapshotDir() {
+        return schemaSnapshotDir;
+    }
+
+    public void setSchemaSnapshotDir(String schemaSnapshotDir) {
+        this.schemaSnapshotDir = schemaSnapshotDir;
+    }
+
+    public boolean isPrepopulatedDatabases() {
+        return prepopulatedDatabases;
+    }
+
+    public void setPrepopulatedDatabases(boolean prepopulatedDatabases) {
+        this.prepopulatedDatabases = prepopulatedDatabases;
+    }
+
+    public SqlitePragmas getSqlitePragmas() {
+        return sqlitePragmas;
+    }
+
+    public void setSqlitePragmas(SqlitePragmas sqlitePragmas) {
+        this.sqlitePragmas = sqlitePragmas;
+    }
+
+    /**
+     * Custom type mapping file (located by SchemaRenderer.findXMLTypesFile(...) on first use unless it was set)
+     *
+     * @return mapping file or null if the default classpath mapping file is used
+     */
+    public synchronized File getTypeMappingFile() {
+        if (!typeMappingFileResolved) {
+            typeMappingFile = SchemaRenderer.findXMLTypesFile(SchemaRenderer.DEFAULT_TYPE_MAPPING_FILENAME);
+            typeMappingFileResolved = true;
+        }
+        return typeMappingFile;
+    }
+
+    /**
+     * Use an already located type mapping file instead of searching the working directory
+     *
+     * @param typeMappingFile mapping file or null to use the default classpath mapping file
+     */
+    public synchronized void setTypeMappingFile(File typeMappingFile) {
+        this.typeMappingFile = typeMappingFile;
+        typeMappingFileResolved = true;
+        databaseMappings.clear();
+    }
+
+    /**
+     * Type mapping of a database vendor.  The mapping file is located and read once per configuration (the object
+     * builders of a parallel generation share this configuration).
+     */
+    public synchronized DatabaseMapping getDatabaseMapping(String dbVendorName) {
+        if (!databaseMappings.containsKey(dbVendorName)) {
+            databaseMappings.put(dbVendorName, SchemaRenderer.readXMLTypes(GenConfig.class, getTypeMappingFile(), dbVendorName));
+        }
+        return databaseMappings.get(dbVendorName);
+    }
 }
@@ -0,0 +1,198 @@
+package org.dbtools.gen;
+
+import org.dbtools.renderer.SchemaRenderer;
+import org.dbtools.renderer.SqliteRenderer;
+import org.dbtools.schema.TableDependencyGraph;
+import org.dbtools.schema.dbmappings.DatabaseMapping;
+import org.dbtools.schema.schemafile.DatabaseSchema;
+import org.dbtools.schema.schemafile.SchemaDatabase;
+import org.dbtools.schema.schemafile.SchemaTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a ready to ship SQLite database file for each database of a schema (tables, indexes, enum rows and optional
+ * seed data) so an app can copy the file on first launch instead of creating the database on the device.
+ *
+ * The file is written with the sqlite JDBC driver (org.xerial:sqlite-jdbc must be on the classpath).  Views are not
+ * included (the CREATE_VIEW sql is maintained in the view record classes): the generated
+ * DatabaseBaseManager.createPrepopulatedViews(...) creates them once the file was copied on the device.
+ */
+public class PrepopulatedDatabaseBuilder {
+
+    public static final String ASSET_DIR = "databases";
+    public static final String SEED_FILE_EXTENSION = ".sql";
+
+    private final DatabaseMapping databaseMapping;
+
+    public PrepopulatedDatabaseBuilder() {
+        this(SchemaRenderer.readXMLTypes(PrepopulatedDatabaseBuilder.class, SchemaRenderer.DEFAULT_TYPE_MAPPING_FILENAME, SqliteRenderer.RENDERER_NAME));
+    }
+
+    public PrepopulatedDatabaseBuilder(DatabaseMapping databaseMapping) {
+        this.databaseMapping = databaseMapping;
+    }
+
+    /**
+     * @return asset path (relative to the assets directory) of the prepopulated database file
+     */
+    public static String getAssetPath(SchemaDatabase database) {
+        return ASSET_DIR + "/" + database.getName();
+    }
+
+    /**
+     * Build all databases of a schema into assetsDir/databases/[database name]
+     *
+     * @param seedDir directory of optional seed scripts ([database name].sql) that are run after the tables are created (may be null)
+     */
+    public void build(DatabaseSchema databaseSchema, File assetsDir, File seedDir) {
+        for (SchemaDatabase database : databaseSchema.getDatabases()) {
+            File seedFile = seedDir != null ? new File(seedDir, database.getName() + SEED_FILE_EXTENSION) : null;
+            build(database, new File(assetsDir, getAssetPath(database)), seedFile != null && seedFile.exists() ? seedFile : null);
+        }
+    }
+
+    public void build(SchemaDatabase database, File databaseFile, File seedFile) {
+        System.out.println("Building prepopulated database: " + databaseFile.getPath());
+
+        try {
+            File dir = databaseFile.getAbsoluteFile().getParentFile();
+            if (!dir.exists() && !dir.mkdirs()) {
+                throw new IOException("Could not create directory [" + dir.getPath() + "]");
+            }
+            Files.deleteIfExists(databaseFile.toPath());
+
+            List<String> statements = generateStatements(database);
+            if (seedFile != null) {
+                statements.addAll(splitStatements(new String(Files.readAllBytes(seedFile.toPath()), StandardCharsets.UTF_8)));
+            }
+
+            try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath())) {
+                connection.setAutoCommit(false);
+                try (Statement statement = connection.createStatement()) {
+                    for (String sql : statements) {
+                        statement.execute(sql);
+                    }
+                }
+                connection.commit();
+
+                // compact the file (outside of the transaction)
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("VACUUM");
+                }
+            }
+        } catch (IOException | SQLException e) {
+            throw new IllegalStateException("Failed to build prepopulated database [" + databaseFile.getPath() + "]", e);
+        }
+    }
+
+    /**
+     * @return statements that create the tables (referenced tables first), indexes and enum rows of a database and set
+     * the database version (PRAGMA user_version) to the database tables version
+     */
+    public List<String> generateStatements(SchemaDatabase database) {
+        List<String> statements = new ArrayList<>();
+        for (SchemaTable table : new TableDependencyGraph(database.getTables()).getTablesInCreateOrder()) {
+            statements.addAll(SqliteRenderer.generateTableStatements(table, databaseMapping));
+        }
+        statements.add("PRAGMA user_version = " + database.getVersion());
+        return statements;
+    }
+
+    /**
+     * Split a sql script (seed file) into statements (without trailing ';').  A ';' does not end a statement within a
+     * quoted string or identifier, a comment (removed) or the BEGIN ... END body of a CREATE TRIGGER.
+     */
+    public static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder statement = new StringBuilder();
+        List<String> firstWords = new ArrayList<>(); // detect CREATE [TEMP] TRIGGER
+        String lastWord = "";
+
+        int length = script.length();
+        int i = 0;
+        while (i < length) {
+            char c = script.charAt(i);
+            char next = i + 1 < length ? script.charAt(i + 1) : 0;
+
+            if (c == '\'' || c == '"' || c == '`' || c == '[') {
+                // quoted string or identifier (a doubled quote is an escaped quote)
+                char quote = c == '[' ? ']' : c;
+                int end = i + 1;
+                while (end < length) {
+                    if (script.charAt(end) == quote) {
+                        if (quote != ']' && end + 1 < length && script.charAt(end + 1) == quote) {
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    end++;
+                }
+                end = Math.min(end + 1, length);
+                statement.append(script, i, end);
+                lastWord = "";
+                i = end;
+            } else if (c == '-' && next == '-') {
+                int end = script.indexOf('\n', i);
+                i = end < 0 ? length : end;
+            } else if (c == '/' && next == '*') {
+                int end = script.indexOf("*/", i + 2);
+                statement.append(' ');
+                i = end < 0 ? length : end + 2;
+            } else if (Character.isLetterOrDigit(c) || c == '_') {
+                int end = i + 1;
+                while (end < length && (Character.isLetterOrDigit(script.charAt(end)) || script.charAt(end) == '_')) {
+                    end++;
+                }
+                lastWord = script.substring(i, end).toUpperCase();
+                if (firstWords.size() < 3) {
+                    firstWords.add(lastWord);
+                }
+                statement.append(script, i, end);
+                i = end;
+            } else if (c == ';' && (!isCreateTrigger(firstWords) || lastWord.equals("END"))) {
+                String sql = statement.toString().trim();
+                if (!sql.isEmpty()) {
+                    statements.add(sql);
+                }
+                statement.setLength(0);
+                firstWords.clear();
+                lastWord = "";
+                i++;
+            } else {
+                if (!Character.isWhitespace(c)) {
+                    lastWord = "";
+                }
+                statement.append(c);
+                i++;
+            }
+        }
+
+        String sql = statement.toString().trim();
+        if (!sql.isEmpty()) {
+            statements.add(sql);
+        }
+        return statements;
+    }
+
+    private static boolean isCreateTrigger(List<String> firstWords) {
+        if (firstWords.size() < 2 || !firstWords.get(0).equals("CREATE")) {
+            return false;
+        }
+        if (firstWords.get(1).equals("TEMP") || firstWords.get(1).equals("TEMPORARY")) {
+            return firstWords.size() > 2 && firstWords.get(2).equals("TRIGGER");
+        }
+        return firstWords.get(1).equals("TRIGGER");
+    }
+}
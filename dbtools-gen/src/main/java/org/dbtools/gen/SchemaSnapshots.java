@@ -0,0 +1,103 @@
+package org.dbtools.gen;
+
+import org.dbtools.schema.schemafile.DatabaseSchema;
+import org.dbtools.schema.schemafile.SchemaDatabase;
+import org.dbtools.util.GeneratedFileWriter;
+import org.simpleframework.xml.Serializer;
+import org.simpleframework.xml.core.Persister;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Schema snapshots: a copy of each database (snapshotDir/[database]-[version].xml) taken when a tables version is
+ * released.  Incremental migrations are generated from these snapshots to the current schema.
+ */
+public class SchemaSnapshots {
+
+    private final File snapshotDir;
+    private final GeneratedFileWriter fileWriter;
+
+    public SchemaSnapshots(String snapshotDir) {
+        this(snapshotDir, new GeneratedFileWriter());
+    }
+
+    public SchemaSnapshots(String snapshotDir, GeneratedFileWriter fileWriter) {
+        this.snapshotDir = new File(snapshotDir);
+        this.fileWriter = fileWriter;
+    }
+
+    public File getSnapshotFile(String databaseName, int version) {
+        return new File(snapshotDir, databaseName + "-" + version + ".xml");
+    }
+
+    /**
+     * Snapshot all databases of a schema (the snapshot of the current version of each database is replaced)
+     */
+    public void writeSnapshots(DatabaseSchema databaseSchema) {
+        for (SchemaDatabase database : databaseSchema.getDatabases()) {
+            writeSnapshot(database);
+        }
+    }
+
+    public void writeSnapshot(SchemaDatabase database) {
+        File snapshotFile = getSnapshotFile(database.getName(), database.getVersion());
+        System.out.println("Writing schema snapshot: " + snapshotFile.getPath());
+
+        try {
+            if (!snapshotDir.exists() && !snapshotDir.mkdirs()) {
+                throw new IOException("Could not create directory [" + snapshotDir.getPath() + "]");
+            }
+
+            StringWriter snapshot = new StringWriter();
+            Serializer serializer = new Persister();
+            serializer.write(database, snapshot);
+            fileWriter.write(snapshotFile, snapshot.toString());
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to write schema snapshot [" + snapshotFile.getPath() + "]", e);
+        }
+    }
+
+    /**
+     * @return snapshots of a database older than the given version (by version)
+     */
+    public SortedMap<Integer, SchemaDatabase> readSnapshots(String databaseName, int beforeVersion) {
+        SortedMap<Integer, SchemaDatabase> snapshots = new TreeMap<>();
+
+        File[] files = snapshotDir.listFiles();
+        if (files == null) {
+            return snapshots;
+        }
+
+        Pattern snapshotFilenamePattern = Pattern.compile(Pattern.quote(databaseName) + "-(\\d+)\\.xml");
+        for (File file : files) {
+            Matcher matcher = snapshotFilenamePattern.matcher(file.getName());
+            if (!matcher.matches()) {
+                continue;
+            }
+
+            int version = Integer.parseInt(matcher.group(1));
+            if (version < beforeVersion) {
+                snapshots.put(version, readSnapshot(file));
+            } else if (version > beforeVersion) {
+                System.out.println("WARNING: Schema snapshot [" + file.getName() + "] is newer than database [" + databaseName + "] version " + beforeVersion + "... ignoring");
+            }
+        }
+
+        return snapshots;
+    }
+
+    private SchemaDatabase readSnapshot(File file) {
+        try {
+            Serializer serializer = new Persister();
+            return serializer.read(SchemaDatabase.class, file);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to read schema snapshot [" + file.getPath() + "]", e);
+        }
+    }
+}
@@ -16,16 +16,21 @@ import org.dbtools.codegen.java.JavaMethod;
 import org.dbtools.codegen.java.JavaVariable;
 import org.dbtools.gen.AnnotationConsts;
 import org.dbtools.gen.GenConfig;
+import org.dbtools.schema.ForeignKeyType;
 import org.dbtools.schema.schemafile.SchemaEntity;
 import org.dbtools.schema.schemafile.SchemaEntityType;
 import org.dbtools.schema.schemafile.SchemaTable;
+import org.dbtools.schema.schemafile.SchemaTableField;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * @author Jeff
  */
 public class AndroidBaseManagerRenderer {
+    private static final String TAB = JavaClass.getTab();
 
     private JavaClass myClass;
     private GenConfig genConfig;
@@ -126,6 +131,16 @@ public class AndroidBaseManagerRenderer {
                 addMethodAnnotations(AnnotationConsts.NONNULL, myClass.addMethod(Access.PUBLIC, "String", "getCreateSql", "return " + recordConstClassName + ".CREATE_TABLE;"));
                 addMethodAnnotations(AnnotationConsts.NONNULL, myClass.addMethod(Access.PUBLIC, "String", "getInsertSql", "return " + recordConstClassName + ".INSERT_STATEMENT;"));
                 addMethodAnnotations(AnnotationConsts.NONNULL, myClass.addMethod(Access.PUBLIC, "String", "getUpdateSql", "return " + recordConstClassName + ".UPDATE_STATEMENT;"));
+
+                addForeignKeyFinderMethods((SchemaTable) entity, recordClassName, recordConstClassName);
+
+                if (!((SchemaTable) entity).isReadonly()) {
+                    addBatchMethods(recordClassName, recordConstClassName, generatedEntityInfo.isPrimaryKeyAdded(), generatedEntityInfo.isRowIdPrimaryKey(), generatedEntityInfo.isUpsertAdded());
+
+                    if (genConfig.isDirtyFieldTracking() && generatedEntityInfo.isPrimaryKeyAdded()) {
+                        addDirtyUpdateMethods(recordClassName, recordConstClassName);
+                    }
+                }
                 break;
             case VIEW:
                 addMethodAnnotations(AnnotationConsts.NONNULL, myClass.addMethod(Access.PUBLIC, "String", "getPrimaryKey", "return null;"));
@@ -148,6 +163,258 @@ public class AndroidBaseManagerRenderer {
         }
     }
 
+    /**
+     * insertAll(...) / updateAll(...) / upsertAll(...): compile the INSERT / UPDATE / UPSERT statement once, rebind it for
+     * each record and commit every batchSize records in its own transaction.
+     */
+    private void addBatchMethods(String recordClassName, String recordConstClassName, boolean primaryKeyAdded, boolean rowIdPrimaryKey, boolean upsertAdded) {
+        myClass.addImport("java.util.Iterator");
+        myClass.addImport("org.dbtools.android.domain.database.statement.StatementWrapper");
+
+        JavaVariable batchSizeConst = myClass.addConstant("int", "DEFAULT_BATCH_SIZE", "500");
+        batchSizeConst.setAccess(Access.PUBLIC);
+
+        String insertRecordContent = "long rowId = statement.executeInsert();\n";
+        insertRecordContent += "if (rowId != -1) {\n";
+        if (rowIdPrimaryKey) {
+            // only an INTEGER PRIMARY KEY is the rowid (natural keys are bound by the record, WITHOUT ROWID tables have no rowid)
+            insertRecordContent += TAB + "record.setPrimaryKeyId(rowId);\n";
+        }
+        insertRecordContent += TAB + "count++;\n";
+        insertRecordContent += "}\n";
+        addBatchMethod("insertAll", recordClassName, recordConstClassName + ".INSERT_STATEMENT", "bindInsertStatement", insertRecordContent);
+
+        if (primaryKeyAdded) {
+            addBatchMethod("updateAll", recordClassName, recordConstClassName + ".UPDATE_STATEMENT", "bindUpdateStatement", "count += statement.executeUpdateDelete();\n");
+        }
+
+        if (upsertAdded) {
+            // the rowid of an updated row is not reported back, so only the number of changed rows is counted
+            addBatchMethod("upsertAll", recordClassName, recordConstClassName + ".UPSERT_STATEMENT", "bindUpsertStatement", "count += statement.executeUpdateDelete();\n");
+
+            JavaVariable recordParam = new JavaVariable(recordClassName, "record");
+            JavaVariable databaseNameParam = new JavaVariable("String", "databaseName");
+            if (genConfig.isJsr305Support()) {
+                recordParam.addAnnotation(AnnotationConsts.NONNULL);
+                databaseNameParam.addAnnotation(AnnotationConsts.NONNULL);
+            }
+            myClass.addImport("java.util.Collections");
+            myClass.addMethod(Access.PUBLIC, "boolean", "upsert", Arrays.asList(recordParam), "return upsert(getDatabaseName(), record);");
+            myClass.addMethod(Access.PUBLIC, "boolean", "upsert", Arrays.asList(databaseNameParam, recordParam), "return upsertAll(databaseName, Collections.singletonList(record).iterator(), 1) > 0;");
+        }
+    }
+
+    private void addBatchMethod(String methodName, String recordClassName, String sql, String bindMethodName, String executeContent) {
+        JavaVariable recordsIterableParam = new JavaVariable("Iterable<" + recordClassName + ">", "records");
+        JavaVariable recordsParam = new JavaVariable("Iterator<" + recordClassName + ">", "records");
+        JavaVariable databaseNameParam = new JavaVariable("String", "databaseName");
+        if (genConfig.isJsr305Support()) {
+            recordsIterableParam.addAnnotation(AnnotationConsts.NONNULL);
+            recordsParam.addAnnotation(AnnotationConsts.NONNULL);
+            databaseNameParam.addAnnotation(AnnotationConsts.NONNULL);
+        }
+
+        myClass.addMethod(Access.PUBLIC, "int", methodName, Arrays.asList(recordsIterableParam), "return " + methodName + "(getDatabaseName(), records.iterator(), DEFAULT_BATCH_SIZE);");
+
+        StringBuilder content = new StringBuilder();
+        content.append("if (batchSize < 1) {\n");
+        content.append(TAB).append("throw new IllegalArgumentException(\"batchSize must be greater than 0\");\n");
+        content.append("}\n\n");
+        content.append("int count = 0;\n");
+        content.append("DatabaseWrapper database = getWritableDatabase(databaseName);\n");
+        content.append("StatementWrapper statement = database.compileStatement(").append(sql).append(");\n");
+        content.append("try {\n");
+        content.append(TAB).append("while (records.hasNext()) {\n");
+        content.append(TAB).append(TAB).append("database.beginTransaction();\n");
+        content.append(TAB).append(TAB).append("try {\n");
+        content.append(TAB).append(TAB).append(TAB).append("for (int i = 0; i < batchSize && records.hasNext(); i++) {\n");
+        String recordTab = TAB + TAB + TAB + TAB;
+        content.append(recordTab).append(recordClassName).append(" record = records.next();\n");
+        content.append(recordTab).append("statement.clearBindings();\n");
+        content.append(recordTab).append("record.").append(bindMethodName).append("(statement);\n");
+        for (String line : executeContent.split("\n")) {
+            content.append(recordTab).append(line).append("\n");
+        }
+        content.append(TAB).append(TAB).append(TAB).append("}\n");
+        content.append(TAB).append(TAB).append(TAB).append("database.setTransactionSuccessful();\n");
+        content.append(TAB).append(TAB).append("} finally {\n");
+        content.append(TAB).append(TAB).append(TAB).append("database.endTransaction();\n");
+        content.append(TAB).append(TAB).append("}\n");
+        content.append(TAB).append("}\n");
+        content.append("} finally {\n");
+        content.append(TAB).append("statement.close();\n");
+        content.append("}\n\n");
+        content.append("return count;");
+
+        myClass.addMethod(Access.PUBLIC, "int", methodName, Arrays.asList(databaseNameParam, recordsParam, new JavaVariable("int", "batchSize")), content.toString());
+    }
+
+    /**
+     * updateDirty(...): update only the dirty columns of a record.  Compiled statements are cached (per dirty field set)
+     * for the most recently used database.
+     */
+    private void addDirtyUpdateMethods(String recordClassName, String recordConstClassName) {
+        myClass.addImport("java.util.BitSet");
+        myClass.addImport("java.util.LinkedHashMap");
+        myClass.addImport("java.util.Map");
+
+        JavaVariable cacheSizeConst = myClass.addConstant("int", "DIRTY_UPDATE_STATEMENT_CACHE_SIZE", "16");
+        cacheSizeConst.setAccess(Access.PRIVATE);
+
+        JavaVariable databaseVar = new JavaVariable("DatabaseWrapper", "dirtyUpdateDatabase");
+        databaseVar.setAccess(Access.PRIVATE);
+        myClass.addVariable(databaseVar);
+
+        String statementsDefaultValue = "new LinkedHashMap<BitSet, StatementWrapper>(DIRTY_UPDATE_STATEMENT_CACHE_SIZE, 0.75f, true) {\n";
+        statementsDefaultValue += TAB + TAB + "@Override\n";
+        statementsDefaultValue += TAB + TAB + "protected boolean removeEldestEntry(Map.Entry<BitSet, StatementWrapper> eldest) {\n";
+        statementsDefaultValue += TAB + TAB + TAB + "if (size() > DIRTY_UPDATE_STATEMENT_CACHE_SIZE) {\n";
+        statementsDefaultValue += TAB + TAB + TAB + TAB + "eldest.getValue().close();\n";
+        statementsDefaultValue += TAB + TAB + TAB + TAB + "return true;\n";
+        statementsDefaultValue += TAB + TAB + TAB + "}\n";
+        statementsDefaultValue += TAB + TAB + TAB + "return false;\n";
+        statementsDefaultValue += TAB + TAB + "}\n";
+        statementsDefaultValue += TAB + "}";
+        JavaVariable statementsVar = new JavaVariable("Map<BitSet, StatementWrapper>", "dirtyUpdateStatements");
+        statementsVar.setAccess(Access.PRIVATE);
+        statementsVar.setFinal(true);
+        statementsVar.setDefaultValue(statementsDefaultValue, false);
+        myClass.addVariable(statementsVar);
+
+        JavaVariable recordParam = new JavaVariable(recordClassName, "record");
+        JavaVariable databaseNameParam = new JavaVariable("String", "databaseName");
+        if (genConfig.isJsr305Support()) {
+            recordParam.addAnnotation(AnnotationConsts.NONNULL);
+            databaseNameParam.addAnnotation(AnnotationConsts.NONNULL);
+        }
+
+        myClass.addMethod(Access.PUBLIC, "int", "updateDirty", Arrays.asList(recordParam), "return updateDirty(getDatabaseName(), record);");
+
+        StringBuilder content = new StringBuilder();
+        content.append("if (!record.isDirty()) {\n");
+        content.append(TAB).append("return 0;\n");
+        content.append("}\n\n");
+        content.append("DatabaseWrapper database = getWritableDatabase(databaseName);\n");
+        content.append("if (database != dirtyUpdateDatabase) {\n");
+        content.append(TAB).append("clearDirtyUpdateStatements();\n");
+        content.append(TAB).append("dirtyUpdateDatabase = database;\n");
+        content.append("}\n\n");
+        content.append("BitSet dirtyFields = record.getDirtyFields();\n");
+        content.append("StatementWrapper statement = dirtyUpdateStatements.get(dirtyFields);\n");
+        content.append("if (statement == null) {\n");
+        content.append(TAB).append("statement = database.compileStatement(").append(recordConstClassName).append(".createDirtyUpdateStatement(dirtyFields));\n");
+        content.append(TAB).append("dirtyUpdateStatements.put(dirtyFields, statement);\n");
+        content.append("}\n\n");
+        content.append("statement.clearBindings();\n");
+        content.append("record.bindDirtyUpdateStatement(statement);\n");
+        content.append("int count = statement.executeUpdateDelete();\n");
+        content.append("record.clearDirtyFields();\n");
+        content.append("return count;");
+        myClass.addMethod(Access.PUBLIC, "int", "updateDirty", Arrays.asList(databaseNameParam, recordParam), content.toString()).setSynchronized(true);
+
+        String clearContent = "for (StatementWrapper statement : dirtyUpdateStatements.values()) {\n";
+        clearContent += TAB + "statement.close();\n";
+        clearContent += "}\n";
+        clearContent += "dirtyUpdateStatements.clear();\n";
+        clearContent += "dirtyUpdateDatabase = null;";
+        myClass.addMethod(Access.PUBLIC, "void", "clearDirtyUpdateStatements", clearContent).setSynchronized(true);
+    }
+
+    /**
+     * Foreign key fields that get findAllBy[Fk](...) / findAllBy[Fk]In(...) finders (plain integer foreign key columns).
+     * TINYINT is not included: it is a boolean in the records.
+     */
+    public static List<SchemaTableField> getFinderForeignKeyFields(SchemaTable table) {
+        List<SchemaTableField> finderFields = new ArrayList<>();
+        for (SchemaTableField field : table.getForeignKeyFields()) {
+            if (field.getForeignKeyType() != ForeignKeyType.IGNORE || field.isPrimaryKey()) {
+                continue;
+            }
+
+            switch (field.getJdbcDataType()) {
+                case BIGINT:
+                case INTEGER:
+                case SMALLINT:
+                    finderFields.add(field);
+                    break;
+                default:
+            }
+        }
+        return finderFields;
+    }
+
+    /**
+     * findAllBy[Fk](id) / findAllBy[Fk]In(long[] ids): load the records that reference one (or many) parent records.  The
+     * IN variant queries at most MAX_IN_LIST_SIZE ids at a time (SQLite bound variable limit) and groups the records by
+     * parent id.  The records are read with the inherited findAllByRawQuery(...).
+     */
+    private void addForeignKeyFinderMethods(SchemaTable table, String recordClassName, String recordConstClassName) {
+        List<SchemaTableField> finderFields = getFinderForeignKeyFields(table);
+        if (finderFields.isEmpty()) {
+            return;
+        }
+
+        myClass.addImport("android.util.LongSparseArray");
+        myClass.addImport("java.util.ArrayList");
+        myClass.addImport("java.util.List");
+
+        JavaVariable maxInListSizeConst = myClass.addConstant("int", "MAX_IN_LIST_SIZE", "999");
+        maxInListSizeConst.setAccess(Access.PUBLIC);
+
+        JavaVariable databaseNameParam = new JavaVariable("String", "databaseName");
+        if (genConfig.isJsr305Support()) {
+            databaseNameParam.addAnnotation(AnnotationConsts.NONNULL);
+        }
+
+        for (SchemaTableField field : finderFields) {
+            String fieldNameJavaStyle = field.getName(true);
+            String methodName = "findAllBy" + JavaVariable.createBeanMethodName(fieldNameJavaStyle);
+            String idsName = fieldNameJavaStyle + "s";
+            String column = recordConstClassName + ".C_" + JavaClass.formatConstant(fieldNameJavaStyle);
+            String selectSql = "\"SELECT * FROM \" + " + recordConstClassName + ".TABLE + \" WHERE \" + " + column;
+
+            // findAllBy[Fk](id)
+            JavaVariable idParam = new JavaVariable("long", fieldNameJavaStyle);
+            addMethodAnnotations(AnnotationConsts.NONNULL, myClass.addMethod(Access.PUBLIC, "List<" + recordClassName + ">", methodName, Arrays.asList(idParam),
+                    "return " + methodName + "(getDatabaseName(), " + fieldNameJavaStyle + ");"));
+            addMethodAnnotations(AnnotationConsts.NONNULL, myClass.addMethod(Access.PUBLIC, "List<" + recordClassName + ">", methodName, Arrays.asList(databaseNameParam, idParam),
+                    "return findAllByRawQuery(databaseName, " + selectSql + " + \" = ?\", new String[]{String.valueOf(" + fieldNameJavaStyle + ")});"));
+
+            // findAllBy[Fk]In(ids)
+            JavaVariable idsParam = new JavaVariable("long[]", idsName);
+            if (genConfig.isJsr305Support()) {
+                idsParam.addAnnotation(AnnotationConsts.NONNULL);
+            }
+            String mapType = "LongSparseArray<List<" + recordClassName + ">>";
+            addMethodAnnotations(AnnotationConsts.NONNULL, myClass.addMethod(Access.PUBLIC, mapType, methodName + "In", Arrays.asList(idsParam),
+                    "return " + methodName + "In(getDatabaseName(), " + idsName + ");"));
+
+            StringBuilder content = new StringBuilder();
+            content.append(mapType).append(" recordsById = new LongSparseArray<>();\n");
+            content.append("for (int start = 0; start < ").append(idsName).append(".length; start += MAX_IN_LIST_SIZE) {\n");
+            content.append(TAB).append("int end = Math.min(start + MAX_IN_LIST_SIZE, ").append(idsName).append(".length);\n");
+            content.append(TAB).append("StringBuilder sql = new StringBuilder(").append(selectSql).append(").append(\" IN (\");\n");
+            content.append(TAB).append("String[] selectionArgs = new String[end - start];\n");
+            content.append(TAB).append("for (int i = start; i < end; i++) {\n");
+            content.append(TAB).append(TAB).append("sql.append(i > start ? \",?\" : \"?\");\n");
+            content.append(TAB).append(TAB).append("selectionArgs[i - start] = String.valueOf(").append(idsName).append("[i]);\n");
+            content.append(TAB).append("}\n");
+            content.append(TAB).append("sql.append(')');\n\n");
+            content.append(TAB).append("for (").append(recordClassName).append(" record : findAllByRawQuery(databaseName, sql.toString(), selectionArgs)) {\n");
+            content.append(TAB).append(TAB).append("long id = record.").append(JavaVariable.getGetterMethodName("long", fieldNameJavaStyle)).append("();\n");
+            content.append(TAB).append(TAB).append("List<").append(recordClassName).append("> records = recordsById.get(id);\n");
+            content.append(TAB).append(TAB).append("if (records == null) {\n");
+            content.append(TAB).append(TAB).append(TAB).append("records = new ArrayList<>();\n");
+            content.append(TAB).append(TAB).append(TAB).append("recordsById.put(id, records);\n");
+            content.append(TAB).append(TAB).append("}\n");
+            content.append(TAB).append(TAB).append("records.add(record);\n");
+            content.append(TAB).append("}\n");
+            content.append("}\n");
+            content.append("return recordsById;");
+            addMethodAnnotations(AnnotationConsts.NONNULL, myClass.addMethod(Access.PUBLIC, mapType, methodName + "In", Arrays.asList(databaseNameParam, idsParam), content.toString()));
+        }
+    }
+
     private void addMethodAnnotations(String annotation, JavaMethod javaMethod) {
         if (genConfig.isJsr305Support()) {
             javaMethod.addAnnotation(annotation);
@@ -160,7 +427,7 @@ public class AndroidBaseManagerRenderer {
     }
 
     public void writeToFile(String outDir) {
-        myClass.writeToDisk(outDir);
+        myClass.writeToDisk(outDir, true, genConfig.getFileWriter());
     }
 
     public void setGenConfig(GenConfig genConfig) {
@@ -20,7 +20,9 @@ import org.dbtools.schema.schemafile.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Jeff
@@ -35,6 +37,7 @@ public class AndroidBaseRecordRenderer {
     private JavaClass constClass;
     private JavaClass recordClass;
     private List<JavaEnum> enumerationClasses = new ArrayList<>();
+    private Set<String> enumValuesConstants = new HashSet<>();
     private StringBuilder cleanupOrphansContent;
     private boolean useInnerEnums = true;
     private GenConfig genConfig;
@@ -53,6 +56,7 @@ public class AndroidBaseRecordRenderer {
         // reset data
         bindInsertStatementContentIndex = 1;
         bindUpdateStatementContentIndex = 1;
+        enumValuesConstants.clear();
 
         boolean enumTable = entity.isEnumerationTable();
         SchemaEntityType entityType = entity.getType();
@@ -106,6 +110,11 @@ public class AndroidBaseRecordRenderer {
         String setContentValuesContent = "";
         String setContentCursorContent = "";
 
+        // dirty field tracking (setters mark fields dirty so an update only writes the changed columns)
+        boolean dirtyFieldTracking = genConfig.isDirtyFieldTracking() && entityType == SchemaEntityType.TABLE && !recordClass.isEnum();
+        List<String> dirtyUpdateColumns = new ArrayList<>();
+        StringBuilder bindDirtyUpdateStatementContent = new StringBuilder("BitSet dirtyFields = getDirtyFields();\nint bindIndex = 1;\n");
+
         List<String> columns = new ArrayList<>();
         for (SchemaField field : entity.getFields()) {
             boolean primaryKey = field.isPrimaryKey();
@@ -211,41 +220,25 @@ public class AndroidBaseRecordRenderer {
                 valuesContent.append(TAB).append(value).append(",\n");
 
                 // bindStatementContent
-                switch (fieldType) {
-                    case BOOLEAN:
-                    case BIT:
-                    case TINYINT:
-                    case SMALLINT:
-                    case INTEGER:
-                    case BIGINT:
-                    case NUMERIC:
-                    case BIGINTEGER:
-                    case TIMESTAMP:
-                        addBindInsert(bindInsertStatementContent, "bindLong", fieldNameJavaStyle, value, primitiveField, notNullField || field.isEnumeration());
-                        addBindUpdate(bindUpdateStatementContent, "bindLong", fieldNameJavaStyle, value, primitiveField, notNullField || field.isEnumeration());
-                        break;
-                    case REAL:
-                    case FLOAT:
-                    case DOUBLE:
-                    case DECIMAL:
-                    case BIGDECIMAL:
-                        addBindInsert(bindInsertStatementContent, "bindDouble", fieldNameJavaStyle, value, primitiveField, notNullField);
-                        addBindUpdate(bindUpdateStatementContent, "bindDouble", fieldNameJavaStyle, value, primitiveField, notNullField);
-                        break;
-                    case CHAR:
-                    case VARCHAR:
-                    case LONGVARCHAR:
-                    case CLOB:
-                    case DATETIME:
-                    case DATE:
-                    case TIME:
-                        addBindInsert(bindInsertStatementContent, "bindString", fieldNameJavaStyle, value, primitiveField, notNullField);
-                        addBindUpdate(bindUpdateStatementContent, "bindString", fieldNameJavaStyle, value, primitiveField, notNullField);
-                        break;
-                    case BLOB:
-                        addBindInsert(bindInsertStatementContent, "bindBlob", fieldNameJavaStyle, value, primitiveField, notNullField);
-                        addBindUpdate(bindUpdateStatementContent, "bindBlob", fieldNameJavaStyle, value, primitiveField, notNullField);
-                        break;
+                String bindMethodName = getBindMethodName(fieldType);
+                boolean bindNotNull = notNullField || (field.isEnumeration() && "bindLong".equals(bindMethodName));
+
+                if (bindMethodName != null) {
+                    addBindInsert(bindInsertStatementContent, bindMethodName, fieldNameJavaStyle, value, primitiveField, bindNotNull);
+                    addBindUpdate(bindUpdateStatementContent, bindMethodName, fieldNameJavaStyle, value, primitiveField, bindNotNull);
+
+                    if (dirtyFieldTracking) {
+                        int dirtyFieldIndex = dirtyUpdateColumns.size();
+                        dirtyUpdateColumns.add(fieldColumn);
+                        newVariable.setPostSetterCode("\nmarkDirty(" + dirtyFieldIndex + ");");
+
+                        StringBuilder bindContent = new StringBuilder();
+                        addBind(bindContent, "bindIndex", bindMethodName, fieldNameJavaStyle, value, primitiveField, bindNotNull);
+                        bindDirtyUpdateStatementContent.append("if (dirtyFields.get(").append(dirtyFieldIndex).append(")) {\n");
+                        bindDirtyUpdateStatementContent.append(TAB).append(bindContent.toString().trim().replace("\n", "\n" + TAB)).append("\n");
+                        bindDirtyUpdateStatementContent.append(TAB).append("bindIndex++;\n");
+                        bindDirtyUpdateStatementContent.append("}\n");
+                    }
                 }
 
                 setContentValuesContent += fieldNameJavaStyle + " = " + getContentValuesGetterMethod(field, fullFieldColumn, newVariable) + ";\n";
@@ -254,18 +247,42 @@ public class AndroidBaseRecordRenderer {
                 valuesContent.append(TAB).append(fieldNameJavaStyle).append(",\n");
             }
 
-            setContentCursorContent += fieldNameJavaStyle + " = " + getContentValuesCursorGetterMethod(field, fullFieldColumn, newVariable) + ";\n";
+            // column index resolved once per cursor (position in ALL_COLUMNS)
+            String columnIndex = "columnIndexes[" + (columns.size() - 1) + "]";
+            setContentCursorContent += fieldNameJavaStyle + " = " + getContentValuesCursorGetterMethod(field, columnIndex, newVariable) + ";\n";
 
             // static getter method that takes a Cursor parameter
             constClass.addImport("android.database.Cursor");
-            JavaMethod cursorGetter = constClass.addMethod(Access.PUBLIC, newVariable.getDataType(), newVariable.getGetterMethodName(), "return " + getContentValuesCursorGetterMethod(field, fieldColumn, newVariable) + ";");
+            JavaMethod cursorGetter = constClass.addMethod(Access.PUBLIC, newVariable.getDataType(), newVariable.getGetterMethodName(), "return " + getContentValuesCursorGetterMethod(field, "cursor.getColumnIndexOrThrow(" + fieldColumn + ")", newVariable) + ";");
             cursorGetter.setStatic(true);
             cursorGetter.setParameters(Arrays.asList(new JavaVariable("Cursor", "cursor")));
         }
 
         // bind the primary key value LAST (it is the where clause part of the update code)
         if (primaryKeyField != null) {
-            addBindUpdate(bindUpdateStatementContent, "bindLong", primaryKeyField.getName(true), primaryKeyField.getName(true), primaryKeyField.getJdbcDataType().isJavaTypePrimitive(), primaryKeyField.isNotNull());
+            // natural keys (WITHOUT ROWID tables) are not always integers
+            String primaryKeyBindMethodName = getBindMethodName(primaryKeyField.getJdbcDataType());
+            if (primaryKeyBindMethodName == null) {
+                primaryKeyBindMethodName = "bindLong";
+            }
+            addBindUpdate(bindUpdateStatementContent, primaryKeyBindMethodName, primaryKeyField.getName(true), primaryKeyField.getName(true), primaryKeyField.getJdbcDataType().isJavaTypePrimitive(), primaryKeyField.isNotNull());
+            addBind(bindDirtyUpdateStatementContent, "bindIndex", primaryKeyBindMethodName, primaryKeyField.getName(true), primaryKeyField.getName(true), primaryKeyField.getJdbcDataType().isJavaTypePrimitive(), primaryKeyField.isNotNull());
+        }
+
+        if (dirtyFieldTracking) {
+            addDirtyFieldTracking(constClassName, dirtyUpdateColumns, primaryKeyField != null ? bindDirtyUpdateStatementContent.toString() : null);
+            setContentCursorContent += "clearDirtyFields();\n";
+
+            // a full insert / update writes every column
+            bindInsertStatementContent.append("clearDirtyFields();\n");
+            bindUpdateStatementContent.append("clearDirtyFields();\n");
+
+            // the setters mark every field of the copy dirty: the copy has the same changes as this record
+            copyContent.append("copy.clearDirtyFields();\n");
+            copyContent.append("BitSet dirtyFields = getDirtyFields();\n");
+            copyContent.append("for (int i = dirtyFields.nextSetBit(0); i >= 0; i = dirtyFields.nextSetBit(i + 1)) {\n");
+            copyContent.append(TAB).append("copy.markDirty(i);\n");
+            copyContent.append("}\n");
         }
 
         if (!primaryKeyAdded && (entityType == SchemaEntityType.VIEW || entityType == SchemaEntityType.QUERY)) {
@@ -277,10 +294,12 @@ public class AndroidBaseRecordRenderer {
         }
 
         // SchemaDatabase variables
+        boolean upsertAdded = false;
         if (entityType == SchemaEntityType.TABLE) {
             // CREATE TABLE
             SchemaTable table = (SchemaTable) entity;
             String createTable = SqliteRenderer.generateTableSchema(table, databaseMapping);
+            createTable = createTable.replace("\\", "\\\\").replace("\"", "\\\""); // index WHERE predicates may contain quotes
             createTable = createTable.replace("\n", "\" + \n" + TAB + TAB + "\"");
             createTable = createTable.replace("\t", ""); // remove tabs
             constClass.addConstant("String", "CREATE_TABLE", createTable);
@@ -321,6 +340,13 @@ public class AndroidBaseRecordRenderer {
             // add to class
             constClass.addConstant("String", "INSERT_STATEMENT", insertStatement.toString());
             constClass.addConstant("String", "UPDATE_STATEMENT", updateStatement.toString());
+
+            // UPSERT (same columns as INSERT)
+            String upsertStatement = SqliteRenderer.generateUpsertStatement(table);
+            if (upsertStatement != null) {
+                constClass.addConstant("String", "UPSERT_STATEMENT", upsertStatement);
+                upsertAdded = true;
+            }
         }
 
         // Content values
@@ -357,6 +383,9 @@ public class AndroidBaseRecordRenderer {
             allColumnsFullVar.setAccess(Access.PUBLIC);
             recordClass.addMethod(Access.PUBLIC, "String[]", "getAllColumnsFull", "return " + constClassName + "." + ALL_COLUMNS_FULL_VAR_NAME + ".clone();");
 
+            // column indexes
+            addColumnIndexes(columns.size());
+
             List<JavaVariable> getCValuesParams = new ArrayList<>();
             getCValuesParams.add(new JavaVariable("DBToolsContentValues", "values"));
             recordClass.addMethod(Access.PUBLIC, "void", "getContentValues", getCValuesParams, contentValuesContent.toString()).addAnnotation("Override");
@@ -376,6 +405,9 @@ public class AndroidBaseRecordRenderer {
             bindStatementParams.add(new JavaVariable("StatementWrapper", "statement"));
             recordClass.addMethod(Access.PUBLIC, "void", "bindInsertStatement", bindStatementParams, bindInsertStatementContent.toString()).addAnnotation("Override");
             recordClass.addMethod(Access.PUBLIC, "void", "bindUpdateStatement", bindStatementParams, bindUpdateStatementContent.toString()).addAnnotation("Override");
+            if (upsertAdded) {
+                recordClass.addMethod(Access.PUBLIC, "void", "bindUpsertStatement", bindStatementParams, "bindInsertStatement(statement);");
+            }
 
             List<JavaVariable> setCValuesParams = new ArrayList<>();
             setCValuesParams.add(new JavaVariable("DBToolsContentValues", "values"));
@@ -383,6 +415,7 @@ public class AndroidBaseRecordRenderer {
 
             List<JavaVariable> setCCursorParams = new ArrayList<>();
             setCCursorParams.add(new JavaVariable("Cursor", "cursor"));
+            setContentCursorContent = "int[] columnIndexes = " + constClassName + ".getColumnIndexes(cursor);\n" + setContentCursorContent;
             recordClass.addMethod(Access.PUBLIC, "void", "setContent", setCCursorParams, setContentCursorContent).addAnnotation("Override");
         }
 
@@ -407,6 +440,8 @@ public class AndroidBaseRecordRenderer {
         }
 
         generatedEntityInfo.setPrimaryKeyAdded(primaryKeyAdded);
+        generatedEntityInfo.setRowIdPrimaryKey(primaryKeyField != null && primaryKeyField.isIncrement());
+        generatedEntityInfo.setUpsertAdded(upsertAdded);
         return generatedEntityInfo;
     }
 
@@ -488,7 +523,7 @@ public class AndroidBaseRecordRenderer {
      */
     private String getContentValuesGetterMethod(SchemaField field, String paramValue, JavaVariable newVariable) {
         if (field.isEnumeration()) {
-            return newVariable.getDataType() + ".values()[values.getAsInteger(" + paramValue + ")]";
+            return getEnumValuesConstant(field, newVariable.getDataType()) + "[values.getAsInteger(" + paramValue + ")]";
         }
 
         Class<?> type = field.getJavaClassType();
@@ -513,48 +548,171 @@ public class AndroidBaseRecordRenderer {
         }
     }
 
+    /**
+     * Dirty field tracking: setters set a bit (index in dirtyUpdateColumns) in a per-record BitSet.  The const class
+     * creates an UPDATE statement for only the dirty columns and the record binds only the dirty values (then the
+     * primary key).
+     *
+     * @param bindDirtyUpdateStatementContent content of bindDirtyUpdateStatement() (null if there is no primary key)
+     */
+    private void addDirtyFieldTracking(String constClassName, List<String> dirtyUpdateColumns, String bindDirtyUpdateStatementContent) {
+        recordClass.addImport("java.util.BitSet");
+
+        JavaVariable dirtyFieldsVar = new JavaVariable("BitSet", "dirtyFields");
+        dirtyFieldsVar.setAccess(Access.PRIVATE);
+        recordClass.addVariable(dirtyFieldsVar); // created on first change (records read from a cursor never allocate it)
+
+        String markDirtyContent = "if (dirtyFields == null) {\n";
+        markDirtyContent += TAB + "dirtyFields = new BitSet(" + dirtyUpdateColumns.size() + ");\n";
+        markDirtyContent += "}\n";
+        markDirtyContent += "dirtyFields.set(fieldIndex);";
+        recordClass.addMethod(Access.PROTECTED, "void", "markDirty", Arrays.asList(new JavaVariable("int", "fieldIndex")), markDirtyContent);
+        recordClass.addMethod(Access.PUBLIC, "boolean", "isDirty", "return dirtyFields != null && !dirtyFields.isEmpty();");
+        recordClass.addMethod(Access.PUBLIC, "BitSet", "getDirtyFields", "return dirtyFields != null ? (BitSet) dirtyFields.clone() : new BitSet();");
+        recordClass.addMethod(Access.PUBLIC, "void", "clearDirtyFields", "if (dirtyFields != null) {\n" + TAB + "dirtyFields.clear();\n}");
+
+        if (bindDirtyUpdateStatementContent == null) {
+            return;
+        }
+
+        recordClass.addMethod(Access.PUBLIC, "void", "bindDirtyUpdateStatement", Arrays.asList(new JavaVariable("StatementWrapper", "statement")), bindDirtyUpdateStatementContent);
+
+        // columns in dirty field index order
+        String dirtyUpdateColumnsDefaultValue = "new String[] {\n";
+        for (int i = 0; i < dirtyUpdateColumns.size(); i++) {
+            dirtyUpdateColumnsDefaultValue += (i > 0 ? ",\n" : "") + TAB + TAB + dirtyUpdateColumns.get(i);
+        }
+        dirtyUpdateColumnsDefaultValue += "}";
+        JavaVariable dirtyUpdateColumnsVar = constClass.addConstant("String[]", "DIRTY_UPDATE_COLUMNS", dirtyUpdateColumnsDefaultValue, false);
+        dirtyUpdateColumnsVar.setAccess(Access.PRIVATE);
+
+        constClass.addImport("java.util.BitSet");
+        String createDirtyUpdateContent = "StringBuilder sql = new StringBuilder(\"UPDATE \").append(TABLE).append(\" SET \");\n";
+        createDirtyUpdateContent += "boolean firstColumn = true;\n";
+        createDirtyUpdateContent += "for (int i = dirtyFields.nextSetBit(0); i >= 0; i = dirtyFields.nextSetBit(i + 1)) {\n";
+        createDirtyUpdateContent += TAB + "if (!firstColumn) {\n";
+        createDirtyUpdateContent += TAB + TAB + "sql.append(\", \");\n";
+        createDirtyUpdateContent += TAB + "}\n";
+        createDirtyUpdateContent += TAB + "sql.append(DIRTY_UPDATE_COLUMNS[i]).append(\"=?\");\n";
+        createDirtyUpdateContent += TAB + "firstColumn = false;\n";
+        createDirtyUpdateContent += "}\n";
+        createDirtyUpdateContent += "sql.append(\" WHERE \").append(" + PRIMARY_KEY_COLUMN + ").append(\" = ?\");\n";
+        createDirtyUpdateContent += "return sql.toString();";
+        JavaMethod createDirtyUpdateMethod = constClass.addMethod(Access.PUBLIC, "String", "createDirtyUpdateStatement", Arrays.asList(new JavaVariable("BitSet", "dirtyFields")), createDirtyUpdateContent);
+        createDirtyUpdateMethod.setStatic(true);
+    }
+
+    /**
+     * Adds getColumnIndexes(Cursor) to the const class.  Indexes of the ALL_COLUMNS columns are resolved once per cursor
+     * (cached by the identity of the cursor column names) instead of calling getColumnIndexOrThrow() for every column of
+     * every row.  If the cursor was opened with ALL_COLUMNS the positions are used directly.  A column that is missing
+     * from the cursor fails when the indexes are resolved, like the static cursor getters.
+     */
+    private void addColumnIndexes(int columnCount) {
+        String allColumnsIndexesDefaultValue = "new int[] {";
+        for (int i = 0; i < columnCount; i++) {
+            allColumnsIndexesDefaultValue += (i > 0 ? ", " : "") + i;
+        }
+        allColumnsIndexesDefaultValue += "}";
+
+        constClass.addImport("android.util.Pair");
+        constClass.addImport("java.util.Arrays");
+
+        JavaVariable allColumnsIndexesVar = constClass.addConstant("int[]", "ALL_COLUMNS_INDEXES", allColumnsIndexesDefaultValue, false);
+        allColumnsIndexesVar.setAccess(Access.PRIVATE);
+
+        JavaVariable lastColumnIndexesVar = new JavaVariable("Pair<String[], int[]>", "lastColumnIndexes");
+        lastColumnIndexesVar.setAccess(Access.PRIVATE);
+        lastColumnIndexesVar.setStatic(true);
+        lastColumnIndexesVar.setVolatile(true);
+        constClass.addVariable(lastColumnIndexesVar);
+
+        String getColumnIndexesContent = "String[] columnNames = cursor.getColumnNames();\n";
+        getColumnIndexesContent += "Pair<String[], int[]> columnIndexes = lastColumnIndexes;\n";
+        getColumnIndexesContent += "if (columnIndexes != null && columnIndexes.first == columnNames) {\n";
+        getColumnIndexesContent += TAB + "return columnIndexes.second;\n";
+        getColumnIndexesContent += "}\n\n";
+        getColumnIndexesContent += "int[] indexes = findColumnIndexes(cursor, columnNames);\n";
+        getColumnIndexesContent += "lastColumnIndexes = new Pair<>(columnNames, indexes);\n";
+        getColumnIndexesContent += "return indexes;";
+        JavaMethod getColumnIndexesMethod = constClass.addMethod(Access.PUBLIC, "int[]", "getColumnIndexes", Arrays.asList(new JavaVariable("Cursor", "cursor")), getColumnIndexesContent);
+        getColumnIndexesMethod.setStatic(true);
+
+        String findColumnIndexesContent = "if (Arrays.equals(columnNames, " + ALL_COLUMNS_VAR_NAME + ")) {\n";
+        findColumnIndexesContent += TAB + "return ALL_COLUMNS_INDEXES;\n";
+        findColumnIndexesContent += "}\n\n";
+        findColumnIndexesContent += "int[] indexes = new int[" + ALL_COLUMNS_VAR_NAME + ".length];\n";
+        findColumnIndexesContent += "for (int i = 0; i < " + ALL_COLUMNS_VAR_NAME + ".length; i++) {\n";
+        findColumnIndexesContent += TAB + "indexes[i] = cursor.getColumnIndexOrThrow(" + ALL_COLUMNS_VAR_NAME + "[i]);\n";
+        findColumnIndexesContent += "}\n";
+        findColumnIndexesContent += "return indexes;";
+        JavaMethod findColumnIndexesMethod = constClass.addMethod(Access.PRIVATE, "int[]", "findColumnIndexes", Arrays.asList(new JavaVariable("Cursor", "cursor"), new JavaVariable("String[]", "columnNames")), findColumnIndexesContent);
+        findColumnIndexesMethod.setStatic(true);
+    }
+
     /**
      * For method setContent(Cursor cursor).
+     *
+     * @param columnIndex expression that evaluates to the cursor column index
      */
-    private String getContentValuesCursorGetterMethod(SchemaField field, String paramValue, JavaVariable newVariable) {
+    private String getContentValuesCursorGetterMethod(SchemaField field, String columnIndex, JavaVariable newVariable) {
         if (field.isEnumeration()) {
-            return newVariable.getDataType() + ".values()[cursor.getInt(cursor.getColumnIndexOrThrow(" + paramValue + "))]";
+            return getEnumValuesConstant(field, newVariable.getDataType()) + "[cursor.getInt(" + columnIndex + ")]";
         }
 
         Class<?> type = field.getJavaClassType();
         if (type == int.class) {
-            return "cursor.getInt(cursor.getColumnIndexOrThrow(" + paramValue + "))";
+            return "cursor.getInt(" + columnIndex + ")";
         } else if (type == Integer.class) {
-            return "!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + ")) ? cursor.getInt(cursor.getColumnIndexOrThrow(" + paramValue + ")) : null";
+            return "!cursor.isNull(" + columnIndex + ") ? cursor.getInt(" + columnIndex + ") : null";
         } else if (type == String.class && field.isNotNull()) {
-            return "cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + "))";
+            return "cursor.getString(" + columnIndex + ")";
         } else if (type == String.class) {
-            return "!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + ")) ? cursor.getString(cursor.getColumnIndexOrThrow(" + paramValue + ")) : null";
+            return "!cursor.isNull(" + columnIndex + ") ? cursor.getString(" + columnIndex + ") : null";
         } else if (type == long.class) {
-            return "cursor.getLong(cursor.getColumnIndexOrThrow(" + paramValue + "))";
+            return "cursor.getLong(" + columnIndex + ")";
         } else if (type == Long.class) {
-            return "!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + ")) ? cursor.getLong(cursor.getColumnIndexOrThrow(" + paramValue + ")) : null";
+            return "!cursor.isNull(" + columnIndex + ") ? cursor.getLong(" + columnIndex + ") : null";
         } else if (type == boolean.class) {
-            return "cursor.getInt(cursor.getColumnIndexOrThrow(" + paramValue + ")) != 0 ? true : false";
+            return "cursor.getInt(" + columnIndex + ") != 0 ? true : false";
         } else if (type == Boolean.class) {
-            return "!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + ")) ? cursor.getInt(cursor.getColumnIndexOrThrow(" + paramValue + ")) != 0 ? true : false : null";
+            return "!cursor.isNull(" + columnIndex + ") ? cursor.getInt(" + columnIndex + ") != 0 ? true : false : null";
         } else if (type == Date.class) {
-            return genConfig.getDateType().getCursorDbStringToObjectMethod(field, paramValue, false);
+            return genConfig.getDateType().getCursorDbStringToObjectMethod(field, columnIndex, false);
         } else if (type == float.class) {
-            return "cursor.getFloat(cursor.getColumnIndexOrThrow(" + paramValue + "))";
+            return "cursor.getFloat(" + columnIndex + ")";
         } else if (type == Float.class) {
-            return "!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + ")) ? cursor.getFloat(cursor.getColumnIndexOrThrow(" + paramValue + ")) : null";
+            return "!cursor.isNull(" + columnIndex + ") ? cursor.getFloat(" + columnIndex + ") : null";
         } else if (type == double.class || type == Double.class) {
-            return "cursor.getDouble(cursor.getColumnIndexOrThrow(" + paramValue + "))";
+            return "cursor.getDouble(" + columnIndex + ")";
         } else if (type == Double.class) {
-            return "!cursor.isNull(cursor.getColumnIndexOrThrow(" + paramValue + ")) ? cursor.getDouble(cursor.getColumnIndexOrThrow(" + paramValue + ")) : null";
+            return "!cursor.isNull(" + columnIndex + ") ? cursor.getDouble(" + columnIndex + ") : null";
         } else if (type == byte[].class || type == Byte[].class) {
-            return "cursor.getBlob(cursor.getColumnIndexOrThrow(" + paramValue + "))";
+            return "cursor.getBlob(" + columnIndex + ")";
         } else {
             return "[[UNHANDLED FIELD TYPE: " + type + "]]";
         }
     }
 
+    /**
+     * Enum.values() clones the values array on every call.  Keep a single copy per enum field in the const class so
+     * converting an ordinal (for every row) does not allocate.  The constant is named after the field (enums from
+     * different packages may share a simple name).
+     *
+     * @return reference to the cached values array (ex: "IndividualConst.STATUS_VALUES")
+     */
+    private String getEnumValuesConstant(SchemaField field, String enumType) {
+        String constantName = JavaClass.formatConstant(field.getName(true)) + "_VALUES";
+
+        if (enumValuesConstants.add(constantName)) {
+            // package private: used by the record class (and must not be modified)
+            JavaVariable valuesVar = constClass.addConstant(enumType + "[]", constantName, enumType + ".values()", false);
+            valuesVar.setAccess(Access.DEFAULT_NONE);
+        }
+
+        return constClass.getName() + "." + constantName;
+    }
+
     private JavaVariable generateEnumeration(SchemaField field, String fieldNameJavaStyle, String packageName, SchemaDatabase database) {
         JavaVariable newVariable;
         if (field.getJdbcDataType().isNumberDataType()) {
@@ -711,7 +869,7 @@ public class AndroidBaseRecordRenderer {
         String TAB = JavaClass.getTab();
 
         // find any other tables that depend on this one (MANYTOONE) or other tables this table depends on (ONETOONE)
-        for (SchemaTable tmpTable : database.getTables()) {
+        for (SchemaTable tmpTable : database.getReferencingTables(entityName)) {
             List<SchemaTableField> fkFields = tmpTable.getForeignKeyFields(entityName);
 
             for (SchemaTableField fkField : fkFields) {
@@ -818,12 +976,52 @@ public class AndroidBaseRecordRenderer {
         bindInsertStatementContentIndex++;
     }
 
+    /**
+     * @return StatementWrapper bind method for a field type (null if the type can not be bound)
+     */
+    private static String getBindMethodName(SchemaFieldType fieldType) {
+        switch (fieldType) {
+            case BOOLEAN:
+            case BIT:
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case NUMERIC:
+            case BIGINTEGER:
+            case TIMESTAMP:
+                return "bindLong";
+            case REAL:
+            case FLOAT:
+            case DOUBLE:
+            case DECIMAL:
+            case BIGDECIMAL:
+                return "bindDouble";
+            case CHAR:
+            case VARCHAR:
+            case LONGVARCHAR:
+            case CLOB:
+            case DATETIME:
+            case DATE:
+            case TIME:
+                return "bindString";
+            case BLOB:
+                return "bindBlob";
+            default:
+                return null;
+        }
+    }
+
     private void addBindUpdate(StringBuilder bindStatementContent, String bindMethodName, String fieldNameJavaStyle, String value, boolean primitive, boolean notNull) {
         addBind(bindStatementContent, bindUpdateStatementContentIndex, bindMethodName, fieldNameJavaStyle, value, primitive, notNull);
         bindUpdateStatementContentIndex++;
     }
 
     private void addBind(StringBuilder bindStatementContent, int bindIndex, String bindMethodName, String fieldNameJavaStyle, String value, boolean primitive, boolean notNull) {
+        addBind(bindStatementContent, String.valueOf(bindIndex), bindMethodName, fieldNameJavaStyle, value, primitive, notNull);
+    }
+
+    private void addBind(StringBuilder bindStatementContent, String bindIndex, String bindMethodName, String fieldNameJavaStyle, String value, boolean primitive, boolean notNull) {
         if (primitive || notNull) {
             bindStatementContent.append("statement." + bindMethodName + "(").append(bindIndex).append(", ").append(value).append(");\n");
         } else {
@@ -836,11 +1034,11 @@ public class AndroidBaseRecordRenderer {
     }
 
     public void writeToFile(String directoryName) {
-        constClass.writeToDisk(directoryName);
-        recordClass.writeToDisk(directoryName);
+        constClass.writeToDisk(directoryName, true, genConfig.getFileWriter());
+        recordClass.writeToDisk(directoryName, true, genConfig.getFileWriter());
 
         for (JavaEnum enumClass : enumerationClasses) {
-            enumClass.writeToDisk(directoryName);
+            enumClass.writeToDisk(directoryName, true, genConfig.getFileWriter());
         }
     }
 
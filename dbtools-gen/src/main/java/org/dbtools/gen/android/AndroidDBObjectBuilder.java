@@ -12,7 +12,6 @@ package org.dbtools.gen.android;
 
 import org.dbtools.gen.DBObjectBuilder;
 import org.dbtools.gen.GenConfig;
-import org.dbtools.renderer.SchemaRenderer;
 import org.dbtools.schema.dbmappings.DatabaseMapping;
 import org.dbtools.schema.schemafile.*;
 
@@ -36,8 +35,11 @@ public class AndroidDBObjectBuilder implements DBObjectBuilder {
     private List<String> filesGenerated = new ArrayList<>();
 
     private PrintStream psLog;
+    private DatabaseMapping databaseMapping;
+    private GenConfig genConfig;
 
     public AndroidDBObjectBuilder(GenConfig genConfig) {
+        this.genConfig = genConfig;
         recordClass.setGenConfig(genConfig);
         baseRecordClass.setGenConfig(genConfig);
         managerClass.setGenConfig(genConfig);
@@ -67,7 +69,9 @@ public class AndroidDBObjectBuilder implements DBObjectBuilder {
             outDir += File.separatorChar;
         }
 
-        DatabaseMapping databaseMapping = SchemaRenderer.readXMLTypes(this.getClass(), SchemaRenderer.DEFAULT_TYPE_MAPPING_FILENAME, "sqlite");
+        if (databaseMapping == null) {
+            databaseMapping = genConfig.getDatabaseMapping("sqlite");
+        }
 
         // Entities
         String baseRecordFileName = outDir + AndroidRecordRenderer.createClassName(entity) + ".java";
@@ -126,7 +130,7 @@ public class AndroidDBObjectBuilder implements DBObjectBuilder {
 
     @Override
     public void buildDatabaseManagersHolder(SchemaDatabase database, String packageBase, String packageName, List<SchemaTable> tables, List<SchemaView> views, List<SchemaQuery> queries, String outDir) {
-        DatabaseManagersHolderRenderer renderer = new DatabaseManagersHolderRenderer();
+        DatabaseManagersHolderRenderer renderer = new DatabaseManagersHolderRenderer(genConfig);
         renderer.generate(database, packageBase, packageName, tables, views, queries, outDir);
     }
 }
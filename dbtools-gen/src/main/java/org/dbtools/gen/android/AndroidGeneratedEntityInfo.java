@@ -2,6 +2,8 @@ package org.dbtools.gen.android;
 
 public class AndroidGeneratedEntityInfo {
     private boolean primaryKeyAdded;
+    private boolean upsertAdded;
+    private boolean rowIdPrimaryKey; // primary key value is assigned by sqlite on insert (INTEGER PRIMARY KEY)
 
     public boolean isPrimaryKeyAdded() {
         return primaryKeyAdded;
@@ -10,4 +12,20 @@ public class AndroidGeneratedEntityInfo {
     public void setPrimaryKeyAdded(boolean primaryKeyAdded) {
         this.primaryKeyAdded = primaryKeyAdded;
     }
+
+    public boolean isUpsertAdded() {
+        return upsertAdded;
+    }
+
+    public void setUpsertAdded(boolean upsertAdded) {
+        this.upsertAdded = upsertAdded;
+    }
+
+    public boolean isRowIdPrimaryKey() {
+        return rowIdPrimaryKey;
+    }
+
+    public void setRowIdPrimaryKey(boolean rowIdPrimaryKey) {
+        this.rowIdPrimaryKey = rowIdPrimaryKey;
+    }
 }
@@ -82,7 +82,7 @@ public class AndroidManagerRenderer {
     }
 
     public void writeToFile(String outDir) {
-        myClass.writeToDisk(outDir);
+        myClass.writeToDisk(outDir, true, genConfig.getFileWriter());
     }
 
     public void setGenConfig(GenConfig genConfig) {
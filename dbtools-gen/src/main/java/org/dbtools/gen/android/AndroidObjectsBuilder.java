@@ -22,13 +22,18 @@ public class AndroidObjectsBuilder extends DBObjectsBuilder {
         return objectBuilder;
     }
 
+    @Override
+    public DBObjectBuilder createObjectBuilder() {
+        return new AndroidDBObjectBuilder(getGenConfig());
+    }
+
     public void buildAll(String schemaFilename, String baseOutputDir, String basePackageName) {
         setXmlFilename(schemaFilename);
         setOutputBaseDir(baseOutputDir);
         setPackageBase(basePackageName);
 
         build();
-        System.out.println("Generated [" + objectBuilder.getNumberFilesGenerated() + "] files.");
+        System.out.println(getBuildSummary());
     }
 
     @Override
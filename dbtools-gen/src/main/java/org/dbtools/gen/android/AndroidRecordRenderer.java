@@ -258,7 +258,7 @@ public class AndroidRecordRenderer {
     }
 
     public void writeToFile(String directoryName) {
-        myClass.writeToDisk(directoryName);
+        myClass.writeToDisk(directoryName, true, genConfig.getFileWriter());
     }
 
     public void setGenConfig(GenConfig genConfig) {
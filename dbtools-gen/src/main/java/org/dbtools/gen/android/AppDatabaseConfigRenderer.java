@@ -40,7 +40,7 @@ public class AppDatabaseConfigRenderer {
         createNewDBToolsContentValues();
         createNewDBToolsLogger();
 
-        myClass.writeToDisk(outDir, false);
+        myClass.writeToDisk(outDir, false, genConfig.getFileWriter());
     }
 
     private void createIdentifyDatabases(DatabaseSchema databaseSchema) {
@@ -64,7 +64,19 @@ public class AppDatabaseConfigRenderer {
         myClass.addImport("org.dbtools.android.domain.database.AndroidDatabaseWrapper");
 
         List<JavaVariable> params = Arrays.asList(new JavaVariable("AndroidDatabase", "androidDatabase"));
-        myClass.addMethod(Access.PUBLIC, "DatabaseWrapper", "createNewDatabaseWrapper", params, "return new AndroidDatabaseWrapper(androidDatabase.getPath());");
+        StringBuilder content = new StringBuilder();
+        if (genConfig.isPrepopulatedDatabases()) {
+            content.append("boolean prepopulated = DatabaseBaseManager.copyPrepopulatedDatabase(application, androidDatabase); // before the database file is opened\n");
+        }
+        content.append("DatabaseWrapper databaseWrapper = new AndroidDatabaseWrapper(androidDatabase.getPath());\n");
+        content.append("DatabaseBaseManager.configureDatabaseWrapper(androidDatabase.getName(), databaseWrapper); // PRAGMAs from the schema / build configuration\n");
+        if (genConfig.isPrepopulatedDatabases()) {
+            content.append("if (prepopulated) {\n");
+            content.append(JavaClass.getTab()).append("DatabaseBaseManager.createPrepopulatedViews(androidDatabase.getName(), databaseWrapper); // the prepopulated database has no views\n");
+            content.append("}\n");
+        }
+        content.append("return databaseWrapper;");
+        myClass.addMethod(Access.PUBLIC, "DatabaseWrapper", "createNewDatabaseWrapper", params, content.toString());
     }
 
     private void createNewDBToolsLogger() {
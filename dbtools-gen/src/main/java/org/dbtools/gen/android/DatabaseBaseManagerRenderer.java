@@ -5,10 +5,19 @@ import org.dbtools.codegen.java.JavaClass;
 import org.dbtools.codegen.java.JavaVariable;
 import org.dbtools.gen.AnnotationConsts;
 import org.dbtools.gen.GenConfig;
+import org.dbtools.gen.PrepopulatedDatabaseBuilder;
+import org.dbtools.gen.SchemaSnapshots;
+import org.dbtools.renderer.SchemaRenderer;
+import org.dbtools.renderer.SqliteMigrationRenderer;
+import org.dbtools.renderer.SqliteRenderer;
+import org.dbtools.schema.SqlitePragmas;
+import org.dbtools.schema.dbmappings.DatabaseMapping;
 import org.dbtools.schema.schemafile.*;
 import org.dbtools.util.JavaUtil;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
 
 /**
  * User: jcampbell
@@ -20,6 +29,8 @@ public class DatabaseBaseManagerRenderer {
     private JavaClass myConstClass;
     private String constClassName = "DatabaseManagerConst";
     private static final String TAB = JavaClass.getTab();
+    private static final String VIEW_HASHES_TABLE = "dbtools_view_hashes";
+    private static final String VIEW_HASHES_TABLE_CONST = "VIEW_HASHES_TABLE";
 
     private String packageBase;
     private String outDir;
@@ -48,9 +59,17 @@ public class DatabaseBaseManagerRenderer {
 
         createOnCreate(databaseSchema);
         createOnCreateViews(databaseSchema);
+        createCleanupOrphans(databaseSchema);
+        createSqlitePragmas(databaseSchema);
+        if (genConfig.getSchemaSnapshotDir() != null) {
+            createMigrations(databaseSchema);
+        }
+        if (genConfig.isPrepopulatedDatabases()) {
+            createCopyPrepopulatedDatabases(databaseSchema);
+        }
 
-        myClass.writeToDisk(outDir, true);
-        myConstClass.writeToDisk(outDir, true);
+        myClass.writeToDisk(outDir, true, genConfig.getFileWriter());
+        myConstClass.writeToDisk(outDir, true, genConfig.getFileWriter());
     }
 
     private void addHeaders(JavaClass someClass) {
@@ -145,18 +164,24 @@ public class DatabaseBaseManagerRenderer {
     private void createOnCreateViews(DatabaseSchema databaseSchema) {
         StringBuilder createContent = new StringBuilder();
         StringBuilder dropContent = new StringBuilder();
+        StringBuilder upgradeContent = new StringBuilder();
 
         createContent.append("getLogger().i(TAG, \"Creating database views: \" + androidDatabase.getName());\n");
         dropContent.append("getLogger().i(TAG, \"Dropping database views: \" + androidDatabase.getName());\n");
+        upgradeContent.append("getLogger().i(TAG, \"Upgrading changed database views: \" + androidDatabase.getName());\n");
 
+        boolean hasViews = false;
         for (SchemaDatabase database : databaseSchema.getDatabases()) {
             String databaseName = database.getName();
             databaseName = databaseName.replace(".", ""); // remove any periods (example: "mydb.sqlite")
 
             String databaseConstName = JavaUtil.nameToJavaConst(databaseName) + "_DATABASE_NAME";
             String databaseMethodName = JavaUtil.nameToJavaConst(databaseName) + "_VIEWS";
+            createViewHashes(databaseName, database);
             createCreateViews(createContent, databaseConstName, databaseMethodName, database);
             createDropViews(dropContent, databaseConstName, databaseMethodName, database);
+            createUpgradeViews(upgradeContent, databaseConstName, databaseMethodName, database);
+            hasViews |= !database.getViews().isEmpty();
         }
 
         JavaVariable param = new JavaVariable("AndroidDatabase", "androidDatabase");
@@ -166,6 +191,56 @@ public class DatabaseBaseManagerRenderer {
 
         myClass.addMethod(Access.PUBLIC, "void", "onCreateViews", Arrays.asList(param), createContent.toString());
         myClass.addMethod(Access.PUBLIC, "void", "onDropViews", Arrays.asList(param), dropContent.toString());
+        myClass.addMethod(Access.PUBLIC, "void", "upgradeChangedViews", Arrays.asList(param), upgradeContent.toString());
+
+        if (hasViews) {
+            createViewHashMethods();
+        }
+    }
+
+    /**
+     * A hash of each CREATE_VIEW (the view sql is maintained in the view record class)
+     */
+    private void createViewHashes(String databaseName, SchemaDatabase database) {
+        if (database.getViews().isEmpty()) {
+            return;
+        }
+
+        String databaseBasePackage = createDatabaseBasePackage(database);
+        for (SchemaView view : database.getViews()) {
+            myConstClass.addConstant("int", getViewHashConstName(databaseName, view),
+                    JavaUtil.createTableImport(databaseBasePackage, view.getClassName()) + ".CREATE_VIEW.hashCode()");
+        }
+    }
+
+    private String getViewHashConstName(String databaseName, SchemaView view) {
+        return JavaUtil.nameToJavaConst(databaseName) + "_" + JavaUtil.nameToJavaConst(view.getName()) + "_VIEW_HASH";
+    }
+
+    /**
+     * @return "new String[] {...}" of the views names, or the given view constant (CREATE_VIEW / DROP_VIEW) of each view
+     */
+    private String createViewArray(SchemaDatabase database, String viewConstName) {
+        String databaseBasePackage = createDatabaseBasePackage(database);
+        StringBuilder array = new StringBuilder("new String[] {");
+        for (int i = 0; i < database.getViews().size(); i++) {
+            SchemaView view = database.getViews().get(i);
+            array.append(i > 0 ? ", " : "");
+            if (viewConstName == null) {
+                array.append("\"").append(view.getName().toLowerCase()).append("\"");
+            } else {
+                array.append(JavaUtil.createTableImport(databaseBasePackage, view.getClassName())).append(".").append(viewConstName);
+            }
+        }
+        return array.append("}").toString();
+    }
+
+    private String createViewHashArray(String databaseName, SchemaDatabase database) {
+        StringBuilder array = new StringBuilder("new int[] {");
+        for (int i = 0; i < database.getViews().size(); i++) {
+            array.append(i > 0 ? ", " : "").append(constClassName).append(".").append(getViewHashConstName(databaseName, database.getViews().get(i)));
+        }
+        return array.append("}").toString();
     }
 
     private void createCreateViews(StringBuilder content, String databaseConstName, String databaseMethodName, SchemaDatabase database) {
@@ -181,8 +256,6 @@ public class DatabaseBaseManagerRenderer {
         content.append("}\n");
 
         StringBuilder createDatabaseViewsContent = new StringBuilder();
-
-        createDatabaseViewsContent.append("DatabaseWrapper database = androidDatabase.getDatabaseWrapper();\n");
         createDatabaseViewsContent.append("database.beginTransaction();\n");
 
         // include database name in base package name
@@ -195,16 +268,27 @@ public class DatabaseBaseManagerRenderer {
                     .append(".CREATE_VIEW);\n");
         }
 
+        String databaseName = database.getName().replace(".", ""); // remove any periods (example: "mydb.sqlite")
+        createDatabaseViewsContent.append("\n// View hashes (see upgradeChangedViews(...))\n");
+        createDatabaseViewsContent.append("saveViewHashes(database, ").append(createViewArray(database, null)).append(", ")
+                .append(createViewHashArray(databaseName, database)).append(");\n");
+
         createDatabaseViewsContent.append("\n");
         createDatabaseViewsContent.append("database.setTransactionSuccessful();\n");
         createDatabaseViewsContent.append("database.endTransaction();\n");
 
         JavaVariable param = new JavaVariable("AndroidDatabase", "androidDatabase");
+        JavaVariable databaseParam = new JavaVariable("DatabaseWrapper", "database");
         if (genConfig.isJsr305Support()) {
             param.addAnnotation(AnnotationConsts.NONNULL);
+            databaseParam.addAnnotation(AnnotationConsts.NONNULL);
         }
 
-        myClass.addMethod(Access.PUBLIC, "void", createDatabaseViewsMethodName, Arrays.asList(param), createDatabaseViewsContent.toString());
+        myClass.addMethod(Access.PUBLIC, "void", createDatabaseViewsMethodName, Arrays.asList(param),
+                createDatabaseViewsMethodName + "(androidDatabase.getDatabaseWrapper());");
+
+        // static: also called for a copied prepopulated database (see createPrepopulatedViews(...))
+        myClass.addMethod(Access.PUBLIC, "void", createDatabaseViewsMethodName, Arrays.asList(databaseParam), createDatabaseViewsContent.toString()).setStatic(true);
     }
 
     private void createDropViews(StringBuilder content, String databaseConstName, String databaseMethodName, SchemaDatabase database) {
@@ -232,6 +316,7 @@ public class DatabaseBaseManagerRenderer {
                     .append(JavaUtil.createTableImport(databaseBasePackage, view.getClassName()))
                     .append(".DROP_VIEW);\n");
         }
+        dropDatabaseViewsContent.append("AndroidBaseManager.dropTable(database, ").append(constClassName).append(".DROP_").append(VIEW_HASHES_TABLE_CONST).append(");\n");
 
         dropDatabaseViewsContent.append("\n");
         dropDatabaseViewsContent.append("database.setTransactionSuccessful();\n");
@@ -245,6 +330,558 @@ public class DatabaseBaseManagerRenderer {
         myClass.addMethod(Access.PUBLIC, "void", dropDatabaseViewsMethodName, Arrays.asList(param), dropDatabaseViewsContent.toString());
     }
 
+    private void createUpgradeViews(StringBuilder content, String databaseConstName, String databaseMethodName, SchemaDatabase database) {
+        if (database.getViews().isEmpty()) {
+            return;
+        }
+
+        String varName = JavaUtil.sqlNameToJavaVariableName(databaseMethodName);
+        String upgradeDatabaseViewsMethodName = "upgrade" + Character.toUpperCase(varName.charAt(0)) + varName.substring(1);
+        String databaseName = database.getName().replace(".", ""); // remove any periods (example: "mydb.sqlite")
+
+        content.append("if (androidDatabase.getName().equals(" + constClassName + "." + databaseConstName + ")) {\n");
+        content.append(TAB).append(upgradeDatabaseViewsMethodName).append("(androidDatabase);\n");
+        content.append("}\n");
+
+        StringBuilder upgradeDatabaseViewsContent = new StringBuilder();
+        upgradeDatabaseViewsContent.append("DatabaseWrapper database = androidDatabase.getDatabaseWrapper();\n");
+        upgradeDatabaseViewsContent.append("database.beginTransaction();\n");
+        upgradeDatabaseViewsContent.append("try {\n");
+        upgradeDatabaseViewsContent.append(TAB).append("int count = upgradeViews(database,\n");
+        upgradeDatabaseViewsContent.append(TAB).append(TAB).append(TAB).append(createViewArray(database, null)).append(",\n");
+        upgradeDatabaseViewsContent.append(TAB).append(TAB).append(TAB).append(createViewArray(database, "CREATE_VIEW")).append(",\n");
+        upgradeDatabaseViewsContent.append(TAB).append(TAB).append(TAB).append(createViewArray(database, "DROP_VIEW")).append(",\n");
+        upgradeDatabaseViewsContent.append(TAB).append(TAB).append(TAB).append(createViewHashArray(databaseName, database)).append(");\n");
+        upgradeDatabaseViewsContent.append(TAB).append("getLogger().i(TAG, \"Recreated \" + count + \" changed views: \" + androidDatabase.getName());\n");
+        upgradeDatabaseViewsContent.append(TAB).append("database.setTransactionSuccessful();\n");
+        upgradeDatabaseViewsContent.append("} finally {\n");
+        upgradeDatabaseViewsContent.append(TAB).append("database.endTransaction();\n");
+        upgradeDatabaseViewsContent.append("}\n");
+
+        JavaVariable param = new JavaVariable("AndroidDatabase", "androidDatabase");
+        if (genConfig.isJsr305Support()) {
+            param.addAnnotation(AnnotationConsts.NONNULL);
+        }
+
+        myClass.addMethod(Access.PUBLIC, "void", upgradeDatabaseViewsMethodName, Arrays.asList(param), upgradeDatabaseViewsContent.toString());
+    }
+
+    /**
+     * upgradeViews(...): drop/create only the new views, the views whose CREATE_VIEW hash changed and the views that depend on them
+     * (a view depends on another view if its sql contains the name of the other view).  Views that were removed are dropped.
+     */
+    private void createViewHashMethods() {
+        myClass.addImport("android.database.Cursor");
+        myClass.addImport("java.util.HashMap");
+        myClass.addImport("java.util.HashSet");
+        myClass.addImport("java.util.Map");
+        myClass.addImport("java.util.Set");
+
+        // the hashes of the created views are kept in the database
+        myConstClass.addConstant("String", VIEW_HASHES_TABLE_CONST, VIEW_HASHES_TABLE);
+        myConstClass.addConstant("String", "CREATE_" + VIEW_HASHES_TABLE_CONST, "CREATE TABLE IF NOT EXISTS " + VIEW_HASHES_TABLE + " (name TEXT PRIMARY KEY NOT NULL, hash INTEGER NOT NULL);");
+        myConstClass.addConstant("String", "DROP_" + VIEW_HASHES_TABLE_CONST, "DROP TABLE IF EXISTS " + VIEW_HASHES_TABLE + ";");
+
+        String viewHashesTable = constClassName + "." + VIEW_HASHES_TABLE_CONST;
+
+        StringBuilder saveContent = new StringBuilder();
+        saveContent.append("AndroidBaseManager.createTable(database, ").append(constClassName).append(".CREATE_").append(VIEW_HASHES_TABLE_CONST).append(");\n");
+        saveContent.append("for (int i = 0; i < viewNames.length; i++) {\n");
+        saveContent.append(TAB).append("database.execSQL(\"INSERT OR REPLACE INTO \" + ").append(viewHashesTable)
+                .append(" + \" (name, hash) VALUES ('\" + viewNames[i] + \"', \" + viewHashes[i] + \")\");\n");
+        saveContent.append("}\n");
+        myClass.addMethod(Access.PRIVATE, "void", "saveViewHashes",
+                Arrays.asList(new JavaVariable("DatabaseWrapper", "database"), new JavaVariable("String[]", "viewNames"), new JavaVariable("int[]", "viewHashes")),
+                saveContent.toString()).setStatic(true);
+
+        StringBuilder referencesContent = new StringBuilder();
+        referencesContent.append("for (String word : sql.toLowerCase().split(\"[^a-z0-9_]+\")) {\n");
+        referencesContent.append(TAB).append("if (viewNames.contains(word)) {\n");
+        referencesContent.append(TAB).append(TAB).append("return true;\n");
+        referencesContent.append(TAB).append("}\n");
+        referencesContent.append("}\n");
+        referencesContent.append("return false;");
+        myClass.addMethod(Access.PRIVATE, "boolean", "referencesView",
+                Arrays.asList(new JavaVariable("String", "sql"), new JavaVariable("Set<String>", "viewNames")), referencesContent.toString());
+
+        StringBuilder content = new StringBuilder();
+        content.append("AndroidBaseManager.createTable(database, ").append(constClassName).append(".CREATE_").append(VIEW_HASHES_TABLE_CONST).append(");\n\n");
+
+        content.append("// hashes of the views that are in the database\n");
+        content.append("Map<String, Integer> appliedViewHashes = new HashMap<>();\n");
+        content.append("Cursor cursor = database.rawQuery(\"SELECT name, hash FROM \" + ").append(viewHashesTable).append(", null);\n");
+        content.append("try {\n");
+        content.append(TAB).append("while (cursor.moveToNext()) {\n");
+        content.append(TAB).append(TAB).append("appliedViewHashes.put(cursor.getString(0), cursor.getInt(1));\n");
+        content.append(TAB).append("}\n");
+        content.append("} finally {\n");
+        content.append(TAB).append("cursor.close();\n");
+        content.append("}\n\n");
+
+        content.append("// new and changed views\n");
+        content.append("Set<String> changedViewNames = new HashSet<>();\n");
+        content.append("boolean[] changed = new boolean[viewNames.length];\n");
+        content.append("for (int i = 0; i < viewNames.length; i++) {\n");
+        content.append(TAB).append("Integer appliedViewHash = appliedViewHashes.remove(viewNames[i]);\n");
+        content.append(TAB).append("if (appliedViewHash == null || appliedViewHash != viewHashes[i]) {\n");
+        content.append(TAB).append(TAB).append("changed[i] = true;\n");
+        content.append(TAB).append(TAB).append("changedViewNames.add(viewNames[i]);\n");
+        content.append(TAB).append("}\n");
+        content.append("}\n\n");
+
+        content.append("// removed views\n");
+        content.append("for (String viewName : appliedViewHashes.keySet()) {\n");
+        content.append(TAB).append("database.execSQL(\"DROP VIEW IF EXISTS \" + viewName);\n");
+        content.append(TAB).append("database.execSQL(\"DELETE FROM \" + ").append(viewHashesTable).append(" + \" WHERE name = '\" + viewName + \"'\");\n");
+        content.append(TAB).append("changedViewNames.add(viewName);\n");
+        content.append("}\n\n");
+
+        content.append("// views that depend on a changed view\n");
+        content.append("boolean dependentsChanged = !changedViewNames.isEmpty();\n");
+        content.append("while (dependentsChanged) {\n");
+        content.append(TAB).append("dependentsChanged = false;\n");
+        content.append(TAB).append("for (int i = 0; i < viewNames.length; i++) {\n");
+        content.append(TAB).append(TAB).append("if (!changed[i] && referencesView(createViews[i], changedViewNames)) {\n");
+        content.append(TAB).append(TAB).append(TAB).append("changed[i] = true;\n");
+        content.append(TAB).append(TAB).append(TAB).append("changedViewNames.add(viewNames[i]);\n");
+        content.append(TAB).append(TAB).append(TAB).append("dependentsChanged = true;\n");
+        content.append(TAB).append(TAB).append("}\n");
+        content.append(TAB).append("}\n");
+        content.append("}\n\n");
+
+        content.append("// drop the changed views, then create them in schema order\n");
+        content.append("int count = 0;\n");
+        content.append("for (int i = viewNames.length - 1; i >= 0; i--) {\n");
+        content.append(TAB).append("if (changed[i]) {\n");
+        content.append(TAB).append(TAB).append("AndroidBaseManager.dropTable(database, dropViews[i]);\n");
+        content.append(TAB).append("}\n");
+        content.append("}\n");
+        content.append("for (int i = 0; i < viewNames.length; i++) {\n");
+        content.append(TAB).append("if (changed[i]) {\n");
+        content.append(TAB).append(TAB).append("AndroidBaseManager.createTable(database, createViews[i]);\n");
+        content.append(TAB).append(TAB).append("count++;\n");
+        content.append(TAB).append("}\n");
+        content.append("}\n\n");
+
+        content.append("saveViewHashes(database, viewNames, viewHashes);\n");
+        content.append("return count;");
+
+        myClass.addMethod(Access.PRIVATE, "int", "upgradeViews",
+                Arrays.asList(new JavaVariable("DatabaseWrapper", "database"), new JavaVariable("String[]", "viewNames"), new JavaVariable("String[]", "createViews"),
+                        new JavaVariable("String[]", "dropViews"), new JavaVariable("int[]", "viewHashes")),
+                content.toString());
+    }
+
+    /**
+     * cleanupOrphans(...): set based orphan cleanup (one DELETE per foreign key, in table dependency order) in a single transaction
+     */
+    private void createCleanupOrphans(DatabaseSchema databaseSchema) {
+        StringBuilder content = new StringBuilder();
+        content.append("int count = 0;\n");
+
+        for (SchemaDatabase database : databaseSchema.getDatabases()) {
+            String databaseName = database.getName();
+            databaseName = databaseName.replace(".", ""); // remove any periods (example: "mydb.sqlite")
+
+            String databaseConstName = JavaUtil.nameToJavaConst(databaseName) + "_DATABASE_NAME";
+            String databaseMethodName = JavaUtil.nameToJavaConst(databaseName) + "_ORPHANS";
+            createCleanupDatabaseOrphans(content, databaseConstName, databaseMethodName, database);
+        }
+
+        content.append("return count;");
+
+        JavaVariable param = new JavaVariable("AndroidDatabase", "androidDatabase");
+        if (genConfig.isJsr305Support()) {
+            param.addAnnotation(AnnotationConsts.NONNULL);
+        }
+
+        myClass.addMethod(Access.PUBLIC, "int", "cleanupOrphans", Arrays.asList(param), content.toString());
+    }
+
+    private void createCleanupDatabaseOrphans(StringBuilder content, String databaseConstName, String databaseMethodName, SchemaDatabase database) {
+        List<String> statements = SchemaRenderer.generateOrphanCleanupStatements(database.getTables());
+        if (statements.isEmpty()) {
+            return;
+        }
+
+        String varName = JavaUtil.sqlNameToJavaVariableName(databaseMethodName);
+        String cleanupDatabaseOrphansMethodName = "cleanup" + Character.toUpperCase(varName.charAt(0)) + varName.substring(1);
+        String statementsConstName = databaseMethodName + "_CLEANUP_STATEMENTS";
+
+        content.append("if (androidDatabase.getName().equals(" + constClassName + "." + databaseConstName + ")) {\n");
+        content.append(TAB).append("count += ").append(cleanupDatabaseOrphansMethodName).append("(androidDatabase);\n");
+        content.append("}\n");
+
+        String statementsDefaultValue = "new String[] {\n";
+        for (int i = 0; i < statements.size(); i++) {
+            if (i > 0) {
+                statementsDefaultValue += ",\n";
+            }
+            statementsDefaultValue += TAB + TAB + "\"" + statements.get(i) + "\"";
+        }
+        statementsDefaultValue += "}";
+        myConstClass.addConstant("String[]", statementsConstName, statementsDefaultValue);
+
+        StringBuilder cleanupContent = new StringBuilder();
+        cleanupContent.append("int count = 0;\n");
+        cleanupContent.append("DatabaseWrapper database = androidDatabase.getDatabaseWrapper();\n");
+        cleanupContent.append("database.beginTransaction();\n");
+        cleanupContent.append("try {\n");
+        cleanupContent.append(TAB).append("for (String sql : ").append(constClassName).append(".").append(statementsConstName).append(") {\n");
+        cleanupContent.append(TAB).append(TAB).append("StatementWrapper statement = database.compileStatement(sql);\n");
+        cleanupContent.append(TAB).append(TAB).append("try {\n");
+        cleanupContent.append(TAB).append(TAB).append(TAB).append("count += statement.executeUpdateDelete();\n");
+        cleanupContent.append(TAB).append(TAB).append("} finally {\n");
+        cleanupContent.append(TAB).append(TAB).append(TAB).append("statement.close();\n");
+        cleanupContent.append(TAB).append(TAB).append("}\n");
+        cleanupContent.append(TAB).append("}\n");
+        cleanupContent.append(TAB).append("database.setTransactionSuccessful();\n");
+        cleanupContent.append("} finally {\n");
+        cleanupContent.append(TAB).append("database.endTransaction();\n");
+        cleanupContent.append("}\n");
+        cleanupContent.append("return count;");
+
+        myClass.addImport("org.dbtools.android.domain.database.statement.StatementWrapper");
+
+        JavaVariable param = new JavaVariable("AndroidDatabase", "androidDatabase");
+        if (genConfig.isJsr305Support()) {
+            param.addAnnotation(AnnotationConsts.NONNULL);
+        }
+
+        myClass.addMethod(Access.PUBLIC, "int", cleanupDatabaseOrphansMethodName, Arrays.asList(param), cleanupContent.toString());
+    }
+
+    /**
+     * configureDatabaseWrapper(...): SQLite tuning applied when a database is opened (page_size, journal_mode... WAL with
+     * enableWriteAheadLogging()) followed by onConfigure(...).
+     * onConfigure(...): per connection PRAGMAs (synchronous, cache_size, mmap_size, temp_store).  configureDatabaseWrapper(...) only
+     * runs them on the connection it is given... other connections of a WAL connection pool need their own call.
+     * optimizeDatabase(...): PRAGMA optimize before a database is closed (optimizeOnClose)
+     */
+    private void createSqlitePragmas(DatabaseSchema databaseSchema) {
+        StringBuilder configureContent = new StringBuilder();
+        StringBuilder connectionContent = new StringBuilder();
+        connectionContent.append("// only configures the given connection (call it for each connection the database wrapper opens)\n");
+        StringBuilder optimizeContent = new StringBuilder();
+
+        for (SchemaDatabase database : databaseSchema.getDatabases()) {
+            String databaseName = database.getName();
+            databaseName = databaseName.replace(".", ""); // remove any periods (example: "mydb.sqlite")
+
+            String databaseConstName = JavaUtil.nameToJavaConst(databaseName) + "_DATABASE_NAME";
+            String pragmasConstName = JavaUtil.nameToJavaConst(databaseName) + "_PRAGMAS";
+            String connectionPragmasConstName = JavaUtil.nameToJavaConst(databaseName) + "_CONNECTION_PRAGMAS";
+
+            SqlitePragmas sqlitePragmas = genConfig.getSqlitePragmas().merge(database.getSqlitePragmas());
+            List<String> statements = sqlitePragmas.generateOpenStatements();
+            if (!statements.isEmpty() || sqlitePragmas.isWriteAheadLogging()) {
+                configureContent.append("if (databaseName.equals(" + constClassName + "." + databaseConstName + ")) {\n");
+                if (!statements.isEmpty()) {
+                    myConstClass.addConstant("String[]", pragmasConstName, createPragmasDefaultValue(statements));
+                    configureContent.append(TAB).append("executePragmas(databaseWrapper, ").append(constClassName).append(".").append(pragmasConstName).append(");\n");
+                }
+                if (sqlitePragmas.isWriteAheadLogging()) {
+                    configureContent.append(TAB).append("databaseWrapper.enableWriteAheadLogging();\n");
+                }
+                configureContent.append("}\n");
+            }
+
+            List<String> connectionStatements = sqlitePragmas.generateConnectionStatements();
+            if (!connectionStatements.isEmpty()) {
+                myConstClass.addConstant("String[]", connectionPragmasConstName, createPragmasDefaultValue(connectionStatements));
+
+                connectionContent.append("if (databaseName.equals(" + constClassName + "." + databaseConstName + ")) {\n");
+                connectionContent.append(TAB).append("executePragmas(databaseWrapper, ").append(constClassName).append(".").append(connectionPragmasConstName).append(");\n");
+                connectionContent.append("}\n");
+            }
+
+            if (sqlitePragmas.isOptimizeOnClose()) {
+                optimizeContent.append("if (androidDatabase.getName().equals(" + constClassName + "." + databaseConstName + ")) {\n");
+                optimizeContent.append(TAB).append("executePragmas(androidDatabase.getDatabaseWrapper(), new String[] {\"PRAGMA optimize\"});\n");
+                optimizeContent.append("}\n");
+            }
+        }
+
+        myClass.addImport("android.database.Cursor");
+
+        JavaVariable databaseNameParam = new JavaVariable("String", "databaseName");
+        JavaVariable databaseWrapperParam = new JavaVariable("DatabaseWrapper", "databaseWrapper");
+        JavaVariable androidDatabaseParam = new JavaVariable("AndroidDatabase", "androidDatabase");
+        if (genConfig.isJsr305Support()) {
+            databaseNameParam.addAnnotation(AnnotationConsts.NONNULL);
+            databaseWrapperParam.addAnnotation(AnnotationConsts.NONNULL);
+            androidDatabaseParam.addAnnotation(AnnotationConsts.NONNULL);
+        }
+
+        // static: called from AppDatabaseConfig.createNewDatabaseWrapper(...)
+        configureContent.append("onConfigure(databaseName, databaseWrapper);");
+        myClass.addMethod(Access.PUBLIC, "void", "configureDatabaseWrapper", Arrays.asList(databaseNameParam, databaseWrapperParam), configureContent.toString()).setStatic(true);
+        myClass.addMethod(Access.PUBLIC, "void", "onConfigure", Arrays.asList(databaseNameParam, databaseWrapperParam), connectionContent.toString()).setStatic(true);
+        myClass.addMethod(Access.PUBLIC, "void", "optimizeDatabase", Arrays.asList(androidDatabaseParam), optimizeContent.toString());
+
+        StringBuilder executeContent = new StringBuilder();
+        executeContent.append("for (String pragma : pragmas) {\n");
+        executeContent.append(TAB).append("// rawQuery: some PRAGMAs return a row (journal_mode)\n");
+        executeContent.append(TAB).append("Cursor cursor = databaseWrapper.rawQuery(pragma, null);\n");
+        executeContent.append(TAB).append("try {\n");
+        executeContent.append(TAB).append(TAB).append("cursor.moveToFirst();\n");
+        executeContent.append(TAB).append("} finally {\n");
+        executeContent.append(TAB).append(TAB).append("cursor.close();\n");
+        executeContent.append(TAB).append("}\n");
+        executeContent.append("}\n");
+        myClass.addMethod(Access.PRIVATE, "void", "executePragmas",
+                Arrays.asList(new JavaVariable("DatabaseWrapper", "databaseWrapper"), new JavaVariable("String[]", "pragmas")), executeContent.toString()).setStatic(true);
+    }
+
+    private String createPragmasDefaultValue(List<String> statements) {
+        String statementsDefaultValue = "new String[] {\n";
+        for (int i = 0; i < statements.size(); i++) {
+            if (i > 0) {
+                statementsDefaultValue += ",\n";
+            }
+            statementsDefaultValue += TAB + TAB + "\"" + statements.get(i) + "\"";
+        }
+        return statementsDefaultValue + "}";
+    }
+
+    /**
+     * migrate[Db]Tables(...): incremental table migrations from each schema snapshot version to the next (up to the current version)
+     */
+    private void createMigrations(DatabaseSchema databaseSchema) {
+        SchemaSnapshots schemaSnapshots = new SchemaSnapshots(genConfig.getSchemaSnapshotDir());
+        DatabaseMapping databaseMapping = genConfig.getDatabaseMapping(SqliteRenderer.RENDERER_NAME);
+
+        boolean foreignKeyHelpers = false;
+        for (SchemaDatabase database : databaseSchema.getDatabases()) {
+            String databaseName = database.getName();
+            databaseName = databaseName.replace(".", ""); // remove any periods (example: "mydb.sqlite")
+
+            String databaseMethodName = JavaUtil.nameToJavaConst(databaseName) + "_TABLES";
+            String varName = JavaUtil.sqlNameToJavaVariableName(databaseMethodName);
+            String migrateDatabaseMethodName = "migrate" + Character.toUpperCase(varName.charAt(0)) + varName.substring(1);
+
+            SortedMap<Integer, SchemaDatabase> versions = schemaSnapshots.readSnapshots(database.getName(), database.getVersion());
+            versions.put(database.getVersion(), database);
+
+            StringBuilder switchContent = new StringBuilder();
+            SchemaDatabase fromDatabase = null;
+            for (SchemaDatabase toDatabase : versions.values()) {
+                if (fromDatabase != null) {
+                    String migrationConstName = JavaUtil.nameToJavaConst(databaseName) + "_MIGRATION_" + fromDatabase.getVersion() + "_" + toDatabase.getVersion();
+                    List<String> statements = SqliteMigrationRenderer.generateMigration(fromDatabase, toDatabase, databaseMapping);
+
+                    String statementsDefaultValue = "new String[] {";
+                    for (int i = 0; i < statements.size(); i++) {
+                        statementsDefaultValue += (i > 0 ? ",\n" : "\n") + TAB + TAB + "\"" + statements.get(i).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n").replace("\t", "\\t") + "\"";
+                    }
+                    statementsDefaultValue += "}";
+                    myConstClass.addConstant("String[]", migrationConstName, statementsDefaultValue);
+
+                    switchContent.append(TAB).append(TAB).append(TAB).append(TAB).append("case ").append(fromDatabase.getVersion()).append(":\n");
+                    switchContent.append(TAB).append(TAB).append(TAB).append(TAB).append(TAB).append("statements = ").append(constClassName).append(".").append(migrationConstName).append(";\n");
+                    switchContent.append(TAB).append(TAB).append(TAB).append(TAB).append(TAB).append("version = ").append(toDatabase.getVersion()).append(";\n");
+                    switchContent.append(TAB).append(TAB).append(TAB).append(TAB).append(TAB).append("break;\n");
+                }
+                fromDatabase = toDatabase;
+            }
+
+            StringBuilder content = new StringBuilder();
+            if (switchContent.length() == 0) {
+                content.append("return false; // no schema snapshots");
+            } else {
+                // SQLite table rebuild procedure: foreign keys off (outside of the transaction), rebuild, check the foreign
+                // keys before commit, foreign keys back on
+                content.append("DatabaseWrapper database = androidDatabase.getDatabaseWrapper();\n");
+                content.append("boolean foreignKeys = isForeignKeysEnabled(database);\n");
+                content.append("if (foreignKeys) {\n");
+                content.append(TAB).append("database.execSQL(\"PRAGMA foreign_keys = OFF\");\n");
+                content.append("}\n");
+                content.append("try {\n");
+                content.append(TAB).append("database.beginTransaction();\n");
+                content.append(TAB).append("try {\n");
+                content.append(TAB).append(TAB).append("int version = oldVersion;\n");
+                content.append(TAB).append(TAB).append("while (version < newVersion) {\n");
+                content.append(TAB).append(TAB).append(TAB).append("String[] statements;\n");
+                content.append(TAB).append(TAB).append(TAB).append("switch (version) {\n");
+                content.append(switchContent);
+                content.append(TAB).append(TAB).append(TAB).append(TAB).append("default:\n");
+                content.append(TAB).append(TAB).append(TAB).append(TAB).append(TAB).append("return false; // no migration from this version (nothing is committed)\n");
+                content.append(TAB).append(TAB).append(TAB).append("}\n\n");
+                content.append(TAB).append(TAB).append(TAB).append("for (String sql : statements) {\n");
+                content.append(TAB).append(TAB).append(TAB).append(TAB).append("database.execSQL(sql);\n");
+                content.append(TAB).append(TAB).append(TAB).append("}\n");
+                content.append(TAB).append(TAB).append("}\n\n");
+                content.append(TAB).append(TAB).append("if (version != newVersion) {\n");
+                content.append(TAB).append(TAB).append(TAB).append("return false;\n");
+                content.append(TAB).append(TAB).append("}\n");
+                content.append(TAB).append(TAB).append("checkForeignKeys(database, oldVersion, newVersion);\n");
+                content.append(TAB).append(TAB).append("database.setTransactionSuccessful();\n");
+                content.append(TAB).append(TAB).append("return true;\n");
+                content.append(TAB).append("} finally {\n");
+                content.append(TAB).append(TAB).append("database.endTransaction();\n");
+                content.append(TAB).append("}\n");
+                content.append("} finally {\n");
+                content.append(TAB).append("if (foreignKeys) {\n");
+                content.append(TAB).append(TAB).append("database.execSQL(\"PRAGMA foreign_keys = ON\");\n");
+                content.append(TAB).append("}\n");
+                content.append("}");
+                foreignKeyHelpers = true;
+            }
+
+            JavaVariable param = new JavaVariable("AndroidDatabase", "androidDatabase");
+            if (genConfig.isJsr305Support()) {
+                param.addAnnotation(AnnotationConsts.NONNULL);
+            }
+
+            // returns false if there is no migration path from oldVersion (nothing is changed)
+            myClass.addMethod(Access.PUBLIC, "boolean", migrateDatabaseMethodName,
+                    Arrays.asList(param, new JavaVariable("int", "oldVersion"), new JavaVariable("int", "newVersion")), content.toString());
+        }
+
+        if (foreignKeyHelpers) {
+            createMigrationForeignKeyHelpers();
+        }
+    }
+
+    /**
+     * isForeignKeysEnabled(...) / checkForeignKeys(...): PRAGMA foreign_keys can not be changed within a transaction... rebuilt
+     * tables are checked with PRAGMA foreign_key_check before the migration is committed
+     */
+    private void createMigrationForeignKeyHelpers() {
+        myClass.addImport("android.database.Cursor");
+
+        StringBuilder enabledContent = new StringBuilder();
+        enabledContent.append("Cursor cursor = database.rawQuery(\"PRAGMA foreign_keys\", null);\n");
+        enabledContent.append("try {\n");
+        enabledContent.append(TAB).append("return cursor.moveToFirst() && cursor.getInt(0) == 1;\n");
+        enabledContent.append("} finally {\n");
+        enabledContent.append(TAB).append("cursor.close();\n");
+        enabledContent.append("}");
+        myClass.addMethod(Access.PRIVATE, "boolean", "isForeignKeysEnabled",
+                Arrays.asList(new JavaVariable("DatabaseWrapper", "database")), enabledContent.toString()).setStatic(true);
+
+        // a violation throws (the transaction is rolled back)
+        StringBuilder checkContent = new StringBuilder();
+        checkContent.append("Cursor cursor = database.rawQuery(\"PRAGMA foreign_key_check\", null);\n");
+        checkContent.append("try {\n");
+        checkContent.append(TAB).append("if (cursor.moveToFirst()) {\n");
+        checkContent.append(TAB).append(TAB).append("throw new IllegalStateException(\"Foreign key violation in table [\" + cursor.getString(0) + \"] (rowid \" + cursor.getLong(1) + \") \"\n");
+        checkContent.append(TAB).append(TAB).append(TAB).append(TAB).append("+ \"referencing [\" + cursor.getString(2) + \"] after migration from version \" + oldVersion + \" to \" + newVersion);\n");
+        checkContent.append(TAB).append("}\n");
+        checkContent.append("} finally {\n");
+        checkContent.append(TAB).append("cursor.close();\n");
+        checkContent.append("}");
+        myClass.addMethod(Access.PRIVATE, "void", "checkForeignKeys",
+                Arrays.asList(new JavaVariable("DatabaseWrapper", "database"), new JavaVariable("int", "oldVersion"), new JavaVariable("int", "newVersion")),
+                checkContent.toString()).setStatic(true);
+    }
+
+    /**
+     * copyPrepopulated[Db]Database(...): copy the database file built at build time (dbtools-prepopulate) from the assets instead of creating the database on the device.
+     * Static: called from AppDatabaseConfig.createNewDatabaseWrapper(...) before the database is opened... the prepopulated file has no views
+     * (the CREATE_VIEW sql is in the view classes) so the views are created with createPrepopulatedViews(...) once the file was copied
+     */
+    private void createCopyPrepopulatedDatabases(DatabaseSchema databaseSchema) {
+        myClass.addImport("android.content.Context");
+        myClass.addImport("java.io.File");
+        myClass.addImport("java.io.FileOutputStream");
+        myClass.addImport("java.io.IOException");
+        myClass.addImport("java.io.InputStream");
+        myClass.addImport("java.io.OutputStream");
+
+        StringBuilder copyContent = new StringBuilder();
+        StringBuilder viewsContent = new StringBuilder();
+        copyContent.append("File databaseFile = new File(androidDatabase.getPath());\n");
+        for (SchemaDatabase database : databaseSchema.getDatabases()) {
+            String databaseName = database.getName();
+            databaseName = databaseName.replace(".", ""); // remove any periods (example: "mydb.sqlite")
+
+            String assetConstName = JavaUtil.nameToJavaConst(databaseName) + "_PREPOPULATED_ASSET";
+            String varName = JavaUtil.sqlNameToJavaVariableName(JavaUtil.nameToJavaConst(databaseName) + "_DATABASE");
+            String copyDatabaseMethodName = "copyPrepopulated" + Character.toUpperCase(varName.charAt(0)) + varName.substring(1);
+
+            myConstClass.addConstant("String", assetConstName, PrepopulatedDatabaseBuilder.getAssetPath(database));
+
+            JavaVariable contextParam = new JavaVariable("Context", "context");
+            JavaVariable databaseFileParam = new JavaVariable("File", "databaseFile");
+            if (genConfig.isJsr305Support()) {
+                contextParam.addAnnotation(AnnotationConsts.NONNULL);
+                databaseFileParam.addAnnotation(AnnotationConsts.NONNULL);
+            }
+
+            // returns false if the database file already exists (nothing is copied)
+            myClass.addMethod(Access.PUBLIC, "boolean", copyDatabaseMethodName, Arrays.asList(contextParam, databaseFileParam),
+                    "return copyPrepopulatedDatabase(context, " + constClassName + "." + assetConstName + ", databaseFile);").setStatic(true);
+
+            String databaseConstName = JavaUtil.nameToJavaConst(databaseName) + "_DATABASE_NAME";
+            copyContent.append("if (androidDatabase.getName().equals(").append(constClassName).append(".").append(databaseConstName).append(")) {\n");
+            copyContent.append(TAB).append("return ").append(copyDatabaseMethodName).append("(context, databaseFile);\n");
+            copyContent.append("}\n");
+
+            if (!database.getViews().isEmpty()) {
+                String viewsVarName = JavaUtil.sqlNameToJavaVariableName(JavaUtil.nameToJavaConst(databaseName) + "_VIEWS");
+                viewsContent.append("if (databaseName.equals(").append(constClassName).append(".").append(databaseConstName).append(")) {\n");
+                viewsContent.append(TAB).append("create").append(Character.toUpperCase(viewsVarName.charAt(0))).append(viewsVarName.substring(1)).append("(database);\n");
+                viewsContent.append("}\n");
+            }
+        }
+        copyContent.append("return false;");
+
+        JavaVariable contextParam = new JavaVariable("Context", "context");
+        JavaVariable androidDatabaseParam = new JavaVariable("AndroidDatabase", "androidDatabase");
+        JavaVariable databaseNameParam = new JavaVariable("String", "databaseName");
+        JavaVariable databaseParam = new JavaVariable("DatabaseWrapper", "database");
+        if (genConfig.isJsr305Support()) {
+            contextParam.addAnnotation(AnnotationConsts.NONNULL);
+            androidDatabaseParam.addAnnotation(AnnotationConsts.NONNULL);
+            databaseNameParam.addAnnotation(AnnotationConsts.NONNULL);
+            databaseParam.addAnnotation(AnnotationConsts.NONNULL);
+        }
+
+        // returns true if the prepopulated database was copied (the views must then be created with createPrepopulatedViews(...))
+        myClass.addMethod(Access.PUBLIC, "boolean", "copyPrepopulatedDatabase", Arrays.asList(contextParam, androidDatabaseParam), copyContent.toString()).setStatic(true);
+        myClass.addMethod(Access.PUBLIC, "void", "createPrepopulatedViews", Arrays.asList(databaseNameParam, databaseParam), viewsContent.toString()).setStatic(true);
+
+        StringBuilder content = new StringBuilder();
+        content.append("if (databaseFile.exists()) {\n");
+        content.append(TAB).append("return false;\n");
+        content.append("}\n\n");
+        content.append("File dir = databaseFile.getParentFile();\n");
+        content.append("if (dir != null && !dir.exists() && !dir.mkdirs()) {\n");
+        content.append(TAB).append("throw new IllegalStateException(\"Could not create directory [\" + dir.getPath() + \"]\");\n");
+        content.append("}\n\n");
+        content.append("// copy to a temp file first so a partial copy is never opened as the database\n");
+        content.append("File tempFile = new File(databaseFile.getPath() + \".tmp\");\n");
+        content.append("try {\n");
+        content.append(TAB).append("InputStream inputStream = context.getAssets().open(assetPath);\n");
+        content.append(TAB).append("try {\n");
+        content.append(TAB).append(TAB).append("OutputStream outputStream = new FileOutputStream(tempFile);\n");
+        content.append(TAB).append(TAB).append("try {\n");
+        content.append(TAB).append(TAB).append(TAB).append("byte[] buffer = new byte[8192];\n");
+        content.append(TAB).append(TAB).append(TAB).append("int length;\n");
+        content.append(TAB).append(TAB).append(TAB).append("while ((length = inputStream.read(buffer)) > 0) {\n");
+        content.append(TAB).append(TAB).append(TAB).append(TAB).append("outputStream.write(buffer, 0, length);\n");
+        content.append(TAB).append(TAB).append(TAB).append("}\n");
+        content.append(TAB).append(TAB).append("} finally {\n");
+        content.append(TAB).append(TAB).append(TAB).append("outputStream.close();\n");
+        content.append(TAB).append(TAB).append("}\n");
+        content.append(TAB).append("} finally {\n");
+        content.append(TAB).append(TAB).append("inputStream.close();\n");
+        content.append(TAB).append("}\n");
+        content.append("} catch (IOException e) {\n");
+        content.append(TAB).append("tempFile.delete();\n");
+        content.append(TAB).append("throw new IllegalStateException(\"Failed to copy prepopulated database [\" + assetPath + \"]\", e);\n");
+        content.append("}\n\n");
+        content.append("if (!tempFile.renameTo(databaseFile)) {\n");
+        content.append(TAB).append("tempFile.delete();\n");
+        content.append(TAB).append("throw new IllegalStateException(\"Failed to copy prepopulated database [\" + assetPath + \"] to [\" + databaseFile.getPath() + \"]\");\n");
+        content.append("}\n");
+        content.append("return true;");
+
+        myClass.addMethod(Access.PRIVATE, "boolean", "copyPrepopulatedDatabase",
+                Arrays.asList(new JavaVariable("Context", "context"), new JavaVariable("String", "assetPath"), new JavaVariable("File", "databaseFile")), content.toString()).setStatic(true);
+    }
+
     public static String getClassName(SchemaEntity table) {
         String recordClassName = AndroidRecordRenderer.createClassName(table);
         return recordClassName + "Manager";
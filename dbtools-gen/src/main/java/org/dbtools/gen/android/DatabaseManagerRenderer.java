@@ -9,6 +9,10 @@ import org.dbtools.schema.schemafile.DatabaseSchema;
 import org.dbtools.schema.schemafile.SchemaDatabase;
 import org.dbtools.util.JavaUtil;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.List;
 
@@ -18,6 +22,8 @@ import java.util.List;
  */
 public class DatabaseManagerRenderer {
 
+    private static final String TAB = JavaClass.getTab();
+
     private JavaClass myClass;
     private String packageBase;
     private String outDir;
@@ -42,10 +48,48 @@ public class DatabaseManagerRenderer {
         addImports();
 
         createDatabaseVersions(databaseSchema);
-        createOnUpgrade();
+        createOnUpgrade(databaseSchema);
         createOnUpgradeViews();
 
-        myClass.writeToDisk(outDir, false);
+        warnMissingMigrationCalls(databaseSchema, new File(outDir, myClass.getFilename()));
+        myClass.writeToDisk(outDir, false, genConfig.getFileWriter());
+    }
+
+    /**
+     * An existing DatabaseManager is not regenerated... the migrate[Db]Tables(...) calls have to be added to its onUpgrade(...) by hand
+     */
+    private void warnMissingMigrationCalls(DatabaseSchema databaseSchema, File existingFile) {
+        if (genConfig.getSchemaSnapshotDir() == null || !existingFile.exists()) {
+            return;
+        }
+
+        String existingSource;
+        try {
+            existingSource = new String(Files.readAllBytes(existingFile.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        for (SchemaDatabase database : databaseSchema.getDatabases()) {
+            String migrateDatabaseMethodName = getMigrateDatabaseMethodName(database);
+            if (!existingSource.contains(migrateDatabaseMethodName + "(")) {
+                System.out.println("WARNING: " + existingFile.getName() + " already exists and is not regenerated... add "
+                        + "\"if (androidDatabase.getName().equals(DatabaseManagerConst." + getDatabaseConstName(database) + ") && " + migrateDatabaseMethodName
+                        + "(androidDatabase, oldVersion, newVersion)) { return; }\" to the start of onUpgrade(...) to use the incremental migrations");
+            }
+        }
+    }
+
+    private static String getDatabaseConstName(SchemaDatabase database) {
+        String databaseName = database.getName().replace(".", ""); // remove any periods (example: "mydb.sqlite")
+        return JavaUtil.nameToJavaConst(databaseName) + "_DATABASE_NAME";
+    }
+
+    private static String getMigrateDatabaseMethodName(SchemaDatabase database) {
+        String databaseName = database.getName().replace(".", ""); // remove any periods (example: "mydb.sqlite")
+        String varName = JavaUtil.sqlNameToJavaVariableName(JavaUtil.nameToJavaConst(databaseName) + "_TABLES");
+        return "migrate" + Character.toUpperCase(varName.charAt(0)) + varName.substring(1);
     }
 
     private void createDatabaseVersions(DatabaseSchema databaseSchema) {
@@ -53,17 +97,27 @@ public class DatabaseManagerRenderer {
             String databaseConstVersion = JavaUtil.nameToJavaConst(database.getName() + "TablesVersion");
             String databaseViewsConstVersion = JavaUtil.nameToJavaConst(database.getName() + "ViewsVersion");
 
-            myClass.addConstant("int", databaseConstVersion, "1").setFinal(true);
+            myClass.addConstant("int", databaseConstVersion, String.valueOf(database.getVersion())).setFinal(true);
             myClass.addConstant("int", databaseViewsConstVersion, "1").setFinal(true);
         }
     }
 
-    private void createOnUpgrade() {
+    private void createOnUpgrade(DatabaseSchema databaseSchema) {
         StringBuilder content = new StringBuilder();
 
         content.append("String databaseName = androidDatabase.getName();\n");
         content.append("getLogger().i(TAG, \"Upgrading database [\" + databaseName + \"] from version \" + oldVersion + \" to \" + newVersion);\n");
 
+        if (genConfig.getSchemaSnapshotDir() != null) {
+            content.append("\n// incremental migrations (generated from the schema snapshots)\n");
+            for (SchemaDatabase database : databaseSchema.getDatabases()) {
+                content.append("if (databaseName.equals(DatabaseManagerConst.").append(getDatabaseConstName(database)).append(") && ")
+                        .append(getMigrateDatabaseMethodName(database)).append("(androidDatabase, oldVersion, newVersion)) {\n");
+                content.append(TAB).append("return;\n");
+                content.append("}\n");
+            }
+        }
+
 
         List<JavaVariable> params = Arrays.asList(new JavaVariable("AndroidDatabase", "androidDatabase"),
                 new JavaVariable("int", "oldVersion"),
@@ -82,8 +136,8 @@ public class DatabaseManagerRenderer {
                 new JavaVariable("int", "oldVersion"),
                 new JavaVariable("int", "newVersion"));
 
-        content.append("// automatically drop/create views\n");
-        content.append("super.onUpgradeViews(androidDatabase, oldVersion, newVersion);\n");
+        content.append("// drop/create only the views whose CREATE_VIEW changed (and the views that depend on them)\n");
+        content.append("upgradeChangedViews(androidDatabase);\n");
 
         myClass.addMethod(Access.PUBLIC, "void", "onUpgradeViews", params, content.toString());
     }
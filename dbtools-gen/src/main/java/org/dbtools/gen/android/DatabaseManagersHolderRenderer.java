@@ -4,6 +4,7 @@ import org.dbtools.codegen.java.Access;
 import org.dbtools.codegen.java.JavaClass;
 import org.dbtools.codegen.java.JavaMethod;
 import org.dbtools.codegen.java.JavaVariable;
+import org.dbtools.gen.GenConfig;
 import org.dbtools.schema.schemafile.*;
 import org.dbtools.util.JavaUtil;
 
@@ -11,9 +12,14 @@ import java.util.Arrays;
 import java.util.List;
 
 public class DatabaseManagersHolderRenderer {
+    private final GenConfig genConfig;
     private String packageName;
     private JavaClass myClass;
 
+    public DatabaseManagersHolderRenderer(GenConfig genConfig) {
+        this.genConfig = genConfig;
+    }
+
     public void generate(SchemaDatabase database, String packageBase, String packageName, List<SchemaTable> tables, List<SchemaView> views, List<SchemaQuery> queries, String outDir) {
         System.out.println("Generating DatabaseManagersHolder...");
 
@@ -52,7 +58,7 @@ public class DatabaseManagersHolderRenderer {
         JavaMethod initMethod = myClass.addMethod(Access.PUBLIC, "void", "init", params, initContent.toString());
         initMethod.setStatic(true);
 
-        myClass.writeToDisk(outDir, true);
+        myClass.writeToDisk(outDir, true, genConfig.getFileWriter());
     }
 
     private void addSchemaEntityToInit(StringBuilder initContent, SchemaEntity entity) {
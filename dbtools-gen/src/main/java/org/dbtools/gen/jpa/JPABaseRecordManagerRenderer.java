@@ -14,8 +14,13 @@ import org.dbtools.codegen.java.JavaClass;
 import org.dbtools.codegen.java.JavaMethod;
 import org.dbtools.codegen.java.JavaVariable;
 import org.dbtools.gen.GenConfig;
+import org.dbtools.renderer.SchemaRenderer;
 import org.dbtools.schema.schemafile.SchemaEntity;
 import org.dbtools.schema.schemafile.SchemaEntityType;
+import org.dbtools.schema.schemafile.SchemaTable;
+
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * @author Jeff
@@ -31,7 +36,13 @@ public class JPABaseRecordManagerRenderer {
     public JPABaseRecordManagerRenderer() {
     }
 
-    public void generateObjectCode(SchemaEntity entity, String packageName) {
+    /**
+     * @param primaryKeyParameter        primary key of the record (null if the record has no primary key)
+     * @param foreignKeyFinderParameters foreign key properties of the record (from JPABaseRecordRenderer)
+     * @param batchInsertSupported       true if the record has INSERT_SQL and bindInsertStatement(...)
+     */
+    public void generateObjectCode(SchemaEntity entity, String packageName, JavaVariable primaryKeyParameter, List<JavaVariable> foreignKeyFinderParameters,
+                                   boolean batchInsertSupported) {
         String TAB = JavaClass.getTab();
         SchemaEntityType type = entity.getType();
         String recordClassName = JPARecordClassRenderer.createClassName(entity);
@@ -73,11 +84,32 @@ public class JPABaseRecordManagerRenderer {
         myClass.addMethod(Access.PUBLIC, "String", "getTableName", "return " + recordClassName + ".TABLE;");
         myClass.addMethod(Access.PUBLIC, "String", "getTableClassName", "return " + recordClassName + ".TABLE_CLASSNAME;");
 
+        addFindAllMethod(recordClassName);
+        addFindCountMethod(recordClassName);
+
         switch (type) {
             default:
             case TABLE:
                 myClass.addMethod(Access.PUBLIC, "String", "getPrimaryKey", "return " + recordClassName + "." + JPABaseRecordRenderer.PRIMARY_KEY_COLUMN + ";");
                 myClass.addMethod(Access.PUBLIC, "String", "getPrimaryKeyProperty", "return " + recordClassName + "." + JPABaseRecordRenderer.PRIMARY_KEY_PROPERTY_COLUMN + ";");
+
+                if (primaryKeyParameter != null) {
+                    addFindByPrimaryKeyMethod(recordClassName, primaryKeyParameter);
+                    addKeysetPagingMethods(recordClassName, primaryKeyParameter);
+                }
+                for (JavaVariable finderParameter : foreignKeyFinderParameters) {
+                    addForeignKeyFinderMethod(recordClassName, finderParameter);
+                }
+
+                addFetchGraphMethods(recordClassName);
+
+                if (batchInsertSupported) {
+                    addSaveAllBatchedMethods(recordClassName);
+                }
+
+                if (entity instanceof SchemaTable && !((SchemaTable) entity).isReadonly()) {
+                    addDeleteOrphansMethod((SchemaTable) entity);
+                }
                 break;
             case VIEW:
             case QUERY:
@@ -87,20 +119,38 @@ public class JPABaseRecordManagerRenderer {
         }
     }
 
-    public void addFindCountMethod(JavaClass myClass, String recordClassName) {
-        myClass.addImport("javax.persistence.Query");
-        String content = "Query q = entityManager.createNativeQuery(\"SELECT count(0) FROM \" + " + recordClassName + ".TABLE);\n"
-                + "return ((Number) q.getSingleResult()).longValue();\n";
+    /**
+     * Finders use the @NamedQuery definitions of the base record (QUERY_ constants)
+     */
+    private void addFindAllMethod(String recordClassName) {
+        myClass.addImport("java.util.List");
+        String content = "return entityManager.createNamedQuery(" + recordClassName + "." + JPABaseRecordRenderer.QUERY_FIND_ALL + ", " + recordClassName + ".class).getResultList();";
+        myClass.addMethod(Access.PUBLIC, "List<" + recordClassName + ">", "findAll", content);
+    }
+
+    private void addFindCountMethod(String recordClassName) {
+        String content = "return entityManager.createNamedQuery(" + recordClassName + "." + JPABaseRecordRenderer.QUERY_FIND_COUNT + ", Long.class).getSingleResult();";
         myClass.addMethod(Access.PUBLIC, "long", "findCount", content);
     }
 
-    public void addFindAllMethod(JavaClass myClass, String recordClassName) {
-        myClass.addImport("javax.persistence.Query");
-        String content = "Query q = entityManager.createQuery(\"SELECT o FROM \" + " + recordClassName + ".TABLE_CLASSNAME + \" o\");\n"
-                + "return q.getResultList();\n";
+    private void addFindByPrimaryKeyMethod(String recordClassName, JavaVariable primaryKeyParameter) {
+        myClass.addImport("java.util.List");
+        String parameterName = primaryKeyParameter.getName();
+        String content = "List<" + recordClassName + "> results = entityManager.createNamedQuery(" + recordClassName + "." + JPABaseRecordRenderer.QUERY_FIND_BY_PRIMARY_KEY + ", " + recordClassName + ".class)\n"
+                + JavaClass.getTab() + JavaClass.getTab() + ".setParameter(\"" + parameterName + "\", " + parameterName + ")\n"
+                + JavaClass.getTab() + JavaClass.getTab() + ".getResultList();\n"
+                + "return results.isEmpty() ? null : results.get(0);";
+        myClass.addMethod(Access.PUBLIC, recordClassName, "findByPrimaryKey", Arrays.asList(new JavaVariable(primaryKeyParameter.getDataType(), parameterName)), content);
+    }
 
+    private void addForeignKeyFinderMethod(String recordClassName, JavaVariable finderParameter) {
         myClass.addImport("java.util.List");
-        myClass.addMethod(Access.PUBLIC, "List<" + recordClassName + ">", "findAll", content);
+        String parameterName = finderParameter.getName();
+        String content = "return entityManager.createNamedQuery(" + recordClassName + "." + JPABaseRecordRenderer.getFinderQueryConstantName(parameterName) + ", " + recordClassName + ".class)\n"
+                + JavaClass.getTab() + JavaClass.getTab() + ".setParameter(\"" + parameterName + "\", " + parameterName + ")\n"
+                + JavaClass.getTab() + JavaClass.getTab() + ".getResultList();";
+        myClass.addMethod(Access.PUBLIC, "List<" + recordClassName + ">", JPABaseRecordRenderer.getFinderMethodName(parameterName),
+                Arrays.asList(new JavaVariable(finderParameter.getDataType(), parameterName)), content);
     }
 
     public void addDeleteAllMethod(JavaClass myClass, String recordClassName) {
@@ -110,6 +160,180 @@ public class JPABaseRecordManagerRenderer {
         myClass.addMethod(Access.PUBLIC, "void", "deleteAll", content);
     }
 
+    /**
+     * Keyset paging on the primary key (WHERE pk > [last pk of the previous page] ORDER BY pk) so all records can be read
+     * in constant memory: by default iterateAll(...) / visitAll(...) flush and clear the persistence context before each
+     * following page (the records of the previous pages are detached).  clearPages = false keeps every read record (and
+     * the other managed entities) in the persistence context.
+     */
+    private void addKeysetPagingMethods(String recordClassName, JavaVariable primaryKeyParameter) {
+        String TAB = JavaClass.getTab();
+        String parameterName = primaryKeyParameter.getName();
+        myClass.addImport("javax.persistence.TypedQuery");
+        myClass.addImport("java.util.Iterator");
+        myClass.addImport("java.util.List");
+        myClass.addImport("java.util.NoSuchElementException");
+        myClass.addImport("java.util.function.Consumer");
+
+        myClass.addConstant("int", "DEFAULT_PAGE_SIZE", "500");
+
+        String findPageContent = "TypedQuery<" + recordClassName + "> query;\n"
+                + "if (lastPrimaryKey == null) {\n"
+                + TAB + "query = entityManager.createNamedQuery(" + recordClassName + "." + JPABaseRecordRenderer.QUERY_FIND_FIRST_PAGE + ", " + recordClassName + ".class);\n"
+                + "} else {\n"
+                + TAB + "query = entityManager.createNamedQuery(" + recordClassName + "." + JPABaseRecordRenderer.QUERY_FIND_PAGE_AFTER + ", " + recordClassName + ".class)\n"
+                + TAB + TAB + TAB + ".setParameter(\"" + parameterName + "\", lastPrimaryKey);\n"
+                + "}\n"
+                + "return query.setMaxResults(pageSize).getResultList();";
+        myClass.addMethod(Access.PUBLIC, "List<" + recordClassName + ">", "findPageAfter",
+                Arrays.asList(new JavaVariable("Object", "lastPrimaryKey"), new JavaVariable("int", "pageSize")), findPageContent);
+
+        String iterateContent = "if (pageSize < 1) {\n"
+                + TAB + "throw new IllegalArgumentException(\"pageSize must be > 0\");\n"
+                + "}\n"
+                + "return new Iterator<" + recordClassName + ">() {\n"
+                + TAB + "private List<" + recordClassName + "> page = findPageAfter(null, pageSize);\n"
+                + TAB + "private int index = 0;\n"
+                + TAB + "@Override\n"
+                + TAB + "public boolean hasNext() {\n"
+                + TAB + TAB + "if (index == page.size() && page.size() == pageSize) {\n"
+                + TAB + TAB + TAB + "Object lastPrimaryKey = page.get(index - 1).getPrimaryKeyId();\n"
+                + TAB + TAB + TAB + "if (clearPages) {\n"
+                + TAB + TAB + TAB + TAB + "entityManager.flush();\n"
+                + TAB + TAB + TAB + TAB + "entityManager.clear();\n"
+                + TAB + TAB + TAB + "}\n"
+                + TAB + TAB + TAB + "page = findPageAfter(lastPrimaryKey, pageSize);\n"
+                + TAB + TAB + TAB + "index = 0;\n"
+                + TAB + TAB + "}\n"
+                + TAB + TAB + "return index < page.size();\n"
+                + TAB + "}\n"
+                + TAB + "@Override\n"
+                + TAB + "public " + recordClassName + " next() {\n"
+                + TAB + TAB + "if (!hasNext()) {\n"
+                + TAB + TAB + TAB + "throw new NoSuchElementException();\n"
+                + TAB + TAB + "}\n"
+                + TAB + TAB + "return page.get(index++);\n"
+                + TAB + "}\n"
+                + "};";
+        myClass.addMethod(Access.PUBLIC, "Iterator<" + recordClassName + ">", "iterateAll",
+                Arrays.asList(new JavaVariable("final int", "pageSize"), new JavaVariable("final boolean", "clearPages")), iterateContent);
+        myClass.addMethod(Access.PUBLIC, "Iterator<" + recordClassName + ">", "iterateAll", Arrays.asList(new JavaVariable("int", "pageSize")), "return iterateAll(pageSize, true);");
+        myClass.addMethod(Access.PUBLIC, "Iterator<" + recordClassName + ">", "iterateAll", "return iterateAll(DEFAULT_PAGE_SIZE, true);");
+
+        String visitContent = "Iterator<" + recordClassName + "> iterator = iterateAll(pageSize, clearPages);\n"
+                + "while (iterator.hasNext()) {\n"
+                + TAB + "visitor.accept(iterator.next());\n"
+                + "}";
+        myClass.addMethod(Access.PUBLIC, "void", "visitAll", Arrays.asList(new JavaVariable("int", "pageSize"), new JavaVariable("boolean", "clearPages"),
+                new JavaVariable("Consumer<? super " + recordClassName + ">", "visitor")), visitContent);
+        myClass.addMethod(Access.PUBLIC, "void", "visitAll", Arrays.asList(new JavaVariable("int", "pageSize"), new JavaVariable("Consumer<? super " + recordClassName + ">", "visitor")),
+                "visitAll(pageSize, true, visitor);");
+        myClass.addMethod(Access.PUBLIC, "void", "visitAll", Arrays.asList(new JavaVariable("Consumer<? super " + recordClassName + ">", "visitor")), "visitAll(DEFAULT_PAGE_SIZE, true, visitor);");
+    }
+
+    /**
+     * Fetch graph finders: load the relationships named by a fetch graph (the @NamedEntityGraph GRAPH_ constants of the
+     * record or a graph from createFetchGraph(...)) with the entities instead of one select per entity and relationship.
+     */
+    private void addFetchGraphMethods(String recordClassName) {
+        String TAB = JavaClass.getTab();
+        myClass.addImport("javax.persistence.EntityGraph");
+        myClass.addImport("javax.persistence.TypedQuery");
+        myClass.addImport("java.util.ArrayList");
+        myClass.addImport("java.util.Collections");
+        myClass.addImport("java.util.LinkedHashSet");
+        myClass.addImport("java.util.List");
+
+        myClass.addConstant("String", "FETCH_GRAPH_HINT", "javax.persistence.fetchgraph");
+
+        String createContent = "EntityGraph<" + recordClassName + "> fetchGraph = entityManager.createEntityGraph(" + recordClassName + ".class);\n"
+                + "fetchGraph.addAttributeNodes(attributeNames);\n"
+                + "return fetchGraph;";
+        myClass.addMethod(Access.PUBLIC, "EntityGraph<" + recordClassName + ">", "createFetchGraph", Arrays.asList(new JavaVariable("String...", "attributeNames")), createContent);
+
+        myClass.addMethod(Access.PUBLIC, "List<" + recordClassName + ">", "findAllWithFetchGraph", Arrays.asList(new JavaVariable("String", "fetchGraphName")),
+                "return findAllWithFetchGraph(entityManager.getEntityGraph(fetchGraphName));");
+
+        // fetched collections are joined: remove the duplicate parents
+        String findAllContent = "TypedQuery<" + recordClassName + "> query = entityManager.createNamedQuery(" + recordClassName + "." + JPABaseRecordRenderer.QUERY_FIND_ALL + ", " + recordClassName + ".class);\n"
+                + "query.setHint(FETCH_GRAPH_HINT, fetchGraph);\n"
+                + "return new ArrayList<" + recordClassName + ">(new LinkedHashSet<" + recordClassName + ">(query.getResultList()));";
+        myClass.addMethod(Access.PUBLIC, "List<" + recordClassName + ">", "findAllWithFetchGraph", Arrays.asList(new JavaVariable("EntityGraph<?>", "fetchGraph")), findAllContent);
+
+        String findContent = "return entityManager.find(" + recordClassName + ".class, primaryKey,\n"
+                + TAB + TAB + "Collections.<String, Object>singletonMap(FETCH_GRAPH_HINT, fetchGraph));";
+        myClass.addMethod(Access.PUBLIC, recordClassName, "findByPrimaryKeyWithFetchGraph",
+                Arrays.asList(new JavaVariable("Object", "primaryKey"), new JavaVariable("EntityGraph<?>", "fetchGraph")), findContent);
+    }
+
+    /**
+     * saveAllBatched(...): inserts records with JDBC batches (INSERT_SQL / bindInsertStatement(...) of the record) on the
+     * connection of the current transaction instead of one persist() per record.  Pending changes are flushed first.  The
+     * records are not attached to the persistence context and generated primary keys are not read back.
+     */
+    private void addSaveAllBatchedMethods(String recordClassName) {
+        String TAB = JavaClass.getTab();
+        myClass.addImport("java.sql.Connection");
+        myClass.addImport("java.sql.PreparedStatement");
+        myClass.addImport("java.sql.SQLException");
+        myClass.addImport("java.util.Collection");
+        myClass.addImport("org.hibernate.Session");
+        myClass.addImport("org.hibernate.jdbc.Work");
+
+        myClass.addConstant("int", "DEFAULT_BATCH_SIZE", "100");
+
+        String content = "if (batchSize < 1) {\n"
+                + TAB + "throw new IllegalArgumentException(\"batchSize must be > 0\");\n"
+                + "}\n"
+                + "entityManager.flush();\n"
+                + "entityManager.unwrap(Session.class).doWork(new Work() {\n"
+                + TAB + "@Override\n"
+                + TAB + "public void execute(Connection connection) throws SQLException {\n"
+                + TAB + TAB + "try (PreparedStatement statement = connection.prepareStatement(" + recordClassName + "." + JPABaseRecordRenderer.INSERT_SQL + ")) {\n"
+                + TAB + TAB + TAB + "int count = 0;\n"
+                + TAB + TAB + TAB + "for (" + recordClassName + " record : records) {\n"
+                + TAB + TAB + TAB + TAB + "record." + JPABaseRecordRenderer.BIND_INSERT_STATEMENT_METHOD_NAME + "(statement);\n"
+                + TAB + TAB + TAB + TAB + "statement.addBatch();\n"
+                + TAB + TAB + TAB + TAB + "if (++count % batchSize == 0) {\n"
+                + TAB + TAB + TAB + TAB + TAB + "statement.executeBatch();\n"
+                + TAB + TAB + TAB + TAB + "}\n"
+                + TAB + TAB + TAB + "}\n"
+                + TAB + TAB + TAB + "if (count % batchSize != 0) {\n"
+                + TAB + TAB + TAB + TAB + "statement.executeBatch();\n"
+                + TAB + TAB + TAB + "}\n"
+                + TAB + TAB + "}\n"
+                + TAB + "}\n"
+                + "});";
+        JavaMethod method = myClass.addMethod(Access.PUBLIC, "void", "saveAllBatched",
+                Arrays.asList(new JavaVariable("final Collection<? extends " + recordClassName + ">", "records"), new JavaVariable("final int", "batchSize")), content);
+        addJavaEESupport(method);
+
+        JavaMethod defaultMethod = myClass.addMethod(Access.PUBLIC, "void", "saveAllBatched",
+                Arrays.asList(new JavaVariable("Collection<? extends " + recordClassName + ">", "records")), "saveAllBatched(records, DEFAULT_BATCH_SIZE);");
+        addJavaEESupport(defaultMethod);
+    }
+
+    /**
+     * deleteOrphans(): set based delete of the rows whose foreign keys reference rows that no longer exist (one DELETE per
+     * foreign key).  Referenced tables should be cleaned up first (see SchemaRenderer.generateOrphanCleanupStatements(List)).
+     */
+    private void addDeleteOrphansMethod(SchemaTable table) {
+        List<String> statements = SchemaRenderer.generateOrphanCleanupStatements(table);
+        if (statements.isEmpty()) {
+            return;
+        }
+
+        StringBuilder content = new StringBuilder();
+        content.append("int count = 0;\n");
+        for (String statement : statements) {
+            content.append("count += entityManager.createNativeQuery(\"").append(statement).append("\").executeUpdate();\n");
+        }
+        content.append("return count;");
+
+        JavaMethod method = myClass.addMethod(Access.PUBLIC, "int", "deleteOrphans", content.toString());
+        addJavaEESupport(method);
+    }
+
     private void addJavaEESupport(JavaMethod method) {
         if (genConfig.isJavaeeSupport()) {
             method.addAnnotation("@javax.transaction.Transactional");
@@ -122,7 +346,7 @@ public class JPABaseRecordManagerRenderer {
     }
 
     public void writeToFile(String outDir) {
-        myClass.writeToDisk(outDir);
+        myClass.writeToDisk(outDir, true, genConfig.getFileWriter());
     }
 
     public void setGenConfig(GenConfig genConfig) {
@@ -13,6 +13,7 @@ package org.dbtools.gen.jpa;
 import org.dbtools.codegen.java.*;
 import org.dbtools.gen.DateType;
 import org.dbtools.gen.GenConfig;
+import org.dbtools.renderer.SchemaRenderer;
 import org.dbtools.schema.ClassInfo;
 import org.dbtools.schema.schemafile.*;
 
@@ -30,6 +31,13 @@ public class JPABaseRecordRenderer {
     public static final String CLEANUP_ORPHANS_METHOD_NAME = "cleanupOrphans";
     public static final String PRIMARY_KEY_COLUMN = "PRIMARY_KEY_COLUMN";
     public static final String PRIMARY_KEY_PROPERTY_COLUMN = "PRIMARY_KEY_PROPERTY_COLUMN";
+    public static final String QUERY_FIND_ALL = "QUERY_FIND_ALL";
+    public static final String QUERY_FIND_COUNT = "QUERY_FIND_COUNT";
+    public static final String QUERY_FIND_BY_PRIMARY_KEY = "QUERY_FIND_BY_PRIMARY_KEY";
+    public static final String QUERY_FIND_FIRST_PAGE = "QUERY_FIND_FIRST_PAGE";
+    public static final String QUERY_FIND_PAGE_AFTER = "QUERY_FIND_PAGE_AFTER";
+    public static final String INSERT_SQL = "INSERT_SQL";
+    public static final String BIND_INSERT_STATEMENT_METHOD_NAME = "bindInsertStatement";
 
     private JavaClass myClass;
 
@@ -37,6 +45,14 @@ public class JPABaseRecordRenderer {
 
     private StringBuilder toStringContent;
     private StringBuilder cleanupOrphansContent;
+    private List<String> fetchGraphAttributes = new ArrayList<>();
+    private String recordClassName;
+    private String persistenceNamePrefix;
+    private JavaVariable primaryKeyFinderParameter;
+    private List<JavaVariable> foreignKeyFinderParameters = new ArrayList<>();
+    private List<String> insertColumnNames = new ArrayList<>();
+    private StringBuilder bindInsertContent;
+    private boolean batchInsertSupported;
 
     private boolean useInnerEnums = true;
 
@@ -101,6 +117,12 @@ public class JPABaseRecordRenderer {
         toStringContent = new StringBuilder();
         toStringContent.append("String text = \"\\n\";\n");
         cleanupOrphansContent = new StringBuilder();
+        fetchGraphAttributes = new ArrayList<>();
+        primaryKeyFinderParameter = null;
+        foreignKeyFinderParameters = new ArrayList<>();
+        insertColumnNames = new ArrayList<>();
+        bindInsertContent = new StringBuilder();
+        batchInsertSupported = !entity.isEnumerationTable() && entity instanceof SchemaTable && !((SchemaTable) entity).isReadonly();
 
         // header comment
         // Do not place date in file because it will cause a new check-in to scm        
@@ -130,7 +152,9 @@ public class JPABaseRecordRenderer {
         // constants and variables
         String tableName = entity.getName();
         myClass.addConstant("String", "TABLE", tableName);
-        myClass.addConstant("String", "TABLE_CLASSNAME", JPARecordClassRenderer.createClassName(entity));
+        recordClassName = JPARecordClassRenderer.createClassName(entity);
+        myClass.addConstant("String", "TABLE_CLASSNAME", recordClassName);
+        persistenceNamePrefix = packageName + "." + recordClassName;
 
         List<? extends SchemaField> fields = entity.getFields();
         for (SchemaField field : fields) {
@@ -193,6 +217,19 @@ public class JPABaseRecordRenderer {
             if (primaryKey) {
                 addPkFieldVariableAnnotations(field, fieldNameJavaStyle, newVariable);
 //                newVariable.addAnnotation("javax.persistence.Id");
+                primaryKeyFinderParameter = new JavaVariable(newVariable.getDataType(), fieldNameJavaStyle);
+            } else if (!field.getForeignKeyTable().isEmpty() && !field.isEnumeration()) {
+                foreignKeyFinderParameters.add(new JavaVariable(newVariable.getDataType(), fieldNameJavaStyle));
+            }
+
+            // generated primary keys are not inserted (batch inserts can not fetch the next value of a sequence)
+            if (primaryKey && field.isIncrement()) {
+                String sequencerName = field.getSequencerName();
+                if (sequencerName != null && sequencerName.length() > 0) {
+                    batchInsertSupported = false;
+                }
+            } else {
+                addInsertColumn(field, getInsertValue(field, newVariable));
             }
 
             // add primary key JPA annotations and default functions
@@ -338,7 +375,178 @@ public class JPABaseRecordRenderer {
 
             // new record check
             myClass.addMethod(Access.PUBLIC, "boolean", "isNewRecord", "return getPrimaryKeyId() <= 0;");
+
+            addNamedQueries(className);
+
+            batchInsertSupported = batchInsertSupported && !insertColumnNames.isEmpty();
+            if (batchInsertSupported) {
+                addBatchInsert(tableName);
+            }
+        }
+    }
+
+    /**
+     * INSERT_SQL and bindInsertStatement(PreparedStatement) (binds the INSERT_SQL parameters) for JDBC batch inserts
+     * (see the saveAllBatched(...) methods of the managers)
+     */
+    private void addBatchInsert(String tableName) {
+        myClass.addConstant("String", INSERT_SQL, SchemaRenderer.generateInsertStatement(tableName, insertColumnNames));
+
+        JavaMethod bindMethod = myClass.addMethod(Access.PUBLIC, "void", BIND_INSERT_STATEMENT_METHOD_NAME,
+                Arrays.asList(new JavaVariable("java.sql.PreparedStatement", "statement")), bindInsertContent.toString());
+        bindMethod.addThrowsException("java.sql.SQLException");
+    }
+
+    private void addInsertColumn(SchemaField field, String value) {
+        String sqlType = getSqlTypeName(field.getJdbcDataType());
+        if (sqlType == null) {
+            batchInsertSupported = false;
+            return;
+        }
+
+        insertColumnNames.add(field.getName());
+        bindInsertContent.append("statement.setObject(").append(insertColumnNames.size()).append(", ").append(value)
+                .append(", java.sql.Types.").append(sqlType).append(");\n");
+    }
+
+    /**
+     * @return value of a field as a type that setObject(...) can convert to the sql type of the field
+     */
+    private String getInsertValue(SchemaField field, JavaVariable variable) {
+        String varName = variable.getName();
+        SchemaFieldType fieldType = field.getJdbcDataType();
+        if (field.isEnumeration() && !variable.getDataType().equals(field.getJavaTypeText())) {
+            // enum variable: EnumType.ORDINAL for number columns, otherwise the name of the enum (EnumType.STRING)
+            return varName + " == null ? null : " + varName + (fieldType.isNumberDataType() ? ".ordinal()" : ".name()");
+        }
+
+        switch (fieldType) {
+            case DATE:
+                return varName + " == null ? null : new java.sql.Date(" + varName + ".getTime())";
+            case TIME:
+                return varName + " == null ? null : new java.sql.Time(" + varName + ".getTime())";
+            case DATETIME:
+            case TIMESTAMP:
+                return varName + " == null ? null : new java.sql.Timestamp(" + varName + ".getTime())";
+            case CHAR:
+                if (variable.getDataType().equals("char")) {
+                    return "String.valueOf(" + varName + ")";
+                }
+                return varName + " == null ? null : String.valueOf(" + varName + ")";
+            case BIGINTEGER:
+                return varName + " == null ? null : new java.math.BigDecimal(" + varName + ")";
+            default:
+                return varName;
+        }
+    }
+
+    /**
+     * @return name of the java.sql.Types constant of a field type (null if the type can not be bound)
+     */
+    private static String getSqlTypeName(SchemaFieldType fieldType) {
+        switch (fieldType) {
+            case DATETIME:
+                return "TIMESTAMP";
+            case BIGDECIMAL:
+                return "DECIMAL";
+            case BIGINTEGER:
+                return "NUMERIC";
+            case UNKNOWN:
+            case MONEY:
+            case FRACTION:
+                return null;
+            default:
+                return fieldType.name();
+        }
+    }
+
+    /**
+     * @return true if the last generated record has INSERT_SQL and bindInsertStatement(...)
+     */
+    public boolean isBatchInsertSupported() {
+        return batchInsertSupported;
+    }
+
+    /**
+     * @NamedQuery for each manager finder (parsed and validated once by the persistence provider instead of on every call).
+     * The QUERY_ constants hold the query names ([package].[entity class].[finder]: query names are global to the
+     * persistence unit) and each query parameter is named after the property it is compared to.
+     */
+    private void addNamedQueries(String className) {
+        String selectAll = "SELECT o FROM " + recordClassName + " o";
+
+        List<String> namedQueries = new ArrayList<>();
+        namedQueries.add(createNamedQuery(className, QUERY_FIND_ALL, "findAll", selectAll));
+        namedQueries.add(createNamedQuery(className, QUERY_FIND_COUNT, "findCount", "SELECT COUNT(o) FROM " + recordClassName + " o"));
+        if (primaryKeyFinderParameter != null) {
+            String propertyName = primaryKeyFinderParameter.getName();
+            namedQueries.add(createNamedQuery(className, QUERY_FIND_BY_PRIMARY_KEY, "findByPrimaryKey", selectAll + " WHERE o." + propertyName + " = :" + propertyName));
+
+            // keyset pages (primary key order)
+            String orderBy = " ORDER BY o." + propertyName;
+            namedQueries.add(createNamedQuery(className, QUERY_FIND_FIRST_PAGE, "findFirstPage", selectAll + orderBy));
+            namedQueries.add(createNamedQuery(className, QUERY_FIND_PAGE_AFTER, "findPageAfter", selectAll + " WHERE o." + propertyName + " > :" + propertyName + orderBy));
         }
+        for (JavaVariable finderParameter : foreignKeyFinderParameters) {
+            String propertyName = finderParameter.getName();
+            namedQueries.add(createNamedQuery(className, getFinderQueryConstantName(propertyName), getFinderMethodName(propertyName), selectAll + " WHERE o." + propertyName + " = :" + propertyName));
+        }
+
+        myClass.addImport("javax.persistence.NamedQueries");
+        myClass.addImport("javax.persistence.NamedQuery");
+        StringBuilder namedQueriesAnnotation = new StringBuilder("@NamedQueries({");
+        for (int i = 0; i < namedQueries.size(); i++) {
+            namedQueriesAnnotation.append(i > 0 ? "," : "").append("\n").append(JavaClass.getTab()).append(namedQueries.get(i));
+        }
+        namedQueriesAnnotation.append("\n})");
+        myClass.addAnnotation(namedQueriesAnnotation.toString());
+    }
+
+    private String createNamedQuery(String className, String constantName, String queryName, String query) {
+        myClass.addConstant("String", constantName, persistenceNamePrefix + "." + queryName);
+        return "@NamedQuery(name=" + className + "." + constantName + ", query=\"" + query + "\")";
+    }
+
+    public static String getFinderQueryConstantName(String propertyName) {
+        return "QUERY_FIND_BY_" + JavaClass.formatConstant(propertyName);
+    }
+
+    public static String getFinderMethodName(String propertyName) {
+        return "findBy" + propertyName.substring(0, 1).toUpperCase() + propertyName.substring(1);
+    }
+
+    /**
+     * @return primary key (name and type) of the last generated record (null if the record has no primary key)
+     */
+    public JavaVariable getPrimaryKeyFinderParameter() {
+        return primaryKeyFinderParameter;
+    }
+
+    /**
+     * @return foreign key properties (name and type) of the last generated record (each has a findBy[Property] named query)
+     */
+    public List<JavaVariable> getForeignKeyFinderParameters() {
+        return foreignKeyFinderParameters;
+    }
+
+    /**
+     * Relationship attribute that can be loaded with a fetch graph: adds the GRAPH_[ATTRIBUTE] constant with the name of
+     * the @NamedEntityGraph ([package].[entity class].[attribute]) of the record class
+     */
+    private void addFetchGraphAttribute(String attributeName) {
+        fetchGraphAttributes.add(attributeName);
+        myClass.addConstant("String", getFetchGraphConstantName(attributeName), persistenceNamePrefix + "." + attributeName);
+    }
+
+    public static String getFetchGraphConstantName(String attributeName) {
+        return "GRAPH_" + JavaClass.formatConstant(attributeName);
+    }
+
+    /**
+     * @return relationship attributes of the last generated record (each gets a @NamedEntityGraph on the record class)
+     */
+    public List<String> getFetchGraphAttributes() {
+        return fetchGraphAttributes;
     }
 
     private void addPkFieldVariableAnnotations(SchemaField field, String fieldNameJavaStyle, JavaVariable newVariable) {
@@ -355,7 +563,9 @@ public class JPABaseRecordRenderer {
             myClass.addImport("javax.persistence.GeneratedValue");
             myClass.addImport("javax.persistence.SequenceGenerator");
             newVariable.addAnnotation("@GeneratedValue(generator=\"" + sequencerName + "\")");
-            newVariable.addAnnotation("@SequenceGenerator(name=\"" + sequencerName + "\", sequenceName=\"" + sequencerName + "\", allocationSize=1)");
+            // allocationSize matches the sequence INCREMENT BY: ids are handed out from memory between sequence calls
+            int allocationSize = field instanceof SchemaTableField ? ((SchemaTableField) field).getSequencerIncrement() : 1;
+            newVariable.addAnnotation("@SequenceGenerator(name=\"" + sequencerName + "\", sequenceName=\"" + sequencerName + "\", allocationSize=" + allocationSize + ")");
         }
     }
 
@@ -506,6 +716,9 @@ public class JPABaseRecordRenderer {
         }
 
         myClass.addVariable(manyToOneVar, true);
+        addFetchGraphAttribute(varName);
+        addInsertColumn(field, varName + " == null ? null : " + varName + ".getPrimaryKeyId()");
+        foreignKeyFinderParameters.add(new JavaVariable(fkTableClassInfo.getPackageName(packageName) + "." + fkTableClassName, varName));
     }
 
     private void generateOneToMany(SchemaDatabase schemaDatabase, String packageName, SchemaField field) {
@@ -535,6 +748,9 @@ public class JPABaseRecordRenderer {
         }
 
         myClass.addVariable(manyToOneVar, true);
+        addFetchGraphAttribute(varName);
+        addInsertColumn(field, varName + " == null ? null : " + varName + ".getPrimaryKeyId()");
+        foreignKeyFinderParameters.add(new JavaVariable(fkTableClassInfo.getPackageName(packageName) + "." + fkTableClassName, varName));
     }
 
     private void generateOneToOne(SchemaDatabase schemaDatabase, String packageName, SchemaField field) {
@@ -573,13 +789,16 @@ public class JPABaseRecordRenderer {
         }
 
         myClass.addVariable(oneToOneVar, true);
+        addFetchGraphAttribute(varName);
+        addInsertColumn(field, varName + " == null ? null : " + varName + ".getPrimaryKeyId()");
+        foreignKeyFinderParameters.add(new JavaVariable(fkTableClassInfo.getPackageName(packageName) + "." + fkTableClassName, varName));
     }
 
     private void addForeignKeyData(SchemaDatabase dbSchema, SchemaEntity entity, String packageName) {
         String TAB = JavaClass.getTab();
 
         // find any other tables that depend on this one (MANYTOONE) or other tables this table depends on (ONETOONE)
-        for (SchemaTable tmpTable : dbSchema.getTables()) {
+        for (SchemaTable tmpTable : dbSchema.getReferencingTables(entity.getName())) {
             List<SchemaTableField> fkFields = tmpTable.getForeignKeyFields(entity.getName());
 
             for (SchemaTableField fkField : fkFields) {
@@ -630,6 +849,13 @@ public class JPABaseRecordRenderer {
 
                         itemsList.addAnnotation("@OneToMany(mappedBy=\"" + mappedByVarName + "\", " + cascadeTypeAnnotation + "fetch=FetchType." + fkField.getForeignKeyFetchType() + ")");
 
+                        // load the collections of several parents with one select (instead of one select per parent)
+                        if (fkField.getForeignKeyBatchSize() > 0) {
+                            myClass.addImport("org.hibernate.annotations.BatchSize");
+                            itemsList.addAnnotation("@BatchSize(size=" + fkField.getForeignKeyBatchSize() + ")");
+                        }
+                        addFetchGraphAttribute(items);
+
                         String orderByColumn = fkField.getForeignKeyOrderByColumn();
                         if (orderByColumn != null && orderByColumn.length() > 0) {
                             myClass.addImport("javax.persistence.OrderBy");
@@ -719,10 +945,10 @@ public class JPABaseRecordRenderer {
     }
 
     public void writeToFile(String directoryname) {
-        myClass.writeToDisk(directoryname);
+        myClass.writeToDisk(directoryname, true, genConfig.getFileWriter());
 
         for (JavaEnum enumClass : enumerationClasses) {
-            enumClass.writeToDisk(directoryname);
+            enumClass.writeToDisk(directoryname, true, genConfig.getFileWriter());
         }
     }
 
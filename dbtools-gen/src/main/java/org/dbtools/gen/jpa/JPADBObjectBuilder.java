@@ -33,6 +33,7 @@ public class JPADBObjectBuilder implements DBObjectBuilder {
         baseRecordClass.setGenConfig(genConfig);
         managerClass.setGenConfig(genConfig);
         baseManagerClass.setGenConfig(genConfig);
+        recordClass.setGenConfig(genConfig);
     }
 
     @Override
@@ -51,6 +52,20 @@ public class JPADBObjectBuilder implements DBObjectBuilder {
             }
         }
 
+        // Entities
+        String baseRecordFileName = outDir + JPABaseRecordRenderer.createClassName(entity) + ".java";
+        String recordFileName = outDir + JPARecordClassRenderer.createClassName(entity) + ".java";
+        File baseRecordFile = new File(baseRecordFileName);
+        File recordFile = new File(recordFileName);
+
+
+        // BaseRecord
+        baseRecordClass.generate(database, entity, packageName);
+        baseRecordClass.writeToFile(outDir);
+
+        filesGenerated.add(baseRecordFile.getPath());
+        filesGeneratedCount++;
+
         // Managers
         if (!entity.isEnumerationTable()) {
             String managerFileName = outDir + JPARecordManagerRenderer.getClassName(entity) + ".java";
@@ -59,7 +74,8 @@ public class JPADBObjectBuilder implements DBObjectBuilder {
             File managerFile = new File(managerFileName);
 
             // Base Manager
-            baseManagerClass.generateObjectCode(entity, packageName);
+            baseManagerClass.generateObjectCode(entity, packageName, baseRecordClass.getPrimaryKeyFinderParameter(), baseRecordClass.getForeignKeyFinderParameters(),
+                    baseRecordClass.isBatchInsertSupported());
             baseManagerClass.writeToFile(outDir);
 
             filesGeneratedCount++;
@@ -73,24 +89,10 @@ public class JPADBObjectBuilder implements DBObjectBuilder {
             }
         }
 
-        // Entities
-        String baseRecordFileName = outDir + JPABaseRecordRenderer.createClassName(entity) + ".java";
-        String recordFileName = outDir + JPARecordClassRenderer.createClassName(entity) + ".java";
-        File baseRecordFile = new File(baseRecordFileName);
-        File recordFile = new File(recordFileName);
-
-
-        // BaseRecord
-        baseRecordClass.generate(database, entity, packageName);
-        baseRecordClass.writeToFile(outDir);
-
-        filesGenerated.add(baseRecordFile.getPath());
-        filesGeneratedCount++;
-
         // Record
         if (!entity.isEnumerationTable()) {
             if (!recordFile.exists()) {
-                recordClass.generate(entity, packageName);
+                recordClass.generate(entity, packageName, baseRecordClass.getFetchGraphAttributes());
                 recordClass.writeToFile(outDir);
 
                 filesGenerated.add(recordFile.getPath());
@@ -22,13 +22,18 @@ public class JPAObjectsBuilder extends DBObjectsBuilder {
         return objectBuilder;
     }
 
+    @Override
+    public DBObjectBuilder createObjectBuilder() {
+        return new JPADBObjectBuilder(getGenConfig());
+    }
+
     public void buildAll(String schemaFilename, String baseOutputDir, String basePackageName) {
         setXmlFilename(schemaFilename);
         setOutputBaseDir(baseOutputDir);
         setPackageBase(basePackageName);
 
         build();
-        System.out.println("Generated [" + objectBuilder.getNumberFilesGenerated() + "] files.");
+        System.out.println(getBuildSummary());
     }
 
 }
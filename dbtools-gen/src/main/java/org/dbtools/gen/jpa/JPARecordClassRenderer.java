@@ -10,6 +10,7 @@
 package org.dbtools.gen.jpa;
 
 import org.dbtools.codegen.java.JavaClass;
+import org.dbtools.gen.GenConfig;
 import org.dbtools.schema.schemafile.SchemaEntity;
 import org.dbtools.schema.schemafile.SchemaTable;
 import org.dbtools.schema.schemafile.SchemaTableUnique;
@@ -25,6 +26,7 @@ import java.util.List;
 public class JPARecordClassRenderer {
 
     private JavaClass myClass;
+    private GenConfig genConfig;
 
     /**
      * Creates a new instance of JPARecordClassRenderer.
@@ -32,7 +34,7 @@ public class JPARecordClassRenderer {
     public JPARecordClassRenderer() {
     }
 
-    public void generate(SchemaEntity entity, String packageName) {
+    public void generate(SchemaEntity entity, String packageName, List<String> fetchGraphAttributes) {
         String baseClassName = JPABaseRecordRenderer.createClassName(entity);
         String className = createClassName(entity);
         myClass = new JavaClass(packageName, className);
@@ -62,6 +64,23 @@ public class JPARecordClassRenderer {
         }
         tableAnnotationBuilder.append(")");
         myClass.addAnnotation(tableAnnotationBuilder.toString());
+
+        // one fetch graph per relationship (named by the GRAPH_ constants of the base record)
+        if (!fetchGraphAttributes.isEmpty()) {
+            myClass.addImport("javax.persistence.NamedAttributeNode");
+            myClass.addImport("javax.persistence.NamedEntityGraph");
+            myClass.addImport("javax.persistence.NamedEntityGraphs");
+
+            StringBuilder entityGraphsAnnotation = new StringBuilder("@NamedEntityGraphs({");
+            for (int i = 0; i < fetchGraphAttributes.size(); i++) {
+                String attributeName = fetchGraphAttributes.get(i);
+                entityGraphsAnnotation.append(i > 0 ? "," : "").append("\n").append(JavaClass.getTab());
+                entityGraphsAnnotation.append("@NamedEntityGraph(name=").append(baseClassName).append(".").append(JPABaseRecordRenderer.getFetchGraphConstantName(attributeName));
+                entityGraphsAnnotation.append(", attributeNodes=@NamedAttributeNode(\"").append(attributeName).append("\"))");
+            }
+            entityGraphsAnnotation.append("\n})");
+            myClass.addAnnotation(entityGraphsAnnotation.toString());
+        }
     }
 
     private String getUniqueConstraints(List<SchemaTableUnique> uniqueDeclarations) {
@@ -90,6 +109,10 @@ public class JPARecordClassRenderer {
     }
 
     public void writeToFile(String directoryName) {
-        myClass.writeToDisk(directoryName);
+        myClass.writeToDisk(directoryName, true, genConfig.getFileWriter());
+    }
+
+    public void setGenConfig(GenConfig genConfig) {
+        this.genConfig = genConfig;
     }
 }
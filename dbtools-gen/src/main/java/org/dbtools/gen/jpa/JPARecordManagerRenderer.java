@@ -81,7 +81,7 @@ public class JPARecordManagerRenderer {
     }
 
     public void writeToFile(String outDir) {
-        myClass.writeToDisk(outDir);
+        myClass.writeToDisk(outDir, true, genConfig.getFileWriter());
     }
 
     public void setGenConfig(GenConfig genConfig) {
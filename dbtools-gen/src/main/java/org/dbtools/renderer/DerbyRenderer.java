@@ -102,7 +102,7 @@ public class DerbyRenderer extends SchemaRenderer {
                 if (field.isUnique()) {
                     uniqueFields.add(field);
                 }
-                if (field.isIndex()) {
+                if (table.isIndexField(field, true)) {
                     indexFields.add(field);                // add foreign key
                 }
                 if (!field.getForeignKeyField().equals("")) {
@@ -162,6 +162,7 @@ public class DerbyRenderer extends SchemaRenderer {
             for (SchemaTableField indexField : indexFields) {
                 schema.append("\nCREATE INDEX ").append(table.getName()).append(indexField.getName()).append("_IDX ON ").append(table.getName()).append(" (").append(indexField.getName()).append(");");
             }
+            generateIndexDeclarations(schema, table);
 
             schema.append("\n\n");
 
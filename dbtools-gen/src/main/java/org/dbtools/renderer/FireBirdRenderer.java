@@ -14,6 +14,7 @@
 package org.dbtools.renderer;
 
 import org.dbtools.schema.ForeignKey;
+import org.dbtools.schema.SortOrder;
 import org.dbtools.schema.schemafile.*;
 
 import java.util.ArrayList;
@@ -121,7 +122,7 @@ public class FireBirdRenderer extends SchemaRenderer {
                 if (field.isUnique()) {
                     schema.append(" UNIQUE");
                 }
-                if (field.isIndex()) {
+                if (table.isIndexField(field, false)) {
                     indexFields.add(field);                // add foreign key
                 }
                 if (!field.getForeignKeyField().equals("")) {
@@ -183,6 +184,22 @@ public class FireBirdRenderer extends SchemaRenderer {
                 schema.append("CREATE INDEX ").append(indexName).append(" ON " + table.getName()).append(" (").append(iField.getName()).append(");\n");
             }
 
+            // add index declarations (Firebird sorts a whole index ASCENDING or DESCENDING, not single columns)
+            for (SchemaTableIndex index : table.getIndexDeclarations()) {
+                if (!isIndexSupported(table, index)) {
+                    continue;
+                }
+
+                boolean descending = true;
+                for (SchemaIndexField indexField : index.getIndexFields()) {
+                    descending &= indexField.getOrder() == SortOrder.DESC;
+                }
+
+                schema.append("CREATE ").append(index.isUnique() ? "UNIQUE " : "").append(descending ? "DESCENDING " : "").append("INDEX ");
+                schema.append(index.getIndexName(table.getName())).append(" ON ").append(table.getName());
+                schema.append(" (").append(generateIndexColumns(index, false)).append(");\n");
+            }
+
             schema.append("\n\n");
 
             generateEnumSchema(schema, table, getAlreadyCreatedEnum(), enumPKField, enumValueField, createInserts);
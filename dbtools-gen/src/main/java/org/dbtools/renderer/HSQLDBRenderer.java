@@ -124,7 +124,7 @@ public class HSQLDBRenderer extends SchemaRenderer {
                     uniqueFields.add(field);
                 }
 
-                if (field.isIndex()) {
+                if (table.isIndexField(field, true)) {
                     indexFields.add(field);
                 }
 
@@ -187,6 +187,7 @@ public class HSQLDBRenderer extends SchemaRenderer {
             for (SchemaTableField indexField : indexFields) {
                 schema.append("\nCREATE INDEX ").append(table.getName()).append(indexField.getName()).append("_IDX ON ").append(table.getName()).append(" (").append(indexField.getName()).append(");");
             }
+            generateIndexDeclarations(schema, table);
 
             schema.append("\n\n");
 
@@ -129,7 +129,7 @@ public class IAnywhereRenderer extends SchemaRenderer {
                     uniqueFields.add(field);
                 }
 
-                if (field.isIndex()) {
+                if (table.isIndexField(field, true)) {
                     indexFields.add(field);
                 }
 
@@ -192,6 +192,7 @@ public class IAnywhereRenderer extends SchemaRenderer {
                 SchemaTableField iField = (SchemaTableField) indexField;
                 schema.append("\nCREATE INDEX ").append(table.getName()).append(iField.getName()).append("_IDX ON ").append(table.getName()).append(" (").append(iField.getName()).append(");");
             }
+            generateIndexDeclarations(schema, table);
 
             schema.append("\n\n");
 
@@ -112,7 +112,7 @@ public class MySQLRenderer extends SchemaRenderer {
                 if (field.isUnique()) {
                     schema.append(" UNIQUE");
                 }
-                if (field.isIndex()) {
+                if (table.isIndexField(field, false)) {
                     indexFields.add(field);
                 }
 
@@ -141,6 +141,15 @@ public class MySQLRenderer extends SchemaRenderer {
                         schema.append(",\n\tINDEX ").append(indexField.getName()).append("_IDX (").append(indexField.getName()).append(")");
                     }
 
+                    // add index declarations
+                    for (SchemaTableIndex index : table.getIndexDeclarations()) {
+                        if (!isIndexSupported(table, index)) {
+                            continue;
+                        }
+                        schema.append(",\n\t").append(index.isUnique() ? "UNIQUE " : "").append("INDEX ").append(index.getIndexName(table.getName()));
+                        schema.append(" (").append(generateIndexColumns(index, true)).append(")");
+                    }
+
                     // add forengn keys fields
                     //if (foreignKeyFields.size() > 0) {
                     //    for (int k = 0; k < foreignKeyFields.size(); k++) {
@@ -52,11 +52,13 @@ public class Oracle9Renderer extends SchemaRenderer {
             // determine sequence name
             String sequencerName = null;
             int sequencerStartValue = 1;
+            int sequencerIncrement = 1;
             for (SchemaTableField field : fields) {
                 String fieldSeqName = field.getSequencerName();
                 if (fieldSeqName != null && fieldSeqName.length() > 0) {
                     sequencerName = fieldSeqName;
                     sequencerStartValue = field.getSequencerStartValue();
+                    sequencerIncrement = field.getSequencerIncrement();
                     break;
                 }
             }
@@ -121,7 +123,7 @@ public class Oracle9Renderer extends SchemaRenderer {
                     schema.append(" UNIQUE");
                 }
 
-                if (field.isIndex()) {
+                if (table.isIndexField(field, false)) {
                     indexFields.add(field);
                 }
 
@@ -166,15 +168,16 @@ public class Oracle9Renderer extends SchemaRenderer {
             for (SchemaTableField indexField : indexFields) {
                 schema.append("\nCREATE INDEX ").append(table.getName()).append(indexField.getName()).append("_IDX ON ").append(table.getName()).append(" (").append(indexField.getName()).append(");");
             }
+            generateIndexDeclarations(schema, table);
             schema.append("\n");
             generateEnumSchema(schema, table, getAlreadyCreatedEnum(), enumPKField, enumValueField, createInserts);
 
             // check to see if we need to create a sequence
             if (sequencerName != null && sequencerName.length() > 0) {
                 if (table.isEnumerationTable() && super.isCreateEnumInserts()) {
-                    schema.append("CREATE SEQUENCE ").append(sequencerName).append(" START WITH ").append(table.getEnumerations().length()).append(";\n");
+                    schema.append(generateCreateSequence(sequencerName, table.getEnumerations().length(), sequencerIncrement)).append(";\n");
                 } else {
-                    schema.append("CREATE SEQUENCE ").append(sequencerName).append(" START WITH ").append(sequencerStartValue).append(";\n");
+                    schema.append(generateCreateSequence(sequencerName, sequencerStartValue, sequencerIncrement)).append(";\n");
                 }
             }
 
@@ -52,11 +52,13 @@ public class PostgreSQLRenderer extends SchemaRenderer {
             // determine sequence name
             String sequencerName = null;
             int sequencerStartValue = 1;
+            int sequencerIncrement = 1;
             for (SchemaTableField field : fields) {
                 String fieldSeqName = field.getSequencerName();
                 if (fieldSeqName != null && fieldSeqName.length() > 0) {
                     sequencerName = fieldSeqName;
                     sequencerStartValue = field.getSequencerStartValue();
+                    sequencerIncrement = field.getSequencerIncrement();
                     break;
                 }
             }
@@ -121,7 +123,7 @@ public class PostgreSQLRenderer extends SchemaRenderer {
                     schema.append(" UNIQUE");
                 }
 
-                if (field.isIndex()) {
+                if (table.isIndexField(field, false)) {
                     indexFields.add(field);
                 }
 
@@ -166,15 +168,16 @@ public class PostgreSQLRenderer extends SchemaRenderer {
             for (SchemaTableField indexField : indexFields) {
                 schema.append("\nCREATE INDEX ").append(requestedTable.getName()).append(indexField.getName()).append("_IDX ON ").append(requestedTable.getName()).append(" (").append(indexField.getName()).append(");");
             }
+            generateIndexDeclarations(schema, requestedTable);
             schema.append("\n");
             generateEnumSchema(schema, requestedTable, getAlreadyCreatedEnum(), enumPKField, enumValueField, createInserts);
 
             // check to see if we need to create a sequence
             if (sequencerName != null && sequencerName.length() > 0) {
                 if (requestedTable.isEnumerationTable() && super.isCreateEnumInserts()) {
-                    schema.append("CREATE SEQUENCE ").append(sequencerName).append(" START WITH ").append(requestedTable.getEnumerations().length()).append(";\n");
+                    schema.append(generateCreateSequence(sequencerName, requestedTable.getEnumerations().length(), sequencerIncrement)).append(";\n");
                 } else {
-                    schema.append("CREATE SEQUENCE ").append(sequencerName).append(" START WITH ").append(sequencerStartValue).append(";\n");
+                    schema.append(generateCreateSequence(sequencerName, sequencerStartValue, sequencerIncrement)).append(";\n");
                 }
             }
 
@@ -269,4 +272,8 @@ public class PostgreSQLRenderer extends SchemaRenderer {
         super.generateDropSchema(false, true, schema, tablesToGenerate, viewsToGenerate);
     }
 
+    @Override
+    protected boolean isPartialIndexSupported() {
+        return true;
+    }
 }
@@ -10,15 +10,16 @@
 package org.dbtools.renderer;
 
 import org.dbtools.schema.SQLStatement;
+import org.dbtools.schema.SortOrder;
+import org.dbtools.schema.TableDependencyGraph;
 import org.dbtools.schema.dbmappings.DatabaseMapping;
-import org.dbtools.schema.dbmappings.DatabaseMappings;
+import org.dbtools.schema.dbmappings.DatabaseMappingCache;
 import org.dbtools.schema.schemafile.*;
-import org.simpleframework.xml.Serializer;
-import org.simpleframework.xml.core.Persister;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.*;
+import java.net.URL;
 import java.util.*;
 import java.util.List;
 
@@ -50,6 +51,7 @@ public class SchemaRenderer implements Runnable {
     private boolean createPostSchema = true;
     private boolean createEnumInserts = true;
     private Map<String, SchemaTable> alreadyCreatedEnum = new HashMap<>();
+    private Set<String> partialIndexWarnings = new HashSet<>();
     private boolean showConsoleProgress = false;
     private ProgressMonitor pm = null;
     private int currProgress = 0;
@@ -131,7 +133,12 @@ public class SchemaRenderer implements Runnable {
         }
     }
 
-    public static synchronized DatabaseMapping readXMLTypes(Class<?> classLoaderClass, String typesFilename, String dbVendorName) {
+    /**
+     * Find a mapping file on the filesystem that overrides the default (classpath) mapping file
+     *
+     * @return mapping file or null if the default classpath mapping file should be used
+     */
+    public static File findXMLTypesFile(String typesFilename) {
         File xmlMappingFile = new File(typesFilename);
         if (!xmlMappingFile.exists()) {
             xmlMappingFile = new File("xml/" + typesFilename);
@@ -143,37 +150,28 @@ public class SchemaRenderer implements Runnable {
             }
         }
 
-        // may need to try to load from the jar
-        InputStream xmlMappingInputStream = null;
-        if (xmlMappingFile == null) {
-//            System.out.println("Failed to find mapping file: [" + typesFilename + "]... loading default one from classpath...");
-            xmlMappingInputStream = classLoaderClass.getResourceAsStream(DEFAULT_TYPE_MAPPING_FILE);
-        }
+        return xmlMappingFile;
+    }
 
-        if (xmlMappingFile == null && xmlMappingInputStream == null) {
-            throw new IllegalStateException("Failed to find mapping file: [" + typesFilename + "] in classpath.");
-            //return false;
-        }
+    public static DatabaseMapping readXMLTypes(Class<?> classLoaderClass, String typesFilename, String dbVendorName) {
+        return readXMLTypes(classLoaderClass, findXMLTypesFile(typesFilename), dbVendorName);
+    }
 
-        try {
-            Serializer serializer = new Persister();
-            DatabaseMappings mappings;
-            if (xmlMappingFile != null) {
-                mappings = serializer.read(DatabaseMappings.class, xmlMappingFile);
-            } else {
-                mappings = serializer.read(DatabaseMappings.class, xmlMappingInputStream);
-            }
+    /**
+     * @param xmlMappingFile mapping file that was already located (null to use the default classpath mapping file)
+     */
+    public static DatabaseMapping readXMLTypes(Class<?> classLoaderClass, File xmlMappingFile, String dbVendorName) {
+        if (xmlMappingFile != null) {
+            return DatabaseMappingCache.getDatabaseMapping(xmlMappingFile, dbVendorName);
+        }
 
-            for (DatabaseMapping databaseMapping : mappings.getDatabaseMappings()) {
-                if (databaseMapping.getDatabaseName().equalsIgnoreCase(dbVendorName)) {
-                    return databaseMapping;
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        // may need to try to load from the jar
+        URL xmlMappingResource = classLoaderClass.getResource(DEFAULT_TYPE_MAPPING_FILE);
+        if (xmlMappingResource == null) {
+            throw new IllegalStateException("Failed to find mapping file: [" + DEFAULT_TYPE_MAPPING_FILE + "] in classpath.");
         }
 
-        return null;
+        return DatabaseMappingCache.getDatabaseMapping(xmlMappingResource, dbVendorName);
     }
 
     /**
@@ -413,10 +411,8 @@ public class SchemaRenderer implements Runnable {
             alreadyCreatedEnum.put(table.getName().toLowerCase(), table);
 
             schema.append("\n");
-            for (TableEnum enumItem : table.getTableEnums()) {
-                schema.append("INSERT INTO ").append(table.getName());
-                schema.append(" (").append(enumPKField.getName()).append(", ").append(enumValueField.getName()).append(")");
-                schema.append(" VALUES (").append(enumPKID).append(", \'").append(enumItem.getValue()).append("\');\n");
+            for (String insert : generateEnumInserts(table, enumPKField, enumValueField, ordinalStartValue)) {
+                schema.append(insert).append(";\n");
                 enumPKID++;
             }
             schema.append("\n");
@@ -425,10 +421,53 @@ public class SchemaRenderer implements Runnable {
         return enumPKID;
     }
 
+    /**
+     * @return INSERT statement (without trailing ';') for each enum of an enumeration table
+     */
+    public static List<String> generateEnumInserts(SchemaTable table, SchemaTableField enumPKField, SchemaTableField enumValueField, int ordinalStartValue) {
+        List<String> inserts = new ArrayList<>();
+        int enumPKID = ordinalStartValue;
+        for (TableEnum enumItem : table.getTableEnums()) {
+            inserts.add("INSERT INTO " + table.getName() + " (" + enumPKField.getName() + ", " + enumValueField.getName() + ")"
+                    + " VALUES (" + enumPKID + ", \'" + enumItem.getValue() + "\')");
+            enumPKID++;
+        }
+        return inserts;
+    }
+
     public Map<String, SchemaTable> getAlreadyCreatedEnum() {
         return alreadyCreatedEnum;
     }
 
+    /**
+     * CREATE SEQUENCE statement (without trailing ';').  The increment must match the JPA allocationSize of the
+     * sequence generator (the pooled optimizer hands out the ids between two sequence values)
+     */
+    public static String generateCreateSequence(String sequencerName, int startValue, int increment) {
+        String createSequence = "CREATE SEQUENCE " + sequencerName + " START WITH " + startValue;
+        if (increment != 1) {
+            createSequence += " INCREMENT BY " + increment;
+        }
+        return createSequence;
+    }
+
+    /**
+     * @return parameterized INSERT statement (one ? per column, in column order)
+     */
+    public static String generateInsertStatement(String tableName, List<String> columnNames) {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder parameters = new StringBuilder();
+        for (String columnName : columnNames) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+                parameters.append(", ");
+            }
+            columns.append(columnName);
+            parameters.append("?");
+        }
+        return "INSERT INTO " + tableName + " (" + columns + ") VALUES (" + parameters + ")";
+    }
+
     public static String generateDropSchema(boolean addIfExists, SchemaTable table) {
         if (addIfExists) {
             return "DROP TABLE IF EXISTS " + table.getName() + ";";
@@ -506,6 +545,103 @@ public class SchemaRenderer implements Runnable {
         }
     }
 
+    /**
+     * Add a CREATE INDEX statement (one per line) for each &lt;index&gt; declaration of the table
+     */
+    protected void generateIndexDeclarations(StringBuilder schema, SchemaTable table) {
+        for (SchemaTableIndex index : table.getIndexDeclarations()) {
+            if (isIndexSupported(table, index)) {
+                schema.append("\n").append(generateIndexSchema(table, index, false, isPartialIndexSupported())).append(";");
+            }
+        }
+    }
+
+    /**
+     * @return true if this database supports partial indexes (CREATE INDEX ... WHERE ...)
+     */
+    protected boolean isPartialIndexSupported() {
+        return false;
+    }
+
+    /**
+     * Same as isIndexSupported(index, partialIndexSupport) for this database.  The warning for a partial index is
+     * printed once per index (not every time the index is rendered).
+     *
+     * @return false if the index can not be created on this database
+     */
+    protected boolean isIndexSupported(SchemaTable table, SchemaTableIndex index) {
+        boolean supported = isIndexSupported(index, isPartialIndexSupported());
+        if (index.isPartial() && !isPartialIndexSupported()) {
+            String indexName = index.getIndexName(table.getName());
+            if (partialIndexWarnings.add(table.getName() + "." + indexName)) {
+                if (supported) {
+                    System.out.println("WARNING: Partial indexes are not supported... index [" + indexName + "] on table [" + table.getName() + "] will not have a WHERE clause");
+                } else {
+                    System.out.println("WARNING: Partial indexes are not supported... skipping unique index [" + indexName + "] on table [" + table.getName() + "]");
+                }
+            }
+        }
+        return supported;
+    }
+
+    /**
+     * If the database does not support partial indexes the WHERE predicate is dropped (index covers the whole table),
+     * except for unique indexes where that would change the constraint... those are skipped.
+     *
+     * @return false if the index can not be created on this database
+     */
+    protected static boolean isIndexSupported(SchemaTableIndex index, boolean partialIndexSupport) {
+        return !index.isPartial() || partialIndexSupport || !index.isUnique();
+    }
+
+    /**
+     * CREATE [UNIQUE] INDEX statement (without the trailing ';') for an index declaration.
+     *
+     * @return CREATE INDEX statement or null if the index can not be created on this database (see isIndexSupported(...))
+     */
+    public static String generateIndexSchema(SchemaTable table, SchemaTableIndex index, boolean ifNotExists, boolean partialIndexSupport) {
+        if (!isIndexSupported(index, partialIndexSupport)) {
+            return null;
+        }
+
+        String indexName = index.getIndexName(table.getName());
+        StringBuilder indexSchema = new StringBuilder("CREATE ");
+        if (index.isUnique()) {
+            indexSchema.append("UNIQUE ");
+        }
+        indexSchema.append("INDEX ");
+        if (ifNotExists) {
+            indexSchema.append("IF NOT EXISTS ");
+        }
+        indexSchema.append(indexName).append(" ON ").append(table.getName());
+        indexSchema.append(" (").append(generateIndexColumns(index, true)).append(")");
+
+        if (index.isPartial() && partialIndexSupport) {
+            indexSchema.append(" WHERE ").append(index.getWhere().trim());
+        }
+
+        return indexSchema.toString();
+    }
+
+    /**
+     * @param sortOrderSupport add ASC/DESC to each column
+     * @return comma separated index columns
+     */
+    public static String generateIndexColumns(SchemaTableIndex index, boolean sortOrderSupport) {
+        StringBuilder columns = new StringBuilder();
+        for (SchemaIndexField indexField : index.getIndexFields()) {
+            if (columns.length() > 0) {
+                columns.append(", ");
+            }
+            columns.append(indexField.getName());
+
+            if (sortOrderSupport && indexField.getOrder() != SortOrder.NONE) {
+                columns.append(" ").append(indexField.getOrder().toString());
+            }
+        }
+        return columns.toString();
+    }
+
     /**
      * @param args the command line arguments
      */
@@ -579,72 +715,100 @@ public class SchemaRenderer implements Runnable {
      */
     public static List<SchemaTable> getTablesInCreateOrder(List<SchemaTable> requestedTables) {
         // order the tables in correct create order so that there are no db errors
-        List<SchemaTable> orderedTables = new ArrayList<>();
-        int lastOrderedTablesSize = 0;
-
-        List<SchemaTable> tablesNotYetAdded = new ArrayList<>(requestedTables);
-        List<SchemaTable> tablesCouldNotBeAdded;
-        while (tablesNotYetAdded.size() > 0) {
-            tablesCouldNotBeAdded = new ArrayList<>();
-            for (SchemaTable table : tablesNotYetAdded) {
-                if (tableListContainsAllFKFields(orderedTables, table)) {
-                    orderedTables.add(table);
-                } else {
-                    tablesCouldNotBeAdded.add(table);
-                }
-            }
+        TableDependencyGraph graph = new TableDependencyGraph(requestedTables);
 
-            // keep us from an infinite loop
-            // if nothing was added to orderedTables.... then throw exception
-            if (lastOrderedTablesSize == orderedTables.size()) {
-                //int remainingTablesCount = tablesNotYetAdded.size() - orderedTables.size();
-
-                for (SchemaTable missingDepTable : tablesNotYetAdded) {
-                    System.out.println("WARNING: Could not find dependency table for table: [" + missingDepTable.getName() + "]");
-
-                    // just add it anyway
-                    orderedTables.add(missingDepTable);
-                }
-                break;
+        for (SchemaTable table : requestedTables) {
+            for (String missingTableName : graph.getMissingDependencies(table)) {
+                System.out.println("WARNING: Could not find dependency table [" + missingTableName + "] for table: [" + table.getName() + "]");
             }
+        }
 
-            lastOrderedTablesSize = orderedTables.size();
+        if (graph.hasCycles()) {
+            List<String> cycleTableNames = new ArrayList<>();
+            for (SchemaTable table : graph.getCycleTables()) {
+                cycleTableNames.add(table.getName());
+            }
 
-            // this must be last
-            tablesNotYetAdded = new ArrayList<>(tablesCouldNotBeAdded);
+            // just add them anyway (at the end)
+            System.out.println("WARNING: Circular foreign key dependency between tables: " + cycleTableNames);
         }
 
-        return orderedTables;
+        return new ArrayList<>(graph.getTablesInCreateOrder());
     }
 
-    private static boolean tableListContainsAllFKFields(List<SchemaTable> orderedTables, SchemaTable table) {
-        for (SchemaTableField field : table.getFields()) {
-            String fkTable = field.getForeignKeyTable();
+    /**
+     * Set based orphan cleanup for a set of tables: one DELETE per foreign key edge.  Referenced tables are cleaned up
+     * before the tables that reference them (removing an orphan can orphan its own children).  Readonly tables and
+     * references to tables that are not in the list are skipped.
+     */
+    public static List<String> generateOrphanCleanupStatements(List<SchemaTable> tables) {
+        TableDependencyGraph graph = new TableDependencyGraph(tables);
 
-            // if
-            // 1. fktable is not null
-            // 2. fktable name IS something more than empty
-            // 3. fktable name does NOT exist int the already added tables
-            // 4. fktable is NOT this table
-            if (fkTable != null && fkTable.length() > 0 && !tableListContainsTable(orderedTables, fkTable) && !fkTable.equalsIgnoreCase(table.getName())) {
-                return false;
+        List<String> statements = new ArrayList<>();
+        for (SchemaTable table : graph.getTablesInCreateOrder()) {
+            if (table.isReadonly()) {
+                continue;
+            }
+
+            for (SchemaTableField field : table.getForeignKeyFields()) {
+                SchemaTable referencedTable = graph.getTable(field.getForeignKeyTable());
+                String referencedColumn = getReferencedColumn(field, referencedTable);
+                if (referencedTable != null && referencedColumn != null) {
+                    statements.add(generateOrphanCleanupStatement(table, field, referencedColumn));
+                }
             }
         }
-        return true;
+        return statements;
     }
 
-    private static boolean tableListContainsTable(List<SchemaTable> tables, String tableToMatch) {
-        if (tableToMatch == null) {
-            return false;
+    /**
+     * Set based orphan cleanup for a table: one DELETE per foreign key field of the table.  Foreign keys without a
+     * foreignKeyField (implicit reference to the primary key of a table that is not available here) are skipped.
+     */
+    public static List<String> generateOrphanCleanupStatements(SchemaTable table) {
+        List<String> statements = new ArrayList<>();
+        for (SchemaTableField field : table.getForeignKeyFields()) {
+            String referencedColumn = getReferencedColumn(field, null);
+            if (referencedColumn != null) {
+                statements.add(generateOrphanCleanupStatement(table, field, referencedColumn));
+            }
         }
+        return statements;
+    }
 
-        for (SchemaTable table : tables) {
-            if (table.getName().equals(tableToMatch)) {
-                return true;
-            }
+    /**
+     * Deletes the rows of table whose (non-null) foreign key field does not reference an existing row
+     *
+     * @param referencedColumn column of the foreign key table that is referenced by the foreign key field
+     */
+    public static String generateOrphanCleanupStatement(SchemaTable table, SchemaTableField foreignKeyField, String referencedColumn) {
+        String tableName = table.getName();
+        String column = tableName + "." + foreignKeyField.getName();
+
+        return "DELETE FROM " + tableName
+                + " WHERE " + column + " IS NOT NULL"
+                + " AND NOT EXISTS (SELECT 1 FROM " + foreignKeyField.getForeignKeyTable() + " p WHERE p." + referencedColumn + " = " + column + ")";
+    }
+
+    /**
+     * @param referencedTable foreign key table (null if not available)
+     * @return foreignKeyField of the field, or the primary key of the referenced table if foreignKeyField is not set
+     * (REFERENCES table without a column list), or null if the column can not be determined
+     */
+    private static String getReferencedColumn(SchemaTableField foreignKeyField, SchemaTable referencedTable) {
+        String referencedColumn = foreignKeyField.getForeignKeyField();
+        if (referencedColumn != null && !referencedColumn.isEmpty()) {
+            return referencedColumn;
         }
 
-        return false;
+        if (referencedTable != null) {
+            for (SchemaTableField field : referencedTable.getFields()) {
+                if (field.isPrimaryKey()) {
+                    return field.getName();
+                }
+            }
+        }
+        return null;
     }
 
     public List<SchemaView> getViewsToGenerate(SchemaDatabase database, String[] viewsToGenerate) {
@@ -0,0 +1,231 @@
+package org.dbtools.renderer;
+
+import org.dbtools.schema.TableDependencyGraph;
+import org.dbtools.schema.dbmappings.DatabaseMapping;
+import org.dbtools.schema.schemafile.SchemaDatabase;
+import org.dbtools.schema.schemafile.SchemaTable;
+import org.dbtools.schema.schemafile.SchemaTableField;
+import org.dbtools.schema.schemafile.SchemaTableUnique;
+import org.dbtools.schema.schemafile.SchemaUniqueField;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental SQLite migration between two versions of a database schema (tables only... views are dropped/created).
+ *
+ * Only what changed is migrated:
+ * - new tables are created and removed tables are dropped
+ * - new columns are added with ALTER TABLE ... ADD COLUMN (when SQLite allows it)
+ * - new/changed indexes are created and removed/changed indexes are dropped
+ * - a table is only rebuilt (create new table, copy rows, drop old table, rename) when a change can not be done with
+ * ALTER TABLE (removed/changed columns, changed constraints).  Enumeration tables are recreated instead of copied.
+ */
+public class SqliteMigrationRenderer {
+
+    public static final String REBUILD_TABLE_SUFFIX = "_new";
+
+    /**
+     * @return statements (without trailing ';') that migrate fromDatabase to toDatabase (empty if nothing changed)
+     */
+    public static List<String> generateMigration(SchemaDatabase fromDatabase, SchemaDatabase toDatabase, DatabaseMapping databaseMapping) {
+        List<String> statements = new ArrayList<>();
+        boolean rebuildTables = false;
+
+        // dropped tables (tables that reference other tables first)
+        List<SchemaTable> fromTables = new TableDependencyGraph(fromDatabase.getTables()).getTablesInCreateOrder();
+        for (int i = fromTables.size() - 1; i >= 0; i--) {
+            SchemaTable fromTable = fromTables.get(i);
+            if (toDatabase.getTable(fromTable.getName()) == null) {
+                statements.add("DROP TABLE IF EXISTS " + fromTable.getName());
+            }
+        }
+
+        // new and changed tables (referenced tables first)
+        for (SchemaTable toTable : new TableDependencyGraph(toDatabase.getTables()).getTablesInCreateOrder()) {
+            SchemaTable fromTable = fromDatabase.getTable(toTable.getName());
+            if (fromTable == null) {
+                statements.addAll(SqliteRenderer.generateTableStatements(toTable, databaseMapping));
+            } else if (isRebuildRequired(fromTable, toTable, databaseMapping)) {
+                statements.addAll(generateTableRebuild(fromTable, toTable, databaseMapping));
+                rebuildTables = true;
+            } else {
+                statements.addAll(generateTableAlter(fromTable, toTable, databaseMapping));
+            }
+        }
+
+        if (rebuildTables) {
+            // Do not rewrite (or validate) views and triggers while renaming the rebuilt tables (views are recreated after
+            // the upgrade).  Foreign keys must be OFF (outside of the migration transaction) while referenced tables are
+            // rebuilt and checked with PRAGMA foreign_key_check before commit (see migrate[Db]Tables(...))
+            statements.add(0, "PRAGMA legacy_alter_table = ON");
+            statements.add("PRAGMA legacy_alter_table = OFF");
+        }
+
+        return statements;
+    }
+
+    /**
+     * A table must be rebuilt if a column was removed or changed, if the unique constraints or table options (STRICT,
+     * WITHOUT ROWID) changed or if a new column can not be added with ALTER TABLE
+     */
+    public static boolean isRebuildRequired(SchemaTable fromTable, SchemaTable toTable, DatabaseMapping databaseMapping) {
+        if (!fromTable.getEnumerations().equals(toTable.getEnumerations())
+                || !SqliteRenderer.generateTableOptions(fromTable).equals(SqliteRenderer.generateTableOptions(toTable))) {
+            return true;
+        }
+
+        for (SchemaTableField fromField : fromTable.getFields()) {
+            SchemaTableField toField = toTable.getField(fromField.getName());
+            if (toField == null
+                    || !SqliteRenderer.generateColumnDefinition(fromTable, fromField, databaseMapping).equals(SqliteRenderer.generateColumnDefinition(toTable, toField, databaseMapping))
+                    || !getForeignKeyReference(fromField).equalsIgnoreCase(getForeignKeyReference(toField))) {
+                return true;
+            }
+        }
+
+        for (SchemaTableField toField : toTable.getFields()) {
+            if (fromTable.getField(toField.getName()) == null && !isAddColumnSupported(toField)) {
+                return true;
+            }
+        }
+
+        return !getUniqueConstraints(fromTable).equals(getUniqueConstraints(toTable));
+    }
+
+    /**
+     * SQLite ALTER TABLE ... ADD COLUMN restrictions: no PRIMARY KEY / UNIQUE column, a NOT NULL column needs a
+     * default value, the default value must be constant and a foreign key column must default to NULL
+     */
+    public static boolean isAddColumnSupported(SchemaTableField field) {
+        if (field.isPrimaryKey() || field.isUnique()) {
+            return false;
+        }
+
+        String defaultValue = field.getDefaultValue();
+        boolean hasDefaultValue = defaultValue != null && !defaultValue.isEmpty();
+        if (field.isNotNull() && !hasDefaultValue) {
+            return false;
+        }
+
+        if (hasDefaultValue) {
+            String sqliteDefaultValue = SqliteRenderer.formatSqliteDefaultValue(field);
+            if (sqliteDefaultValue.isEmpty() || sqliteDefaultValue.startsWith("(") || sqliteDefaultValue.toUpperCase().startsWith("CURRENT_")) {
+                return false;
+            }
+            if (!getForeignKeyReference(field).isEmpty()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static List<String> generateTableAlter(SchemaTable fromTable, SchemaTable toTable, DatabaseMapping databaseMapping) {
+        List<String> statements = new ArrayList<>();
+        String tableName = toTable.getName();
+
+        // new columns
+        for (SchemaTableField toField : toTable.getFields()) {
+            if (fromTable.getField(toField.getName()) == null) {
+                String statement = "ALTER TABLE " + tableName + " ADD COLUMN " + SqliteRenderer.generateColumnDefinition(toTable, toField, databaseMapping);
+                if (!getForeignKeyReference(toField).isEmpty()) {
+                    statement += " REFERENCES " + toField.getForeignKeyTable() + " (" + toField.getForeignKeyField() + ")";
+                }
+                statements.add(statement);
+            }
+        }
+
+        // indexes
+        Map<String, String> fromIndexStatements = SqliteRenderer.generateIndexStatements(fromTable);
+        Map<String, String> toIndexStatements = SqliteRenderer.generateIndexStatements(toTable);
+        for (Map.Entry<String, String> fromIndexStatement : fromIndexStatements.entrySet()) {
+            if (!fromIndexStatement.getValue().equals(toIndexStatements.get(fromIndexStatement.getKey()))) {
+                statements.add("DROP INDEX IF EXISTS " + fromIndexStatement.getKey());
+            }
+        }
+        for (Map.Entry<String, String> toIndexStatement : toIndexStatements.entrySet()) {
+            if (!toIndexStatement.getValue().equals(fromIndexStatements.get(toIndexStatement.getKey()))) {
+                statements.add(toIndexStatement.getValue());
+            }
+        }
+
+        return statements;
+    }
+
+    private static List<String> generateTableRebuild(SchemaTable fromTable, SchemaTable toTable, DatabaseMapping databaseMapping) {
+        List<String> statements = new ArrayList<>();
+        String tableName = toTable.getName();
+        String rebuildTableName = tableName + REBUILD_TABLE_SUFFIX;
+
+        // CREATE TABLE is followed by the indexes (and enum inserts)
+        List<String> createStatements = SqliteRenderer.generateTableStatements(toTable, databaseMapping);
+        String createTable = createStatements.remove(0);
+        statements.add("CREATE TABLE " + rebuildTableName + createTable.substring(createTable.indexOf(" (")));
+
+        // copy the existing rows (enumeration tables get their rows from the enum inserts)
+        if (!toTable.isEnumerationTable()) {
+            List<String> columns = new ArrayList<>();
+            for (SchemaTableField toField : toTable.getFields()) {
+                if (fromTable.getField(toField.getName()) != null) {
+                    columns.add(toField.getName());
+                } else if (toField.isNotNull() && (toField.getDefaultValue() == null || toField.getDefaultValue().isEmpty()) && !toField.isIncrement()) {
+                    System.out.println("WARNING: New NOT NULL column [" + toField.getName() + "] on table [" + tableName + "] has no default value... existing rows can not be copied");
+                }
+            }
+
+            if (!columns.isEmpty()) {
+                String columnNames = join(columns);
+                statements.add("INSERT INTO " + rebuildTableName + " (" + columnNames + ") SELECT " + columnNames + " FROM " + fromTable.getName());
+            }
+        }
+
+        statements.add("DROP TABLE " + fromTable.getName());
+        statements.add("ALTER TABLE " + rebuildTableName + " RENAME TO " + tableName);
+        statements.addAll(createStatements);
+
+        return statements;
+    }
+
+    private static String getForeignKeyReference(SchemaTableField field) {
+        String foreignKeyTable = field.getForeignKeyTable();
+        if (foreignKeyTable == null || foreignKeyTable.isEmpty()) {
+            return "";
+        }
+        return foreignKeyTable + "." + field.getForeignKeyField();
+    }
+
+    private static List<String> getUniqueConstraints(SchemaTable table) {
+        List<String> uniqueConstraints = new ArrayList<>();
+
+        List<String> uniqueFieldNames = new ArrayList<>();
+        for (SchemaTableField field : table.getFields()) {
+            if (field.isUnique()) {
+                uniqueFieldNames.add(field.getName().toLowerCase());
+            }
+        }
+        uniqueConstraints.add(join(uniqueFieldNames));
+
+        for (SchemaTableUnique uniqueDeclaration : table.getUniqueDeclarations()) {
+            List<String> fieldNames = new ArrayList<>();
+            for (SchemaUniqueField uniqueField : uniqueDeclaration.getUniqueFields()) {
+                fieldNames.add(uniqueField.getName().toLowerCase());
+            }
+            uniqueConstraints.add(join(fieldNames) + " " + uniqueDeclaration.getSqliteOnConflict());
+        }
+
+        return uniqueConstraints;
+    }
+
+    private static String join(List<String> names) {
+        StringBuilder joined = new StringBuilder();
+        for (String name : names) {
+            if (joined.length() > 0) {
+                joined.append(", ");
+            }
+            joined.append(name);
+        }
+        return joined.toString();
+    }
+}
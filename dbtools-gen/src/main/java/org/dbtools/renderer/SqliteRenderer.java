@@ -13,6 +13,7 @@
  */
 package org.dbtools.renderer;
 
+import org.dbtools.schema.OnConflict;
 import org.dbtools.schema.dbmappings.DatabaseMapping;
 import org.dbtools.schema.schemafile.*;
 
@@ -119,8 +120,173 @@ public class SqliteRenderer extends SchemaRenderer {
         return postSchema.toString();
     }
 
+    /**
+     * Columns of the uniqueness constraint used as the conflict target of the UPSERT statement.  The (non increment)
+     * primary key is preferred, then the unique declarations and then the field level unique columns.  Unique
+     * declarations that resolve conflicts with ROLLBACK, ABORT or FAIL want the conflict to be an error, so they are
+     * never used as a conflict target.
+     *
+     * @return conflict target columns or null if the table has no usable uniqueness constraint
+     */
+    public static List<String> getUpsertConflictColumns(SchemaTable table) {
+        List<String> uniqueFieldNames = new ArrayList<>();
+        for (SchemaTableField field : table.getFields()) {
+            if (field.isPrimaryKey() && !field.isIncrement()) {
+                return Collections.singletonList(field.getName());
+            }
+            if (field.isUnique()) {
+                uniqueFieldNames.add(field.getName());
+            }
+        }
+
+        for (SchemaTableUnique uniqueDeclaration : table.getUniqueDeclarations()) {
+            List<SchemaUniqueField> uniqueFields = uniqueDeclaration.getUniqueFields();
+            if (isUpsertConflictTarget(uniqueDeclaration.getSqliteOnConflict()) && uniqueFields != null && !uniqueFields.isEmpty()) {
+                List<String> columns = new ArrayList<>(uniqueFields.size());
+                for (SchemaUniqueField uniqueField : uniqueFields) {
+                    columns.add(uniqueField.getName());
+                }
+                return columns;
+            }
+        }
+
+        return uniqueFieldNames.isEmpty() ? null : uniqueFieldNames;
+    }
+
+    private static boolean isUpsertConflictTarget(OnConflict onConflict) {
+        switch (onConflict) {
+            case ROLLBACK:
+            case ABORT:
+            case FAIL:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * INSERT ... ON CONFLICT (...) DO UPDATE statement (requires sqlite 3.24+).  The columns (and bind order) are the same
+     * as the INSERT statement, so a record binds it with the same code as an insert.  If the conflict target is a unique
+     * declaration with ON CONFLICT IGNORE (or there is nothing left to update) the conflict is resolved with DO NOTHING.
+     *
+     * @return upsert statement or null if the table has no usable uniqueness constraint
+     */
+    public static String generateUpsertStatement(SchemaTable table) {
+        List<String> conflictColumns = getUpsertConflictColumns(table);
+        if (conflictColumns == null) {
+            return null;
+        }
+
+        boolean ignoreConflict = false;
+        for (SchemaTableUnique uniqueDeclaration : table.getUniqueDeclarations()) {
+            if (uniqueDeclaration.getSqliteOnConflict() == OnConflict.IGNORE && equalsIgnoreCase(conflictColumns, getUniqueFieldNames(uniqueDeclaration))) {
+                ignoreConflict = true;
+            }
+        }
+
+        StringBuilder columns = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        StringBuilder updateColumns = new StringBuilder();
+        for (SchemaTableField field : table.getFields()) {
+            if (field.isPrimaryKey() && field.isIncrement()) {
+                continue;
+            }
+
+            String fieldName = field.getName();
+            columns.append(columns.length() > 0 ? "," : "").append(fieldName);
+            values.append(values.length() > 0 ? ",?" : "?");
+
+            if (!containsIgnoreCase(conflictColumns, fieldName)) {
+                updateColumns.append(updateColumns.length() > 0 ? ", " : "").append(fieldName).append("=excluded.").append(fieldName);
+            }
+        }
+
+        StringBuilder upsertStatement = new StringBuilder("INSERT INTO ").append(table.getName());
+        upsertStatement.append(" (").append(columns).append(") VALUES (").append(values).append(")");
+        upsertStatement.append(" ON CONFLICT (");
+        for (int i = 0; i < conflictColumns.size(); i++) {
+            upsertStatement.append(i > 0 ? "," : "").append(conflictColumns.get(i));
+        }
+        upsertStatement.append(")");
+
+        if (ignoreConflict || updateColumns.length() == 0) {
+            upsertStatement.append(" DO NOTHING");
+        } else {
+            upsertStatement.append(" DO UPDATE SET ").append(updateColumns);
+        }
+
+        return upsertStatement.toString();
+    }
+
+    private static List<String> getUniqueFieldNames(SchemaTableUnique uniqueDeclaration) {
+        List<String> names = new ArrayList<>();
+        if (uniqueDeclaration.getUniqueFields() != null) {
+            for (SchemaUniqueField uniqueField : uniqueDeclaration.getUniqueFields()) {
+                names.add(uniqueField.getName());
+            }
+        }
+        return names;
+    }
+
+    private static boolean equalsIgnoreCase(List<String> names1, List<String> names2) {
+        if (names1.size() != names2.size()) {
+            return false;
+        }
+        for (int i = 0; i < names1.size(); i++) {
+            if (!names1.get(i).equalsIgnoreCase(names2.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(List<String> names, String name) {
+        for (String item : names) {
+            if (item.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static String generateTableSchema(SchemaTable table, DatabaseMapping databaseMapping) {
         StringBuilder tableSchema = new StringBuilder();
+        tableSchema.append(generateCreateTable(table, databaseMapping)).append(";\n\n");
+
+        // create indexes
+        for (String indexStatement : generateIndexStatements(table).values()) {
+            tableSchema.append(indexStatement).append(";\n\n");
+        }
+
+        List<String> enumInserts = generateEnumInserts(table);
+        if (!enumInserts.isEmpty()) {
+            tableSchema.append("\n");
+            for (String enumInsert : enumInserts) {
+                tableSchema.append(enumInsert).append(";\n");
+            }
+            tableSchema.append("\n");
+        }
+
+        return tableSchema.toString();
+    }
+
+    /**
+     * Statements (without trailing ';') that create a table: CREATE TABLE followed by the CREATE INDEX statements and
+     * the enum inserts (enumeration tables)
+     */
+    public static List<String> generateTableStatements(SchemaTable table, DatabaseMapping databaseMapping) {
+        List<String> statements = new ArrayList<>();
+        statements.add(generateCreateTable(table, databaseMapping));
+        statements.addAll(generateIndexStatements(table).values());
+        statements.addAll(generateEnumInserts(table));
+        return statements;
+    }
+
+    /**
+     * @return CREATE TABLE statement (without trailing ';')
+     */
+    public static String generateCreateTable(SchemaTable table, DatabaseMapping databaseMapping) {
+        StringBuilder tableSchema = new StringBuilder();
 
         // add table header
         tableSchema.append("CREATE TABLE IF NOT EXISTS ");
@@ -129,51 +295,18 @@ public class SqliteRenderer extends SchemaRenderer {
 
         // add fields
         List<SchemaTableField> fields = table.getFields();
-        List<SchemaTableField> indexFields = new ArrayList<>();
         List<SchemaTableField> uniqueFields = new ArrayList<>();
-        SchemaTableField enumPKField = null;
-        SchemaTableField enumValueField = null;
 
         for (int j = 0; j < fields.size(); j++) {
             SchemaTableField field = fields.get(j);
 
-            String fieldName = field.getName();
-
             // add field
-            // name
             tableSchema.append("\t");
-            tableSchema.append(fieldName);
-
-            // datatype
-            tableSchema.append(" ");
-            tableSchema.append(databaseMapping.getSqlType(field.getJdbcDataType()));
+            tableSchema.append(generateColumnDefinition(table, field, databaseMapping));
 
-            String defaultValue = field.getDefaultValue();
-            if (defaultValue != null && !defaultValue.equals("")) {
-                tableSchema.append(" DEFAULT ").append(formatSqliteDefaultValue(field));
-            }
-
-            // not null
-            if (field.isNotNull() && !field.isIncrement()) {
-                tableSchema.append(" NOT NULL");
-            }
-            if (field.isPrimaryKey()) {
-                tableSchema.append(" PRIMARY KEY");
-            }
-            if (field.isIncrement()) {
-                tableSchema.append("  AUTOINCREMENT");
-            }
             if (field.isUnique()) {
                 uniqueFields.add(field);
             }
-            if (field.isIndex()) {
-                indexFields.add(field); // add foreign key
-            }
-            if (field.getSqliteCollate() != null) {
-                tableSchema.append(" COLLATE ").append(field.getSqliteCollate());
-            }
-
-            tableSchema.append("");
 
             // if this is the last one, then don't put a ','
             if (j == fields.size() - 1) {
@@ -202,14 +335,6 @@ public class SqliteRenderer extends SchemaRenderer {
                 // more fields to come...
                 tableSchema.append(",\n");
             }
-
-            // check for enumFields
-            if (enumPKField == null && field.isPrimaryKey()) {
-                enumPKField = field;
-            }
-            if (enumValueField == null && field.getJdbcDataType() == SchemaFieldType.VARCHAR) {
-                enumValueField = field;
-            }
         }
 
         // check for uniqueDeclarations
@@ -246,17 +371,126 @@ public class SqliteRenderer extends SchemaRenderer {
         }
 
         // add table footer
-        tableSchema.append("\n);\n\n");
+        tableSchema.append("\n)").append(generateTableOptions(table));
 
-        // create indexes
-        for (SchemaTableField iField : indexFields) {
-            tableSchema.append("CREATE INDEX IF NOT EXISTS ").append(table.getName()).append(iField.getName()).append("_IDX ON ").append(table.getName());
-            tableSchema.append(" (").append(iField.getName()).append(");\n\n");
+        return tableSchema.toString();
+    }
+
+    /**
+     * @return enum inserts (without trailing ';') of an enumeration table (first primary key and first VARCHAR field)
+     */
+    private static List<String> generateEnumInserts(SchemaTable table) {
+        SchemaTableField enumPKField = null;
+        SchemaTableField enumValueField = null;
+        for (SchemaTableField field : table.getFields()) {
+            if (enumPKField == null && field.isPrimaryKey()) {
+                enumPKField = field;
+            }
+            if (enumValueField == null && field.getJdbcDataType() == SchemaFieldType.VARCHAR) {
+                enumValueField = field;
+            }
         }
 
-        Map<String, SchemaTable> alreadyCreatedEnum = new HashMap<>();
-        generateEnumSchema(tableSchema, table, alreadyCreatedEnum, enumPKField, enumValueField, true);
+        if (!enumInsertsWillBeCreated(table, enumPKField, enumValueField, true)) {
+            return new ArrayList<>();
+        }
+        return generateEnumInserts(table, enumPKField, enumValueField, 0);
+    }
 
-        return tableSchema.toString();
+    /**
+     * Table options that follow the column definitions of CREATE TABLE (" STRICT, WITHOUT ROWID" or "" for none)
+     */
+    public static String generateTableOptions(SchemaTable table) {
+        List<String> options = new ArrayList<>();
+        if (table.isSqliteStrict()) {
+            options.add("STRICT");
+        }
+        if (table.isSqliteWithoutRowId()) {
+            options.add("WITHOUT ROWID");
+        }
+
+        StringBuilder tableOptions = new StringBuilder();
+        for (String option : options) {
+            tableOptions.append(tableOptions.length() > 0 ? ", " : " ").append(option);
+        }
+        return tableOptions.toString();
+    }
+
+    /**
+     * Column definition used in CREATE TABLE (and ALTER TABLE ... ADD COLUMN): name, type, default and column constraints
+     */
+    public static String generateColumnDefinition(SchemaTable table, SchemaTableField field, DatabaseMapping databaseMapping) {
+        StringBuilder column = new StringBuilder();
+
+        // name
+        column.append(field.getName());
+
+        // datatype
+        column.append(" ");
+        String sqlType = databaseMapping.getSqlType(field.getJdbcDataType());
+        column.append(table.isSqliteStrict() ? getStrictSqlType(sqlType) : sqlType);
+
+        String defaultValue = field.getDefaultValue();
+        if (defaultValue != null && !defaultValue.equals("")) {
+            column.append(" DEFAULT ").append(formatSqliteDefaultValue(field));
+        }
+
+        // not null
+        if (field.isNotNull() && !field.isIncrement()) {
+            column.append(" NOT NULL");
+        }
+        if (field.isPrimaryKey()) {
+            column.append(" PRIMARY KEY");
+        }
+        // without AUTOINCREMENT an INTEGER PRIMARY KEY is still assigned by sqlite (rowid alias), but the largest id is
+        // not tracked in sqlite_sequence (ids of deleted rows may be reused)
+        if (field.isIncrement() && table.isSqliteAutoIncrement()) {
+            column.append("  AUTOINCREMENT");
+        }
+        if (field.getSqliteCollate() != null) {
+            column.append(" COLLATE ").append(field.getSqliteCollate());
+        }
+
+        return column.toString();
+    }
+
+    /**
+     * STRICT tables only allow the INTEGER, REAL, TEXT, BLOB and ANY column types: map a type by its column affinity
+     * (http://www.sqlite.org/datatype3.html)
+     */
+    public static String getStrictSqlType(String sqlType) {
+        String type = sqlType.toUpperCase(Locale.US);
+        if (type.contains("INT")) {
+            return "INTEGER";
+        } else if (type.contains("CHAR") || type.contains("CLOB") || type.contains("TEXT")) {
+            return "TEXT";
+        } else if (type.contains("BLOB") || type.isEmpty()) {
+            return "BLOB";
+        } else if (type.contains("REAL") || type.contains("FLOA") || type.contains("DOUB")) {
+            return "REAL";
+        } else {
+            return "ANY"; // NUMERIC affinity
+        }
+    }
+
+    /**
+     * CREATE INDEX statements (without trailing ';') for a table by index name: indexed fields (including foreign key
+     * indexes) followed by the index declarations
+     */
+    public static Map<String, String> generateIndexStatements(SchemaTable table) {
+        Map<String, String> indexStatements = new LinkedHashMap<>();
+        for (SchemaTableField field : table.getFields()) {
+            if (table.isIndexField(field, true)) {
+                String indexName = table.getName() + field.getName() + "_IDX";
+                indexStatements.put(indexName, "CREATE INDEX IF NOT EXISTS " + indexName + " ON " + table.getName() + " (" + field.getName() + ")");
+            }
+        }
+        for (SchemaTableIndex index : table.getIndexDeclarations()) {
+            String indexStatement = generateIndexSchema(table, index, true, true);
+            if (indexStatement != null) {
+                indexStatements.put(index.getIndexName(table.getName()), indexStatement);
+            }
+        }
+        return indexStatements;
     }
 }
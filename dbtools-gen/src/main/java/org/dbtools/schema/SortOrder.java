@@ -0,0 +1,10 @@
+package org.dbtools.schema;
+
+/**
+ * Sort direction of an index column
+ */
+public enum SortOrder {
+    ASC,
+    DESC,
+    NONE
+}
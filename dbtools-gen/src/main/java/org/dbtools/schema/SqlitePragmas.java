@@ -0,0 +1,168 @@
+package org.dbtools.schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * SQLite connection tuning applied when a database is opened (null = SQLite default).  Defaults come from the build
+ * configuration and can be overridden per database (&lt;database journalMode="WAL" .../&gt;).
+ */
+public class SqlitePragmas {
+    public static final List<String> JOURNAL_MODES = Arrays.asList("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    public static final List<String> SYNCHRONOUS_MODES = Arrays.asList("OFF", "NORMAL", "FULL", "EXTRA");
+    public static final List<String> TEMP_STORES = Arrays.asList("DEFAULT", "FILE", "MEMORY");
+
+    private String journalMode; // DELETE, TRUNCATE, PERSIST, MEMORY, WAL, OFF
+    private String synchronous; // OFF, NORMAL, FULL, EXTRA
+    private Integer cacheSize; // pages (or -KiB if negative)
+    private Long mmapSize; // bytes
+    private String tempStore; // DEFAULT, FILE, MEMORY
+    private Integer pageSize; // bytes (only applies before the first table is created)
+    private Boolean optimizeOnClose;
+
+    public SqlitePragmas() {
+    }
+
+    public SqlitePragmas(String journalMode, String synchronous, Integer cacheSize, Long mmapSize, String tempStore, Integer pageSize, Boolean optimizeOnClose) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+        this.pageSize = pageSize;
+        this.optimizeOnClose = optimizeOnClose;
+    }
+
+    /**
+     * @return these pragmas with the values that are set in overrides replaced
+     */
+    public SqlitePragmas merge(SqlitePragmas overrides) {
+        return new SqlitePragmas(
+                overrides.journalMode != null ? overrides.journalMode : journalMode,
+                overrides.synchronous != null ? overrides.synchronous : synchronous,
+                overrides.cacheSize != null ? overrides.cacheSize : cacheSize,
+                overrides.mmapSize != null ? overrides.mmapSize : mmapSize,
+                overrides.tempStore != null ? overrides.tempStore : tempStore,
+                overrides.pageSize != null ? overrides.pageSize : pageSize,
+                overrides.optimizeOnClose != null ? overrides.optimizeOnClose : optimizeOnClose);
+    }
+
+    /**
+     * WAL is enabled with DatabaseWrapper.enableWriteAheadLogging() (not PRAGMA journal_mode) so the connection pool is
+     * configured for it
+     */
+    public boolean isWriteAheadLogging() {
+        return "WAL".equals(getValue("journalMode", journalMode, JOURNAL_MODES));
+    }
+
+    /**
+     * @return PRAGMA statements for the database file, run once when the database is opened (page_size first: it can
+     * not be changed in WAL mode)
+     */
+    public List<String> generateOpenStatements() {
+        List<String> statements = new ArrayList<>();
+        if (pageSize != null) {
+            statements.add("PRAGMA page_size = " + pageSize);
+        }
+        String journalModeValue = getValue("journalMode", journalMode, JOURNAL_MODES);
+        if (journalModeValue != null && !isWriteAheadLogging()) {
+            statements.add("PRAGMA journal_mode = " + journalModeValue);
+        }
+        return statements;
+    }
+
+    /**
+     * @return PRAGMA statements that only apply to the connection they are run on (each connection has to run them)
+     */
+    public List<String> generateConnectionStatements() {
+        List<String> statements = new ArrayList<>();
+        String synchronousValue = getValue("synchronous", synchronous, SYNCHRONOUS_MODES);
+        if (synchronousValue != null) {
+            statements.add("PRAGMA synchronous = " + synchronousValue);
+        }
+        if (cacheSize != null) {
+            statements.add("PRAGMA cache_size = " + cacheSize);
+        }
+        if (mmapSize != null) {
+            statements.add("PRAGMA mmap_size = " + mmapSize);
+        }
+        String tempStoreValue = getValue("tempStore", tempStore, TEMP_STORES);
+        if (tempStoreValue != null) {
+            statements.add("PRAGMA temp_store = " + tempStoreValue);
+        }
+        return statements;
+    }
+
+    /**
+     * @return upper case value (null if not set)... values are written into the generated sql so only the allowed values are accepted
+     */
+    private static String getValue(String name, String value, List<String> allowedValues) {
+        if (value == null) {
+            return null;
+        }
+
+        String upperCaseValue = value.trim().toUpperCase(Locale.US);
+        if (!allowedValues.contains(upperCaseValue)) {
+            throw new IllegalStateException("Invalid " + name + " [" + value + "] (allowed values: " + allowedValues + ")");
+        }
+        return upperCaseValue;
+    }
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public void setJournalMode(String journalMode) {
+        this.journalMode = journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public void setSynchronous(String synchronous) {
+        this.synchronous = synchronous;
+    }
+
+    public Integer getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(Integer cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public Long getMmapSize() {
+        return mmapSize;
+    }
+
+    public void setMmapSize(Long mmapSize) {
+        this.mmapSize = mmapSize;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public void setTempStore(String tempStore) {
+        this.tempStore = tempStore;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public boolean isOptimizeOnClose() {
+        return optimizeOnClose != null && optimizeOnClose;
+    }
+
+    public void setOptimizeOnClose(Boolean optimizeOnClose) {
+        this.optimizeOnClose = optimizeOnClose;
+    }
+}
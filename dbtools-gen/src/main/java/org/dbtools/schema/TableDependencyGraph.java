@@ -0,0 +1,292 @@
+package org.dbtools.schema;
+
+import org.dbtools.schema.schemafile.SchemaTable;
+import org.dbtools.schema.schemafile.SchemaTableField;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Foreign key dependency graph for a set of tables.
+ *
+ * An edge goes from a table to every (other) table that one of its fields references.  Self references are ignored and
+ * references to tables that are not part of the graph are recorded as missing dependencies.
+ */
+public class TableDependencyGraph {
+
+    private final List<SchemaTable> tables;
+    private final Map<String, Integer> tableIndexByName = new HashMap<>();
+    private final List<Set<Integer>> dependencies = new ArrayList<>(); // tables referenced by a table
+    private final List<Set<Integer>> dependents = new ArrayList<>(); // tables that reference a table
+    private final List<Set<String>> missingDependencies = new ArrayList<>();
+
+    private List<SchemaTable> tablesInCreateOrder;
+    private List<SchemaTable> cycleTables;
+
+    public TableDependencyGraph(List<SchemaTable> tables) {
+        this.tables = new ArrayList<>(tables);
+
+        for (int i = 0; i < this.tables.size(); i++) {
+            String key = toKey(this.tables.get(i).getName());
+            if (!tableIndexByName.containsKey(key)) {
+                tableIndexByName.put(key, i);
+            }
+            dependencies.add(new LinkedHashSet<Integer>());
+            dependents.add(new LinkedHashSet<Integer>());
+            missingDependencies.add(new LinkedHashSet<String>());
+        }
+
+        for (int i = 0; i < this.tables.size(); i++) {
+            SchemaTable table = this.tables.get(i);
+            for (SchemaTableField field : table.getFields()) {
+                String fkTable = field.getForeignKeyTable();
+                if (fkTable == null || fkTable.isEmpty() || fkTable.equalsIgnoreCase(table.getName())) {
+                    continue;
+                }
+
+                Integer fkTableIndex = tableIndexByName.get(toKey(fkTable));
+                if (fkTableIndex == null) {
+                    missingDependencies.get(i).add(fkTable);
+                } else if (fkTableIndex != i) {
+                    dependencies.get(i).add(fkTableIndex);
+                    dependents.get(fkTableIndex).add(i);
+                }
+            }
+        }
+    }
+
+    private static String toKey(String tableName) {
+        return tableName.toLowerCase(Locale.US);
+    }
+
+    public List<SchemaTable> getTables() {
+        return Collections.unmodifiableList(tables);
+    }
+
+    public boolean containsTable(String tableName) {
+        return tableName != null && tableIndexByName.containsKey(toKey(tableName));
+    }
+
+    /**
+     * Case insensitive search for table
+     */
+    public SchemaTable getTable(String tableName) {
+        Integer index = tableName != null ? tableIndexByName.get(toKey(tableName)) : null;
+        return index != null ? tables.get(index) : null;
+    }
+
+    /**
+     * @return tables referenced (by foreign key) from the given table
+     */
+    public List<SchemaTable> getDependencies(SchemaTable table) {
+        return toTables(dependencies.get(indexOf(table)));
+    }
+
+    /**
+     * @return tables that reference (by foreign key) the given table
+     */
+    public List<SchemaTable> getDependents(SchemaTable table) {
+        return toTables(dependents.get(indexOf(table)));
+    }
+
+    /**
+     * @return names of referenced tables that are not part of this graph
+     */
+    public Set<String> getMissingDependencies(SchemaTable table) {
+        return Collections.unmodifiableSet(missingDependencies.get(indexOf(table)));
+    }
+
+    /**
+     * Tables ordered so that every table comes after the tables it references.  The order is the one of repeated passes
+     * over the original list that each add the tables whose references were already added (the original list order
+     * is kept between tables that do not depend on each other), computed in one topological walk (Kahn's algorithm).
+     * Tables that are part of (or depend on) a foreign key cycle can not be ordered and are appended at the end in their
+     * original order.
+     */
+    public List<SchemaTable> getTablesInCreateOrder() {
+        if (tablesInCreateOrder == null) {
+            sort();
+        }
+        return Collections.unmodifiableList(tablesInCreateOrder);
+    }
+
+    /**
+     * @return tables that are part of a foreign key cycle (tables that only depend on a cycle are not included)
+     */
+    public List<SchemaTable> getCycleTables() {
+        if (cycleTables == null) {
+            sort();
+        }
+        return Collections.unmodifiableList(cycleTables);
+    }
+
+    public boolean hasCycles() {
+        return !getCycleTables().isEmpty();
+    }
+
+    private void sort() {
+        int tableCount = tables.size();
+        int[] remainingDependencyCount = new int[tableCount];
+        int[] pass = new int[tableCount]; // pass over the original list that adds the table (0 = first pass)
+        Deque<Integer> readyTables = new ArrayDeque<>();
+
+        for (int i = 0; i < tableCount; i++) {
+            remainingDependencyCount[i] = dependencies.get(i).size();
+            if (remainingDependencyCount[i] == 0) {
+                readyTables.add(i);
+            }
+        }
+
+        boolean[] added = new boolean[tableCount];
+        while (!readyTables.isEmpty()) {
+            int index = readyTables.poll();
+            added[index] = true;
+
+            for (int dependentIndex : dependents.get(index)) {
+                // a table listed after its reference is added in the same pass, a table listed before it in the next one
+                pass[dependentIndex] = Math.max(pass[dependentIndex], dependentIndex > index ? pass[index] : pass[index] + 1);
+                remainingDependencyCount[dependentIndex]--;
+                if (remainingDependencyCount[dependentIndex] == 0) {
+                    readyTables.add(dependentIndex);
+                }
+            }
+        }
+
+        List<List<Integer>> passes = new ArrayList<>();
+        for (int i = 0; i < tableCount; i++) {
+            if (added[i]) {
+                while (passes.size() <= pass[i]) {
+                    passes.add(new ArrayList<Integer>());
+                }
+                passes.get(pass[i]).add(i);
+            }
+        }
+
+        List<SchemaTable> orderedTables = new ArrayList<>(tableCount);
+        for (List<Integer> passIndexes : passes) {
+            for (int index : passIndexes) {
+                orderedTables.add(tables.get(index));
+            }
+        }
+        for (int i = 0; i < tableCount; i++) {
+            if (!added[i]) {
+                orderedTables.add(tables.get(i));
+            }
+        }
+
+        tablesInCreateOrder = orderedTables;
+        cycleTables = findCycleTables(added);
+    }
+
+    /**
+     * Tables of the strongly connected components (of the tables that could not be ordered) with more than one table
+     * (iterative Tarjan's algorithm, self references are not part of the graph)
+     */
+    private List<SchemaTable> findCycleTables(boolean[] ordered) {
+        int tableCount = tables.size();
+        int[] visitIndex = new int[tableCount];
+        int[] lowLink = new int[tableCount];
+        boolean[] onStack = new boolean[tableCount];
+        boolean[] inCycle = new boolean[tableCount];
+        Arrays.fill(visitIndex, -1);
+        int[][] tableDependencies = new int[tableCount][];
+        for (int i = 0; i < tableCount; i++) {
+            tableDependencies[i] = new int[dependencies.get(i).size()];
+            int position = 0;
+            for (int dependencyIndex : dependencies.get(i)) {
+                tableDependencies[i][position++] = dependencyIndex;
+            }
+        }
+
+        Deque<Integer> componentStack = new ArrayDeque<>();
+        Deque<int[]> callStack = new ArrayDeque<>(); // {table index, next dependency position}
+        int nextVisitIndex = 0;
+
+        for (int start = 0; start < tableCount; start++) {
+            if (ordered[start] || visitIndex[start] >= 0) {
+                continue;
+            }
+
+            callStack.push(new int[]{start, 0});
+            while (!callStack.isEmpty()) {
+                int[] frame = callStack.peek();
+                int index = frame[0];
+                if (frame[1] == 0 && visitIndex[index] < 0) {
+                    visitIndex[index] = nextVisitIndex;
+                    lowLink[index] = nextVisitIndex;
+                    nextVisitIndex++;
+                    componentStack.push(index);
+                    onStack[index] = true;
+                }
+
+                if (frame[1] < tableDependencies[index].length) {
+                    int dependencyIndex = tableDependencies[index][frame[1]++];
+                    if (ordered[dependencyIndex]) {
+                        continue;
+                    }
+                    if (visitIndex[dependencyIndex] < 0) {
+                        callStack.push(new int[]{dependencyIndex, 0});
+                    } else if (onStack[dependencyIndex]) {
+                        lowLink[index] = Math.min(lowLink[index], visitIndex[dependencyIndex]);
+                    }
+                    continue;
+                }
+
+                callStack.pop();
+                if (!callStack.isEmpty()) {
+                    int parentIndex = callStack.peek()[0];
+                    lowLink[parentIndex] = Math.min(lowLink[parentIndex], lowLink[index]);
+                }
+
+                if (lowLink[index] == visitIndex[index]) {
+                    List<Integer> component = new ArrayList<>();
+                    int componentIndex;
+                    do {
+                        componentIndex = componentStack.pop();
+                        onStack[componentIndex] = false;
+                        component.add(componentIndex);
+                    } while (componentIndex != index);
+
+                    if (component.size() > 1) {
+                        for (int i : component) {
+                            inCycle[i] = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        List<SchemaTable> result = new ArrayList<>();
+        for (int i = 0; i < tableCount; i++) {
+            if (inCycle[i]) {
+                result.add(tables.get(i));
+            }
+        }
+        return result;
+    }
+
+    private int indexOf(SchemaTable table) {
+        Integer index = tableIndexByName.get(toKey(table.getName()));
+        if (index == null) {
+            throw new IllegalArgumentException("Table [" + table.getName() + "] is not part of this graph");
+        }
+        return index;
+    }
+
+    private List<SchemaTable> toTables(Set<Integer> indexes) {
+        List<SchemaTable> result = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            result.add(tables.get(index));
+        }
+        return result;
+    }
+}
@@ -6,7 +6,9 @@ import org.simpleframework.xml.ElementList;
 import org.simpleframework.xml.Root;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * User: jcampbell
@@ -20,14 +22,26 @@ public class DatabaseMapping {
     @ElementList(entry = "mapping", inline = true)
     private List<TypeMapping> mappings = new ArrayList<>();
 
+    private volatile Map<SchemaFieldType, String> sqlTypes; // lookup index built from mappings
+
     public String getSqlType(SchemaFieldType type) {
-        for (TypeMapping mapType : mappings) {
-            if (mapType.getJdbcType() == type) {
-                return mapType.getSqlType();
+        if (type == null) {
+            return null;
+        }
+
+        Map<SchemaFieldType, String> types = sqlTypes;
+        if (types == null) {
+            types = new EnumMap<>(SchemaFieldType.class);
+            for (TypeMapping mapType : mappings) {
+                // first mapping for a type wins
+                if (mapType.getJdbcType() != null && !types.containsKey(mapType.getJdbcType())) {
+                    types.put(mapType.getJdbcType(), mapType.getSqlType());
+                }
             }
+            sqlTypes = types;
         }
 
-        return null;
+        return types.get(type);
     }
 
     public String getDatabaseName() {
@@ -44,5 +58,6 @@ public class DatabaseMapping {
 
     public void setMappings(List<TypeMapping> mappings) {
         this.mappings = mappings;
+        this.sqlTypes = null;
     }
 }
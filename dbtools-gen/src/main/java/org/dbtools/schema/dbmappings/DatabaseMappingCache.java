@@ -0,0 +1,119 @@
+package org.dbtools.schema.dbmappings;
+
+import org.simpleframework.xml.Serializer;
+import org.simpleframework.xml.core.Persister;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process wide cache of parsed dbmappings.xml files.
+ *
+ * Mappings are keyed by mapping source (file path or classpath url) and vendor name.  File sources are re-read if the
+ * file has been modified since it was cached.
+ */
+public final class DatabaseMappingCache {
+
+    private static final Map<String, CachedMappings> CACHE = new ConcurrentHashMap<>();
+
+    private DatabaseMappingCache() {
+    }
+
+    public static DatabaseMapping getDatabaseMapping(File mappingFile, String dbVendorName) {
+        String source = mappingFile.getAbsolutePath();
+        CachedMappings cachedMappings = CACHE.get(source);
+        if (cachedMappings == null || cachedMappings.isStale(mappingFile)) {
+            cachedMappings = readMappings(source, mappingFile, null);
+        }
+
+        return cachedMappings != null ? cachedMappings.getDatabaseMapping(dbVendorName) : null;
+    }
+
+    public static DatabaseMapping getDatabaseMapping(URL mappingResource, String dbVendorName) {
+        String source = mappingResource.toExternalForm();
+        CachedMappings cachedMappings = CACHE.get(source);
+        if (cachedMappings == null) {
+            cachedMappings = readMappings(source, null, mappingResource);
+        }
+
+        return cachedMappings != null ? cachedMappings.getDatabaseMapping(dbVendorName) : null;
+    }
+
+    /**
+     * Remove all cached mappings (next request will re-read the mapping source)
+     */
+    public static void invalidate() {
+        CACHE.clear();
+    }
+
+    /**
+     * Remove cached mappings for a single mapping file
+     */
+    public static void invalidate(File mappingFile) {
+        CACHE.remove(mappingFile.getAbsolutePath());
+    }
+
+    private static synchronized CachedMappings readMappings(String source, File mappingFile, URL mappingResource) {
+        // another thread may have already read this source
+        CachedMappings cachedMappings = CACHE.get(source);
+        if (cachedMappings != null && (mappingFile == null || !cachedMappings.isStale(mappingFile))) {
+            return cachedMappings;
+        }
+
+        try {
+            Serializer serializer = new Persister();
+            DatabaseMappings mappings;
+            long lastModified = 0;
+            long length = 0;
+            if (mappingFile != null) {
+                lastModified = mappingFile.lastModified();
+                length = mappingFile.length();
+                mappings = serializer.read(DatabaseMappings.class, mappingFile);
+            } else {
+                try (InputStream inputStream = mappingResource.openStream()) {
+                    mappings = serializer.read(DatabaseMappings.class, inputStream);
+                }
+            }
+
+            cachedMappings = new CachedMappings(mappings, lastModified, length);
+            CACHE.put(source, cachedMappings);
+            return cachedMappings;
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    private static final class CachedMappings {
+        private final Map<String, DatabaseMapping> vendorMappings = new HashMap<>();
+        private final long lastModified;
+        private final long length;
+
+        CachedMappings(DatabaseMappings mappings, long lastModified, long length) {
+            this.lastModified = lastModified;
+            this.length = length;
+
+            for (DatabaseMapping databaseMapping : mappings.getDatabaseMappings()) {
+                String vendorKey = databaseMapping.getDatabaseName().toLowerCase(Locale.US);
+                // first mapping for a vendor wins
+                if (!vendorMappings.containsKey(vendorKey)) {
+                    vendorMappings.put(vendorKey, databaseMapping);
+                }
+            }
+        }
+
+        DatabaseMapping getDatabaseMapping(String dbVendorName) {
+            return dbVendorName != null ? vendorMappings.get(dbVendorName.toLowerCase(Locale.US)) : null;
+        }
+
+        boolean isStale(File mappingFile) {
+            return mappingFile.lastModified() != lastModified || mappingFile.length() != length;
+        }
+    }
+}
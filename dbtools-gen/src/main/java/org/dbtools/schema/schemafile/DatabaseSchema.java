@@ -8,7 +8,10 @@ import org.simpleframework.xml.core.Persister;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Root
 public class DatabaseSchema {
@@ -18,22 +21,47 @@ public class DatabaseSchema {
     @ElementList(entry = "database", inline = true)
     private List<SchemaDatabase> databases = new ArrayList<>();
 
+    private volatile Map<String, SchemaDatabase> databasesByName; // case insensitive index (built on first lookup, reset by setDatabases(...) / addDatabase(...))
+
     public List<SchemaDatabase> getDatabases() {
         return databases;
     }
 
     public void setDatabases(List<SchemaDatabase> databases) {
         this.databases = databases;
+        databasesByName = null;
+    }
+
+    /**
+     * Add a database (databases added directly to the list of getDatabases() are not found by getDatabase(...))
+     */
+    public void addDatabase(SchemaDatabase database) {
+        databases.add(database);
+        databasesByName = null;
     }
 
+    /**
+     * Case insensitive search for database
+     */
     public SchemaDatabase getDatabase(String name) {
-        for (SchemaDatabase database : databases) {
-            if (database.getName().equals(name)) {
-                return database;
+        if (name == null) {
+            return null;
+        }
+
+        String key = name.toLowerCase(Locale.US);
+        Map<String, SchemaDatabase> index = databasesByName;
+        if (index == null) {
+            index = new HashMap<>();
+            for (SchemaDatabase database : databases) {
+                String databaseKey = database.getName().toLowerCase(Locale.US);
+                if (!index.containsKey(databaseKey)) {
+                    index.put(databaseKey, database);
+                }
             }
+            databasesByName = index;
         }
 
-        return null;
+        return index.get(key);
     }
 
     public void validate() {
@@ -42,6 +70,15 @@ public class DatabaseSchema {
         }
     }
 
+    /**
+     * Apply database level defaults to all entities (one time pass, so lookups during generation do not re-apply them)
+     */
+    public void resolveDefaults() {
+        for (SchemaDatabase database : databases) {
+            database.resolveDefaults();
+        }
+    }
+
     public static DatabaseSchema readXMLSchema(String path)  {
         DatabaseSchema schema = null;
 
@@ -57,6 +94,7 @@ public class DatabaseSchema {
 
         // validate
         if (schema != null) {
+            schema.resolveDefaults();
             schema.validate();
         }
 
@@ -1,13 +1,18 @@
 package org.dbtools.schema.schemafile;
 
 import org.dbtools.schema.ClassInfo;
+import org.dbtools.schema.SqlitePragmas;
 import org.simpleframework.xml.Attribute;
 import org.simpleframework.xml.ElementList;
 import org.simpleframework.xml.Root;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 @Root
@@ -21,6 +26,34 @@ public class SchemaDatabase {
     @Attribute(required = false)
     private Boolean readOnly = null;
 
+    @Attribute(required = false)
+    private boolean foreignKeyIndexes = true;
+
+    @Attribute(required = false)
+    private int version = 1; // tables version (used to name schema snapshots / migrations)
+
+    // SQLite tuning (overrides the build configuration)
+    @Attribute(required = false)
+    private String journalMode;
+
+    @Attribute(required = false)
+    private String synchronous;
+
+    @Attribute(required = false)
+    private Integer cacheSize;
+
+    @Attribute(required = false)
+    private Long mmapSize;
+
+    @Attribute(required = false)
+    private String tempStore;
+
+    @Attribute(required = false)
+    private Integer pageSize;
+
+    @Attribute(required = false)
+    private Boolean optimizeOnClose;
+
     @ElementList(entry = "table", inline = true, required = false)
     private List<SchemaTable> tables = new ArrayList<>();
 
@@ -33,6 +66,14 @@ public class SchemaDatabase {
     @ElementList(entry = "postSQLScriptFile", inline = true, required = false)
     private List<PostSQLScriptFile> postSQLScriptFiles;
 
+    private boolean defaultsResolved = false;
+
+    // case insensitive name indexes (built on first lookup, reset by setTables(...) / addTable(...) etc)
+    private volatile Map<String, SchemaTable> tablesByName;
+    private volatile Map<String, SchemaView> viewsByName;
+    private volatile Map<String, SchemaQuery> queriesByName;
+    private volatile Map<String, List<SchemaTable>> referencingTablesByName;
+
     public SchemaDatabase() {
     }
 
@@ -48,53 +89,128 @@ public class SchemaDatabase {
         this.name = name;
     }
 
-    public List<SchemaTable> getTables() {
-        if (fieldsDefaultNotNull != null) {
-            for (SchemaTable entity : tables) {
-                entity.setFieldsDefaultNotNull(fieldsDefaultNotNull);
-            }
-        }
+    public int getVersion() {
+        return version;
+    }
 
-        // readOnly
-        if (readOnly != null) {
-            for (SchemaTable entity : tables) {
-                entity.setReadOnly(readOnly);
-            }
-        }
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public SqlitePragmas getSqlitePragmas() {
+        return new SqlitePragmas(journalMode, synchronous, cacheSize, mmapSize, tempStore, pageSize, optimizeOnClose);
+    }
+
+    public boolean isForeignKeyIndexes() {
+        return foreignKeyIndexes;
+    }
 
+    public void setForeignKeyIndexes(boolean foreignKeyIndexes) {
+        this.foreignKeyIndexes = foreignKeyIndexes;
+        defaultsResolved = false;
+    }
+
+    public List<SchemaTable> getTables() {
+        resolveDefaults();
         return tables;
     }
 
     public void setTables(List<SchemaTable> tables) {
         this.tables = tables;
+        defaultsResolved = false;
+        tablesByName = null;
+        referencingTablesByName = null;
     }
 
-    public List<SchemaView> getViews() {
-        if (fieldsDefaultNotNull != null) {
-            for (SchemaView entity : views) {
-                entity.setFieldsDefaultNotNull(fieldsDefaultNotNull);
-            }
-        }
+    /**
+     * Add a table (tables added directly to the list of getTables() are not found by getTable(...))
+     */
+    public void addTable(SchemaTable table) {
+        tables.add(table);
+        defaultsResolved = false;
+        tablesByName = null;
+        referencingTablesByName = null;
+    }
 
+    public List<SchemaView> getViews() {
+        resolveDefaults();
         return views;
     }
 
     public void setViews(List<SchemaView> views) {
         this.views = views;
+        defaultsResolved = false;
+        viewsByName = null;
+    }
+
+    public void addView(SchemaView view) {
+        views.add(view);
+        defaultsResolved = false;
+        viewsByName = null;
     }
 
     public List<SchemaQuery> getQueries() {
+        resolveDefaults();
+        return queries;
+    }
+
+    public void setQueries(List<SchemaQuery> queries) {
+        this.queries = queries;
+        defaultsResolved = false;
+        queriesByName = null;
+    }
+
+    public void addQuery(SchemaQuery query) {
+        queries.add(query);
+        defaultsResolved = false;
+        queriesByName = null;
+    }
+
+    /**
+     * Apply database level defaults (fieldsDefaultNotNull / readOnly / foreignKeyIndexes) to all tables, views and queries (and their fields).
+     * This is done once (after parsing or on first access) instead of on every call to getTables() / getViews() / getQueries()
+     */
+    public void resolveDefaults() {
+        if (defaultsResolved) {
+            return;
+        }
+
         if (fieldsDefaultNotNull != null) {
+            for (SchemaTable entity : tables) {
+                entity.setFieldsDefaultNotNull(fieldsDefaultNotNull);
+            }
+            for (SchemaView entity : views) {
+                entity.setFieldsDefaultNotNull(fieldsDefaultNotNull);
+            }
             for (SchemaQuery entity : queries) {
                 entity.setFieldsDefaultNotNull(fieldsDefaultNotNull);
             }
         }
 
-        return queries;
-    }
+        // readOnly
+        if (readOnly != null) {
+            for (SchemaTable entity : tables) {
+                entity.setReadOnly(readOnly);
+            }
+        }
 
-    public void setQueries(List<SchemaQuery> queries) {
-        this.queries = queries;
+        // foreignKeyIndexes
+        for (SchemaTable entity : tables) {
+            entity.setForeignKeyIndexes(foreignKeyIndexes);
+        }
+
+        // resolve field defaults now
+        for (SchemaTable entity : tables) {
+            entity.getFields();
+        }
+        for (SchemaView entity : views) {
+            entity.getFields();
+        }
+        for (SchemaQuery entity : queries) {
+            entity.getFields();
+        }
+
+        defaultsResolved = true;
     }
 
     public List<PostSQLScriptFile> getPostSQLScriptFiles() {
@@ -127,39 +243,100 @@ public class SchemaDatabase {
      * Case insensitive search for table
      */
     public SchemaTable getTable(String tableName) {
-        for (SchemaTable table : tables) {
-            if (table.getName().equalsIgnoreCase(tableName)) {
-                return table;
+        if (tableName == null) {
+            return null;
+        }
+
+        Map<String, SchemaTable> index = tablesByName;
+        if (index == null) {
+            index = new HashMap<>();
+            for (SchemaTable table : tables) {
+                addToIndex(index, table.getName(), table);
             }
+            tablesByName = index;
         }
 
-        return null;
+        return index.get(toKey(tableName));
     }
 
     /**
      * Case insensitive search for views
      */
     public SchemaView getView(String viewName) {
-        for (SchemaView view : views) {
-            if (view.getName().equalsIgnoreCase(viewName)) {
-                return view;
+        if (viewName == null) {
+            return null;
+        }
+
+        Map<String, SchemaView> index = viewsByName;
+        if (index == null) {
+            index = new HashMap<>();
+            for (SchemaView view : views) {
+                addToIndex(index, view.getName(), view);
             }
+            viewsByName = index;
         }
 
-        return null;
+        return index.get(toKey(viewName));
     }
 
     /**
      * Case insensitive search for queries
      */
     public SchemaQuery getQuery(String queryName) {
-        for (SchemaQuery query : queries) {
-            if (query.getName().equalsIgnoreCase(queryName)) {
-                return query;
+        if (queryName == null) {
+            return null;
+        }
+
+        Map<String, SchemaQuery> index = queriesByName;
+        if (index == null) {
+            index = new HashMap<>();
+            for (SchemaQuery query : queries) {
+                addToIndex(index, query.getName(), query);
             }
+            queriesByName = index;
         }
 
-        return null;
+        return index.get(toKey(queryName));
+    }
+
+    /**
+     * Case insensitive search for all tables that have a foreign key field referencing the given table (in schema order)
+     */
+    public List<SchemaTable> getReferencingTables(String tableName) {
+        Map<String, List<SchemaTable>> index = referencingTablesByName;
+        if (index == null) {
+            index = new HashMap<>();
+            for (SchemaTable table : getTables()) {
+                Set<String> referencedTableKeys = new HashSet<>();
+                for (SchemaTableField field : table.getForeignKeyFields()) {
+                    String key = toKey(field.getForeignKeyTable());
+                    if (referencedTableKeys.add(key)) {
+                        List<SchemaTable> referencingTables = index.get(key);
+                        if (referencingTables == null) {
+                            referencingTables = new ArrayList<>();
+                            index.put(key, referencingTables);
+                        }
+                        referencingTables.add(table);
+                    }
+                }
+            }
+            referencingTablesByName = index;
+        }
+
+        List<SchemaTable> referencingTables = tableName != null ? index.get(toKey(tableName)) : null;
+        return referencingTables != null ? Collections.unmodifiableList(referencingTables) : Collections.<SchemaTable>emptyList();
+    }
+
+    private static String toKey(String name) {
+        return name.toLowerCase(Locale.US);
+    }
+
+    private static <T> void addToIndex(Map<String, T> index, String name, T item) {
+        // first match wins (same as a linear search)
+        String key = toKey(name);
+        if (!index.containsKey(key)) {
+            index.put(key, item);
+        }
     }
 
     public ClassInfo getTableClassInfo(String tableName) {
@@ -0,0 +1,38 @@
+package org.dbtools.schema.schemafile;
+
+import org.dbtools.schema.SortOrder;
+import org.simpleframework.xml.Attribute;
+import org.simpleframework.xml.Root;
+
+@Root
+public class SchemaIndexField {
+    @Attribute
+    private String name;
+
+    @Attribute(required = false)
+    private SortOrder order = SortOrder.NONE;
+
+    public SchemaIndexField() {
+    }
+
+    public SchemaIndexField(String name, SortOrder order) {
+        this.name = name;
+        this.order = order;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public SortOrder getOrder() {
+        return order;
+    }
+
+    public void setOrder(SortOrder order) {
+        this.order = order;
+    }
+}
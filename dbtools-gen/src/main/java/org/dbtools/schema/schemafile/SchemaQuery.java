@@ -22,6 +22,8 @@ public class SchemaQuery extends SchemaEntity {
     @ElementList(entry = "field", inline = true)
     List<SchemaQueryField> fields = new ArrayList<>();
 
+    private boolean fieldDefaultsResolved = false;
+
     @Attribute(required = false)
     private Boolean fieldsDefaultNotNull = null;
 
@@ -61,6 +63,7 @@ public class SchemaQuery extends SchemaEntity {
 
     public void setFields(List<SchemaQueryField> fields) {
         this.fields = fields;
+        fieldDefaultsResolved = false;
     }
 
     public Boolean isFieldsDefaultNotNull() {
@@ -69,14 +72,20 @@ public class SchemaQuery extends SchemaEntity {
 
     public void setFieldsDefaultNotNull(Boolean fieldsDefaultNotNull) {
         this.fieldsDefaultNotNull = fieldsDefaultNotNull;
+        fieldDefaultsResolved = false;
     }
 
     private void setFieldDefaults() {
+        if (fieldDefaultsResolved) {
+            return;
+        }
+
         if (fieldsDefaultNotNull != null) {
             for (SchemaField field : fields) {
                 field.setNotNullDefaultValue(fieldsDefaultNotNull);
             }
         }
+        fieldDefaultsResolved = true;
     }
 
     public boolean isReadonly() {
@@ -6,7 +6,9 @@ import org.simpleframework.xml.ElementList;
 import org.simpleframework.xml.Root;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Root
 public class SchemaTable extends SchemaEntity {
@@ -25,15 +27,30 @@ public class SchemaTable extends SchemaEntity {
     @Attribute(required = false)
     private Boolean readOnly = false;
 
+    @Attribute(required = false)
+    private Boolean sqliteWithoutRowId = false;
+
+    @Attribute(required = false)
+    private Boolean sqliteStrict = false;
+
+    @Attribute(required = false)
+    private Boolean sqliteAutoIncrement = true;
+
     @ElementList(entry = "unique", inline = true, required = false)
     private List<SchemaTableUnique> uniqueDeclarations = new ArrayList<>();
 
+    @ElementList(entry = "index", inline = true, required = false)
+    private List<SchemaTableIndex> indexDeclarations = new ArrayList<>();
+
     @ElementList(entry = "tableparameter", inline = true, required = false)
     private List<SchemaTableParameter> tableParameters = new ArrayList<>();
 
     @ElementList(entry = "field", inline = true)
     List<SchemaTableField> fields = new ArrayList<>();
 
+    private boolean fieldDefaultsResolved = false;
+    private boolean foreignKeyIndexes = true; // set from the database
+
     public SchemaTable() {
     }
 
@@ -50,9 +67,49 @@ public class SchemaTable extends SchemaEntity {
                 if (primaryKeyCount > 1) {
                     throw new IllegalStateException("Cannot have 2 primary key fields for table [" + getName() + "].[" + field.getName() + "]");
                 }
+                if (isSqliteWithoutRowId() && field.isIncrement()) {
+                    throw new IllegalStateException("WITHOUT ROWID table [" + getName() + "] cannot have an increment primary key [" + field.getName() + "]");
+                }
+                // the records get and set their primary key as a long (getPrimaryKeyId() / setPrimaryKeyId(long))
+                if (isSqliteWithoutRowId() && field.getJdbcDataType() != SchemaFieldType.BIGINT) {
+                    throw new IllegalStateException("WITHOUT ROWID table [" + getName() + "] primary key [" + field.getName() + "] must be a BIGINT");
+                }
             }
             field.validate();
         }
+        if (isSqliteWithoutRowId() && primaryKeyCount == 0) {
+            throw new IllegalStateException("WITHOUT ROWID table [" + getName() + "] must have a primary key field");
+        }
+
+        Set<String> indexNames = new HashSet<>();
+        for (SchemaTableField field : fields) {
+            if (isIndexField(field, true)) {
+                indexNames.add((getName() + field.getName() + "_IDX").toLowerCase());
+            }
+        }
+        for (SchemaTableIndex index : indexDeclarations) {
+            if (!indexNames.add(index.getIndexName(getName()).toLowerCase())) {
+                throw new IllegalStateException("Index [" + index.getIndexName(getName()) + "] for table [" + getName() + "] has the same name as another index of the table");
+            }
+            if (index.getIndexFields().isEmpty()) {
+                throw new IllegalStateException("Index [" + index.getIndexName(getName()) + "] for table [" + getName() + "] does not have any indexField");
+            }
+            for (SchemaIndexField indexField : index.getIndexFields()) {
+                if (getField(indexField.getName()) == null) {
+                    throw new IllegalStateException("Index [" + index.getIndexName(getName()) + "] references unknown field [" + getName() + "].[" + indexField.getName() + "]");
+                }
+            }
+        }
+
+        // covered with every renderer (a UNIQUE(...) constraint of all the unique fields only covers the first of them)
+        for (SchemaTableField field : fields) {
+            if (!field.isIndex() && isForeignKeyIndexField(field)) {
+                String coveringIndex = findIndexStartingWith(field.getName(), true);
+                if (coveringIndex != null) {
+                    System.out.println("WARNING: Foreign key field [" + getName() + "].[" + field.getName() + "] is already covered by " + coveringIndex + "... skipping foreign key index");
+                }
+            }
+        }
         return true;
     }
 
@@ -156,6 +213,78 @@ public class SchemaTable extends SchemaEntity {
         return enums;
     }
 
+    /**
+     * Case insensitive search for field
+     */
+    public SchemaTableField getField(String fieldName) {
+        for (SchemaTableField field : fields) {
+            if (field.getName().equalsIgnoreCase(fieldName)) {
+                return field;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * An index is created for a field if it has index="true" or if it is a foreign key field.  Foreign key fields are
+     * skipped if foreign key indexes are turned off (database foreignKeyIndexes="false" or field
+     * foreignKeyIndex="false"), or if the field is already the first column of the primary key, a unique constraint or
+     * an index declaration (the existing index can be used for the foreign key).
+     *
+     * @param uniqueFieldsConstraint true if the renderer declares all field level unique fields as one UNIQUE(...)
+     *                               constraint (only the first of them starts an index), false if each of them is
+     *                               UNIQUE on its own
+     */
+    public boolean isIndexField(SchemaTableField field, boolean uniqueFieldsConstraint) {
+        if (field.isIndex()) {
+            return true;
+        }
+
+        // covered foreign key fields are reported (once) by validate()
+        return isForeignKeyIndexField(field) && findIndexStartingWith(field.getName(), uniqueFieldsConstraint) == null;
+    }
+
+    /**
+     * @return true if the field is a foreign key that should get an index (unless an existing index already covers it)
+     */
+    private boolean isForeignKeyIndexField(SchemaTableField field) {
+        String fkTable = field.getForeignKeyTable();
+        return foreignKeyIndexes && field.isForeignKeyIndex() && fkTable != null && !fkTable.isEmpty() && !field.isPrimaryKey();
+    }
+
+    /**
+     * @return description of the unique constraint or index declaration that has fieldName as its first column (or null)
+     */
+    private String findIndexStartingWith(String fieldName, boolean uniqueFieldsConstraint) {
+        for (SchemaTableField field : fields) {
+            if (field.isUnique()) {
+                if (field.getName().equalsIgnoreCase(fieldName)) {
+                    return "unique field";
+                }
+                if (uniqueFieldsConstraint) {
+                    break;
+                }
+            }
+        }
+
+        for (SchemaTableUnique uniqueDeclaration : uniqueDeclarations) {
+            List<SchemaUniqueField> uniqueFields = uniqueDeclaration.getUniqueFields();
+            if (uniqueFields != null && !uniqueFields.isEmpty() && uniqueFields.get(0).getName().equalsIgnoreCase(fieldName)) {
+                return "unique declaration";
+            }
+        }
+
+        for (SchemaTableIndex index : indexDeclarations) {
+            List<SchemaIndexField> indexFields = index.getIndexFields();
+            if (!indexFields.isEmpty() && indexFields.get(0).getName().equalsIgnoreCase(fieldName)) {
+                return "index [" + index.getIndexName(getName()) + "]";
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Returns a list of Fields that reference a specified SchemaTable
      *
@@ -258,6 +387,22 @@ public class SchemaTable extends SchemaEntity {
         this.uniqueDeclarations = uniqueDeclarations;
     }
 
+    public List<SchemaTableIndex> getIndexDeclarations() {
+        return indexDeclarations;
+    }
+
+    public void setIndexDeclarations(List<SchemaTableIndex> indexDeclarations) {
+        this.indexDeclarations = indexDeclarations;
+    }
+
+    public boolean isForeignKeyIndexes() {
+        return foreignKeyIndexes;
+    }
+
+    public void setForeignKeyIndexes(boolean foreignKeyIndexes) {
+        this.foreignKeyIndexes = foreignKeyIndexes;
+    }
+
     public List<SchemaTableParameter> getTableParameters() {
         return tableParameters;
     }
@@ -273,6 +418,7 @@ public class SchemaTable extends SchemaEntity {
 
     public void setFields(List<SchemaTableField> fields) {
         this.fields = fields;
+        fieldDefaultsResolved = false;
     }
 
     public Boolean isFieldsDefaultNotNull() {
@@ -281,14 +427,20 @@ public class SchemaTable extends SchemaEntity {
 
     public void setFieldsDefaultNotNull(Boolean fieldsDefaultNotNull) {
         this.fieldsDefaultNotNull = fieldsDefaultNotNull;
+        fieldDefaultsResolved = false;
     }
 
     private void setFieldDefaults() {
+        if (fieldDefaultsResolved) {
+            return;
+        }
+
         if (fieldsDefaultNotNull != null) {
             for (SchemaField field : fields) {
                 field.setNotNullDefaultValue(fieldsDefaultNotNull);
             }
         }
+        fieldDefaultsResolved = true;
     }
 
     public boolean isReadonly() {
@@ -298,4 +450,28 @@ public class SchemaTable extends SchemaEntity {
     public void setReadOnly(Boolean readOnly) {
         this.readOnly = readOnly;
     }
+
+    public boolean isSqliteWithoutRowId() {
+        return sqliteWithoutRowId != null ? sqliteWithoutRowId : false;
+    }
+
+    public void setSqliteWithoutRowId(Boolean sqliteWithoutRowId) {
+        this.sqliteWithoutRowId = sqliteWithoutRowId;
+    }
+
+    public boolean isSqliteStrict() {
+        return sqliteStrict != null ? sqliteStrict : false;
+    }
+
+    public void setSqliteStrict(Boolean sqliteStrict) {
+        this.sqliteStrict = sqliteStrict;
+    }
+
+    public boolean isSqliteAutoIncrement() {
+        return sqliteAutoIncrement != null ? sqliteAutoIncrement : true;
+    }
+
+    public void setSqliteAutoIncrement(Boolean sqliteAutoIncrement) {
+        this.sqliteAutoIncrement = sqliteAutoIncrement;
+    }
 }
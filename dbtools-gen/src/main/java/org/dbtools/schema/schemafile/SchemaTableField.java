@@ -19,16 +19,22 @@ public class SchemaTableField extends SchemaField {
     @Attribute(required = false)
     private boolean index = false;
     @Attribute(required = false)
+    private boolean foreignKeyIndex = true;
+    @Attribute(required = false)
     private int incrementInitialValue = 1;
     @Attribute(required = false)
     private String sequencerName = "";
     @Attribute(required = false)
     private int sequencerStartValue = 1;
+    @Attribute(required = false)
+    private int sequencerIncrement = 1;
 
     @Attribute(required = false)
     private String foreignKeyOrderByColumn = "";
     @Attribute(required = false)
     private String foreignKeyCascadeType = "ALL";
+    @Attribute(required = false)
+    private int foreignKeyBatchSize = 0;
 
     @Attribute(required = false)
     private String enumerations = "";
@@ -49,6 +55,10 @@ public class SchemaTableField extends SchemaField {
             setNotNull(true);
         }
 
+        if (sequencerIncrement < 1) {
+            throw new IllegalStateException("sequencerIncrement must be greater than 0 for field [" + getName() + "]");
+        }
+
         if (enumerations != null && enumerations.length() > 0) {
             if (!getJdbcDataType().isNumberDataType() && getJdbcDataType() != SchemaFieldType.VARCHAR) {
                 throw new IllegalStateException("Enumerations can ONLY be used with INTEGER or VARCHAR datatypes for field [" + getName() + "]");
@@ -106,6 +116,17 @@ public class SchemaTableField extends SchemaField {
         this.index = index;
     }
 
+    /**
+     * @return false if no index should be automatically created for this foreign key field
+     */
+    public boolean isForeignKeyIndex() {
+        return foreignKeyIndex;
+    }
+
+    public void setForeignKeyIndex(boolean foreignKeyIndex) {
+        this.foreignKeyIndex = foreignKeyIndex;
+    }
+
     public int getIncrementInitialValue() {
         return incrementInitialValue;
     }
@@ -130,6 +151,14 @@ public class SchemaTableField extends SchemaField {
         this.sequencerStartValue = sequencerStartValue;
     }
 
+    public int getSequencerIncrement() {
+        return sequencerIncrement;
+    }
+
+    public void setSequencerIncrement(int sequencerIncrement) {
+        this.sequencerIncrement = sequencerIncrement;
+    }
+
     public String getForeignKeyOrderByColumn() {
         return foreignKeyOrderByColumn;
     }
@@ -146,6 +175,14 @@ public class SchemaTableField extends SchemaField {
         this.foreignKeyCascadeType = foreignKeyCascadeType;
     }
 
+    public int getForeignKeyBatchSize() {
+        return foreignKeyBatchSize;
+    }
+
+    public void setForeignKeyBatchSize(int foreignKeyBatchSize) {
+        this.foreignKeyBatchSize = foreignKeyBatchSize;
+    }
+
     public String getEnumerations() {
         return enumerations;
     }
@@ -0,0 +1,79 @@
+package org.dbtools.schema.schemafile;
+
+import org.simpleframework.xml.Attribute;
+import org.simpleframework.xml.ElementList;
+import org.simpleframework.xml.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Table index declaration (multiple columns, sort direction, unique and an optional WHERE predicate for partial indexes)
+ */
+@Root
+public class SchemaTableIndex {
+    @Attribute(required = false)
+    private String name;
+
+    @Attribute(required = false)
+    private boolean unique = false;
+
+    @Attribute(required = false)
+    private String where;
+
+    @ElementList(entry = "indexField", inline = true)
+    private List<SchemaIndexField> indexFields = new ArrayList<>();
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return name of the index or, if no name was declared, [table]_[field]_[field]_IDX (the separator after the table
+     * name keeps it apart from a field level index ([table][field]_IDX) on the same field)
+     */
+    public String getIndexName(String tableName) {
+        if (name != null && !name.isEmpty()) {
+            return name;
+        }
+
+        StringBuilder indexName = new StringBuilder(tableName);
+        for (SchemaIndexField indexField : indexFields) {
+            indexName.append("_").append(indexField.getName());
+        }
+        indexName.append("_IDX");
+        return indexName.toString();
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    public void setUnique(boolean unique) {
+        this.unique = unique;
+    }
+
+    public String getWhere() {
+        return where;
+    }
+
+    public void setWhere(String where) {
+        this.where = where;
+    }
+
+    public boolean isPartial() {
+        return where != null && !where.trim().isEmpty();
+    }
+
+    public List<SchemaIndexField> getIndexFields() {
+        return indexFields;
+    }
+
+    public void setIndexFields(List<SchemaIndexField> indexFields) {
+        this.indexFields = indexFields;
+    }
+}
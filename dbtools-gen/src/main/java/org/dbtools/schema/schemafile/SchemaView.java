@@ -25,6 +25,8 @@ public class SchemaView extends SchemaEntity {
     @ElementList(entry = "field", inline = true)
     List<SchemaViewField> fields = new ArrayList<>();
 
+    private boolean fieldDefaultsResolved = false;
+
     @Override
     public SchemaEntityType getType() {
         return SchemaEntityType.VIEW;
@@ -61,6 +63,7 @@ public class SchemaView extends SchemaEntity {
 
     public void setFields(List<SchemaViewField> fields) {
         this.fields = fields;
+        fieldDefaultsResolved = false;
     }
 
     public Boolean isFieldsDefaultNotNull() {
@@ -69,14 +72,20 @@ public class SchemaView extends SchemaEntity {
 
     public void setFieldsDefaultNotNull(Boolean fieldsDefaultNotNull) {
         this.fieldsDefaultNotNull = fieldsDefaultNotNull;
+        fieldDefaultsResolved = false;
     }
 
     private void setFieldDefaults() {
+        if (fieldDefaultsResolved) {
+            return;
+        }
+
         if (fieldsDefaultNotNull != null) {
             for (SchemaField field : fields) {
                 field.setNotNullDefaultValue(fieldsDefaultNotNull);
             }
         }
+        fieldDefaultsResolved = true;
     }
 
     public boolean isReadonly() {
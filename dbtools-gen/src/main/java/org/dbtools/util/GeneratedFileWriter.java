@@ -0,0 +1,83 @@
+package org.dbtools.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes generated source files.  When writeIfChanged is enabled (default) a file whose content is identical to what
+ * would be generated is left untouched, so its timestamp does not change and incremental compilers do not see it as
+ * modified.
+ *
+ * Each generation run uses its own writer (see GenConfig.getFileWriter()) so the setting and the counts of concurrent
+ * builds (for example in a Gradle daemon) do not mix.
+ */
+public final class GeneratedFileWriter {
+
+    private volatile boolean writeIfChanged = true;
+    private final AtomicInteger writtenCount = new AtomicInteger();
+    private final AtomicInteger unchangedCount = new AtomicInteger();
+
+    public GeneratedFileWriter() {
+    }
+
+    public GeneratedFileWriter(boolean writeIfChanged) {
+        this.writeIfChanged = writeIfChanged;
+    }
+
+    /**
+     * Write content to outFile
+     *
+     * @return true if the file was written, false if the existing file already had the same content
+     */
+    public boolean write(File outFile, String content) throws IOException {
+        // same encoding as the PrintStream that previously wrote these files
+        byte[] bytes = content.getBytes();
+
+        if (writeIfChanged && isSameContent(outFile, bytes)) {
+            unchangedCount.incrementAndGet();
+            return false;
+        }
+
+        try (OutputStream outputStream = new FileOutputStream(outFile)) {
+            outputStream.write(bytes);
+        }
+
+        writtenCount.incrementAndGet();
+        return true;
+    }
+
+    private static boolean isSameContent(File file, byte[] bytes) throws IOException {
+        // cheap length check first so changed files are normally not read at all
+        if (!file.isFile() || file.length() != bytes.length) {
+            return false;
+        }
+
+        return Arrays.equals(Files.readAllBytes(file.toPath()), bytes);
+    }
+
+    public boolean isWriteIfChanged() {
+        return writeIfChanged;
+    }
+
+    public void setWriteIfChanged(boolean writeIfChanged) {
+        this.writeIfChanged = writeIfChanged;
+    }
+
+    public void resetCounts() {
+        writtenCount.set(0);
+        unchangedCount.set(0);
+    }
+
+    public int getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public int getUnchangedCount() {
+        return unchangedCount.get();
+    }
+}
@@ -12,5 +12,5 @@ package org.dbtools.codegen.kotlin
 
 enum class KotlinAccess {
 
-    DEFAULT_NONE, PUBLIC, PRIVATE, PROTECTED
+    DEFAULT_NONE, PUBLIC, PRIVATE, PROTECTED, INTERNAL
 }
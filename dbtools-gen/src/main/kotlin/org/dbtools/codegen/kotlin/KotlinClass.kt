@@ -10,10 +10,9 @@
 package org.dbtools.codegen.kotlin
 
 import org.dbtools.codegen.java.JavaClass
+import org.dbtools.util.GeneratedFileWriter
 import java.io.File
-import java.io.FileNotFoundException
-import java.io.FileOutputStream
-import java.io.PrintStream
+import java.io.IOException
 import java.util.*
 
 @SuppressWarnings("PMD.UseStringBufferForStringAppends")
@@ -364,7 +363,7 @@ open class KotlinClass(var name: String = "", var packageName:String = "", val c
     val filename: String
         get() = name + ".kt"
 
-    @JvmOverloads fun writeToDisk(directoryname: String, overwrite: Boolean = true) {
+    @JvmOverloads fun writeToDisk(directoryname: String, overwrite: Boolean = true, fileWriter: GeneratedFileWriter = GeneratedFileWriter()) {
         val directory = File(directoryname)
         directory.mkdirs()
 
@@ -375,10 +374,8 @@ open class KotlinClass(var name: String = "", var packageName:String = "", val c
                 return
             }
 
-            val fps = PrintStream(FileOutputStream(outFile))
-            fps.print(this.toString())
-            fps.close()
-        } catch (ex: FileNotFoundException) {
+            fileWriter.write(outFile, this.toString())
+        } catch (ex: IOException) {
             ex.printStackTrace()
         }
 
@@ -404,6 +401,7 @@ open class KotlinClass(var name: String = "", var packageName:String = "", val c
                 KotlinAccess.PUBLIC -> return ""
                 KotlinAccess.PRIVATE -> return "private"
                 KotlinAccess.PROTECTED -> return "protected"
+                KotlinAccess.INTERNAL -> return "internal"
                 else -> throw IllegalArgumentException("Illegal Access type: " + access.toString())
             }
         }
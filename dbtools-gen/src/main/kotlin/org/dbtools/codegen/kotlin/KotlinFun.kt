@@ -69,7 +69,7 @@ class KotlinFun {
         // access
         val access = KotlinClass.getAccessString(funAccess)
         if (!access.isEmpty()) {
-            text += tab + access
+            text += tab + access + " "
         } else {
             text += tab
         }
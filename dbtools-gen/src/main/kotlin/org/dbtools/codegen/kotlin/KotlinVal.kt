@@ -53,7 +53,9 @@ class KotlinVal(val name: String, val dataType: String, var defaultValue: String
         if (variableType == KotlinVarType.CLASS_VARIABLE) {
             val accessText = KotlinClass.getAccessString(access)
             text += KotlinClass.tab
-            text += accessText
+            if (!accessText.isEmpty()) {
+                text += accessText + " "
+            }
         }
 
         if (open) {
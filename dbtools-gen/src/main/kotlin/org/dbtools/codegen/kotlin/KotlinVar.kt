@@ -17,6 +17,7 @@ class KotlinVar(val name: String, val dataType: String, var defaultValue: String
     var inline = false
     var open = false
     var lateInit = false
+    var setterContent = "" // code run after the backing field is set by a custom setter (empty = default setter)
     val annotations = ArrayList<String>()
 
     fun addAnnotation(annotation: String) {
@@ -83,6 +84,17 @@ class KotlinVar(val name: String, val dataType: String, var defaultValue: String
             text += " = " + defaultValue
         }
 
+        // custom setter
+        if (setterContent.isNotEmpty() && variableType == KotlinVarType.CLASS_VARIABLE) {
+            val setterTab = KotlinClass.tab + KotlinClass.tab
+            text += "\n" + setterTab + "set(value) {\n"
+            text += setterTab + KotlinClass.tab + "field = value\n"
+            for (line in setterContent.lines()) {
+                text += setterTab + KotlinClass.tab + line + "\n"
+            }
+            text += setterTab + "}"
+        }
+
         return text
     }
 
@@ -10,14 +10,18 @@
 package org.dbtools.gen.android.kotlin
 
 
+import org.dbtools.codegen.java.JavaVariable
+import org.dbtools.codegen.kotlin.KotlinAccess
 import org.dbtools.codegen.kotlin.KotlinClass
 import org.dbtools.codegen.kotlin.KotlinVal
 import org.dbtools.gen.AnnotationConsts
 import org.dbtools.gen.GenConfig
+import org.dbtools.gen.android.AndroidBaseManagerRenderer
 import org.dbtools.gen.android.AndroidGeneratedEntityInfo
 import org.dbtools.gen.android.AndroidRecordRenderer
 import org.dbtools.schema.schemafile.SchemaEntity
 import org.dbtools.schema.schemafile.SchemaEntityType
+import org.dbtools.schema.schemafile.SchemaFieldType
 import org.dbtools.schema.schemafile.SchemaTable
 
 class KotlinAndroidBaseManagerRenderer(val genConfig: GenConfig) {
@@ -128,6 +132,16 @@ class KotlinAndroidBaseManagerRenderer(val genConfig: GenConfig) {
                 myClass.addFun("getCreateSql", "String", content =  "return $recordConstClassName.CREATE_TABLE").apply { isOverride = true }
                 myClass.addFun("getInsertSql", "String", content =  "return $recordConstClassName.INSERT_STATEMENT").apply { isOverride = true }
                 myClass.addFun("getUpdateSql", "String", content =  "return $recordConstClassName.UPDATE_STATEMENT").apply { isOverride = true }
+
+                addForeignKeyFinderFuns(entity as SchemaTable, recordClassName, recordConstClassName)
+
+                if (!entity.isReadonly) {
+                    addBatchFuns(recordClassName, recordConstClassName, generatedEntityInfo.isPrimaryKeyAdded, generatedEntityInfo.isRowIdPrimaryKey, generatedEntityInfo.isUpsertAdded)
+
+                    if (genConfig.isDirtyFieldTracking && generatedEntityInfo.isPrimaryKeyAdded) {
+                        addDirtyUpdateFuns(recordClassName, recordConstClassName)
+                    }
+                }
             }
             SchemaEntityType.VIEW -> {
                 myClass.addFun("getPrimaryKey", "String", content =  "return \"\"").apply { isOverride = true }
@@ -151,9 +165,199 @@ class KotlinAndroidBaseManagerRenderer(val genConfig: GenConfig) {
         }
     }
 
+    /**
+     * insertAll(...) / updateAll(...) / upsertAll(...): compile the INSERT / UPDATE / UPSERT statement once, rebind it for
+     * each record and commit every batchSize records in its own transaction.
+     */
+    private fun addBatchFuns(recordClassName: String, recordConstClassName: String, primaryKeyAdded: Boolean, rowIdPrimaryKey: Boolean, upsertAdded: Boolean) {
+        myClass.addImport("org.dbtools.android.domain.database.statement.StatementWrapper")
+
+        myClass.addConstant("DEFAULT_BATCH_SIZE", "500", formatDefaultValue = false).apply { const = true }
+
+        var insertRecordContent = "val rowId = statement.executeInsert()\n"
+        insertRecordContent += "if (rowId != -1L) {\n"
+        if (rowIdPrimaryKey) {
+            // only an INTEGER PRIMARY KEY is the rowid (natural keys are bound by the record, WITHOUT ROWID tables have no rowid)
+            insertRecordContent += "${TAB}record.setPrimaryKeyId(rowId)\n"
+        }
+        insertRecordContent += "${TAB}count++\n"
+        insertRecordContent += "}\n"
+        addBatchFun("insertAll", recordClassName, "$recordConstClassName.INSERT_STATEMENT", "bindInsertStatement", insertRecordContent)
+
+        if (primaryKeyAdded) {
+            addBatchFun("updateAll", recordClassName, "$recordConstClassName.UPDATE_STATEMENT", "bindUpdateStatement", "count += statement.executeUpdateDelete()\n")
+        }
+
+        if (upsertAdded) {
+            // the rowid of an updated row is not reported back, so only the number of changed rows is counted
+            addBatchFun("upsertAll", recordClassName, "$recordConstClassName.UPSERT_STATEMENT", "bindUpsertStatement", "count += statement.executeUpdateDelete()\n")
+
+            myClass.addFun("upsert", "Boolean", listOf(KotlinVal("record", recordClassName)), "return upsert(getDatabaseName(), record)")
+            myClass.addFun("upsert", "Boolean", listOf(KotlinVal("databaseName", "String"), KotlinVal("record", recordClassName)), "return upsertAll(databaseName, listOf(record).iterator(), 1) > 0")
+        }
+    }
+
+    private fun addBatchFun(funName: String, recordClassName: String, sql: String, bindFunName: String, executeContent: String) {
+        myClass.addFun(funName, "Int", listOf(KotlinVal("records", "Iterable<$recordClassName>")), "return $funName(getDatabaseName(), records.iterator(), DEFAULT_BATCH_SIZE)")
+
+        val recordTab = "$TAB$TAB$TAB$TAB"
+        val content = StringBuilder()
+        content.append("if (batchSize < 1) {\n")
+        content.append("${TAB}throw IllegalArgumentException(\"batchSize must be greater than 0\")\n")
+        content.append("}\n\n")
+        content.append("var count = 0\n")
+        content.append("val database = getWritableDatabase(databaseName)\n")
+        content.append("val statement = database.compileStatement($sql)\n")
+        content.append("try {\n")
+        content.append("${TAB}while (records.hasNext()) {\n")
+        content.append("$TAB${TAB}database.beginTransaction()\n")
+        content.append("$TAB${TAB}try {\n")
+        content.append("$TAB$TAB${TAB}var i = 0\n")
+        content.append("$TAB$TAB${TAB}while (i < batchSize && records.hasNext()) {\n")
+        content.append("${recordTab}val record = records.next()\n")
+        content.append("${recordTab}statement.clearBindings()\n")
+        content.append("${recordTab}record.$bindFunName(statement)\n")
+        for (line in executeContent.split("\n")) {
+            if (line.isNotEmpty()) {
+                content.append(recordTab).append(line).append("\n")
+            }
+        }
+        content.append("${recordTab}i++\n")
+        content.append("$TAB$TAB$TAB}\n")
+        content.append("$TAB$TAB${TAB}database.setTransactionSuccessful()\n")
+        content.append("$TAB$TAB} finally {\n")
+        content.append("$TAB$TAB${TAB}database.endTransaction()\n")
+        content.append("$TAB$TAB}\n")
+        content.append("$TAB}\n")
+        content.append("} finally {\n")
+        content.append("${TAB}statement.close()\n")
+        content.append("}\n\n")
+        content.append("return count")
+
+        myClass.addFun(funName, "Int", listOf(KotlinVal("databaseName", "String"), KotlinVal("records", "Iterator<$recordClassName>"), KotlinVal("batchSize", "Int")), content.toString())
+    }
+
+    /**
+     * updateDirty(...): update only the dirty columns of a record.  Compiled statements are cached (per dirty field set)
+     * for the most recently used database.
+     */
+    private fun addDirtyUpdateFuns(recordClassName: String, recordConstClassName: String) {
+        myClass.addImport("java.util.BitSet")
+        myClass.addImport("java.util.LinkedHashMap")
+
+        myClass.addConstant("DIRTY_UPDATE_STATEMENT_CACHE_SIZE", "16", formatDefaultValue = false).apply {
+            access = KotlinAccess.PRIVATE
+            const = true
+        }
+
+        myClass.addVar("dirtyUpdateDatabase", "DatabaseWrapper<*, *>?", "null").apply { access = KotlinAccess.PRIVATE }
+
+        var statementsDefaultValue = "object : LinkedHashMap<BitSet, StatementWrapper>(DIRTY_UPDATE_STATEMENT_CACHE_SIZE, 0.75f, true) {\n"
+        statementsDefaultValue += "$TAB${TAB}override fun removeEldestEntry(eldest: MutableMap.MutableEntry<BitSet, StatementWrapper>?): Boolean {\n"
+        statementsDefaultValue += "$TAB$TAB${TAB}if (size > DIRTY_UPDATE_STATEMENT_CACHE_SIZE) {\n"
+        statementsDefaultValue += "$TAB$TAB$TAB${TAB}eldest?.value?.close()\n"
+        statementsDefaultValue += "$TAB$TAB$TAB${TAB}return true\n"
+        statementsDefaultValue += "$TAB$TAB$TAB}\n"
+        statementsDefaultValue += "$TAB$TAB${TAB}return false\n"
+        statementsDefaultValue += "$TAB$TAB}\n"
+        statementsDefaultValue += "$TAB}"
+        myClass.addVal("dirtyUpdateStatements", "MutableMap<BitSet, StatementWrapper>", statementsDefaultValue).apply { access = KotlinAccess.PRIVATE }
+
+        myClass.addFun("updateDirty", "Int", listOf(KotlinVal("record", recordClassName)), "return updateDirty(getDatabaseName(), record)")
+
+        val content = StringBuilder()
+        content.append("if (!record.isDirty()) {\n")
+        content.append("${TAB}return 0\n")
+        content.append("}\n\n")
+        content.append("val database = getWritableDatabase(databaseName)\n")
+        content.append("if (database !== dirtyUpdateDatabase) {\n")
+        content.append("${TAB}clearDirtyUpdateStatements()\n")
+        content.append("${TAB}dirtyUpdateDatabase = database\n")
+        content.append("}\n\n")
+        content.append("val dirtyFields = record.getDirtyFields()\n")
+        content.append("val statement = dirtyUpdateStatements[dirtyFields] ?: database.compileStatement($recordConstClassName.createDirtyUpdateStatement(dirtyFields)).apply {\n")
+        content.append("${TAB}dirtyUpdateStatements.put(dirtyFields, this)\n")
+        content.append("}\n\n")
+        content.append("statement.clearBindings()\n")
+        content.append("record.bindDirtyUpdateStatement(statement)\n")
+        content.append("val count = statement.executeUpdateDelete()\n")
+        content.append("record.clearDirtyFields()\n")
+        content.append("return count")
+        myClass.addFun("updateDirty", "Int", listOf(KotlinVal("databaseName", "String"), KotlinVal("record", recordClassName)), content.toString()).apply {
+            addAnnotation("Synchronized")
+        }
+
+        var clearContent = "for (statement in dirtyUpdateStatements.values) {\n"
+        clearContent += "${TAB}statement.close()\n"
+        clearContent += "}\n"
+        clearContent += "dirtyUpdateStatements.clear()\n"
+        clearContent += "dirtyUpdateDatabase = null"
+        myClass.addFun("clearDirtyUpdateStatements", content = clearContent).apply {
+            addAnnotation("Synchronized")
+        }
+    }
+
+    /**
+     * findAllBy[Fk](id) / findAllBy[Fk]In(ids): load the records that reference one (or many) parent records.  The IN
+     * variant queries at most MAX_IN_LIST_SIZE ids at a time (SQLite bound variable limit) and groups the records by
+     * parent id.  The records are read with the inherited findAllByRawQuery(...).
+     */
+    private fun addForeignKeyFinderFuns(table: SchemaTable, recordClassName: String, recordConstClassName: String) {
+        val finderFields = AndroidBaseManagerRenderer.getFinderForeignKeyFields(table)
+        if (finderFields.isEmpty()) {
+            return
+        }
+
+        myClass.addImport("android.util.LongSparseArray")
+
+        myClass.addConstant("MAX_IN_LIST_SIZE", "999", formatDefaultValue = false).apply { const = true }
+
+        for (field in finderFields) {
+            val fieldNameJavaStyle = field.getName(true)
+            val funName = "findAllBy" + JavaVariable.createBeanMethodName(fieldNameJavaStyle)
+            val idsName = "${fieldNameJavaStyle}s"
+            val selectSql = "\"SELECT * FROM \" + $recordConstClassName.TABLE + \" WHERE \" + $recordConstClassName.C_${KotlinClass.formatConstant(fieldNameJavaStyle)}"
+
+            // findAllBy[Fk](id)
+            myClass.addFun(funName, "List<$recordClassName>", listOf(KotlinVal(fieldNameJavaStyle, "Long")), "return $funName(getDatabaseName(), $fieldNameJavaStyle)")
+            myClass.addFun(funName, "List<$recordClassName>", listOf(KotlinVal("databaseName", "String"), KotlinVal(fieldNameJavaStyle, "Long")),
+                    "return findAllByRawQuery(rawQuery = $selectSql + \" = ?\", selectionArgs = arrayOf($fieldNameJavaStyle.toString()), databaseName = databaseName)")
+
+            // findAllBy[Fk]In(ids)
+            val mapType = "LongSparseArray<MutableList<$recordClassName>>"
+            myClass.addFun("${funName}In", mapType, listOf(KotlinVal(idsName, "LongArray")), "return ${funName}In(getDatabaseName(), $idsName)")
+
+            val content = StringBuilder()
+            content.append("val recordsById = $mapType()\n")
+            content.append("var start = 0\n")
+            content.append("while (start < $idsName.size) {\n")
+            content.append("${TAB}val end = Math.min(start + MAX_IN_LIST_SIZE, $idsName.size)\n")
+            content.append("${TAB}val sql = StringBuilder($selectSql).append(\" IN (\")\n")
+            content.append("${TAB}val selectionArgs = Array(end - start) { i -> $idsName[start + i].toString() }\n")
+            content.append("${TAB}for (i in start..end - 1) {\n")
+            content.append("$TAB${TAB}sql.append(if (i > start) \",?\" else \"?\")\n")
+            content.append("$TAB}\n")
+            content.append("${TAB}sql.append(')')\n\n")
+            content.append("${TAB}for (record in findAllByRawQuery(rawQuery = sql.toString(), selectionArgs = selectionArgs, databaseName = databaseName)) {\n")
+            // LongSparseArray keys: Kotlin does not widen Int / Short to Long
+            val toLong = if (field.jdbcDataType == SchemaFieldType.BIGINT) "" else ".toLong()"
+            if (field.isNotNull) {
+                content.append("$TAB${TAB}val id = record.$fieldNameJavaStyle$toLong\n")
+            } else {
+                content.append("$TAB${TAB}val id = record.$fieldNameJavaStyle${if (toLong.isEmpty()) "" else "?$toLong"} ?: continue\n")
+            }
+            content.append("$TAB${TAB}val records = recordsById.get(id) ?: ArrayList<$recordClassName>().apply { recordsById.put(id, this) }\n")
+            content.append("$TAB${TAB}records.add(record)\n")
+            content.append("$TAB}\n")
+            content.append("${TAB}start = end\n")
+            content.append("}\n")
+            content.append("return recordsById")
+            myClass.addFun("${funName}In", mapType, listOf(KotlinVal("databaseName", "String"), KotlinVal(idsName, "LongArray")), content.toString())
+        }
+    }
 
     fun writeToFile(outDir: String) {
-        myClass.writeToDisk(outDir)
+        myClass.writeToDisk(outDir, fileWriter = genConfig.fileWriter)
     }
 
     companion object {
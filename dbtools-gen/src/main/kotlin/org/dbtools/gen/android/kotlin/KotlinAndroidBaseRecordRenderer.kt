@@ -25,6 +25,7 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
     private var constClass = KotlinObjectClass()
     private var recordClass = KotlinClass()
     private val enumerationClasses = ArrayList<KotlinEnum>()
+    private val enumValuesConstants = HashSet<String>()
     private val cleanupOrphansContent = StringBuilder()
     private val useInnerEnums = true
     private var bindInsertStatementContentIndex = 1 // 1 based
@@ -36,6 +37,7 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
         // reset data
         bindInsertStatementContentIndex = 1
         bindUpdateStatementContentIndex = 1
+        enumValuesConstants.clear()
 
         val enumTable = entity.isEnumerationTable
         val entityType = entity.type
@@ -87,6 +89,11 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
         var setContentValuesContent = ""
         var setContentCursorContent = ""
 
+        // dirty field tracking (setters mark fields dirty so an update only writes the changed columns)
+        val dirtyFieldTracking = genConfig.isDirtyFieldTracking && entityType == SchemaEntityType.TABLE && !recordClass.isEnum()
+        val dirtyUpdateColumns = ArrayList<String>()
+        val bindDirtyUpdateStatementContent = StringBuilder("val dirtyFields = getDirtyFields()\nvar bindIndex = 1\n")
+
         val columns = ArrayList<String>()
         for (field in entity.fields) {
             val primaryKey = field.isPrimaryKey
@@ -185,22 +192,23 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
                 contentValuesContent.append("values.put(").append(fullFieldColumn).append(", ").append(value).append(")\n")
 
                 // bindStatementContent
-                when (fieldType) {
-                    SchemaFieldType.BOOLEAN, SchemaFieldType.BIT, SchemaFieldType.TINYINT, SchemaFieldType.SMALLINT, SchemaFieldType.INTEGER, SchemaFieldType.BIGINT, SchemaFieldType.NUMERIC, SchemaFieldType.BIGINTEGER, SchemaFieldType.TIMESTAMP -> {
-                        addBindInsert(bindInsertStatementContent, "bindLong", fieldNameJavaStyle, value, primitiveField, notNullField)
-                        addBindUpdate(bindUpdateStatementContent, "bindLong", fieldNameJavaStyle, value, primitiveField, notNullField)
-                    }
-                    SchemaFieldType.REAL, SchemaFieldType.FLOAT, SchemaFieldType.DOUBLE, SchemaFieldType.DECIMAL, SchemaFieldType.BIGDECIMAL -> {
-                        addBindInsert(bindInsertStatementContent, "bindDouble", fieldNameJavaStyle, value, primitiveField, notNullField)
-                        addBindUpdate(bindUpdateStatementContent, "bindDouble", fieldNameJavaStyle, value, primitiveField, notNullField)
-                    }
-                    SchemaFieldType.CHAR, SchemaFieldType.VARCHAR, SchemaFieldType.LONGVARCHAR, SchemaFieldType.CLOB, SchemaFieldType.DATETIME, SchemaFieldType.DATE, SchemaFieldType.TIME -> {
-                        addBindInsert(bindInsertStatementContent, "bindString", fieldNameJavaStyle, value, primitiveField, notNullField)
-                        addBindUpdate(bindUpdateStatementContent, "bindString", fieldNameJavaStyle, value, primitiveField, notNullField)
-                    }
-                    SchemaFieldType.BLOB -> {
-                        addBindInsert(bindInsertStatementContent, "bindBlob", fieldNameJavaStyle, value, primitiveField, notNullField)
-                        addBindUpdate(bindUpdateStatementContent, "bindBlob", fieldNameJavaStyle, value, primitiveField, notNullField)
+                val bindMethodName = getBindMethodName(fieldType)
+
+                if (bindMethodName != null) {
+                    addBindInsert(bindInsertStatementContent, bindMethodName, fieldNameJavaStyle, value, primitiveField, notNullField)
+                    addBindUpdate(bindUpdateStatementContent, bindMethodName, fieldNameJavaStyle, value, primitiveField, notNullField)
+
+                    if (dirtyFieldTracking) {
+                        val dirtyFieldIndex = dirtyUpdateColumns.size
+                        dirtyUpdateColumns.add(fieldColumn)
+                        newVariable.setterContent = "markDirty($dirtyFieldIndex)"
+
+                        val bindContent = StringBuilder()
+                        addBind(bindContent, "bindIndex", bindMethodName, fieldNameJavaStyle, value, primitiveField, notNullField)
+                        bindDirtyUpdateStatementContent.append("if (dirtyFields.get($dirtyFieldIndex)) {\n")
+                        bindDirtyUpdateStatementContent.append(TAB).append(bindContent.toString().trim().replace("\n", "\n" + TAB)).append("\n")
+                        bindDirtyUpdateStatementContent.append(TAB).append("bindIndex++\n")
+                        bindDirtyUpdateStatementContent.append("}\n")
                     }
                 }
 
@@ -220,16 +228,42 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
                 valuesContent.append(TAB).append(fieldNameJavaStyle)
             }
 
-            setContentCursorContent += fieldNameJavaStyle + " = " + getContentValuesCursorGetterMethod(field, fullFieldColumn, newVariable) + "\n"
+            // column index resolved once per cursor (position in ALL_COLUMNS)
+            val columnIndex = "columnIndexes[${columns.size - 1}]"
+            setContentCursorContent += fieldNameJavaStyle + " = " + getContentValuesCursorGetterMethod(field, columnIndex, newVariable) + "\n"
 
             // static getter method that takes a Cursor parameter
             constClass.addImport("android.database.Cursor")
-            constClass.addFun(newVariable.getGetterMethodName(), newVariable.dataType, listOf(KotlinVal("cursor", "Cursor")), "return " + getContentValuesCursorGetterMethod(field, fieldColumn, newVariable) + "")
+            constClass.addFun(newVariable.getGetterMethodName(), newVariable.dataType, listOf(KotlinVal("cursor", "Cursor")), "return " + getContentValuesCursorGetterMethod(field, "cursor.getColumnIndexOrThrow($fieldColumn)", newVariable) + "")
         }
 
         // bind the primary key value LAST (it is the where clause part of the update code)
         if (primaryKeyField != null) {
-            addBindUpdate(bindUpdateStatementContent, "bindLong", primaryKeyField.getName(true), primaryKeyField.getName(true), primaryKeyField.jdbcDataType.isJavaTypePrimitive, primaryKeyField.isNotNull)
+            // natural keys (WITHOUT ROWID tables) are not always integers
+            val primaryKeyBindMethodName = getBindMethodName(primaryKeyField.jdbcDataType) ?: "bindLong"
+            addBindUpdate(bindUpdateStatementContent, primaryKeyBindMethodName, primaryKeyField.getName(true), primaryKeyField.getName(true), primaryKeyField.jdbcDataType.isJavaTypePrimitive, primaryKeyField.isNotNull)
+            addBind(bindDirtyUpdateStatementContent, "bindIndex", primaryKeyBindMethodName, primaryKeyField.getName(true), primaryKeyField.getName(true), primaryKeyField.jdbcDataType.isJavaTypePrimitive, primaryKeyField.isNotNull)
+        }
+
+        if (dirtyFieldTracking) {
+            addDirtyFieldTracking(dirtyUpdateColumns, if (primaryKeyField != null) bindDirtyUpdateStatementContent.toString() else null)
+
+            // assigning the properties (setters) marks the fields dirty: suspend tracking while reading a row
+            setContentCursorContent = suspendDirtyFieldTracking(setContentCursorContent) + "clearDirtyFields()\n"
+            setContentValuesContent = suspendDirtyFieldTracking(setContentValuesContent)
+
+            // a full insert / update writes every column
+            bindInsertStatementContent.append("clearDirtyFields()\n")
+            bindUpdateStatementContent.append("clearDirtyFields()\n")
+
+            // the setters mark every property of the copy dirty: the copy has the same changes as this record
+            copyContent.append("copy.clearDirtyFields()\n")
+            copyContent.append("val dirtyFields = getDirtyFields()\n")
+            copyContent.append("var i = dirtyFields.nextSetBit(0)\n")
+            copyContent.append("while (i >= 0) {\n")
+            copyContent.append(TAB).append("copy.markDirty(i)\n")
+            copyContent.append(TAB).append("i = dirtyFields.nextSetBit(i + 1)\n")
+            copyContent.append("}\n")
         }
 
 
@@ -248,10 +282,12 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
         }
 
         // SchemaDatabase variables
+        var upsertAdded = false
         if (entityType == SchemaEntityType.TABLE) {
             // CREATE TABLE
             val table = entity as SchemaTable
             var createTable = SqliteRenderer.generateTableSchema(table, databaseMapping)
+            createTable = createTable.replace("\\", "\\\\").replace("\"", "\\\"").replace("$", "\\$") // index WHERE predicates may contain quotes
             createTable = createTable.replace("\n", "\" + \n" + TAB + TAB + "\"")
             createTable = createTable.replace("\t", "") // remove tabs
             constClass.addConstant("CREATE_TABLE", "\"$createTable\"").apply { const = true }
@@ -292,6 +328,13 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
             // add to class
             constClass.addConstant("INSERT_STATEMENT", defaultValue = "\"" + insertStatement.toString() + "\"").apply { const = true }
             constClass.addConstant("UPDATE_STATEMENT", defaultValue = "\"" + updateStatement.toString() + "\"").apply { const = true }
+
+            // UPSERT (same columns as INSERT)
+            val upsertStatement = SqliteRenderer.generateUpsertStatement(table)
+            if (upsertStatement != null) {
+                constClass.addConstant("UPSERT_STATEMENT", defaultValue = "\"$upsertStatement\"").apply { const = true }
+                upsertAdded = true
+            }
         }
 
         // Content values
@@ -328,6 +371,9 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
             constClass.addConstant(ALL_COLUMNS_FULL_VAR_NAME, defaultValue = allColumnsFullDefaultValue)
             recordClass.addFun("getAllColumnsFull", "Array<String>", content = "return $constClassName.$ALL_COLUMNS_FULL_VAR_NAME.clone()")
 
+            // column indexes
+            addColumnIndexes(columns.size)
+
             recordClass.addFun("getContentValues", parameters = listOf(KotlinVal("values", "DBToolsContentValues<*>")), content = contentValuesContent.toString()).apply {
                 isOverride = true
             }
@@ -350,10 +396,16 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
             recordClass.addFun("bindUpdateStatement", parameters = listOf(KotlinVal("statement", "StatementWrapper")), content = bindUpdateStatementContent.toString()).apply {
                 isOverride = true
             }
+            if (upsertAdded) {
+                recordClass.addFun("bindUpsertStatement", parameters = listOf(KotlinVal("statement", "StatementWrapper")), content = "bindInsertStatement(statement)").apply {
+                    isOpen = true
+                }
+            }
 
             recordClass.addFun("setContent", parameters = listOf(KotlinVal("values", "DBToolsContentValues<*>")), content = setContentValuesContent).apply {
                 isOverride = true
             }
+            setContentCursorContent = "val columnIndexes = $constClassName.getColumnIndexes(cursor)\n" + setContentCursorContent
             recordClass.addFun("setContent", parameters = listOf(KotlinVal("cursor", "Cursor")), content = setContentCursorContent).apply {
                 isOverride = true
             }
@@ -379,6 +431,8 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
         }
 
         generatedEntityInfo.setPrimaryKeyAdded(primaryKeyAdded)
+        generatedEntityInfo.setRowIdPrimaryKey(primaryKeyField != null && primaryKeyField.isIncrement)
+        generatedEntityInfo.setUpsertAdded(upsertAdded)
         return generatedEntityInfo
     }
 
@@ -431,7 +485,7 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
      */
     private fun getContentValuesGetterMethod(field: SchemaField, paramValue: String, newVariable: KotlinVar): String {
         if (field.isEnumeration) {
-            return newVariable.dataType + ".values()[values.getAsInteger(" + paramValue + ")]"
+            return getEnumValuesConstant(field, newVariable.dataType) + "[values.getAsInteger(" + paramValue + ")]"
         }
 
         val type = field.javaClassType
@@ -461,48 +515,167 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
         }
     }
 
+    /**
+     * Wraps content that assigns the properties so the setters do not mark the fields dirty.
+     */
+    private fun suspendDirtyFieldTracking(content: String): String {
+        return "dirtyFieldTrackingSuspended = true\ntry {\n" +
+                content.lines().filter { it.isNotEmpty() }.joinToString("") { "$TAB$it\n" } +
+                "} finally {\n${TAB}dirtyFieldTrackingSuspended = false\n}\n"
+    }
+
+    /**
+     * Dirty field tracking: setters set a bit (index in dirtyUpdateColumns) in a per-record BitSet.  The const object
+     * creates an UPDATE statement for only the dirty columns and the record binds only the dirty values (then the
+     * primary key).
+     *
+     * @param bindDirtyUpdateStatementContent content of bindDirtyUpdateStatement() (null if there is no primary key)
+     */
+    private fun addDirtyFieldTracking(dirtyUpdateColumns: List<String>, bindDirtyUpdateStatementContent: String?) {
+        recordClass.addImport("java.util.BitSet")
+
+        // created on first change (records read from a cursor never allocate it)
+        recordClass.addVar("dirtyFields", "BitSet?", "null").apply { access = KotlinAccess.PRIVATE }
+        recordClass.addVar("dirtyFieldTrackingSuspended", "Boolean", "false").apply { access = KotlinAccess.PRIVATE }
+
+        var markDirtyContent = "if (dirtyFieldTrackingSuspended) {\n"
+        markDirtyContent += "${TAB}return\n"
+        markDirtyContent += "}\n"
+        markDirtyContent += "val fields = dirtyFields ?: BitSet(${dirtyUpdateColumns.size})\n"
+        markDirtyContent += "fields.set(fieldIndex)\n"
+        markDirtyContent += "dirtyFields = fields"
+        recordClass.addFun("markDirty", parameters = listOf(KotlinVal("fieldIndex", "Int")), content = markDirtyContent, access = KotlinAccess.PROTECTED)
+        recordClass.addFun("isDirty", "Boolean", content = "return dirtyFields?.isEmpty == false")
+        recordClass.addFun("getDirtyFields", "BitSet", content = "return dirtyFields?.clone() as BitSet? ?: BitSet()")
+        recordClass.addFun("clearDirtyFields", content = "dirtyFields?.clear()")
+
+        if (bindDirtyUpdateStatementContent == null) {
+            return
+        }
+
+        recordClass.addFun("bindDirtyUpdateStatement", parameters = listOf(KotlinVal("statement", "StatementWrapper")), content = bindDirtyUpdateStatementContent)
+
+        // columns in dirty field index order
+        constClass.addVal("DIRTY_UPDATE_COLUMNS", "Array<String>", "arrayOf(\n" + dirtyUpdateColumns.joinToString(",\n") { "$TAB$TAB$it" } + ")").apply {
+            access = KotlinAccess.PRIVATE
+        }
+
+        constClass.addImport("java.util.BitSet")
+        var createDirtyUpdateContent = "val sql = StringBuilder(\"UPDATE \").append(TABLE).append(\" SET \")\n"
+        createDirtyUpdateContent += "var firstColumn = true\n"
+        createDirtyUpdateContent += "var i = dirtyFields.nextSetBit(0)\n"
+        createDirtyUpdateContent += "while (i >= 0) {\n"
+        createDirtyUpdateContent += "${TAB}if (!firstColumn) {\n"
+        createDirtyUpdateContent += "$TAB${TAB}sql.append(\", \")\n"
+        createDirtyUpdateContent += "${TAB}}\n"
+        createDirtyUpdateContent += "${TAB}sql.append(DIRTY_UPDATE_COLUMNS[i]).append(\"=?\")\n"
+        createDirtyUpdateContent += "${TAB}firstColumn = false\n"
+        createDirtyUpdateContent += "${TAB}i = dirtyFields.nextSetBit(i + 1)\n"
+        createDirtyUpdateContent += "}\n"
+        createDirtyUpdateContent += "sql.append(\" WHERE \").append($PRIMARY_KEY_COLUMN).append(\" = ?\")\n"
+        createDirtyUpdateContent += "return sql.toString()"
+        constClass.addFun("createDirtyUpdateStatement", "String", listOf(KotlinVal("dirtyFields", "BitSet")), createDirtyUpdateContent)
+    }
+
+    /**
+     * Adds getColumnIndexes(Cursor) to the const object.  Indexes of the ALL_COLUMNS columns are resolved once per cursor
+     * (cached by the identity of the cursor column names) instead of calling getColumnIndexOrThrow() for every column of
+     * every row.  If the cursor was opened with ALL_COLUMNS the positions are used directly.  A column that is missing
+     * from the cursor fails when the indexes are resolved, like the static cursor getters.
+     */
+    private fun addColumnIndexes(columnCount: Int) {
+        constClass.addImport("java.util.Arrays")
+
+        constClass.addVal("ALL_COLUMNS_INDEXES", "IntArray", "intArrayOf(" + (0 until columnCount).joinToString(", ") + ")").apply {
+            access = KotlinAccess.PRIVATE
+        }
+
+        constClass.addVar("lastColumnIndexes", "Pair<Array<String>, IntArray>?", "null").apply {
+            access = KotlinAccess.PRIVATE
+            addAnnotation("Volatile")
+        }
+
+        var getColumnIndexesContent = "val columnNames = cursor.columnNames\n"
+        getColumnIndexesContent += "val columnIndexes = lastColumnIndexes\n"
+        getColumnIndexesContent += "if (columnIndexes != null && columnIndexes.first === columnNames) {\n"
+        getColumnIndexesContent += "${TAB}return columnIndexes.second\n"
+        getColumnIndexesContent += "}\n\n"
+        getColumnIndexesContent += "val indexes = findColumnIndexes(cursor, columnNames)\n"
+        getColumnIndexesContent += "lastColumnIndexes = Pair(columnNames, indexes)\n"
+        getColumnIndexesContent += "return indexes"
+        constClass.addFun("getColumnIndexes", "IntArray", listOf(KotlinVal("cursor", "Cursor")), getColumnIndexesContent)
+
+        var findColumnIndexesContent = "if (Arrays.equals(columnNames, $ALL_COLUMNS_VAR_NAME)) {\n"
+        findColumnIndexesContent += "${TAB}return ALL_COLUMNS_INDEXES\n"
+        findColumnIndexesContent += "}\n\n"
+        findColumnIndexesContent += "return IntArray($ALL_COLUMNS_VAR_NAME.size) { cursor.getColumnIndexOrThrow($ALL_COLUMNS_VAR_NAME[it]) }"
+        constClass.addFun("findColumnIndexes", "IntArray", listOf(KotlinVal("cursor", "Cursor"), KotlinVal("columnNames", "Array<String>")), findColumnIndexesContent, KotlinAccess.PRIVATE)
+    }
+
     /**
      * For method setContent(Cursor cursor).
+     *
+     * @param columnIndex expression that evaluates to the cursor column index
      */
-    private fun getContentValuesCursorGetterMethod(field: SchemaField, paramValue: String, newVariable: KotlinVar): String {
+    private fun getContentValuesCursorGetterMethod(field: SchemaField, columnIndex: String, newVariable: KotlinVar): String {
         if (field.isEnumeration) {
-            return newVariable.dataType + ".values()[cursor.getInt(cursor.getColumnIndexOrThrow(" + paramValue + "))]"
+            return getEnumValuesConstant(field, newVariable.dataType) + "[cursor.getInt(" + columnIndex + ")]"
         }
 
         val type = field.javaClassType
         if (type == Integer.TYPE) {
-            return "cursor.getInt(cursor.getColumnIndexOrThrow($paramValue))"
+            return "cursor.getInt($columnIndex)"
         } else if (type == Int::class.java || type == java.lang.Integer::class.java) {
-            return "if (!cursor.isNull(cursor.getColumnIndexOrThrow($paramValue))) cursor.getInt(cursor.getColumnIndexOrThrow($paramValue)) else null"
+            return "if (!cursor.isNull($columnIndex)) cursor.getInt($columnIndex) else null"
         } else if (type == String::class.java && field.isNotNull!!) {
-            return "cursor.getString(cursor.getColumnIndexOrThrow($paramValue))"
+            return "cursor.getString($columnIndex)"
         } else if (type == String::class.java || type == java.lang.String::class.java) {
-            return "if (!cursor.isNull(cursor.getColumnIndexOrThrow($paramValue))) cursor.getString(cursor.getColumnIndexOrThrow($paramValue)) else null"
+            return "if (!cursor.isNull($columnIndex)) cursor.getString($columnIndex) else null"
         } else if (type == java.lang.Long.TYPE) {
-            return "cursor.getLong(cursor.getColumnIndexOrThrow($paramValue))"
+            return "cursor.getLong($columnIndex)"
         } else if (type == Long::class.java || type == java.lang.Long::class.java) {
-            return "if (!cursor.isNull(cursor.getColumnIndexOrThrow($paramValue))) cursor.getLong(cursor.getColumnIndexOrThrow($paramValue)) else null"
+            return "if (!cursor.isNull($columnIndex)) cursor.getLong($columnIndex) else null"
         } else if (type == java.lang.Boolean.TYPE) {
-            return "if (cursor.getInt(cursor.getColumnIndexOrThrow($paramValue)) != 0) true else false"
+            return "if (cursor.getInt($columnIndex) != 0) true else false"
         } else if (type == Boolean::class.java || type == java.lang.Boolean::class.java) {
-            return "if (!cursor.isNull(cursor.getColumnIndexOrThrow($paramValue))) (if (cursor.getInt(cursor.getColumnIndexOrThrow($paramValue)) != 0) true else false) else null"
+            return "if (!cursor.isNull($columnIndex)) (if (cursor.getInt($columnIndex) != 0) true else false) else null"
         } else if (type == Date::class.java) {
-            return genConfig.dateType.getCursorDbStringToObjectMethod(field, paramValue, true)
+            return genConfig.dateType.getCursorDbStringToObjectMethod(field, columnIndex, true)
         } else if (type == java.lang.Float.TYPE) {
-            return "cursor.getFloat(cursor.getColumnIndexOrThrow($paramValue))"
+            return "cursor.getFloat($columnIndex)"
         } else if (type == Float::class.java || type == java.lang.Float::class.java) {
-            return "if (!cursor.isNull(cursor.getColumnIndexOrThrow($paramValue))) cursor.getFloat(cursor.getColumnIndexOrThrow($paramValue)) else null"
+            return "if (!cursor.isNull($columnIndex)) cursor.getFloat($columnIndex) else null"
         } else if (type == java.lang.Double.TYPE || type == Double::class.java) {
-            return "cursor.getDouble(cursor.getColumnIndexOrThrow($paramValue))"
+            return "cursor.getDouble($columnIndex)"
         } else if (type == Double::class.java || type == java.lang.Double::class.java) {
-            return "if (!cursor.isNull(cursor.getColumnIndexOrThrow($paramValue))) cursor.getDouble(cursor.getColumnIndexOrThrow($paramValue)) else null"
+            return "if (!cursor.isNull($columnIndex)) cursor.getDouble($columnIndex) else null"
         } else if (type == ByteArray::class.java || type == Array<Byte>::class.java) {
-            return "cursor.getBlob(cursor.getColumnIndexOrThrow($paramValue))"
+            return "cursor.getBlob($columnIndex)"
         } else {
             return "[[UNHANDLED FIELD TYPE: $type]]"
         }
     }
 
+    /**
+     * Enum.values() clones the values array on every call.  Keep a single copy per enum field in the const object so
+     * converting an ordinal (for every row) does not allocate.  The constant is named after the field (enums from
+     * different packages may share a simple name).
+     *
+     * @return reference to the cached values array (ex: "IndividualConst.STATUS_VALUES")
+     */
+    private fun getEnumValuesConstant(field: SchemaField, enumType: String): String {
+        val constantName = KotlinClass.formatConstant(field.getName(true)) + "_VALUES"
+
+        if (enumValuesConstants.add(constantName)) {
+            // internal: used by the record class (and must not be modified)
+            constClass.addConstant(constantName, "$enumType.values()", formatDefaultValue = false).apply {
+                access = KotlinAccess.INTERNAL
+            }
+        }
+
+        return constClass.name + "." + constantName
+    }
+
     private fun generateEnumeration(field: SchemaField, fieldNameJavaStyle: String, packageName: String, database: SchemaDatabase): KotlinVar {
         val newVar: KotlinVar
         if (field.jdbcDataType.isNumberDataType) {
@@ -585,6 +758,19 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
         }
     }
 
+    /**
+     * @return StatementWrapper bind function for a field type (null if the type can not be bound)
+     */
+    private fun getBindMethodName(fieldType: SchemaFieldType): String? {
+        return when (fieldType) {
+            SchemaFieldType.BOOLEAN, SchemaFieldType.BIT, SchemaFieldType.TINYINT, SchemaFieldType.SMALLINT, SchemaFieldType.INTEGER, SchemaFieldType.BIGINT, SchemaFieldType.NUMERIC, SchemaFieldType.BIGINTEGER, SchemaFieldType.TIMESTAMP -> "bindLong"
+            SchemaFieldType.REAL, SchemaFieldType.FLOAT, SchemaFieldType.DOUBLE, SchemaFieldType.DECIMAL, SchemaFieldType.BIGDECIMAL -> "bindDouble"
+            SchemaFieldType.CHAR, SchemaFieldType.VARCHAR, SchemaFieldType.LONGVARCHAR, SchemaFieldType.CLOB, SchemaFieldType.DATETIME, SchemaFieldType.DATE, SchemaFieldType.TIME -> "bindString"
+            SchemaFieldType.BLOB -> "bindBlob"
+            else -> null
+        }
+    }
+
     private fun addBindInsert(bindStatementContent: StringBuilder, bindMethodName: String, fieldNameJavaStyle: String, value: String, primitive: Boolean, notNull: Boolean) {
         addBind(bindStatementContent, bindInsertStatementContentIndex, bindMethodName, fieldNameJavaStyle, value, primitive, notNull)
         bindInsertStatementContentIndex++
@@ -595,7 +781,7 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
         bindUpdateStatementContentIndex++
     }
 
-    private fun addBind(bindStatementContent: StringBuilder, bindIndex: Int, bindMethodName: String, fieldNameJavaStyle: String, value: String, isPrimitive: Boolean, notNull: Boolean) {
+    private fun addBind(bindStatementContent: StringBuilder, bindIndex: Any, bindMethodName: String, fieldNameJavaStyle: String, value: String, isPrimitive: Boolean, notNull: Boolean) {
         if (isPrimitive || notNull) {
             bindStatementContent.append("statement.$bindMethodName(").append(bindIndex).append(", ").append(value).append(")\n")
         } else {
@@ -608,11 +794,11 @@ class KotlinAndroidBaseRecordRenderer(val genConfig: GenConfig) {
     }
 
     fun writeToFile(directoryName: String) {
-        constClass.writeToDisk(directoryName)
-        recordClass.writeToDisk(directoryName)
+        constClass.writeToDisk(directoryName, fileWriter = genConfig.fileWriter)
+        recordClass.writeToDisk(directoryName, fileWriter = genConfig.fileWriter)
 
         for (enumClass in enumerationClasses) {
-            enumClass.writeToDisk(directoryName)
+            enumClass.writeToDisk(directoryName, fileWriter = genConfig.fileWriter)
         }
     }
 
@@ -14,14 +14,15 @@ import org.dbtools.gen.DBObjectBuilder
 import org.dbtools.gen.GenConfig
 import org.dbtools.gen.android.AndroidManagerRenderer
 import org.dbtools.gen.android.AndroidRecordRenderer
-import org.dbtools.renderer.SchemaRenderer
+import org.dbtools.schema.dbmappings.DatabaseMapping
 import org.dbtools.schema.schemafile.*
 import java.io.File
 import java.util.*
 
-class KotlinAndroidDBObjectBuilder() : DBObjectBuilder {
+class KotlinAndroidDBObjectBuilder(val genConfig: GenConfig) : DBObjectBuilder {
     private var filesGeneratedCount = 0
     private val filesGenerated = ArrayList<String>()
+    private val databaseMapping: DatabaseMapping by lazy { genConfig.getDatabaseMapping("sqlite") }
 
     override fun getName(): String {
         return "Kotlin Android Object Builder"
@@ -36,8 +37,6 @@ class KotlinAndroidDBObjectBuilder() : DBObjectBuilder {
             workingOutDir = outDir
         }
 
-        val databaseMapping = SchemaRenderer.readXMLTypes(this.javaClass, SchemaRenderer.DEFAULT_TYPE_MAPPING_FILENAME, "sqlite")
-
         // Entities
         val baseRecordFileName = workingOutDir + AndroidRecordRenderer.createClassName(entity) + ".kt"
         val recordFileName = workingOutDir + AndroidRecordRenderer.createClassName(entity) + ".kt"
@@ -95,6 +94,6 @@ class KotlinAndroidDBObjectBuilder() : DBObjectBuilder {
     }
 
     override fun buildDatabaseManagersHolder(database: SchemaDatabase, packageBase: String, packageName: String, tables: MutableList<SchemaTable>, views: MutableList<SchemaView>, queries: MutableList<SchemaQuery>, outDir: String) {
-        KotlinDatabaseManagersHolderRenderer().generate(database, packageBase, packageName, tables, views, queries, outDir)
+        KotlinDatabaseManagersHolderRenderer(genConfig).generate(database, packageBase, packageName, tables, views, queries, outDir)
     }
 }
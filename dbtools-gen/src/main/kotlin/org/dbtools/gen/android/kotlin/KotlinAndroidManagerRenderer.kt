@@ -72,7 +72,7 @@ class KotlinAndroidManagerRenderer(val genConfig: GenConfig) {
     }
 
     fun writeToFile(outDir: String) {
-        myClass.writeToDisk(outDir)
+        myClass.writeToDisk(outDir, fileWriter = genConfig.fileWriter)
     }
 
     companion object {
@@ -6,12 +6,16 @@ import org.dbtools.gen.GenConfig
 import org.dbtools.schema.schemafile.DatabaseSchema
 
 class KotlinAndroidObjectsBuilder(genConfig: GenConfig) : DBObjectsBuilder(genConfig) {
-    val builder = KotlinAndroidDBObjectBuilder()
+    val builder = KotlinAndroidDBObjectBuilder(genConfig)
 
     override fun getObjectBuilder(): DBObjectBuilder? {
         return builder
     }
 
+    override fun createObjectBuilder(): DBObjectBuilder? {
+        return KotlinAndroidDBObjectBuilder(genConfig)
+    }
+
     fun buildAll(schemaFilename: String, baseOutputDir: String, basePackageName: String) {
         println("schmaFilename: $schemaFilename")
         println("baseOutputDir: $baseOutputDir")
@@ -22,7 +26,7 @@ class KotlinAndroidObjectsBuilder(genConfig: GenConfig) : DBObjectsBuilder(genCo
         packageBase = basePackageName
 
         build()
-        println("Generated [" + builder.numberFilesGenerated + "] files.")
+        println(buildSummary)
     }
 
     override fun onPostBuild(databaseSchema: DatabaseSchema, packageBase: String, outputBaseDir: String, genConfig: GenConfig) {
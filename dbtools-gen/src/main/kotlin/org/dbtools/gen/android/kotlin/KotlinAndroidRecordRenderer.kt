@@ -232,7 +232,7 @@ class KotlinAndroidRecordRenderer(val genConfig: GenConfig) {
     }
 
     fun writeToFile(directoryName: String) {
-        myClass.writeToDisk(directoryName)
+        myClass.writeToDisk(directoryName, fileWriter = genConfig.fileWriter)
     }
 
     companion object {
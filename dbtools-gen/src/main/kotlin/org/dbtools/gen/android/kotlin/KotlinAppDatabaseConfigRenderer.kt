@@ -34,7 +34,7 @@ class KotlinAppDatabaseConfigRenderer(val genConfig: GenConfig, val outDir: Stri
         createNewDBToolsContentValues()
         createNewDBToolsLogger()
 
-        myClass.writeToDisk(outDir, false)
+        myClass.writeToDisk(outDir, false, genConfig.fileWriter)
     }
 
     private fun createIdentifyDatabases(databaseSchema: DatabaseSchema) {
@@ -58,7 +58,19 @@ class KotlinAppDatabaseConfigRenderer(val genConfig: GenConfig, val outDir: Stri
         myClass.addImport("org.dbtools.android.domain.database.DatabaseWrapper")
         myClass.addImport("org.dbtools.android.domain.database.AndroidDatabaseWrapper")
 
-        myClass.addFun("createNewDatabaseWrapper", "DatabaseWrapper<*, *>", listOf(KotlinVal("androidDatabase", "AndroidDatabase")), "return AndroidDatabaseWrapper(androidDatabase.path)").apply {
+        val content = StringBuilder()
+        if (genConfig.isPrepopulatedDatabases) {
+            content.append("val prepopulated = DatabaseBaseManager.copyPrepopulatedDatabase(application, androidDatabase) // before the database file is opened\n")
+        }
+        content.append("val databaseWrapper = AndroidDatabaseWrapper(androidDatabase.path)\n")
+        content.append("DatabaseBaseManager.configureDatabaseWrapper(androidDatabase.name, databaseWrapper) // PRAGMAs from the schema / build configuration\n")
+        if (genConfig.isPrepopulatedDatabases) {
+            content.append("if (prepopulated) {\n")
+            content.append("${KotlinClass.tab}DatabaseBaseManager.createPrepopulatedViews(androidDatabase.name, databaseWrapper) // the prepopulated database has no views\n")
+            content.append("}\n")
+        }
+        content.append("return databaseWrapper")
+        myClass.addFun("createNewDatabaseWrapper", "DatabaseWrapper<*, *>", listOf(KotlinVal("androidDatabase", "AndroidDatabase")), content.toString()).apply {
             isOverride = true
         }
     }
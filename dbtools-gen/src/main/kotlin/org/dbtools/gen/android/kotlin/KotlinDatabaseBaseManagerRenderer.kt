@@ -1,13 +1,21 @@
 package org.dbtools.gen.android.kotlin
 
+import org.dbtools.codegen.kotlin.KotlinAccess
 import org.dbtools.codegen.kotlin.KotlinClass
+import org.dbtools.codegen.kotlin.KotlinFun
 import org.dbtools.codegen.kotlin.KotlinObjectClass
 import org.dbtools.codegen.kotlin.KotlinVal
 import org.dbtools.gen.GenConfig
+import org.dbtools.gen.PrepopulatedDatabaseBuilder
+import org.dbtools.gen.SchemaSnapshots
 import org.dbtools.gen.android.AndroidRecordRenderer
+import org.dbtools.renderer.SchemaRenderer
+import org.dbtools.renderer.SqliteMigrationRenderer
+import org.dbtools.renderer.SqliteRenderer
 import org.dbtools.schema.schemafile.DatabaseSchema
 import org.dbtools.schema.schemafile.SchemaDatabase
 import org.dbtools.schema.schemafile.SchemaEntity
+import org.dbtools.schema.schemafile.SchemaView
 import org.dbtools.util.JavaUtil
 
 class KotlinDatabaseBaseManagerRenderer(val genConfig: GenConfig, val outDir: String = "") {
@@ -43,9 +51,17 @@ class KotlinDatabaseBaseManagerRenderer(val genConfig: GenConfig, val outDir: St
         myClass.addConstructor(listOf(KotlinVal("databaseConfig", "DatabaseConfig")), returnType = "super(databaseConfig)")
         createOnCreate(databaseSchema)
         createOnCreateViews(databaseSchema)
+        createCleanupOrphans(databaseSchema)
+        createSqlitePragmas(databaseSchema)
+        if (genConfig.schemaSnapshotDir != null) {
+            createMigrations(databaseSchema)
+        }
+        if (genConfig.isPrepopulatedDatabases) {
+            createCopyPrepopulatedDatabases(databaseSchema)
+        }
 
-        myClass.writeToDisk(outDir, true)
-        myConstClass.writeToDisk(outDir, true)
+        myClass.writeToDisk(outDir, true, genConfig.fileWriter)
+        myConstClass.writeToDisk(outDir, true, genConfig.fileWriter)
     }
 
     private fun addHeader(someClass: KotlinClass) {
@@ -135,18 +151,24 @@ class KotlinDatabaseBaseManagerRenderer(val genConfig: GenConfig, val outDir: St
     private fun createOnCreateViews(databaseSchema: DatabaseSchema) {
         val createContent = StringBuilder()
         val dropContent = StringBuilder()
+        val upgradeContent = StringBuilder()
 
         createContent.append("getLogger().i(TAG, \"Creating database views: \${androidDatabase.name}\")\n")
         dropContent.append("getLogger().i(TAG, \"Dropping database views: \${androidDatabase.name}\")\n")
+        upgradeContent.append("getLogger().i(TAG, \"Upgrading changed database views: \${androidDatabase.name}\")\n")
 
+        var hasViews = false
         for (database in databaseSchema.databases) {
             var databaseName = database.name
             databaseName = databaseName.replace(".", "") // remove any periods (example: "mydb.sqlite")
 
             val databaseConstName = JavaUtil.nameToJavaConst(databaseName) + "_DATABASE_NAME"
             val databaseMethodName = JavaUtil.nameToJavaConst(databaseName) + "_VIEWS"
+            createViewHashes(databaseName, database)
             createCreateViews(createContent, databaseConstName, databaseMethodName, database)
             createDropViews(dropContent, databaseConstName, databaseMethodName, database)
+            createUpgradeViews(upgradeContent, databaseConstName, databaseMethodName, database)
+            hasViews = hasViews || database.views.isNotEmpty()
         }
 
         val params = listOf(KotlinVal("androidDatabase", "AndroidDatabase"))
@@ -156,6 +178,40 @@ class KotlinDatabaseBaseManagerRenderer(val genConfig: GenConfig, val outDir: St
         myClass.addFun("onDropViews", parameters = params, content = dropContent.toString()).apply {
             isOverride = true
         }
+        myClass.addFun("upgradeChangedViews", parameters = params, content = upgradeContent.toString())
+
+        if (hasViews) {
+            createViewHashFuns()
+        }
+    }
+
+    /**
+     * A hash of each CREATE_VIEW (the view sql is maintained in the view record class)
+     */
+    private fun createViewHashes(databaseName: String, database: SchemaDatabase) {
+        val databaseBasePackage = createDatabaseBasePackage(database)
+        for (view in database.views) {
+            myConstClass.addConstant(getViewHashConstName(databaseName, view),
+                    JavaUtil.createTableImport(databaseBasePackage, view.className) + ".CREATE_VIEW.hashCode()", formatDefaultValue = false)
+        }
+    }
+
+    private fun getViewHashConstName(databaseName: String, view: SchemaView): String {
+        return JavaUtil.nameToJavaConst(databaseName) + "_" + JavaUtil.nameToJavaConst(view.name) + "_VIEW_HASH"
+    }
+
+    /**
+     * @return "arrayOf(...)" of the views names, or the given view constant (CREATE_VIEW / DROP_VIEW) of each view
+     */
+    private fun createViewArray(database: SchemaDatabase, viewConstName: String?): String {
+        val databaseBasePackage = createDatabaseBasePackage(database)
+        return database.views.joinToString(", ", "arrayOf(", ")") {
+            if (viewConstName == null) "\"${it.name.toLowerCase()}\"" else JavaUtil.createTableImport(databaseBasePackage, it.className) + ".$viewConstName"
+        }
+    }
+
+    private fun createViewHashArray(databaseName: String, database: SchemaDatabase): String {
+        return database.views.joinToString(", ", "intArrayOf(", ")") { "$constClassName.${getViewHashConstName(databaseName, it)}" }
     }
 
     private fun createCreateViews(content: StringBuilder, databaseConstName: String, databaseMethodName: String, database: SchemaDatabase) {
@@ -171,8 +227,6 @@ class KotlinDatabaseBaseManagerRenderer(val genConfig: GenConfig, val outDir: St
         content.append("}\n")
 
         val createDatabaseViewsContent = StringBuilder()
-
-        createDatabaseViewsContent.append("val database = androidDatabase.databaseWrapper\n")
         createDatabaseViewsContent.append("database.beginTransaction()\n")
 
         // include database name in base package name
@@ -185,13 +239,22 @@ class KotlinDatabaseBaseManagerRenderer(val genConfig: GenConfig, val outDir: St
                     .append(".CREATE_VIEW)\n")
         }
 
+        val databaseName = database.name.replace(".", "") // remove any periods (example: "mydb.sqlite")
+        createDatabaseViewsContent.append("\n// View hashes (see upgradeChangedViews(...))\n")
+        createDatabaseViewsContent.append("saveViewHashes(database, ${createViewArray(database, null)}, ${createViewHashArray(databaseName, database)})\n")
+
         createDatabaseViewsContent.append("\n")
         createDatabaseViewsContent.append("database.setTransactionSuccessful()\n")
         createDatabaseViewsContent.append("database.endTransaction()\n")
 
-        myClass.addFun(createDatabaseViewsMethodName, parameters = listOf(KotlinVal("androidDatabase", "AndroidDatabase")), content = createDatabaseViewsContent.toString()).apply {
+        myClass.addFun(createDatabaseViewsMethodName, parameters = listOf(KotlinVal("androidDatabase", "AndroidDatabase")),
+                content = "DatabaseBaseManager.$createDatabaseViewsMethodName(androidDatabase.databaseWrapper)").apply {
             isOpen = true
         }
+
+        // companion object: also called for a copied prepopulated database (see createPrepopulatedViews(...))
+        myClass.addStaticFun(KotlinFun(createDatabaseViewsMethodName, listOf(KotlinVal("database", "DatabaseWrapper<*, *>")),
+                content = createDatabaseViewsContent.toString(), funAccess = KotlinAccess.PUBLIC))
     }
 
     private fun createDropViews(content: StringBuilder, databaseConstName: String, databaseMethodName: String, database: SchemaDatabase) {
@@ -219,6 +282,7 @@ class KotlinDatabaseBaseManagerRenderer(val genConfig: GenConfig, val outDir: St
                     .append(JavaUtil.createTableImport(databaseBasePackage, view.className))
                     .append(".DROP_VIEW)\n")
         }
+        dropDatabaseViewsContent.append("AndroidBaseManager.dropTable(database, $constClassName.DROP_$VIEW_HASHES_TABLE_CONST)\n")
 
         dropDatabaseViewsContent.append("\n")
         dropDatabaseViewsContent.append("database.setTransactionSuccessful()\n")
@@ -229,6 +293,466 @@ class KotlinDatabaseBaseManagerRenderer(val genConfig: GenConfig, val outDir: St
         }
     }
 
+    private fun createUpgradeViews(content: StringBuilder, databaseConstName: String, databaseMethodName: String, database: SchemaDatabase) {
+        if (database.views.isEmpty()) {
+            return
+        }
+
+        val varName = JavaUtil.sqlNameToJavaVariableName(databaseMethodName)
+        val upgradeDatabaseViewsMethodName = "upgrade" + Character.toUpperCase(varName[0]) + varName.substring(1)
+        val databaseName = database.name.replace(".", "") // remove any periods (example: "mydb.sqlite")
+
+        content.append("if (androidDatabase.name.equals($constClassName.$databaseConstName)) {\n")
+        content.append(TAB).append(upgradeDatabaseViewsMethodName).append("(androidDatabase)\n")
+        content.append("}\n")
+
+        val upgradeDatabaseViewsContent = StringBuilder()
+        upgradeDatabaseViewsContent.append("val database = androidDatabase.databaseWrapper\n")
+        upgradeDatabaseViewsContent.append("database.beginTransaction()\n")
+        upgradeDatabaseViewsContent.append("try {\n")
+        upgradeDatabaseViewsContent.append("${TAB}val count = upgradeViews(database,\n")
+        upgradeDatabaseViewsContent.append("$TAB$TAB$TAB${createViewArray(database, null)},\n")
+        upgradeDatabaseViewsContent.append("$TAB$TAB$TAB${createViewArray(database, "CREATE_VIEW")},\n")
+        upgradeDatabaseViewsContent.append("$TAB$TAB$TAB${createViewArray(database, "DROP_VIEW")},\n")
+        upgradeDatabaseViewsContent.append("$TAB$TAB$TAB${createViewHashArray(databaseName, database)})\n")
+        upgradeDatabaseViewsContent.append("${TAB}getLogger().i(TAG, \"Recreated \$count changed views: \${androidDatabase.name}\")\n")
+        upgradeDatabaseViewsContent.append("${TAB}database.setTransactionSuccessful()\n")
+        upgradeDatabaseViewsContent.append("} finally {\n")
+        upgradeDatabaseViewsContent.append("${TAB}database.endTransaction()\n")
+        upgradeDatabaseViewsContent.append("}\n")
+
+        myClass.addFun(upgradeDatabaseViewsMethodName, parameters = listOf(KotlinVal("androidDatabase", "AndroidDatabase")), content = upgradeDatabaseViewsContent.toString()).apply {
+            isOpen = true
+        }
+    }
+
+    /**
+     * upgradeViews(...): drop/create only the new views, the views whose CREATE_VIEW hash changed and the views that depend on them
+     * (a view depends on another view if its sql contains the name of the other view).  Views that were removed are dropped.
+     */
+    private fun createViewHashFuns() {
+        // the hashes of the created views are kept in the database
+        myConstClass.addConstant(VIEW_HASHES_TABLE_CONST, "\"$VIEW_HASHES_TABLE\"").apply { const = true }
+        myConstClass.addConstant("CREATE_$VIEW_HASHES_TABLE_CONST", "\"CREATE TABLE IF NOT EXISTS $VIEW_HASHES_TABLE (name TEXT PRIMARY KEY NOT NULL, hash INTEGER NOT NULL);\"").apply { const = true }
+        myConstClass.addConstant("DROP_$VIEW_HASHES_TABLE_CONST", "\"DROP TABLE IF EXISTS $VIEW_HASHES_TABLE;\"").apply { const = true }
+
+        val viewHashesTable = "$constClassName.$VIEW_HASHES_TABLE_CONST"
+
+        val saveContent = StringBuilder()
+        saveContent.append("AndroidBaseManager.createTable(database, $constClassName.CREATE_$VIEW_HASHES_TABLE_CONST)\n")
+        saveContent.append("for (i in viewNames.indices) {\n")
+        saveContent.append("${TAB}database.execSQL(\"INSERT OR REPLACE INTO \${$viewHashesTable} (name, hash) VALUES ('\${viewNames[i]}', \${viewHashes[i]})\")\n")
+        saveContent.append("}\n")
+        myClass.addStaticFun(KotlinFun("saveViewHashes", listOf(KotlinVal("database", "DatabaseWrapper<*, *>"), KotlinVal("viewNames", "Array<String>"), KotlinVal("viewHashes", "IntArray")),
+                content = saveContent.toString(), funAccess = KotlinAccess.PRIVATE))
+
+        val referencesContent = StringBuilder()
+        referencesContent.append("return sql.toLowerCase().split(Regex(\"[^a-z0-9_]+\")).any { viewNames.contains(it) }")
+        myClass.addFun("referencesView", "Boolean", listOf(KotlinVal("sql", "String"), KotlinVal("viewNames", "Set<String>")), referencesContent.toString(), KotlinAccess.PRIVATE)
+
+        val content = StringBuilder()
+        content.append("AndroidBaseManager.createTable(database, $constClassName.CREATE_$VIEW_HASHES_TABLE_CONST)\n\n")
+
+        content.append("// hashes of the views that are in the database\n")
+        content.append("val appliedViewHashes = mutableMapOf<String, Int>()\n")
+        content.append("val cursor = database.rawQuery(\"SELECT name, hash FROM \${$viewHashesTable}\", null)\n")
+        content.append("try {\n")
+        content.append("${TAB}while (cursor.moveToNext()) {\n")
+        content.append("$TAB${TAB}appliedViewHashes.put(cursor.getString(0), cursor.getInt(1))\n")
+        content.append("$TAB}\n")
+        content.append("} finally {\n")
+        content.append("${TAB}cursor.close()\n")
+        content.append("}\n\n")
+
+        content.append("// new and changed views\n")
+        content.append("val changedViewNames = mutableSetOf<String>()\n")
+        content.append("val changed = BooleanArray(viewNames.size)\n")
+        content.append("for (i in viewNames.indices) {\n")
+        content.append("${TAB}val appliedViewHash = appliedViewHashes.remove(viewNames[i])\n")
+        content.append("${TAB}if (appliedViewHash == null || appliedViewHash != viewHashes[i]) {\n")
+        content.append("$TAB${TAB}changed[i] = true\n")
+        content.append("$TAB${TAB}changedViewNames.add(viewNames[i])\n")
+        content.append("$TAB}\n")
+        content.append("}\n\n")
+
+        content.append("// removed views\n")
+        content.append("for (viewName in appliedViewHashes.keys) {\n")
+        content.append("${TAB}database.execSQL(\"DROP VIEW IF EXISTS \$viewName\")\n")
+        content.append("${TAB}database.execSQL(\"DELETE FROM \${$viewHashesTable} WHERE name = '\$viewName'\")\n")
+        content.append("${TAB}changedViewNames.add(viewName)\n")
+        content.append("}\n\n")
+
+        content.append("// views that depend on a changed view\n")
+        content.append("var dependentsChanged = changedViewNames.isNotEmpty()\n")
+        content.append("while (dependentsChanged) {\n")
+        content.append("${TAB}dependentsChanged = false\n")
+        content.append("${TAB}for (i in viewNames.indices) {\n")
+        content.append("$TAB${TAB}if (!changed[i] && referencesView(createViews[i], changedViewNames)) {\n")
+        content.append("$TAB$TAB${TAB}changed[i] = true\n")
+        content.append("$TAB$TAB${TAB}changedViewNames.add(viewNames[i])\n")
+        content.append("$TAB$TAB${TAB}dependentsChanged = true\n")
+        content.append("$TAB$TAB}\n")
+        content.append("$TAB}\n")
+        content.append("}\n\n")
+
+        content.append("// drop the changed views, then create them in schema order\n")
+        content.append("var count = 0\n")
+        content.append("for (i in viewNames.indices.reversed()) {\n")
+        content.append("${TAB}if (changed[i]) {\n")
+        content.append("$TAB${TAB}AndroidBaseManager.dropTable(database, dropViews[i])\n")
+        content.append("$TAB}\n")
+        content.append("}\n")
+        content.append("for (i in viewNames.indices) {\n")
+        content.append("${TAB}if (changed[i]) {\n")
+        content.append("$TAB${TAB}AndroidBaseManager.createTable(database, createViews[i])\n")
+        content.append("$TAB${TAB}count++\n")
+        content.append("$TAB}\n")
+        content.append("}\n\n")
+
+        content.append("saveViewHashes(database, viewNames, viewHashes)\n")
+        content.append("return count")
+
+        val params = listOf(KotlinVal("database", "DatabaseWrapper<*, *>"), KotlinVal("viewNames", "Array<String>"), KotlinVal("createViews", "Array<String>"),
+                KotlinVal("dropViews", "Array<String>"), KotlinVal("viewHashes", "IntArray"))
+        myClass.addFun("upgradeViews", "Int", params, content.toString(), KotlinAccess.PRIVATE)
+    }
+
+    /**
+     * cleanupOrphans(...): set based orphan cleanup (one DELETE per foreign key, in table dependency order) in a single transaction
+     */
+    private fun createCleanupOrphans(databaseSchema: DatabaseSchema) {
+        val content = StringBuilder()
+        content.append("var count = 0\n")
+
+        for (database in databaseSchema.databases) {
+            var databaseName = database.name
+            databaseName = databaseName.replace(".", "") // remove any periods (example: "mydb.sqlite")
+
+            val databaseConstName = JavaUtil.nameToJavaConst(databaseName) + "_DATABASE_NAME"
+            val databaseMethodName = JavaUtil.nameToJavaConst(databaseName) + "_ORPHANS"
+            createCleanupDatabaseOrphans(content, databaseConstName, databaseMethodName, database)
+        }
+
+        content.append("return count")
+
+        myClass.addFun("cleanupOrphans", "Int", listOf(KotlinVal("androidDatabase", "AndroidDatabase")), content.toString())
+    }
+
+    private fun createCleanupDatabaseOrphans(content: StringBuilder, databaseConstName: String, databaseMethodName: String, database: SchemaDatabase) {
+        val statements = SchemaRenderer.generateOrphanCleanupStatements(database.tables)
+        if (statements.isEmpty()) {
+            return
+        }
+
+        val varName = JavaUtil.sqlNameToJavaVariableName(databaseMethodName)
+        val cleanupDatabaseOrphansMethodName = "cleanup" + Character.toUpperCase(varName[0]) + varName.substring(1)
+        val statementsConstName = databaseMethodName + "_CLEANUP_STATEMENTS"
+
+        content.append("if (androidDatabase.name.equals($constClassName.$databaseConstName)) {\n")
+        content.append(TAB).append("count += ").append(cleanupDatabaseOrphansMethodName).append("(androidDatabase)\n")
+        content.append("}\n")
+
+        val statementsDefaultValue = statements.joinToString(",\n", "arrayOf(\n", ")") { "$TAB$TAB\"$it\"" }
+        myConstClass.addConstant(statementsConstName, defaultValue = statementsDefaultValue)
+
+        val cleanupContent = StringBuilder()
+        cleanupContent.append("var count = 0\n")
+        cleanupContent.append("val database = androidDatabase.databaseWrapper\n")
+        cleanupContent.append("database.beginTransaction()\n")
+        cleanupContent.append("try {\n")
+        cleanupContent.append("${TAB}for (sql in $constClassName.$statementsConstName) {\n")
+        cleanupContent.append("$TAB${TAB}val statement = database.compileStatement(sql)\n")
+        cleanupContent.append("$TAB${TAB}try {\n")
+        cleanupContent.append("$TAB$TAB${TAB}count += statement.executeUpdateDelete()\n")
+        cleanupContent.append("$TAB$TAB} finally {\n")
+        cleanupContent.append("$TAB$TAB${TAB}statement.close()\n")
+        cleanupContent.append("$TAB$TAB}\n")
+        cleanupContent.append("$TAB}\n")
+        cleanupContent.append("${TAB}database.setTransactionSuccessful()\n")
+        cleanupContent.append("} finally {\n")
+        cleanupContent.append("${TAB}database.endTransaction()\n")
+        cleanupContent.append("}\n")
+        cleanupContent.append("return count")
+
+        myClass.addFun(cleanupDatabaseOrphansMethodName, "Int", listOf(KotlinVal("androidDatabase", "AndroidDatabase")), cleanupContent.toString()).apply {
+            isOpen = true
+        }
+    }
+
+    /**
+     * configureDatabaseWrapper(...): SQLite tuning applied when a database is opened (page_size, journal_mode... WAL with
+     * enableWriteAheadLogging()) followed by onConfigure(...).
+     * onConfigure(...): per connection PRAGMAs (synchronous, cache_size, mmap_size, temp_store).  configureDatabaseWrapper(...) only
+     * runs them on the connection it is given... other connections of a WAL connection pool need their own call.
+     * optimizeDatabase(...): PRAGMA optimize before a database is closed (optimizeOnClose)
+     */
+    private fun createSqlitePragmas(databaseSchema: DatabaseSchema) {
+        val configureContent = StringBuilder()
+        val connectionContent = StringBuilder()
+        connectionContent.append("// only configures the given connection (call it for each connection the database wrapper opens)\n")
+        val optimizeContent = StringBuilder()
+
+        for (database in databaseSchema.databases) {
+            var databaseName = database.name
+            databaseName = databaseName.replace(".", "") // remove any periods (example: "mydb.sqlite")
+
+            val databaseConstName = JavaUtil.nameToJavaConst(databaseName) + "_DATABASE_NAME"
+            val pragmasConstName = JavaUtil.nameToJavaConst(databaseName) + "_PRAGMAS"
+            val connectionPragmasConstName = JavaUtil.nameToJavaConst(databaseName) + "_CONNECTION_PRAGMAS"
+
+            val sqlitePragmas = genConfig.sqlitePragmas.merge(database.sqlitePragmas)
+            val statements = sqlitePragmas.generateOpenStatements()
+            if (statements.isNotEmpty() || sqlitePragmas.isWriteAheadLogging) {
+                configureContent.append("if (databaseName == $constClassName.$databaseConstName) {\n")
+                if (statements.isNotEmpty()) {
+                    myConstClass.addConstant(pragmasConstName, defaultValue = statements.joinToString(",\n", "arrayOf(\n", ")") { "$TAB$TAB\"$it\"" })
+                    configureContent.append("${TAB}executePragmas(databaseWrapper, $constClassName.$pragmasConstName)\n")
+                }
+                if (sqlitePragmas.isWriteAheadLogging) {
+                    configureContent.append("${TAB}databaseWrapper.enableWriteAheadLogging()\n")
+                }
+                configureContent.append("}\n")
+            }
+
+            val connectionStatements = sqlitePragmas.generateConnectionStatements()
+            if (connectionStatements.isNotEmpty()) {
+                myConstClass.addConstant(connectionPragmasConstName, defaultValue = connectionStatements.joinToString(",\n", "arrayOf(\n", ")") { "$TAB$TAB\"$it\"" })
+
+                connectionContent.append("if (databaseName == $constClassName.$databaseConstName) {\n")
+                connectionContent.append("${TAB}executePragmas(databaseWrapper, $constClassName.$connectionPragmasConstName)\n")
+                connectionContent.append("}\n")
+            }
+
+            if (sqlitePragmas.isOptimizeOnClose) {
+                optimizeContent.append("if (androidDatabase.name == $constClassName.$databaseConstName) {\n")
+                optimizeContent.append("${TAB}executePragmas(androidDatabase.databaseWrapper, arrayOf(\"PRAGMA optimize\"))\n")
+                optimizeContent.append("}\n")
+            }
+        }
+
+        // companion object: called from AppDatabaseConfig.createNewDatabaseWrapper(...)
+        configureContent.append("onConfigure(databaseName, databaseWrapper)")
+        myClass.addStaticFun(KotlinFun("configureDatabaseWrapper", listOf(KotlinVal("databaseName", "String"), KotlinVal("databaseWrapper", "DatabaseWrapper<*, *>")),
+                content = configureContent.toString(), funAccess = KotlinAccess.PUBLIC))
+        myClass.addStaticFun(KotlinFun("onConfigure", listOf(KotlinVal("databaseName", "String"), KotlinVal("databaseWrapper", "DatabaseWrapper<*, *>")),
+                content = connectionContent.toString(), funAccess = KotlinAccess.PUBLIC))
+        myClass.addFun("optimizeDatabase", parameters = listOf(KotlinVal("androidDatabase", "AndroidDatabase")), content = optimizeContent.toString()).apply {
+            isOpen = true
+        }
+
+        val executeContent = StringBuilder()
+        executeContent.append("for (pragma in pragmas) {\n")
+        executeContent.append("$TAB// rawQuery: some PRAGMAs return a row (journal_mode)\n")
+        executeContent.append("${TAB}val cursor = databaseWrapper.rawQuery(pragma, null)\n")
+        executeContent.append("${TAB}try {\n")
+        executeContent.append("$TAB${TAB}cursor.moveToFirst()\n")
+        executeContent.append("$TAB} finally {\n")
+        executeContent.append("$TAB${TAB}cursor.close()\n")
+        executeContent.append("$TAB}\n")
+        executeContent.append("}\n")
+        myClass.addStaticFun(KotlinFun("executePragmas", listOf(KotlinVal("databaseWrapper", "DatabaseWrapper<*, *>"), KotlinVal("pragmas", "Array<String>")),
+                content = executeContent.toString(), funAccess = KotlinAccess.PRIVATE))
+    }
+
+    /**
+     * migrate[Db]Tables(...): incremental table migrations from each schema snapshot version to the next (up to the current version)
+     */
+    private fun createMigrations(databaseSchema: DatabaseSchema) {
+        val schemaSnapshots = SchemaSnapshots(genConfig.schemaSnapshotDir)
+        val databaseMapping = genConfig.getDatabaseMapping(SqliteRenderer.RENDERER_NAME)
+
+        var foreignKeyHelpers = false
+        for (database in databaseSchema.databases) {
+            var databaseName = database.name
+            databaseName = databaseName.replace(".", "") // remove any periods (example: "mydb.sqlite")
+
+            val databaseMethodName = JavaUtil.nameToJavaConst(databaseName) + "_TABLES"
+            val varName = JavaUtil.sqlNameToJavaVariableName(databaseMethodName)
+            val migrateDatabaseMethodName = "migrate" + Character.toUpperCase(varName[0]) + varName.substring(1)
+
+            val versions = schemaSnapshots.readSnapshots(database.name, database.version)
+            versions.put(database.version, database)
+
+            val whenContent = StringBuilder()
+            var fromDatabase: SchemaDatabase? = null
+            for (toDatabase in versions.values) {
+                if (fromDatabase != null) {
+                    val migrationConstName = JavaUtil.nameToJavaConst(databaseName) + "_MIGRATION_${fromDatabase.version}_${toDatabase.version}"
+                    val statements = SqliteMigrationRenderer.generateMigration(fromDatabase, toDatabase, databaseMapping)
+
+                    val statementsDefaultValue = statements.joinToString(",\n", "arrayOf(", ")") {
+                        "\n$TAB$TAB\"" + it.replace("\\", "\\\\").replace("\"", "\\\"").replace("\$", "\\\$").replace("\n", "\\n").replace("\t", "\\t") + "\""
+                    }
+                    myConstClass.addConstant(migrationConstName, defaultValue = if (statements.isEmpty()) "emptyArray<String>()" else statementsDefaultValue)
+
+                    whenContent.append("$TAB$TAB$TAB$TAB${fromDatabase.version} -> {\n")
+                    whenContent.append("$TAB$TAB$TAB$TAB${TAB}statements = $constClassName.$migrationConstName\n")
+                    whenContent.append("$TAB$TAB$TAB$TAB${TAB}version = ${toDatabase.version}\n")
+                    whenContent.append("$TAB$TAB$TAB$TAB}\n")
+                }
+                fromDatabase = toDatabase
+            }
+
+            val content = StringBuilder()
+            if (whenContent.length == 0) {
+                content.append("return false // no schema snapshots")
+            } else {
+                // SQLite table rebuild procedure: foreign keys off (outside of the transaction), rebuild, check the foreign
+                // keys before commit, foreign keys back on
+                content.append("val database = androidDatabase.databaseWrapper\n")
+                content.append("val foreignKeys = isForeignKeysEnabled(database)\n")
+                content.append("if (foreignKeys) {\n")
+                content.append("${TAB}database.execSQL(\"PRAGMA foreign_keys = OFF\")\n")
+                content.append("}\n")
+                content.append("try {\n")
+                content.append("${TAB}database.beginTransaction()\n")
+                content.append("${TAB}try {\n")
+                content.append("$TAB${TAB}var version = oldVersion\n")
+                content.append("$TAB${TAB}while (version < newVersion) {\n")
+                content.append("$TAB$TAB${TAB}val statements: Array<String>\n")
+                content.append("$TAB$TAB${TAB}when (version) {\n")
+                content.append(whenContent)
+                content.append("$TAB$TAB$TAB${TAB}else -> return false // no migration from this version (nothing is committed)\n")
+                content.append("$TAB$TAB$TAB}\n\n")
+                content.append("$TAB$TAB${TAB}for (sql in statements) {\n")
+                content.append("$TAB$TAB$TAB${TAB}database.execSQL(sql)\n")
+                content.append("$TAB$TAB$TAB}\n")
+                content.append("$TAB$TAB}\n\n")
+                content.append("$TAB${TAB}if (version != newVersion) {\n")
+                content.append("$TAB$TAB${TAB}return false\n")
+                content.append("$TAB$TAB}\n")
+                content.append("$TAB${TAB}checkForeignKeys(database, oldVersion, newVersion)\n")
+                content.append("$TAB${TAB}database.setTransactionSuccessful()\n")
+                content.append("$TAB${TAB}return true\n")
+                content.append("$TAB} finally {\n")
+                content.append("$TAB${TAB}database.endTransaction()\n")
+                content.append("$TAB}\n")
+                content.append("} finally {\n")
+                content.append("${TAB}if (foreignKeys) {\n")
+                content.append("$TAB${TAB}database.execSQL(\"PRAGMA foreign_keys = ON\")\n")
+                content.append("$TAB}\n")
+                content.append("}")
+                foreignKeyHelpers = true
+            }
+
+            // returns false if there is no migration path from oldVersion (nothing is changed)
+            val params = listOf(KotlinVal("androidDatabase", "AndroidDatabase"), KotlinVal("oldVersion", "Int"), KotlinVal("newVersion", "Int"))
+            myClass.addFun(migrateDatabaseMethodName, "Boolean", params, content.toString()).apply {
+                isOpen = true
+            }
+        }
+
+        if (foreignKeyHelpers) {
+            createMigrationForeignKeyHelpers()
+        }
+    }
+
+    /**
+     * isForeignKeysEnabled(...) / checkForeignKeys(...): PRAGMA foreign_keys can not be changed within a transaction... rebuilt
+     * tables are checked with PRAGMA foreign_key_check before the migration is committed
+     */
+    private fun createMigrationForeignKeyHelpers() {
+        val enabledContent = StringBuilder()
+        enabledContent.append("val cursor = database.rawQuery(\"PRAGMA foreign_keys\", null)\n")
+        enabledContent.append("try {\n")
+        enabledContent.append("${TAB}return cursor.moveToFirst() && cursor.getInt(0) == 1\n")
+        enabledContent.append("} finally {\n")
+        enabledContent.append("${TAB}cursor.close()\n")
+        enabledContent.append("}")
+        myClass.addStaticFun(KotlinFun("isForeignKeysEnabled", listOf(KotlinVal("database", "DatabaseWrapper<*, *>")), "Boolean",
+                content = enabledContent.toString(), funAccess = KotlinAccess.PRIVATE))
+
+        // a violation throws (the transaction is rolled back)
+        val checkContent = StringBuilder()
+        checkContent.append("val cursor = database.rawQuery(\"PRAGMA foreign_key_check\", null)\n")
+        checkContent.append("try {\n")
+        checkContent.append("${TAB}if (cursor.moveToFirst()) {\n")
+        checkContent.append("$TAB${TAB}throw IllegalStateException(\"Foreign key violation in table [\${cursor.getString(0)}] (rowid \${cursor.getLong(1)}) \" +\n")
+        checkContent.append("$TAB$TAB$TAB$TAB\"referencing [\${cursor.getString(2)}] after migration from version \$oldVersion to \$newVersion\")\n")
+        checkContent.append("$TAB}\n")
+        checkContent.append("} finally {\n")
+        checkContent.append("${TAB}cursor.close()\n")
+        checkContent.append("}")
+        myClass.addStaticFun(KotlinFun("checkForeignKeys", listOf(KotlinVal("database", "DatabaseWrapper<*, *>"), KotlinVal("oldVersion", "Int"), KotlinVal("newVersion", "Int")),
+                content = checkContent.toString(), funAccess = KotlinAccess.PRIVATE))
+    }
+
+    /**
+     * copyPrepopulated[Db]Database(...): copy the database file built at build time (dbtools-prepopulate) from the assets instead of creating the database on the device.
+     * Companion object: called from AppDatabaseConfig.createNewDatabaseWrapper(...) before the database is opened... the prepopulated file has no views
+     * (the CREATE_VIEW sql is in the view classes) so the views are created with createPrepopulatedViews(...) once the file was copied
+     */
+    private fun createCopyPrepopulatedDatabases(databaseSchema: DatabaseSchema) {
+        myClass.addImport("android.content.Context")
+        myClass.addImport("java.io.File")
+        myClass.addImport("java.io.FileOutputStream")
+        myClass.addImport("java.io.IOException")
+
+        val copyContent = StringBuilder()
+        val viewsContent = StringBuilder()
+        copyContent.append("val databaseFile = File(androidDatabase.path)\n")
+        for (database in databaseSchema.databases) {
+            var databaseName = database.name
+            databaseName = databaseName.replace(".", "") // remove any periods (example: "mydb.sqlite")
+
+            val assetConstName = JavaUtil.nameToJavaConst(databaseName) + "_PREPOPULATED_ASSET"
+            val varName = JavaUtil.sqlNameToJavaVariableName(JavaUtil.nameToJavaConst(databaseName) + "_DATABASE")
+            val copyDatabaseMethodName = "copyPrepopulated" + Character.toUpperCase(varName[0]) + varName.substring(1)
+
+            myConstClass.addConstant(assetConstName, "\"${PrepopulatedDatabaseBuilder.getAssetPath(database)}\"").apply { const = true }
+
+            // returns false if the database file already exists (nothing is copied)
+            val params = listOf(KotlinVal("context", "Context"), KotlinVal("databaseFile", "File"))
+            myClass.addStaticFun(KotlinFun(copyDatabaseMethodName, params, "Boolean", "return copyPrepopulatedDatabase(context, $constClassName.$assetConstName, databaseFile)"))
+
+            val databaseConstName = JavaUtil.nameToJavaConst(databaseName) + "_DATABASE_NAME"
+            copyContent.append("if (androidDatabase.name == $constClassName.$databaseConstName) {\n")
+            copyContent.append("${TAB}return $copyDatabaseMethodName(context, databaseFile)\n")
+            copyContent.append("}\n")
+
+            if (!database.views.isEmpty()) {
+                val viewsVarName = JavaUtil.sqlNameToJavaVariableName(JavaUtil.nameToJavaConst(databaseName) + "_VIEWS")
+                viewsContent.append("if (databaseName == $constClassName.$databaseConstName) {\n")
+                viewsContent.append("${TAB}create${Character.toUpperCase(viewsVarName[0])}${viewsVarName.substring(1)}(database)\n")
+                viewsContent.append("}\n")
+            }
+        }
+        copyContent.append("return false")
+
+        // returns true if the prepopulated database was copied (the views must then be created with createPrepopulatedViews(...))
+        myClass.addStaticFun(KotlinFun("copyPrepopulatedDatabase", listOf(KotlinVal("context", "Context"), KotlinVal("androidDatabase", "AndroidDatabase")), "Boolean", copyContent.toString()))
+        myClass.addStaticFun(KotlinFun("createPrepopulatedViews", listOf(KotlinVal("databaseName", "String"), KotlinVal("database", "DatabaseWrapper<*, *>")), content = viewsContent.toString()))
+
+        val content = StringBuilder()
+        content.append("if (databaseFile.exists()) {\n")
+        content.append("${TAB}return false\n")
+        content.append("}\n\n")
+        content.append("val dir = databaseFile.parentFile\n")
+        content.append("if (dir != null && !dir.exists() && !dir.mkdirs()) {\n")
+        content.append("${TAB}throw IllegalStateException(\"Could not create directory [\${dir.path}]\")\n")
+        content.append("}\n\n")
+        content.append("// copy to a temp file first so a partial copy is never opened as the database\n")
+        content.append("val tempFile = File(databaseFile.path + \".tmp\")\n")
+        content.append("try {\n")
+        content.append("${TAB}context.assets.open(assetPath).use { inputStream ->\n")
+        content.append("$TAB${TAB}FileOutputStream(tempFile).use { outputStream ->\n")
+        content.append("$TAB$TAB${TAB}inputStream.copyTo(outputStream)\n")
+        content.append("$TAB$TAB}\n")
+        content.append("$TAB}\n")
+        content.append("} catch (e: IOException) {\n")
+        content.append("${TAB}tempFile.delete()\n")
+        content.append("${TAB}throw IllegalStateException(\"Failed to copy prepopulated database [\$assetPath]\", e)\n")
+        content.append("}\n\n")
+        content.append("if (!tempFile.renameTo(databaseFile)) {\n")
+        content.append("${TAB}tempFile.delete()\n")
+        content.append("${TAB}throw IllegalStateException(\"Failed to copy prepopulated database [\$assetPath] to [\${databaseFile.path}]\")\n")
+        content.append("}\n")
+        content.append("return true")
+
+        val params = listOf(KotlinVal("context", "Context"), KotlinVal("assetPath", "String"), KotlinVal("databaseFile", "File"))
+        myClass.addStaticFun(KotlinFun("copyPrepopulatedDatabase", params, "Boolean", content.toString(), KotlinAccess.PRIVATE))
+    }
+
     private fun createDatabaseBasePackage(database: SchemaDatabase): String {
         return packageBase + (if (genConfig.isIncludeDatabaseNameInPackage) "." + database.name.toLowerCase() else "")
     }
@@ -239,6 +763,8 @@ class KotlinDatabaseBaseManagerRenderer(val genConfig: GenConfig, val outDir: St
 
     companion object {
         private val TAB = KotlinClass.tab
+        private const val VIEW_HASHES_TABLE = "dbtools_view_hashes"
+        private const val VIEW_HASHES_TABLE_CONST = "VIEW_HASHES_TABLE"
 
         fun getClassName(table: SchemaEntity): String {
             val recordClassName = AndroidRecordRenderer.createClassName(table)
@@ -4,6 +4,9 @@ import org.dbtools.codegen.kotlin.KotlinClass
 import org.dbtools.codegen.kotlin.KotlinVal
 import org.dbtools.gen.GenConfig
 import org.dbtools.schema.schemafile.DatabaseSchema
+import org.dbtools.schema.schemafile.SchemaDatabase
+import org.dbtools.util.JavaUtil
+import java.io.File
 
 class KotlinDatabaseManagerRenderer(val genConfig: GenConfig, val outDir: String = "") {
 
@@ -30,10 +33,41 @@ class KotlinDatabaseManagerRenderer(val genConfig: GenConfig, val outDir: String
         }
         addImports()
         createDatabaseVersions(databaseSchema)
-        createOnUpgrade()
+        createOnUpgrade(databaseSchema)
         createOnUpgradeViews()
 
-        myClass.writeToDisk(outDir, false)
+        warnMissingMigrationCalls(databaseSchema, File(outDir, myClass.filename))
+        myClass.writeToDisk(outDir, false, genConfig.fileWriter)
+    }
+
+    /**
+     * An existing DatabaseManager is not regenerated... the migrate[Db]Tables(...) calls have to be added to its onUpgrade(...) by hand
+     */
+    private fun warnMissingMigrationCalls(databaseSchema: DatabaseSchema, existingFile: File) {
+        if (genConfig.schemaSnapshotDir == null || !existingFile.exists()) {
+            return
+        }
+
+        val existingSource = existingFile.readText()
+        for (database in databaseSchema.databases) {
+            val migrateDatabaseMethodName = getMigrateDatabaseMethodName(database)
+            if (!existingSource.contains(migrateDatabaseMethodName + "(")) {
+                println("WARNING: ${existingFile.name} already exists and is not regenerated... add " +
+                        "\"if (androidDatabase.name.equals(DatabaseManagerConst.${getDatabaseConstName(database)}) && $migrateDatabaseMethodName(androidDatabase, oldVersion, newVersion)) { return }\" " +
+                        "to the start of onUpgrade(...) to use the incremental migrations")
+            }
+        }
+    }
+
+    private fun getDatabaseConstName(database: SchemaDatabase): String {
+        val databaseName = database.name.replace(".", "") // remove any periods (example: "mydb.sqlite")
+        return JavaUtil.nameToJavaConst(databaseName) + "_DATABASE_NAME"
+    }
+
+    private fun getMigrateDatabaseMethodName(database: SchemaDatabase): String {
+        val databaseName = database.name.replace(".", "") // remove any periods (example: "mydb.sqlite")
+        val varName = JavaUtil.sqlNameToJavaVariableName(JavaUtil.nameToJavaConst(databaseName) + "_TABLES")
+        return "migrate" + Character.toUpperCase(varName[0]) + varName.substring(1)
     }
 
     private fun createDatabaseVersions(databaseSchema: DatabaseSchema) {
@@ -41,16 +75,25 @@ class KotlinDatabaseManagerRenderer(val genConfig: GenConfig, val outDir: String
             val databaseVersion = database.name + "TablesVersion"
             val databaseViewsVersion = database.name + "ViewsVersion"
 
-            myClass.addConstant(databaseVersion, defaultValue = "1")
+            myClass.addConstant(databaseVersion, defaultValue = database.version.toString())
             myClass.addConstant(databaseViewsVersion, defaultValue = "1")
         }
     }
 
-    private fun createOnUpgrade() {
+    private fun createOnUpgrade(databaseSchema: DatabaseSchema) {
         val content = StringBuilder()
 
         content.append("getLogger().i(TAG, \"Upgrading database [\${androidDatabase.name}] from version \$oldVersion to \$newVersion\")\n")
 
+        if (genConfig.schemaSnapshotDir != null) {
+            content.append("\n// incremental migrations (generated from the schema snapshots)\n")
+            for (database in databaseSchema.databases) {
+                content.append("if (androidDatabase.name.equals(DatabaseManagerConst.${getDatabaseConstName(database)}) && ${getMigrateDatabaseMethodName(database)}(androidDatabase, oldVersion, newVersion)) {\n")
+                content.append("${TAB}return\n")
+                content.append("}\n")
+            }
+        }
+
         val params = listOf(KotlinVal("androidDatabase", "AndroidDatabase"),
                 KotlinVal("oldVersion", "Int"),
                 KotlinVal("newVersion", "Int"))
@@ -63,8 +106,8 @@ class KotlinDatabaseManagerRenderer(val genConfig: GenConfig, val outDir: String
         val content = StringBuilder()
 
         content.append("getLogger().i(TAG, \"Upgrading database [\${androidDatabase.name}] VIEWS from version \$oldVersion to \$newVersion\")\n")
-        content.append("// automatically drop/create views\n")
-        content.append("super.onUpgradeViews(androidDatabase, oldVersion, newVersion)\n")
+        content.append("// drop/create only the views whose CREATE_VIEW changed (and the views that depend on them)\n")
+        content.append("upgradeChangedViews(androidDatabase)\n")
 
         val params = listOf(KotlinVal("androidDatabase", "AndroidDatabase"),
                 KotlinVal("oldVersion", "Int"),
@@ -87,4 +130,8 @@ class KotlinDatabaseManagerRenderer(val genConfig: GenConfig, val outDir: String
     fun setPackageBase(packageBase: String) {
         this.packageBase = packageBase
     }
+
+    companion object {
+        private val TAB = KotlinClass.tab
+    }
 }
@@ -2,11 +2,12 @@ package org.dbtools.gen.android.kotlin
 
 import org.dbtools.codegen.kotlin.KotlinObjectClass
 import org.dbtools.codegen.kotlin.KotlinVal
+import org.dbtools.gen.GenConfig
 import org.dbtools.gen.android.AndroidManagerRenderer
 import org.dbtools.schema.schemafile.*
 import org.dbtools.util.JavaUtil
 
-class KotlinDatabaseManagersHolderRenderer {
+class KotlinDatabaseManagersHolderRenderer(val genConfig: GenConfig) {
     private var packageName: String = ""
     private var myClass = KotlinObjectClass()
 
@@ -45,7 +46,7 @@ class KotlinDatabaseManagersHolderRenderer {
 
         myClass.addFun("init", parameters = listOf(KotlinVal("databaseManager", "DatabaseManager")), content = initContent.toString())
 
-        myClass.writeToDisk(outDir, true)
+        myClass.writeToDisk(outDir, true, genConfig.fileWriter)
     }
 
     private fun addSchemaEntityToInit(initContent: StringBuilder, entity: SchemaEntity) {
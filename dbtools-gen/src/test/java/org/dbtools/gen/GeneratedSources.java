@@ -0,0 +1,90 @@
+package org.dbtools.gen;
+
+import org.junit.Assume;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Reads and compiles the files written by the renderers under test.
+ */
+public final class GeneratedSources {
+
+    // the libraries the generated code is written against (android, dbtools-android, JPA) are not on the test classpath
+    private static final Set<String> MISSING_LIBRARY_ERRORS = new HashSet<>(Arrays.asList(
+            "compiler.err.cant.resolve",
+            "compiler.err.cant.resolve.args",
+            "compiler.err.cant.resolve.location",
+            "compiler.err.cant.resolve.location.args",
+            "compiler.err.doesnt.exist",
+            "compiler.err.method.does.not.override.superclass"));
+
+    private GeneratedSources() {
+    }
+
+    public static File getOutDir(String name) {
+        return new File(System.getProperty("user.dir"), "build/test-src/" + name);
+    }
+
+    public static String read(File outDir, String fileName) throws IOException {
+        return new String(Files.readAllBytes(new File(outDir, fileName).toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Body of the method / function declared by signature (members are indented 4 spaces).
+     */
+    public static String getBody(String source, String signature) {
+        int start = source.indexOf(signature);
+        assertTrue(signature, start >= 0);
+        start = source.indexOf("{\n", start) + 2;
+        return source.substring(start, source.indexOf("\n    }\n", start));
+    }
+
+    /**
+     * Compile generated java files.  Only errors caused by the missing libraries (unresolved symbols and the overrides
+     * of their classes) are accepted, any other error (syntax, types, duplicate members, ...) fails.
+     */
+    public static void assertCompiles(File outDir, String... fileNames) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler); // tests are not running on a JDK
+
+        List<File> sourceFiles = new ArrayList<>();
+        for (String fileName : fileNames) {
+            sourceFiles.add(new File(outDir, fileName));
+        }
+
+        File classesDir = new File(outDir, "classes");
+        classesDir.mkdirs();
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.US, StandardCharsets.UTF_8)) {
+            compiler.getTask(null, fileManager, diagnostics, Arrays.asList("-proc:none", "-d", classesDir.getPath()), null,
+                    fileManager.getJavaFileObjectsFromFiles(sourceFiles)).call();
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR && !MISSING_LIBRARY_ERRORS.contains(diagnostic.getCode())) {
+                String source = diagnostic.getSource() != null ? new File(diagnostic.getSource().getName()).getName() : "";
+                errors.add(source + ":" + diagnostic.getLineNumber() + ": " + diagnostic.getMessage(Locale.US));
+            }
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package org.dbtools.gen;
+
+import org.dbtools.schema.dbmappings.TestDatabaseMappings;
+import org.dbtools.schema.schemafile.SchemaDatabase;
+import org.dbtools.schema.schemafile.TestSchemas;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PrepopulatedDatabaseBuilderTest {
+
+    @Test
+    public void testGenerateStatements() {
+        List<String> statements = new PrepopulatedDatabaseBuilder(TestDatabaseMappings.createSqliteMapping()).generateStatements(createDatabase());
+
+        // referenced tables first
+        assertTrue(statements.get(0).startsWith("CREATE TABLE IF NOT EXISTS Household ("));
+        assertTrue(statements.get(1).startsWith("CREATE TABLE IF NOT EXISTS Individual ("));
+        assertEquals("PRAGMA user_version = 3", statements.get(statements.size() - 1));
+    }
+
+    @Test
+    public void testSplitStatements() {
+        String script = "-- households;\n"
+                + "INSERT INTO Household (_id, name) VALUES (1, 'a;\nb');\n"
+                + "/* ; */ INSERT INTO Household (_id, name) VALUES (2, 'it''s');\n"
+                + "CREATE TRIGGER IF NOT EXISTS HouseholdDelete AFTER DELETE ON Household BEGIN\n"
+                + "    DELETE FROM Individual WHERE householdId = old._id;\n"
+                + "END;\n"
+                + "UPDATE Household SET name = \"name\"";
+
+        List<String> statements = PrepopulatedDatabaseBuilder.splitStatements(script);
+
+        assertEquals(4, statements.size());
+        assertEquals("INSERT INTO Household (_id, name) VALUES (1, 'a;\nb')", statements.get(0));
+        assertEquals("INSERT INTO Household (_id, name) VALUES (2, 'it''s')", statements.get(1));
+        assertEquals("CREATE TRIGGER IF NOT EXISTS HouseholdDelete AFTER DELETE ON Household BEGIN\n"
+                + "    DELETE FROM Individual WHERE householdId = old._id;\n"
+                + "END", statements.get(2));
+        assertEquals("UPDATE Household SET name = \"name\"", statements.get(3));
+    }
+
+    @Test
+    public void testBuild() throws Exception {
+        String userDir = System.getProperty("user.dir");
+        File outDir = new File(userDir + "/build/test-src/prepopulated");
+        outDir.mkdirs();
+        File databaseFile = new File(outDir, "main.db");
+        File seedFile = new File(outDir, "main.sql");
+        Files.write(seedFile.toPath(), ("INSERT INTO Household (_id) VALUES (1);\n"
+                + "INSERT INTO Individual (_id, householdId) VALUES (1, 1);\n").getBytes(StandardCharsets.UTF_8));
+
+        new PrepopulatedDatabaseBuilder(TestDatabaseMappings.createSqliteMapping()).build(createDatabase(), databaseFile, seedFile);
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+             Statement statement = connection.createStatement()) {
+            assertEquals(3, queryInt(statement, "PRAGMA user_version"));
+            assertEquals(1, queryInt(statement, "SELECT count(*) FROM Individual WHERE householdId = 1"));
+            assertEquals(1, queryInt(statement, "SELECT count(*) FROM sqlite_master WHERE type = 'index' AND name = 'IndividualhouseholdId_IDX'"));
+        }
+    }
+
+    private int queryInt(Statement statement, String sql) throws Exception {
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            assertTrue(resultSet.next());
+            return resultSet.getInt(1);
+        }
+    }
+
+    private SchemaDatabase createDatabase() {
+        // Individual references Household (created first)
+        SchemaDatabase database = TestSchemas.createDatabase(
+                TestSchemas.createTable("Individual", TestSchemas.createForeignKeyField("householdId", "Household")), TestSchemas.createTable("Household"));
+        database.setVersion(3);
+        return database;
+    }
+}
@@ -0,0 +1,64 @@
+package org.dbtools.gen.android;
+
+import org.dbtools.gen.GenConfig;
+import org.dbtools.gen.GeneratedSources;
+import org.dbtools.schema.dbmappings.TestDatabaseMappings;
+import org.dbtools.schema.schemafile.SchemaDatabase;
+import org.dbtools.schema.schemafile.SchemaTable;
+import org.dbtools.schema.schemafile.TestSchemas;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.dbtools.gen.GeneratedSources.getOutDir;
+import static org.dbtools.gen.GeneratedSources.read;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AndroidBaseManagerRendererTest {
+
+    @Test
+    public void testForeignKeyFinders() throws Exception {
+        String source = generateManager("Individual");
+
+        // BIGINT and INTEGER foreign keys
+        assertTrue(source.contains("public List<Individual> findAllByHouseholdId(String databaseName, long householdId) {"));
+        assertTrue(source.contains("public LongSparseArray<List<Individual>> findAllByHouseholdIdIn(String databaseName, long[] householdIds) {"));
+        assertTrue(source.contains("long id = record.getHouseholdId();"));
+        assertTrue(source.contains("public List<Individual> findAllByFamilyId(String databaseName, long familyId) {"));
+        assertTrue(source.contains("public LongSparseArray<List<Individual>> findAllByFamilyIdIn(String databaseName, long[] familyIds) {"));
+        assertTrue(source.contains("long id = record.getFamilyId();"));
+
+        // TINYINT is a boolean in the record
+        assertFalse(source.contains("findAllByKindId"));
+
+        // inherited query method
+        assertTrue(source.contains("return findAllByRawQuery(databaseName, \"SELECT * FROM \" + IndividualConst.TABLE + \" WHERE \" + IndividualConst.C_FAMILY_ID + \" = ?\", new String[]{String.valueOf(familyId)});"));
+        assertFalse(source.contains("List<Individual> findAllByRawQuery("));
+    }
+
+    @Test
+    public void testGeneratedManagerCompiles() throws Exception {
+        generateManager("Individual");
+
+        GeneratedSources.assertCompiles(getOutDir("java-manager-renderer"), "IndividualBaseManager.java");
+    }
+
+    private String generateManager(String tableName) throws Exception {
+        GenConfig genConfig = new GenConfig();
+
+        SchemaDatabase database = TestSchemas.createForeignKeyTypesDatabase();
+        SchemaTable table = database.getTable(tableName);
+        AndroidBaseRecordRenderer recordRenderer = new AndroidBaseRecordRenderer();
+        recordRenderer.setGenConfig(genConfig);
+        AndroidGeneratedEntityInfo generatedEntityInfo = recordRenderer.generate(database, table, "org.mycompany.domain", TestDatabaseMappings.createSqliteMapping());
+
+        AndroidBaseManagerRenderer renderer = new AndroidBaseManagerRenderer();
+        renderer.setGenConfig(genConfig);
+        renderer.generate(table, "org.mycompany.domain", generatedEntityInfo);
+
+        File outDir = getOutDir("java-manager-renderer");
+        renderer.writeToFile(outDir.getPath());
+        return read(outDir, tableName + "BaseManager.java");
+    }
+}
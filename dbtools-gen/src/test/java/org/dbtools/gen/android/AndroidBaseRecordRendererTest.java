@@ -0,0 +1,88 @@
+package org.dbtools.gen.android;
+
+import org.dbtools.gen.GenConfig;
+import org.dbtools.gen.GeneratedSources;
+import org.dbtools.schema.dbmappings.TestDatabaseMappings;
+import org.dbtools.schema.schemafile.SchemaDatabase;
+import org.dbtools.schema.schemafile.TestSchemas;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.dbtools.gen.GeneratedSources.getBody;
+import static org.dbtools.gen.GeneratedSources.getOutDir;
+import static org.dbtools.gen.GeneratedSources.read;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AndroidBaseRecordRendererTest {
+
+    @Test
+    public void testDirtyFieldTracking() throws Exception {
+        String source = generateRecord("Individual");
+
+        // reading a row leaves the record clean
+        assertTrue(getBody(source, "void setContent(Cursor cursor)").trim().endsWith("clearDirtyFields();"));
+
+        // a full insert / update writes every column
+        assertTrue(getBody(source, "void bindInsertStatement(StatementWrapper statement)").trim().endsWith("clearDirtyFields();"));
+        assertTrue(getBody(source, "void bindUpdateStatement(StatementWrapper statement)").trim().endsWith("clearDirtyFields();"));
+        assertFalse(getBody(source, "void bindDirtyUpdateStatement(StatementWrapper statement)").contains("clearDirtyFields();"));
+
+        // the copy has the same dirty fields as the original
+        String copy = getBody(source, "Individual copy()");
+        assertTrue(copy.contains("copy.clearDirtyFields();"));
+        assertTrue(copy.contains("copy.markDirty(i);"));
+    }
+
+    @Test
+    public void testColumnIndexes() throws Exception {
+        String source = generateRecord("Individual");
+        String constSource = read(getOutDir("java-record-renderer"), "IndividualConst.java");
+
+        // indexes are resolved once per cursor and a column missing from the cursor fails fast
+        assertTrue(constSource.contains("indexes[i] = cursor.getColumnIndexOrThrow(ALL_COLUMNS[i]);"));
+        String setContent = getBody(source, "void setContent(Cursor cursor)");
+        assertTrue(setContent.contains("int[] columnIndexes = IndividualConst.getColumnIndexes(cursor);"));
+        assertTrue(setContent.contains("name = !cursor.isNull(columnIndexes[1]) ? cursor.getString(columnIndexes[1]) : null;"));
+        assertFalse(setContent.contains(">= 0"));
+    }
+
+    @Test
+    public void testGeneratedRecordCompiles() throws Exception {
+        generateRecord("Household");
+        generateRecord("Individual");
+
+        GeneratedSources.assertCompiles(getOutDir("java-record-renderer"),
+                "HouseholdBaseRecord.java", "HouseholdConst.java", "IndividualBaseRecord.java", "IndividualConst.java");
+    }
+
+    @Test
+    public void testWithoutRowIdKey() throws Exception {
+        String source = generateRecord(TestSchemas.createWithoutRowIdDatabase(), "Country");
+
+        // the natural key is the long primary key id of the record
+        assertTrue(source.contains("public long getPrimaryKeyId() {"));
+        assertTrue(source.contains("public void setPrimaryKeyId(long id) {"));
+        assertTrue(getBody(source, "boolean isNewRecord()").contains("return getPrimaryKeyId() <= 0;"));
+
+        GeneratedSources.assertCompiles(getOutDir("java-record-renderer"), "CountryBaseRecord.java", "CountryConst.java");
+    }
+
+    private String generateRecord(String tableName) throws Exception {
+        return generateRecord(TestSchemas.createHouseholdDatabase(), tableName);
+    }
+
+    private String generateRecord(SchemaDatabase database, String tableName) throws Exception {
+        GenConfig genConfig = new GenConfig();
+        genConfig.setDirtyFieldTracking(true);
+
+        AndroidBaseRecordRenderer renderer = new AndroidBaseRecordRenderer();
+        renderer.setGenConfig(genConfig);
+        renderer.generate(database, database.getTable(tableName), "org.mycompany.domain", TestDatabaseMappings.createSqliteMapping());
+
+        File outDir = getOutDir("java-record-renderer");
+        renderer.writeToFile(outDir.getPath());
+        return read(outDir, tableName + "BaseRecord.java");
+    }
+}
@@ -0,0 +1,78 @@
+package org.dbtools.gen.android;
+
+import org.dbtools.gen.GenConfig;
+import org.dbtools.gen.GeneratedSources;
+import org.dbtools.schema.schemafile.DatabaseSchema;
+import org.dbtools.schema.schemafile.SchemaDatabase;
+import org.dbtools.schema.schemafile.SchemaView;
+import org.dbtools.schema.schemafile.TestSchemas;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.dbtools.gen.GeneratedSources.getOutDir;
+import static org.dbtools.gen.GeneratedSources.read;
+import static org.junit.Assert.assertTrue;
+
+public class DatabaseBaseManagerRendererTest {
+
+    @Test
+    public void testViewHashes() throws Exception {
+        File outDir = getOutDir("java-database-manager-renderer");
+        generate(outDir);
+        String source = read(outDir, "DatabaseBaseManager.java");
+        String constSource = read(outDir, "DatabaseManagerConst.java");
+
+        // hash of each CREATE_VIEW
+        assertTrue(constSource.contains("public static final int MAIN_HOUSEHOLD_VIEW_VIEW_HASH = org.mycompany.domain.householdview.HouseholdView.CREATE_VIEW.hashCode();"));
+        assertTrue(constSource.contains("public static final int MAIN_INDIVIDUAL_VIEW_VIEW_HASH = org.mycompany.domain.individualview.IndividualView.CREATE_VIEW.hashCode();"));
+        assertTrue(constSource.contains("public static final String CREATE_VIEW_HASHES_TABLE = \"CREATE TABLE IF NOT EXISTS dbtools_view_hashes (name TEXT PRIMARY KEY NOT NULL, hash INTEGER NOT NULL);\";"));
+
+        // created views save their hashes
+        assertTrue(source.contains("saveViewHashes(database, new String[] {\"household_view\", \"individual_view\"}, "
+                + "new int[] {DatabaseManagerConst.MAIN_HOUSEHOLD_VIEW_VIEW_HASH, DatabaseManagerConst.MAIN_INDIVIDUAL_VIEW_VIEW_HASH});"));
+
+        // upgradeChangedViews(...) only recreates the views whose hash changed (and the views that depend on them)
+        assertTrue(source.contains("public void upgradeChangedViews("));
+        assertTrue(source.contains("upgradeMainViews(androidDatabase);"));
+        assertTrue(source.contains("int count = upgradeViews(database,"));
+        assertTrue(source.contains("new String[] {org.mycompany.domain.householdview.HouseholdView.CREATE_VIEW, org.mycompany.domain.individualview.IndividualView.CREATE_VIEW},"));
+        assertTrue(source.contains("private int upgradeViews(DatabaseWrapper database, String[] viewNames, String[] createViews, String[] dropViews, int[] viewHashes) {"));
+        assertTrue(source.contains("if (appliedViewHash == null || appliedViewHash != viewHashes[i]) {"));
+        assertTrue(source.contains("if (!changed[i] && referencesView(createViews[i], changedViewNames)) {"));
+        assertTrue(source.contains("database.execSQL(\"DROP VIEW IF EXISTS \" + viewName);"));
+    }
+
+    @Test
+    public void testGeneratedManagerCompiles() throws Exception {
+        File outDir = getOutDir("java-database-manager-renderer");
+        generate(outDir);
+
+        GeneratedSources.assertCompiles(outDir, "DatabaseBaseManager.java", "DatabaseManagerConst.java");
+    }
+
+    private void generate(File outDir) {
+        GenConfig genConfig = new GenConfig();
+
+        SchemaDatabase database = TestSchemas.createDatabase(TestSchemas.createTable("Household"), TestSchemas.createTable("Individual"));
+        database.setViews(new ArrayList<>(Arrays.asList(createView("household_view"), createView("individual_view"))));
+        database.resolveDefaults();
+
+        DatabaseSchema databaseSchema = new DatabaseSchema();
+        databaseSchema.setDatabases(new ArrayList<>(Arrays.asList(database)));
+
+        DatabaseBaseManagerRenderer renderer = new DatabaseBaseManagerRenderer();
+        renderer.setGenConfig(genConfig);
+        renderer.setPackageBase("org.mycompany.domain");
+        renderer.setOutDir(outDir.getPath());
+        renderer.generate(databaseSchema);
+    }
+
+    private SchemaView createView(String name) {
+        SchemaView view = new SchemaView();
+        view.setName(name);
+        return view;
+    }
+}
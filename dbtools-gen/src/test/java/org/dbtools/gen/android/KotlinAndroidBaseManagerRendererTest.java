@@ -0,0 +1,56 @@
+package org.dbtools.gen.android;
+
+import org.dbtools.gen.GenConfig;
+import org.dbtools.gen.android.kotlin.KotlinAndroidBaseManagerRenderer;
+import org.dbtools.gen.android.kotlin.KotlinAndroidBaseRecordRenderer;
+import org.dbtools.schema.dbmappings.TestDatabaseMappings;
+import org.dbtools.schema.schemafile.SchemaDatabase;
+import org.dbtools.schema.schemafile.SchemaTable;
+import org.dbtools.schema.schemafile.TestSchemas;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.dbtools.gen.GeneratedSources.getOutDir;
+import static org.dbtools.gen.GeneratedSources.read;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KotlinAndroidBaseManagerRendererTest {
+
+    @Test
+    public void testForeignKeyFinders() throws Exception {
+        String source = generateManager("Individual");
+
+        // BIGINT and INTEGER foreign keys (LongSparseArray keys: Int ids are converted)
+        assertTrue(source.contains("fun findAllByHouseholdId(databaseName: String, householdId: Long)"));
+        assertTrue(source.contains("fun findAllByHouseholdIdIn(databaseName: String, householdIds: LongArray)"));
+        assertTrue(source.contains("val id = record.householdId ?: continue"));
+        assertTrue(source.contains("fun findAllByFamilyId(databaseName: String, familyId: Long)"));
+        assertTrue(source.contains("fun findAllByFamilyIdIn(databaseName: String, familyIds: LongArray)"));
+        assertTrue(source.contains("val id = record.familyId.toLong()"));
+
+        // TINYINT is a boolean in the record
+        assertFalse(source.contains("findAllByKindId"));
+
+        // inherited query fun
+        assertTrue(source.contains("return findAllByRawQuery(rawQuery = \"SELECT * FROM \" + IndividualConst.TABLE + \" WHERE \" + IndividualConst.C_FAMILY_ID + \" = ?\", selectionArgs = arrayOf(familyId.toString()), databaseName = databaseName)"));
+        assertFalse(source.contains("fun findAllByRawQuery("));
+    }
+
+    private String generateManager(String tableName) throws Exception {
+        GenConfig genConfig = new GenConfig();
+
+        SchemaDatabase database = TestSchemas.createForeignKeyTypesDatabase();
+        SchemaTable table = database.getTable(tableName);
+        KotlinAndroidBaseRecordRenderer recordRenderer = new KotlinAndroidBaseRecordRenderer(genConfig);
+        AndroidGeneratedEntityInfo generatedEntityInfo = recordRenderer.generate(database, table, "org.mycompany.domain", TestDatabaseMappings.createSqliteMapping());
+
+        KotlinAndroidBaseManagerRenderer renderer = new KotlinAndroidBaseManagerRenderer(genConfig);
+        renderer.generate(table, "org.mycompany.domain", generatedEntityInfo);
+
+        File outDir = getOutDir("kotlin-manager-renderer");
+        renderer.writeToFile(outDir.getPath());
+        return read(outDir, tableName + "BaseManager.kt");
+    }
+}
@@ -0,0 +1,80 @@
+package org.dbtools.gen.android;
+
+import org.dbtools.gen.GenConfig;
+import org.dbtools.gen.android.kotlin.KotlinAndroidBaseRecordRenderer;
+import org.dbtools.schema.dbmappings.TestDatabaseMappings;
+import org.dbtools.schema.schemafile.SchemaDatabase;
+import org.dbtools.schema.schemafile.TestSchemas;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.dbtools.gen.GeneratedSources.getBody;
+import static org.dbtools.gen.GeneratedSources.getOutDir;
+import static org.dbtools.gen.GeneratedSources.read;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class KotlinAndroidBaseRecordRendererTest {
+
+    @Test
+    public void testDirtyFieldTracking() throws Exception {
+        String source = generateRecord("Individual");
+
+        // reading a row (the properties are assigned while tracking is suspended) leaves the record clean
+        String setContentCursor = getBody(source, "fun setContent(cursor: Cursor)");
+        assertTrue(setContentCursor.contains("dirtyFieldTrackingSuspended = true"));
+        assertTrue(setContentCursor.trim().endsWith("clearDirtyFields()"));
+
+        String setContentValues = getBody(source, "fun setContent(values: DBToolsContentValues<*>)");
+        assertTrue(setContentValues.contains("dirtyFieldTrackingSuspended = true"));
+
+        // a full insert / update writes every column
+        assertTrue(getBody(source, "fun bindInsertStatement(statement: StatementWrapper)").trim().endsWith("clearDirtyFields()"));
+        assertTrue(getBody(source, "fun bindUpdateStatement(statement: StatementWrapper)").trim().endsWith("clearDirtyFields()"));
+        assertFalse(getBody(source, "fun bindDirtyUpdateStatement(statement: StatementWrapper)").contains("clearDirtyFields()"));
+
+        // the copy has the same dirty fields as the original
+        String copy = getBody(source, "fun copy()");
+        assertTrue(copy.contains("copy.clearDirtyFields()"));
+        assertTrue(copy.contains("copy.markDirty(i)"));
+    }
+
+    @Test
+    public void testColumnIndexes() throws Exception {
+        String source = generateRecord("Individual");
+        String constSource = read(getOutDir("kotlin-record-renderer"), "IndividualConst.kt");
+
+        // indexes are resolved once per cursor and a column missing from the cursor fails fast
+        assertTrue(constSource.contains("return IntArray(ALL_COLUMNS.size) { cursor.getColumnIndexOrThrow(ALL_COLUMNS[it]) }"));
+        String setContent = getBody(source, "fun setContent(cursor: Cursor)");
+        assertTrue(setContent.contains("val columnIndexes = IndividualConst.getColumnIndexes(cursor)"));
+        assertFalse(setContent.contains(">= 0"));
+    }
+
+    @Test
+    public void testWithoutRowIdKey() throws Exception {
+        String source = generateRecord(TestSchemas.createWithoutRowIdDatabase(), "Country");
+
+        // the natural key is the long primary key id of the record
+        assertTrue(source.contains("override fun getPrimaryKeyId() : Long {"));
+        assertTrue(source.contains("override fun setPrimaryKeyId(id: Long) {"));
+        assertTrue(getBody(source, "fun isNewRecord()").contains("return primaryKeyId <= 0"));
+    }
+
+    private String generateRecord(String tableName) throws Exception {
+        return generateRecord(TestSchemas.createHouseholdDatabase(), tableName);
+    }
+
+    private String generateRecord(SchemaDatabase database, String tableName) throws Exception {
+        GenConfig genConfig = new GenConfig();
+        genConfig.setDirtyFieldTracking(true);
+
+        KotlinAndroidBaseRecordRenderer renderer = new KotlinAndroidBaseRecordRenderer(genConfig);
+        renderer.generate(database, database.getTable(tableName), "org.mycompany.domain", TestDatabaseMappings.createSqliteMapping());
+
+        File outDir = getOutDir("kotlin-record-renderer");
+        renderer.writeToFile(outDir.getPath());
+        return read(outDir, tableName + "BaseRecord.kt");
+    }
+}
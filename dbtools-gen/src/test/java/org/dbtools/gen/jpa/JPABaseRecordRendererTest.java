@@ -0,0 +1,182 @@
+package org.dbtools.gen.jpa;
+
+import org.dbtools.gen.GenConfig;
+import org.dbtools.gen.GeneratedSources;
+import org.dbtools.schema.ForeignKeyType;
+import org.dbtools.schema.schemafile.SchemaDatabase;
+import org.dbtools.schema.schemafile.SchemaFieldType;
+import org.dbtools.schema.schemafile.SchemaTable;
+import org.dbtools.schema.schemafile.SchemaTableField;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.dbtools.gen.GeneratedSources.getOutDir;
+import static org.dbtools.gen.GeneratedSources.read;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JPABaseRecordRendererTest {
+
+    @Test
+    public void testBatchInsert() throws Exception {
+        JPABaseRecordRenderer renderer = new JPABaseRecordRenderer();
+        String source = generate(renderer);
+        assertTrue(renderer.isBatchInsertSupported());
+
+        // generated primary key is not inserted
+        assertTrue(source.contains("public static final String INSERT_SQL = \"INSERT INTO Individual (TYPE_ID, STATUS, BIRTH_DATE, HOUSEHOLD_ID) VALUES (?, ?, ?, ?)\";"));
+
+        // enum (ordinal), VARCHAR enumeration (String value), date and ManyToOne (primary key of the referenced record)
+        assertTrue(source.contains("public void bindInsertStatement(java.sql.PreparedStatement statement) throws java.sql.SQLException {"));
+        assertTrue(source.contains("statement.setObject(1, typeId == null ? null : typeId.ordinal(), java.sql.Types.INTEGER);"));
+        assertTrue(source.contains("statement.setObject(2, status, java.sql.Types.VARCHAR);"));
+        assertTrue(source.contains("statement.setObject(3, birthDate == null ? null : new java.sql.Date(birthDate.getTime()), java.sql.Types.DATE);"));
+        assertTrue(source.contains("statement.setObject(4, household == null ? null : household.getPrimaryKeyId(), java.sql.Types.BIGINT);"));
+    }
+
+    @Test
+    public void testNamedQueries() throws Exception {
+        String source = generate(new JPABaseRecordRenderer());
+
+        // query names are global to the persistence unit
+        assertTrue(source.contains("public static final String QUERY_FIND_ALL = \"org.mycompany.domain.Individual.findAll\";"));
+        assertTrue(source.contains("public static final String QUERY_FIND_BY_PRIMARY_KEY = \"org.mycompany.domain.Individual.findByPrimaryKey\";"));
+        assertTrue(source.contains("public static final String QUERY_FIND_BY_HOUSEHOLD = \"org.mycompany.domain.Individual.findByHousehold\";"));
+
+        assertTrue(source.contains("@NamedQueries({"));
+        assertTrue(source.contains("@NamedQuery(name=IndividualBaseRecord.QUERY_FIND_ALL, query=\"SELECT o FROM Individual o\"),"));
+        assertTrue(source.contains("@NamedQuery(name=IndividualBaseRecord.QUERY_FIND_COUNT, query=\"SELECT COUNT(o) FROM Individual o\"),"));
+        assertTrue(source.contains("@NamedQuery(name=IndividualBaseRecord.QUERY_FIND_BY_PRIMARY_KEY, query=\"SELECT o FROM Individual o WHERE o.id = :id\"),"));
+        assertTrue(source.contains("@NamedQuery(name=IndividualBaseRecord.QUERY_FIND_BY_HOUSEHOLD, query=\"SELECT o FROM Individual o WHERE o.household = :household\")"));
+    }
+
+    @Test
+    public void testFetchGraphs() throws Exception {
+        JPABaseRecordRenderer renderer = new JPABaseRecordRenderer();
+        String source = generate(renderer);
+        assertEquals(Arrays.asList("household"), renderer.getFetchGraphAttributes());
+
+        // graph names are global to the persistence unit
+        assertTrue(source.contains("public static final String GRAPH_HOUSEHOLD = \"org.mycompany.domain.Individual.household\";"));
+
+        String recordSource = generateRecord(renderer);
+
+        assertTrue(recordSource.contains("@NamedEntityGraphs({"));
+        assertTrue(recordSource.contains("@NamedEntityGraph(name=IndividualBaseRecord.GRAPH_HOUSEHOLD, attributeNodes=@NamedAttributeNode(\"household\"))"));
+    }
+
+    @Test
+    public void testKeysetPaging() throws Exception {
+        JPABaseRecordRenderer renderer = new JPABaseRecordRenderer();
+        String source = generate(renderer);
+
+        assertTrue(source.contains("public static final String QUERY_FIND_PAGE_AFTER = \"org.mycompany.domain.Individual.findPageAfter\";"));
+        assertTrue(source.contains("@NamedQuery(name=IndividualBaseRecord.QUERY_FIND_FIRST_PAGE, query=\"SELECT o FROM Individual o ORDER BY o.id\"),"));
+        assertTrue(source.contains("@NamedQuery(name=IndividualBaseRecord.QUERY_FIND_PAGE_AFTER, query=\"SELECT o FROM Individual o WHERE o.id > :id ORDER BY o.id\"),"));
+
+        String managerSource = generateManager(renderer);
+
+        assertTrue(managerSource.contains("query = entityManager.createNamedQuery(Individual.QUERY_FIND_PAGE_AFTER, Individual.class)"));
+        assertTrue(managerSource.contains(".setParameter(\"id\", lastPrimaryKey);"));
+
+        // the persistence context is cleared (after flushing pending changes) unless clearPages is false
+        assertTrue(managerSource.contains("public Iterator<Individual> iterateAll(final int pageSize, final boolean clearPages) {"));
+        assertTrue(managerSource.contains("return iterateAll(DEFAULT_PAGE_SIZE, true);"));
+        assertTrue(managerSource.contains("return iterateAll(pageSize, true);"));
+        assertTrue(managerSource.contains("visitAll(DEFAULT_PAGE_SIZE, true, visitor);"));
+        assertTrue(managerSource.contains("visitAll(pageSize, true, visitor);"));
+        assertTrue(managerSource.contains("public void visitAll(int pageSize, boolean clearPages, Consumer<? super Individual> visitor) {"));
+        assertTrue(managerSource.contains("if (clearPages) {\n"
+                + "                        entityManager.flush();\n"
+                + "                        entityManager.clear();\n"));
+    }
+
+    @Test
+    public void testGeneratedSourcesCompile() throws Exception {
+        JPABaseRecordRenderer renderer = new JPABaseRecordRenderer();
+        generate(renderer);
+        generateRecord(renderer);
+        generateManager(renderer);
+
+        GeneratedSources.assertCompiles(getOutDir("jpa-record-renderer"), "IndividualBaseRecord.java", "Individual.java", "IndividualBaseManager.java");
+    }
+
+    private String generate(JPABaseRecordRenderer renderer) throws Exception {
+        renderer.setGenConfig(new GenConfig());
+
+        SchemaDatabase database = createDatabase();
+        renderer.generate(database, database.getTable("Individual"), "org.mycompany.domain");
+
+        File outDir = getOutDir("jpa-record-renderer");
+        renderer.writeToFile(outDir.getPath());
+        return read(outDir, "IndividualBaseRecord.java");
+    }
+
+    private String generateRecord(JPABaseRecordRenderer renderer) throws Exception {
+        JPARecordClassRenderer recordRenderer = new JPARecordClassRenderer();
+        recordRenderer.setGenConfig(new GenConfig());
+        recordRenderer.generate(createDatabase().getTable("Individual"), "org.mycompany.domain", renderer.getFetchGraphAttributes());
+
+        File outDir = getOutDir("jpa-record-renderer");
+        recordRenderer.writeToFile(outDir.getPath());
+        return read(outDir, "Individual.java");
+    }
+
+    private String generateManager(JPABaseRecordRenderer renderer) throws Exception {
+        JPABaseRecordManagerRenderer managerRenderer = new JPABaseRecordManagerRenderer();
+        managerRenderer.setGenConfig(new GenConfig());
+        managerRenderer.generateObjectCode(createDatabase().getTable("Individual"), "org.mycompany.domain", renderer.getPrimaryKeyFinderParameter(),
+                renderer.getForeignKeyFinderParameters(), renderer.isBatchInsertSupported());
+
+        File outDir = getOutDir("jpa-record-renderer");
+        managerRenderer.writeToFile(outDir.getPath());
+        return read(outDir, "IndividualBaseManager.java");
+    }
+
+    private SchemaDatabase createDatabase() {
+        SchemaDatabase database = new SchemaDatabase("main");
+
+        SchemaTable individualType = createTable("IndividualType");
+        individualType.getFields().add(new SchemaTableField("NAME", SchemaFieldType.VARCHAR));
+        individualType.setEnumerations("HEAD,SPOUSE,CHILD");
+
+        SchemaTable individual = createTable("Individual");
+
+        SchemaTableField typeField = new SchemaTableField("TYPE_ID", SchemaFieldType.INTEGER);
+        typeField.setForeignKeyTable("IndividualType");
+        typeField.setForeignKeyField("ID");
+        typeField.setForeignKeyType(ForeignKeyType.ENUM);
+        typeField.setEnumerationDefault("HEAD");
+        individual.getFields().add(typeField);
+
+        SchemaTableField statusField = new SchemaTableField("STATUS", SchemaFieldType.VARCHAR);
+        statusField.setEnumerationClass("org.mycompany.domain.Status");
+        individual.getFields().add(statusField);
+
+        individual.getFields().add(new SchemaTableField("BIRTH_DATE", SchemaFieldType.DATE));
+
+        SchemaTableField householdField = new SchemaTableField("HOUSEHOLD_ID", SchemaFieldType.BIGINT);
+        householdField.setForeignKeyTable("Household");
+        householdField.setForeignKeyField("ID");
+        householdField.setForeignKeyType(ForeignKeyType.MANYTOONE);
+        individual.getFields().add(householdField);
+
+        database.setTables(new ArrayList<>(Arrays.asList(createTable("Household"), individualType, individual)));
+        database.resolveDefaults();
+        return database;
+    }
+
+    private SchemaTable createTable(String name) {
+        SchemaTable table = new SchemaTable(name);
+
+        SchemaTableField idField = new SchemaTableField("ID", SchemaFieldType.BIGINT);
+        idField.setPrimaryKey(true);
+        idField.setIncrement(true);
+        table.getFields().add(idField);
+
+        return table;
+    }
+}
@@ -1,9 +1,14 @@
 package org.dbtools.renderer;
 
+import org.dbtools.schema.schemafile.SchemaTable;
+import org.dbtools.schema.schemafile.TestSchemas;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class SchemaRendererTest {
@@ -53,6 +58,57 @@ public class SchemaRendererTest {
         assertTrue(testGenSql(SqliteRenderer.RENDERER_NAME));
     }
 
+    @Test
+    public void testOrphanCleanupStatements() {
+        SchemaTable individual = createTable("Individual", "householdId", "Household");
+        SchemaTable household = createTable("Household", "groupId", "HouseholdGroup");
+        SchemaTable householdGroup = createTable("HouseholdGroup", null, null);
+
+        List<String> statements = SchemaRenderer.generateOrphanCleanupStatements(Arrays.asList(individual, household, householdGroup));
+
+        // parents are cleaned up before their children
+        assertEquals(Arrays.asList(
+                "DELETE FROM Household WHERE Household.groupId IS NOT NULL AND NOT EXISTS (SELECT 1 FROM HouseholdGroup p WHERE p._id = Household.groupId)",
+                "DELETE FROM Individual WHERE Individual.householdId IS NOT NULL AND NOT EXISTS (SELECT 1 FROM Household p WHERE p._id = Individual.householdId)"),
+                statements);
+
+        // references to tables outside of the list are skipped
+        assertEquals(0, SchemaRenderer.generateOrphanCleanupStatements(Arrays.asList(individual)).size());
+    }
+
+    @Test
+    public void testOrphanCleanupStatementsWithoutForeignKeyField() {
+        SchemaTable individual = createTable("Individual", "householdId", "Household");
+        individual.getField("householdId").setForeignKeyField("");
+        SchemaTable household = createTable("Household", null, null);
+
+        // REFERENCES Household (without a column) references the primary key
+        assertEquals(Arrays.asList(
+                "DELETE FROM Individual WHERE Individual.householdId IS NOT NULL AND NOT EXISTS (SELECT 1 FROM Household p WHERE p._id = Individual.householdId)"),
+                SchemaRenderer.generateOrphanCleanupStatements(Arrays.asList(individual, household)));
+
+        // the referenced table is not available
+        assertEquals(0, SchemaRenderer.generateOrphanCleanupStatements(individual).size());
+    }
+
+    @Test
+    public void testCreateSequence() {
+        assertEquals("CREATE SEQUENCE INDIVIDUAL_SEQ START WITH 1", SchemaRenderer.generateCreateSequence("INDIVIDUAL_SEQ", 1, 1));
+        assertEquals("CREATE SEQUENCE INDIVIDUAL_SEQ START WITH 1 INCREMENT BY 50", SchemaRenderer.generateCreateSequence("INDIVIDUAL_SEQ", 1, 50));
+    }
+
+    @Test
+    public void testGenerateInsertStatement() {
+        assertEquals("INSERT INTO Individual (name, householdId) VALUES (?, ?)", SchemaRenderer.generateInsertStatement("Individual", Arrays.asList("name", "householdId")));
+    }
+
+    private SchemaTable createTable(String name, String foreignKeyFieldName, String foreignKeyTable) {
+        if (foreignKeyFieldName == null) {
+            return TestSchemas.createTable(name);
+        }
+        return TestSchemas.createTable(name, TestSchemas.createForeignKeyField(foreignKeyFieldName, foreignKeyTable));
+    }
+
     private boolean testGenSql(String dbVendor) {
         String outputFilename = String.format(outputFilenameTemplate, dbVendor);
         SchemaRenderer sr = SchemaRenderer.getRenderer(dbVendor);
@@ -0,0 +1,123 @@
+package org.dbtools.renderer;
+
+import org.dbtools.schema.dbmappings.TestDatabaseMappings;
+import org.dbtools.schema.schemafile.SchemaDatabase;
+import org.dbtools.schema.schemafile.SchemaFieldType;
+import org.dbtools.schema.schemafile.SchemaTable;
+import org.dbtools.schema.schemafile.SchemaTableField;
+import org.dbtools.schema.schemafile.TestSchemas;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SqliteMigrationRendererTest {
+
+    @Test
+    public void testNoChanges() {
+        assertTrue(SqliteMigrationRenderer.generateMigration(createHouseholdDatabase(), createHouseholdDatabase(), TestDatabaseMappings.createSqliteMapping()).isEmpty());
+    }
+
+    @Test
+    public void testAddColumn() {
+        SchemaDatabase toDatabase = createHouseholdDatabase();
+        SchemaTableField emailField = new SchemaTableField("email", SchemaFieldType.VARCHAR);
+        emailField.setIndex(true);
+        toDatabase.getTable("Individual").getFields().add(emailField);
+
+        assertEquals(Arrays.asList(
+                "ALTER TABLE Individual ADD COLUMN email TEXT",
+                "CREATE INDEX IF NOT EXISTS Individualemail_IDX ON Individual (email)"),
+                SqliteMigrationRenderer.generateMigration(createHouseholdDatabase(), toDatabase, TestDatabaseMappings.createSqliteMapping()));
+    }
+
+    @Test
+    public void testAddAndDropTable() {
+        SchemaDatabase toDatabase = TestSchemas.createDatabase(
+                TestSchemas.createTable("Household"), TestSchemas.createTable("Note", TestSchemas.createForeignKeyField("householdId", "Household")));
+
+        List<String> statements = SqliteMigrationRenderer.generateMigration(createHouseholdDatabase(), toDatabase, TestDatabaseMappings.createSqliteMapping());
+
+        assertEquals(3, statements.size());
+        assertEquals("DROP TABLE IF EXISTS Individual", statements.get(0));
+        assertTrue(statements.get(1).startsWith("CREATE TABLE IF NOT EXISTS Note ("));
+        assertEquals("CREATE INDEX IF NOT EXISTS NotehouseholdId_IDX ON Note (householdId)", statements.get(2));
+    }
+
+    @Test
+    public void testRebuildTable() {
+        // a NOT NULL column without a default value can not be added with ALTER TABLE
+        SchemaDatabase toDatabase = createHouseholdDatabase();
+        SchemaTableField nameField = new SchemaTableField("name", SchemaFieldType.VARCHAR);
+        nameField.setNotNull(true);
+        toDatabase.getTable("Individual").getFields().add(nameField);
+
+        List<String> statements = SqliteMigrationRenderer.generateMigration(createHouseholdDatabase(), toDatabase, TestDatabaseMappings.createSqliteMapping());
+
+        assertEquals(7, statements.size());
+        assertEquals("PRAGMA legacy_alter_table = ON", statements.get(0));
+        assertTrue(statements.get(1).startsWith("CREATE TABLE Individual_new ("));
+        assertEquals("INSERT INTO Individual_new (_id, householdId) SELECT _id, householdId FROM Individual", statements.get(2));
+        assertEquals("DROP TABLE Individual", statements.get(3));
+        assertEquals("ALTER TABLE Individual_new RENAME TO Individual", statements.get(4));
+        assertEquals("CREATE INDEX IF NOT EXISTS IndividualhouseholdId_IDX ON Individual (householdId)", statements.get(5));
+        assertEquals("PRAGMA legacy_alter_table = OFF", statements.get(6));
+    }
+
+    @Test
+    public void testRebuildReferencedTable() throws Exception {
+        // removed column: the referenced Household table is rebuilt
+        SchemaDatabase fromDatabase = createHouseholdDatabase();
+        fromDatabase.getTable("Household").getFields().add(new SchemaTableField("code", SchemaFieldType.VARCHAR));
+        SchemaDatabase toDatabase = createHouseholdDatabase();
+
+        List<String> statements = SqliteMigrationRenderer.generateMigration(fromDatabase, toDatabase, TestDatabaseMappings.createSqliteMapping());
+        assertEquals("DROP TABLE Household", statements.get(3));
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+             Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA foreign_keys = ON");
+            for (SchemaTable table : fromDatabase.getTables()) {
+                for (String sql : SqliteRenderer.generateTableStatements(table, TestDatabaseMappings.createSqliteMapping())) {
+                    statement.execute(sql);
+                }
+            }
+            statement.execute("INSERT INTO Household (_id, code) VALUES (1, 'A')");
+            statement.execute("INSERT INTO Individual (_id, householdId) VALUES (1, 1)");
+
+            // same steps as the generated migrate[Db]Tables(...)
+            statement.execute("PRAGMA foreign_keys = OFF");
+            statement.execute("BEGIN TRANSACTION");
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+            try (ResultSet resultSet = statement.executeQuery("PRAGMA foreign_key_check")) {
+                assertFalse(resultSet.next());
+            }
+            statement.execute("COMMIT");
+            statement.execute("PRAGMA foreign_keys = ON");
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM Individual JOIN Household ON Household._id = Individual.householdId")) {
+                assertTrue(resultSet.next());
+                assertEquals(1, resultSet.getInt(1));
+            }
+            try (ResultSet resultSet = statement.executeQuery("SELECT sql FROM sqlite_master WHERE name = 'Individual'")) {
+                assertTrue(resultSet.next());
+                assertTrue(resultSet.getString(1).contains("REFERENCES Household (_id)"));
+            }
+        }
+    }
+
+    private SchemaDatabase createHouseholdDatabase() {
+        return TestSchemas.createDatabase(
+                TestSchemas.createTable("Household"), TestSchemas.createTable("Individual", TestSchemas.createForeignKeyField("householdId", "Household")));
+    }
+}
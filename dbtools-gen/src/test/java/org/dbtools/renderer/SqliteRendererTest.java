@@ -0,0 +1,177 @@
+package org.dbtools.renderer;
+
+import org.dbtools.schema.OnConflict;
+import org.dbtools.schema.SortOrder;
+import org.dbtools.schema.dbmappings.TestDatabaseMappings;
+import org.dbtools.schema.schemafile.SchemaFieldType;
+import org.dbtools.schema.schemafile.SchemaIndexField;
+import org.dbtools.schema.schemafile.SchemaTable;
+import org.dbtools.schema.schemafile.SchemaTableField;
+import org.dbtools.schema.schemafile.SchemaTableIndex;
+import org.dbtools.schema.schemafile.SchemaTableUnique;
+import org.dbtools.schema.schemafile.SchemaUniqueField;
+import org.dbtools.schema.schemafile.TestSchemas;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SqliteRendererTest {
+
+    @Test
+    public void testUpsertPrimaryKey() {
+        SchemaTable table = createTable(false);
+
+        assertEquals("INSERT INTO Item (_id,code,name) VALUES (?,?,?) ON CONFLICT (_id) DO UPDATE SET code=excluded.code, name=excluded.name",
+                SqliteRenderer.generateUpsertStatement(table));
+    }
+
+    @Test
+    public void testUpsertUniqueDeclaration() {
+        SchemaTable table = createTable(true);
+        table.getUniqueDeclarations().add(createUnique(OnConflict.NONE, "code"));
+
+        assertEquals("INSERT INTO Item (code,name) VALUES (?,?) ON CONFLICT (code) DO UPDATE SET name=excluded.name",
+                SqliteRenderer.generateUpsertStatement(table));
+    }
+
+    @Test
+    public void testUpsertOnConflict() {
+        SchemaTable table = createTable(true);
+        table.getUniqueDeclarations().add(createUnique(OnConflict.ABORT, "name"));
+        table.getUniqueDeclarations().add(createUnique(OnConflict.IGNORE, "code"));
+
+        assertEquals("INSERT INTO Item (code,name) VALUES (?,?) ON CONFLICT (code) DO NOTHING",
+                SqliteRenderer.generateUpsertStatement(table));
+    }
+
+    @Test
+    public void testUpsertOnConflictIgnoreCase() {
+        SchemaTable table = createTable(false);
+        table.getUniqueDeclarations().add(createUnique(OnConflict.IGNORE, "_ID"));
+
+        assertEquals("INSERT INTO Item (_id,code,name) VALUES (?,?,?) ON CONFLICT (_id) DO NOTHING",
+                SqliteRenderer.generateUpsertStatement(table));
+    }
+
+    @Test
+    public void testNoUpsert() {
+        SchemaTable table = createTable(true);
+        table.getUniqueDeclarations().add(createUnique(OnConflict.FAIL, "code"));
+
+        assertNull(SqliteRenderer.generateUpsertStatement(table));
+    }
+
+    @Test
+    public void testIndex() {
+        SchemaTableIndex index = new SchemaTableIndex();
+        index.setIndexFields(Arrays.asList(new SchemaIndexField("code", SortOrder.NONE), new SchemaIndexField("name", SortOrder.DESC)));
+
+        SchemaTableIndex partialIndex = new SchemaTableIndex();
+        partialIndex.setName("ItemActiveCode_IDX");
+        partialIndex.setUnique(true);
+        partialIndex.setWhere("name IS NOT NULL");
+        partialIndex.setIndexFields(Arrays.asList(new SchemaIndexField("code", SortOrder.ASC)));
+
+        SchemaTable table = createTable(true);
+
+        assertEquals("CREATE INDEX IF NOT EXISTS Item_code_name_IDX ON Item (code, name DESC)", SqliteRenderer.generateIndexSchema(table, index, true, true));
+        assertEquals("CREATE UNIQUE INDEX ItemActiveCode_IDX ON Item (code ASC) WHERE name IS NOT NULL", SqliteRenderer.generateIndexSchema(table, partialIndex, false, true));
+        assertNull(SqliteRenderer.generateIndexSchema(table, partialIndex, false, false));
+    }
+
+    @Test
+    public void testIndexNames() {
+        SchemaTable table = createTable(true);
+        table.getField("code").setIndex(true);
+        SchemaTableIndex index = new SchemaTableIndex();
+        index.setUnique(true);
+        index.setIndexFields(Arrays.asList(new SchemaIndexField("code", SortOrder.NONE)));
+        table.getIndexDeclarations().add(index);
+
+        // the default name of a single field index is not the name of the field level index
+        assertTrue(table.validate());
+        assertEquals(Arrays.asList("Itemcode_IDX", "Item_code_IDX"), new ArrayList<>(SqliteRenderer.generateIndexStatements(table).keySet()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDuplicateIndexName() {
+        SchemaTable table = createTable(true);
+        table.getField("code").setIndex(true);
+        SchemaTableIndex index = new SchemaTableIndex();
+        index.setName("ItemCode_IDX");
+        index.setIndexFields(Arrays.asList(new SchemaIndexField("name", SortOrder.NONE)));
+        table.getIndexDeclarations().add(index);
+
+        table.validate();
+    }
+
+    @Test
+    public void testAutoIncrement() {
+        SchemaTable table = createTable(true);
+        SchemaTableField idField = table.getField("_id");
+
+        assertEquals("_id INTEGER PRIMARY KEY  AUTOINCREMENT", SqliteRenderer.generateColumnDefinition(table, idField, TestDatabaseMappings.createSqliteMapping()));
+
+        table.setSqliteAutoIncrement(false);
+        assertEquals("_id INTEGER PRIMARY KEY", SqliteRenderer.generateColumnDefinition(table, idField, TestDatabaseMappings.createSqliteMapping()));
+    }
+
+    @Test
+    public void testTableOptions() {
+        SchemaTable table = new SchemaTable("Country");
+        SchemaTableField codeField = new SchemaTableField("code", SchemaFieldType.BIGINT);
+        codeField.setPrimaryKey(true);
+        table.getFields().add(codeField);
+        table.getFields().add(new SchemaTableField("population", SchemaFieldType.DOUBLE));
+        table.setSqliteWithoutRowId(true);
+        table.setSqliteStrict(true);
+
+        assertTrue(table.validate());
+        assertEquals(" STRICT, WITHOUT ROWID", SqliteRenderer.generateTableOptions(table));
+        assertEquals("CREATE TABLE IF NOT EXISTS Country (\n\tcode INTEGER PRIMARY KEY,\n\tpopulation REAL\n) STRICT, WITHOUT ROWID;\n\n",
+                SqliteRenderer.generateTableSchema(table, TestDatabaseMappings.createSqliteMapping()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWithoutRowIdIncrement() {
+        SchemaTable table = createTable(true);
+        table.setSqliteWithoutRowId(true);
+        table.validate();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWithoutRowIdTextKey() {
+        SchemaTable table = new SchemaTable("Country");
+        SchemaTableField codeField = new SchemaTableField("code", SchemaFieldType.VARCHAR);
+        codeField.setPrimaryKey(true);
+        table.getFields().add(codeField);
+        table.setSqliteWithoutRowId(true);
+        table.validate();
+    }
+
+    private SchemaTable createTable(boolean increment) {
+        SchemaTable table = TestSchemas.createTable("Item", new SchemaTableField("code", SchemaFieldType.VARCHAR), new SchemaTableField("name", SchemaFieldType.VARCHAR));
+        table.getField(TestSchemas.PRIMARY_KEY).setIncrement(increment);
+        return table;
+    }
+
+    private SchemaTableUnique createUnique(OnConflict onConflict, String... fieldNames) {
+        List<SchemaUniqueField> uniqueFields = new ArrayList<>();
+        for (String fieldName : fieldNames) {
+            SchemaUniqueField uniqueField = new SchemaUniqueField();
+            uniqueField.setName(fieldName);
+            uniqueFields.add(uniqueField);
+        }
+
+        SchemaTableUnique unique = new SchemaTableUnique();
+        unique.setUniqueFields(uniqueFields);
+        unique.setSqliteOnConflict(onConflict);
+        return unique;
+    }
+}
@@ -0,0 +1,56 @@
+package org.dbtools.schema;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SqlitePragmasTest {
+
+    @Test
+    public void testNoPragmas() {
+        SqlitePragmas sqlitePragmas = new SqlitePragmas();
+        assertTrue(sqlitePragmas.generateOpenStatements().isEmpty());
+        assertTrue(sqlitePragmas.generateConnectionStatements().isEmpty());
+        assertFalse(sqlitePragmas.isWriteAheadLogging());
+        assertFalse(sqlitePragmas.isOptimizeOnClose());
+    }
+
+    @Test
+    public void testMerge() {
+        SqlitePragmas defaults = new SqlitePragmas("wal", "NORMAL", -8000, null, null, 4096, false);
+        SqlitePragmas overrides = new SqlitePragmas(null, "full", null, 268435456L, "MEMORY", null, true);
+
+        SqlitePragmas sqlitePragmas = defaults.merge(overrides);
+
+        // WAL: enableWriteAheadLogging() (after page_size: it can not be changed in WAL mode)
+        assertTrue(sqlitePragmas.isWriteAheadLogging());
+        assertEquals(Arrays.asList("PRAGMA page_size = 4096"), sqlitePragmas.generateOpenStatements());
+        assertEquals(Arrays.asList(
+                "PRAGMA synchronous = FULL",
+                "PRAGMA cache_size = -8000",
+                "PRAGMA mmap_size = 268435456",
+                "PRAGMA temp_store = MEMORY"), sqlitePragmas.generateConnectionStatements());
+        assertTrue(sqlitePragmas.isOptimizeOnClose());
+    }
+
+    @Test
+    public void testJournalMode() {
+        SqlitePragmas sqlitePragmas = new SqlitePragmas("truncate", null, null, null, null, null, null);
+        assertFalse(sqlitePragmas.isWriteAheadLogging());
+        assertEquals(Arrays.asList("PRAGMA journal_mode = TRUNCATE"), sqlitePragmas.generateOpenStatements());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInvalidJournalMode() {
+        new SqlitePragmas("WAL; DROP TABLE Individual", null, null, null, null, null, null).generateOpenStatements();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInvalidSynchronous() {
+        new SqlitePragmas(null, "\"FULL\"", null, null, null, null, null).generateConnectionStatements();
+    }
+}
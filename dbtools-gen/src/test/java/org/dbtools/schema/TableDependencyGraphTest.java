@@ -0,0 +1,100 @@
+package org.dbtools.schema;
+
+import org.dbtools.schema.schemafile.SchemaTable;
+import org.dbtools.schema.schemafile.SchemaTableField;
+import org.dbtools.schema.schemafile.TestSchemas;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TableDependencyGraphTest {
+
+    @Test
+    public void testCreateOrder() {
+        SchemaTable individual = createTable("Individual", "Household", "Individual");
+        SchemaTable household = createTable("Household", "HouseholdType");
+        SchemaTable householdType = createTable("HouseholdType");
+        SchemaTable phone = createTable("Phone", "individual");
+
+        TableDependencyGraph graph = new TableDependencyGraph(Arrays.asList(individual, household, householdType, phone));
+
+        assertFalse(graph.hasCycles());
+        assertEquals(Arrays.asList(householdType, household, individual, phone), graph.getTablesInCreateOrder());
+        assertEquals(Arrays.asList(household), graph.getDependencies(individual));
+        assertEquals(Arrays.asList(phone), graph.getDependents(individual));
+    }
+
+    @Test
+    public void testCreateOrderKeepsSchemaOrder() {
+        // same order as adding the tables in repeated passes over the schema: C does not move before B
+        SchemaTable b = createTable("B", "A");
+        SchemaTable a = createTable("A");
+        SchemaTable c = createTable("C");
+        SchemaTable e = createTable("E", "D");
+        SchemaTable d = createTable("D", "C");
+
+        TableDependencyGraph graph = new TableDependencyGraph(Arrays.asList(b, a, c, e, d));
+
+        assertEquals(Arrays.asList(a, c, d, b, e), graph.getTablesInCreateOrder());
+    }
+
+    @Test
+    public void testCycle() {
+        SchemaTable a = createTable("A", "B");
+        SchemaTable b = createTable("B", "A");
+        SchemaTable c = createTable("C");
+        SchemaTable d = createTable("D", "Missing");
+
+        TableDependencyGraph graph = new TableDependencyGraph(Arrays.asList(a, b, c, d));
+
+        assertTrue(graph.hasCycles());
+        assertEquals(Arrays.asList(a, b), graph.getCycleTables());
+        assertEquals(Arrays.asList(c, d, a, b), graph.getTablesInCreateOrder());
+        assertTrue(graph.getMissingDependencies(d).contains("Missing"));
+    }
+
+    @Test
+    public void testOnlyCycleTablesReported() {
+        SchemaTable a = createTable("A", "B");
+        SchemaTable b = createTable("B", "A");
+        SchemaTable dependsOnCycle = createTable("C", "A");
+        SchemaTable betweenCycles = createTable("D", "C");
+        SchemaTable e = createTable("E", "D", "F");
+        SchemaTable f = createTable("F", "E");
+
+        TableDependencyGraph graph = new TableDependencyGraph(Arrays.asList(a, b, dependsOnCycle, betweenCycles, e, f));
+
+        assertEquals(Arrays.asList(a, b, e, f), graph.getCycleTables());
+        assertEquals(6, graph.getTablesInCreateOrder().size());
+    }
+
+    @Test
+    public void testLargeSchema() {
+        // each table references the table after it, so the create order is the reverse of the list
+        int tableCount = 5000;
+        List<SchemaTable> tables = new ArrayList<>();
+        for (int i = 0; i < tableCount; i++) {
+            tables.add(i < tableCount - 1 ? createTable("T" + i, "T" + (i + 1)) : createTable("T" + i));
+        }
+
+        List<SchemaTable> ordered = new TableDependencyGraph(tables).getTablesInCreateOrder();
+
+        assertEquals(tableCount, ordered.size());
+        assertEquals("T" + (tableCount - 1), ordered.get(0).getName());
+        assertEquals("T0", ordered.get(tableCount - 1).getName());
+    }
+
+    private SchemaTable createTable(String name, String... fkTables) {
+        SchemaTableField[] fkFields = new SchemaTableField[fkTables.length];
+        for (int i = 0; i < fkTables.length; i++) {
+            fkFields[i] = TestSchemas.createForeignKeyField(fkTables[i].toUpperCase() + "_ID", fkTables[i]);
+        }
+        return TestSchemas.createTable(name, fkFields);
+    }
+}
@@ -0,0 +1,67 @@
+package org.dbtools.schema.dbmappings;
+
+import org.dbtools.gen.GenConfig;
+import org.dbtools.renderer.SchemaRenderer;
+import org.dbtools.schema.schemafile.SchemaFieldType;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class DatabaseMappingCacheTest {
+
+    @Test
+    public void testMappingIsCached() throws Exception {
+        DatabaseMapping mapping1 = SchemaRenderer.readXMLTypes(getClass(), SchemaRenderer.DEFAULT_TYPE_MAPPING_FILENAME, "sqlite");
+        DatabaseMapping mapping2 = SchemaRenderer.readXMLTypes(getClass(), SchemaRenderer.DEFAULT_TYPE_MAPPING_FILENAME, "SQLITE");
+
+        assertNotNull(mapping1);
+        assertSame(mapping1, mapping2);
+        assertEquals("INTEGER", mapping1.getSqlType(SchemaFieldType.SMALLINT));
+        assertEquals("TEXT", mapping1.getSqlType(SchemaFieldType.DATE));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        DatabaseMapping mapping1 = SchemaRenderer.readXMLTypes(getClass(), SchemaRenderer.DEFAULT_TYPE_MAPPING_FILENAME, "sqlite");
+        DatabaseMappingCache.invalidate();
+        DatabaseMapping mapping2 = SchemaRenderer.readXMLTypes(getClass(), SchemaRenderer.DEFAULT_TYPE_MAPPING_FILENAME, "sqlite");
+
+        assertNotNull(mapping2);
+        assertEquals(mapping1.getDatabaseName(), mapping2.getDatabaseName());
+    }
+
+    @Test
+    public void testGenConfigReadsMappingOnce() throws Exception {
+        GenConfig genConfig = new GenConfig();
+        DatabaseMapping mapping = genConfig.getDatabaseMapping("sqlite");
+
+        // later requests do not locate the mapping file or check it for changes again
+        DatabaseMappingCache.invalidate();
+        assertNotNull(mapping);
+        assertSame(mapping, genConfig.getDatabaseMapping("sqlite"));
+        assertEquals(SchemaRenderer.findXMLTypesFile(SchemaRenderer.DEFAULT_TYPE_MAPPING_FILENAME), genConfig.getTypeMappingFile());
+    }
+
+    @Test
+    public void testGenConfigTypeMappingFile() throws Exception {
+        File mappingFile = new File("build/test-src/dbmappings.xml");
+        GenConfig genConfig = new GenConfig();
+
+        // a file located by the caller (the gradle task resolves it against the project directory) is used as is
+        genConfig.setTypeMappingFile(mappingFile);
+        assertSame(mappingFile, genConfig.getTypeMappingFile());
+
+        genConfig.setTypeMappingFile(null);
+        assertNull(genConfig.getTypeMappingFile());
+    }
+
+    @Test
+    public void testUnknownVendor() throws Exception {
+        assertNull(SchemaRenderer.readXMLTypes(getClass(), SchemaRenderer.DEFAULT_TYPE_MAPPING_FILENAME, "unknown-vendor"));
+    }
+}
@@ -0,0 +1,36 @@
+package org.dbtools.schema.dbmappings;
+
+import org.dbtools.schema.schemafile.SchemaFieldType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Type mappings for tests that do not need to read the mapping xml.
+ */
+public final class TestDatabaseMappings {
+
+    private TestDatabaseMappings() {
+    }
+
+    /**
+     * Numbers are INTEGER (DOUBLE is DOUBLE, STRICT tables convert it to REAL) and everything else is TEXT.
+     */
+    public static DatabaseMapping createSqliteMapping() {
+        List<TypeMapping> mappings = new ArrayList<>();
+        for (SchemaFieldType type : SchemaFieldType.values()) {
+            TypeMapping mapping = new TypeMapping();
+            mapping.setJdbcType(type);
+            if (type == SchemaFieldType.DOUBLE) {
+                mapping.setSqlType("DOUBLE");
+            } else {
+                mapping.setSqlType(type.isNumberDataType() ? "INTEGER" : "TEXT");
+            }
+            mappings.add(mapping);
+        }
+
+        DatabaseMapping databaseMapping = new DatabaseMapping();
+        databaseMapping.setMappings(mappings);
+        return databaseMapping;
+    }
+}
@@ -0,0 +1,114 @@
+package org.dbtools.schema.schemafile;
+
+import org.dbtools.schema.SortOrder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SchemaDatabaseTest {
+
+    @Test
+    public void testReadSchema() {
+        String userDir = System.getProperty("user.dir");
+        DatabaseSchema schema = DatabaseSchema.readXMLSchema(userDir + "/src/test/resources/org/dbtools/xml/schema.xml");
+
+        SchemaDatabase database = schema.getDatabases().get(0);
+        assertSame(database, schema.getDatabase(database.getName().toUpperCase()));
+
+        for (SchemaTable table : database.getTables()) {
+            assertSame(table, database.getTable(table.getName().toLowerCase()));
+        }
+    }
+
+    @Test
+    public void testLookups() {
+        SchemaTable household = new SchemaTable("Household");
+        SchemaTable individual = new SchemaTable("Individual");
+        SchemaTableField householdId = new SchemaTableField("HOUSEHOLD_ID", SchemaFieldType.BIGINT);
+        householdId.setForeignKeyTable("household");
+        individual.getFields().add(householdId);
+
+        SchemaDatabase database = new SchemaDatabase("main");
+        List<SchemaTable> tables = new ArrayList<>(Arrays.asList(household, individual));
+        database.setTables(tables);
+
+        assertSame(household, database.getTable("HOUSEHOLD"));
+        assertNull(database.getTable("Phone"));
+        assertEquals(Arrays.asList(individual), database.getReferencingTables("Household"));
+        assertTrue(database.getReferencingTables("Individual").isEmpty());
+
+        // added tables are found (and referencing tables are updated)
+        SchemaTable phone = new SchemaTable("Phone");
+        SchemaTableField phoneIndividualId = new SchemaTableField("INDIVIDUAL_ID", SchemaFieldType.BIGINT);
+        phoneIndividualId.setForeignKeyTable("individual");
+        phone.getFields().add(phoneIndividualId);
+        database.addTable(phone);
+        assertSame(phone, database.getTable("phone"));
+        assertEquals(Arrays.asList(phone), database.getReferencingTables("Individual"));
+    }
+
+    @Test
+    public void testForeignKeyIndexes() {
+        SchemaTable individual = new SchemaTable("Individual");
+        SchemaTableField householdId = new SchemaTableField("HOUSEHOLD_ID", SchemaFieldType.BIGINT);
+        householdId.setForeignKeyTable("household");
+        SchemaTableField typeId = new SchemaTableField("TYPE_ID", SchemaFieldType.BIGINT);
+        typeId.setForeignKeyTable("individual_type");
+        typeId.setForeignKeyIndex(false);
+        SchemaTableField spouseId = new SchemaTableField("SPOUSE_ID", SchemaFieldType.BIGINT);
+        spouseId.setForeignKeyTable("individual");
+        SchemaTableField name = new SchemaTableField("NAME", SchemaFieldType.VARCHAR);
+        individual.getFields().addAll(Arrays.asList(householdId, typeId, spouseId, name));
+
+        // SPOUSE_ID is the first column of an index declaration
+        SchemaTableIndex spouseIndex = new SchemaTableIndex();
+        spouseIndex.getIndexFields().add(new SchemaIndexField("SPOUSE_ID", SortOrder.NONE));
+        spouseIndex.getIndexFields().add(new SchemaIndexField("NAME", SortOrder.NONE));
+        individual.getIndexDeclarations().add(spouseIndex);
+
+        SchemaDatabase database = new SchemaDatabase("main");
+        database.setTables(new ArrayList<>(Arrays.asList(individual)));
+        database.getTables();
+
+        assertTrue(individual.isIndexField(householdId, true));
+        assertFalse(individual.isIndexField(typeId, true));
+        assertFalse(individual.isIndexField(spouseId, true));
+        assertFalse(individual.isIndexField(name, true));
+
+        database.setForeignKeyIndexes(false);
+        database.getTables();
+        assertFalse(individual.isIndexField(householdId, true));
+    }
+
+    @Test
+    public void testUniqueForeignKeyIndexes() {
+        SchemaTable individual = new SchemaTable("Individual");
+        SchemaTableField householdId = new SchemaTableField("HOUSEHOLD_ID", SchemaFieldType.BIGINT);
+        householdId.setForeignKeyTable("household");
+        householdId.setUnique(true);
+        SchemaTableField spouseId = new SchemaTableField("SPOUSE_ID", SchemaFieldType.BIGINT);
+        spouseId.setForeignKeyTable("individual");
+        spouseId.setUnique(true);
+        individual.getFields().addAll(Arrays.asList(householdId, spouseId));
+
+        SchemaDatabase database = new SchemaDatabase("main");
+        database.setTables(new ArrayList<>(Arrays.asList(individual)));
+        database.getTables();
+
+        // UNIQUE(HOUSEHOLD_ID, SPOUSE_ID) only covers HOUSEHOLD_ID
+        assertFalse(individual.isIndexField(householdId, true));
+        assertTrue(individual.isIndexField(spouseId, true));
+
+        // HOUSEHOLD_ID UNIQUE, SPOUSE_ID UNIQUE
+        assertFalse(individual.isIndexField(householdId, false));
+        assertFalse(individual.isIndexField(spouseId, false));
+    }
+}
@@ -0,0 +1,88 @@
+package org.dbtools.schema.schemafile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Schema objects for tests that do not need to read a schema xml.
+ */
+public final class TestSchemas {
+
+    public static final String DATABASE_NAME = "main";
+    public static final String PRIMARY_KEY = "_id";
+
+    private TestSchemas() {
+    }
+
+    /**
+     * Table with an auto increment BIGINT _id primary key followed by the given fields.
+     */
+    public static SchemaTable createTable(String name, SchemaTableField... fields) {
+        SchemaTable table = new SchemaTable(name);
+
+        SchemaTableField idField = new SchemaTableField(PRIMARY_KEY, SchemaFieldType.BIGINT);
+        idField.setPrimaryKey(true);
+        idField.setIncrement(true);
+        table.getFields().add(idField);
+        table.getFields().addAll(Arrays.asList(fields));
+
+        return table;
+    }
+
+    /**
+     * BIGINT field that references the _id of foreignKeyTable.
+     */
+    public static SchemaTableField createForeignKeyField(String name, String foreignKeyTable) {
+        return createForeignKeyField(name, SchemaFieldType.BIGINT, foreignKeyTable);
+    }
+
+    public static SchemaTableField createForeignKeyField(String name, SchemaFieldType type, String foreignKeyTable) {
+        SchemaTableField field = new SchemaTableField(name, type);
+        field.setForeignKeyTable(foreignKeyTable);
+        field.setForeignKeyField(PRIMARY_KEY);
+        return field;
+    }
+
+    /**
+     * "main" database with the given tables (defaults resolved).
+     */
+    public static SchemaDatabase createDatabase(SchemaTable... tables) {
+        SchemaDatabase database = new SchemaDatabase(DATABASE_NAME);
+        database.setTables(new ArrayList<>(Arrays.asList(tables)));
+        database.resolveDefaults();
+        return database;
+    }
+
+    /**
+     * "main" database: Household and Individual (name and householdId, a reference to Household).
+     */
+    public static SchemaDatabase createHouseholdDatabase() {
+        return createDatabase(
+                createTable("Household", new SchemaTableField("name", SchemaFieldType.VARCHAR)),
+                createTable("Individual", new SchemaTableField("name", SchemaFieldType.VARCHAR), createForeignKeyField("householdId", "Household")));
+    }
+
+    /**
+     * "main" database: Individual with a BIGINT (householdId), a not null INTEGER (familyId) and a TINYINT (kindId) foreign key.
+     */
+    public static SchemaDatabase createForeignKeyTypesDatabase() {
+        SchemaTableField familyIdField = createForeignKeyField("familyId", SchemaFieldType.INTEGER, "Family");
+        familyIdField.setNotNull(true);
+
+        return createDatabase(createTable("Household"), createTable("Family"), createTable("Kind"),
+                createTable("Individual", createForeignKeyField("householdId", "Household"), familyIdField,
+                        createForeignKeyField("kindId", SchemaFieldType.TINYINT, "Kind")));
+    }
+
+    /**
+     * "main" database: WITHOUT ROWID Country table with a natural (not null, non increment) BIGINT _id key.
+     */
+    public static SchemaDatabase createWithoutRowIdDatabase() {
+        SchemaTable table = createTable("Country", new SchemaTableField("name", SchemaFieldType.VARCHAR));
+        SchemaTableField idField = table.getField(PRIMARY_KEY);
+        idField.setIncrement(false);
+        idField.setNotNull(true);
+        table.setSqliteWithoutRowId(true);
+        return createDatabase(table);
+    }
+}
@@ -0,0 +1,32 @@
+package org.dbtools.util;
+
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GeneratedFileWriterTest {
+    @Test
+    public void testWriteIfChanged() throws Exception {
+        String userDir = System.getProperty("user.dir");
+        File outDir = new File(userDir + "/build/test-src/writer");
+        outDir.mkdirs();
+        File outFile = new File(outDir, "Test.java");
+        outFile.delete();
+
+        GeneratedFileWriter fileWriter = new GeneratedFileWriter(true);
+
+        assertTrue(fileWriter.write(outFile, "class Test {}\n"));
+        assertFalse(fileWriter.write(outFile, "class Test {}\n"));
+        assertTrue(fileWriter.write(outFile, "class Test { int i; }\n"));
+
+        assertEquals(2, fileWriter.getWrittenCount());
+        assertEquals(1, fileWriter.getUnchangedCount());
+
+        // counts are per writer
+        assertEquals(0, new GeneratedFileWriter(true).getWrittenCount());
+    }
+}
@@ -3,6 +3,8 @@ package org.dbtools.plugin;
 import org.dbtools.plugin.extensions.DBToolsExtension;
 import org.dbtools.plugin.tasks.GenClassesTask;
 import org.dbtools.plugin.tasks.InitTask;
+import org.dbtools.plugin.tasks.PrepopulateTask;
+import org.dbtools.plugin.tasks.SnapshotTask;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 
@@ -16,5 +18,7 @@ public class DBToolsAndroidPlugin implements Plugin<Project> {
         // tasks
         project.getTasks().create("dbtools-init", InitTask.class);
         project.getTasks().create("dbtools-genclasses", GenClassesTask.class);
+        project.getTasks().create("dbtools-snapshot", SnapshotTask.class);
+        project.getTasks().create("dbtools-prepopulate", PrepopulateTask.class);
     }
 }
@@ -51,6 +51,55 @@ public class DBToolsExtension extends BaseDBToolsExtension {
      */
     private boolean includeDatabaseNameInPackage = true;
 
+    /**
+     * Generate entities concurrently (useful for large schemas)
+     */
+    private boolean parallelGeneration = false;
+
+    /**
+     * Only rewrite generated files when their content has changed (keeps timestamps stable for incremental builds)
+     */
+    private boolean writeIfChanged = true;
+
+    /**
+     * Android: generated setters mark fields dirty and managers get updateDirty() that only writes changed columns
+     */
+    private boolean dirtyFieldTracking = false;
+
+    /**
+     * Android: directory of the schema snapshots (written by dbtools-snapshot) used to generate incremental table
+     * migrations (DatabaseBaseManager.migrate[Db]Tables(...)).  No migrations are generated if not set.
+     */
+    private String schemaSnapshotDir;
+
+    /**
+     * Android: assets directory (example: src/main/assets) that dbtools-prepopulate writes a ready to ship database file
+     * to (databases/[database name]).  DatabaseBaseManager gets copyPrepopulated[Db]Database(...) to copy it on first
+     * launch.  No prepopulated databases are built if not set.
+     */
+    private String prepopulatedAssetsDir;
+
+    /**
+     * Android: directory of optional seed data scripts ([database name].sql) added to the prepopulated databases
+     */
+    private String seedDataDir;
+
+    /**
+     * Android: SQLite tuning applied when each database is opened (AppDatabaseConfig.createNewDatabaseWrapper(...)).
+     * Not set = SQLite default.  A &lt;database&gt; attribute with the same name overrides the value for that database.
+     */
+    private String journalMode; // DELETE, TRUNCATE, PERSIST, MEMORY, WAL, OFF
+    private String synchronous; // OFF, NORMAL, FULL, EXTRA
+    private Integer cacheSize; // pages (or -KiB if negative)
+    private Long mmapSize; // bytes
+    private String tempStore; // DEFAULT, FILE, MEMORY
+    private Integer pageSize; // bytes
+
+    /**
+     * Android: run PRAGMA optimize from DatabaseBaseManager.optimizeDatabase(...) before a database is closed
+     */
+    private boolean optimizeOnClose = false;
+
     /**
      * Name of the base package that should be used for generated files.  This
      * package name is a base to the packages that will be generated
@@ -140,4 +189,108 @@ public class DBToolsExtension extends BaseDBToolsExtension {
     public void sqlQueryBuilderSupport(boolean sqlQueryBuilderSupport) {
         this.sqlQueryBuilderSupport = sqlQueryBuilderSupport;
     }
+
+    public boolean isParallelGeneration() {
+        return parallelGeneration;
+    }
+
+    public void parallelGeneration(boolean parallelGeneration) {
+        this.parallelGeneration = parallelGeneration;
+    }
+
+    public boolean isWriteIfChanged() {
+        return writeIfChanged;
+    }
+
+    public void writeIfChanged(boolean writeIfChanged) {
+        this.writeIfChanged = writeIfChanged;
+    }
+
+    public boolean isDirtyFieldTracking() {
+        return dirtyFieldTracking;
+    }
+
+    public void dirtyFieldTracking(boolean dirtyFieldTracking) {
+        this.dirtyFieldTracking = dirtyFieldTracking;
+    }
+
+    public String getSchemaSnapshotDir() {
+        return schemaSnapshotDir;
+    }
+
+    public void schemaSnapshotDir(String schemaSnapshotDir) {
+        this.schemaSnapshotDir = schemaSnapshotDir;
+    }
+
+    public String getPrepopulatedAssetsDir() {
+        return prepopulatedAssetsDir;
+    }
+
+    public void prepopulatedAssetsDir(String prepopulatedAssetsDir) {
+        this.prepopulatedAssetsDir = prepopulatedAssetsDir;
+    }
+
+    public String getSeedDataDir() {
+        return seedDataDir;
+    }
+
+    public void seedDataDir(String seedDataDir) {
+        this.seedDataDir = seedDataDir;
+    }
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public void journalMode(String journalMode) {
+        this.journalMode = journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public void synchronous(String synchronous) {
+        this.synchronous = synchronous;
+    }
+
+    public Integer getCacheSize() {
+        return cacheSize;
+    }
+
+    public void cacheSize(Integer cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public Long getMmapSize() {
+        return mmapSize;
+    }
+
+    public void mmapSize(Long mmapSize) {
+        this.mmapSize = mmapSize;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public void tempStore(String tempStore) {
+        this.tempStore = tempStore;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void pageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public boolean isOptimizeOnClose() {
+        return optimizeOnClose;
+    }
+
+    public void optimizeOnClose(boolean optimizeOnClose) {
+        this.optimizeOnClose = optimizeOnClose;
+    }
 }
@@ -6,13 +6,29 @@ import org.dbtools.gen.android.AndroidObjectsBuilder;
 import org.dbtools.gen.android.kotlin.KotlinAndroidObjectsBuilder;
 import org.dbtools.gen.jpa.JPAObjectsBuilder;
 import org.dbtools.plugin.extensions.DBToolsExtension;
+import org.dbtools.renderer.SchemaRenderer;
+import org.dbtools.schema.SqlitePragmas;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.Project;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
 
+import java.io.File;
+
+/**
+ * Not cacheable: the output directory also holds the Record / Manager classes that are only generated when missing and
+ * are then maintained by hand (restoring a cached snapshot would overwrite those edits).
+ */
 public class GenClassesTask extends DefaultTask {
     @TaskAction
     public void genclasses() {
-        DBToolsExtension dbExt = (DBToolsExtension) getProject().getExtensions().findByName("dbtools");
+        DBToolsExtension dbExt = getDbExtension();
 
 
         org.dbtools.gen.GenConfig genConfig = new org.dbtools.gen.GenConfig();
@@ -22,6 +38,16 @@ public class GenClassesTask extends DefaultTask {
         genConfig.setJavaeeSupport(dbExt.isJavaEESupport());
         genConfig.setSqlQueryBuilderSupport(dbExt.isSqlQueryBuilderSupport());
         genConfig.setRxJavaSupport(dbExt.isRxJavaSupport());
+        genConfig.setParallelGeneration(dbExt.isParallelGeneration());
+        genConfig.setWriteIfChanged(dbExt.isWriteIfChanged());
+        genConfig.setDirtyFieldTracking(dbExt.isDirtyFieldTracking());
+        if (getSchemaSnapshotDir() != null) {
+            genConfig.setSchemaSnapshotDir(getSchemaSnapshotDir().getPath());
+        }
+        genConfig.setPrepopulatedDatabases(isPrepopulatedDatabases());
+        genConfig.setTypeMappingFile(getMappingFile()); // same file gradle uses for the up-to-date check
+        genConfig.setSqlitePragmas(new SqlitePragmas(dbExt.getJournalMode(), dbExt.getSynchronous(), dbExt.getCacheSize(), dbExt.getMmapSize(),
+                dbExt.getTempStore(), dbExt.getPageSize(), dbExt.isOptimizeOnClose()));
 
         switch (dbExt.dateType()) {
             default:
@@ -51,10 +77,167 @@ public class GenClassesTask extends DefaultTask {
                 builder = new JPAObjectsBuilder(genConfig);
         }
 
-        builder.setXmlFilename(dbExt.getSchemaFullFilename());
-        builder.setOutputBaseDir(dbExt.getOutputSrcDir());
+        builder.setXmlFilename(getSchemaFile().getPath());
+        builder.setOutputBaseDir(getOutputSrcDir().getPath());
         builder.setPackageBase(dbExt.getBasePackageName());
         builder.setGenConfig(genConfig);
         builder.build();
     }
+
+    private DBToolsExtension getDbExtension() {
+        return (DBToolsExtension) getProject().getExtensions().findByName("dbtools");
+    }
+
+    // ===== Inputs / Outputs (used by gradle for up-to-date checks and the build cache) =====
+
+    @InputFile
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public File getSchemaFile() {
+        return getProject().file(getDbExtension().getSchemaFullFilename());
+    }
+
+    /**
+     * Custom type mapping file (null if the default mapping file from the dbtools-gen jar is used).  Same locations as
+     * SchemaRenderer.findXMLTypesFile(...) but relative to the project directory.
+     */
+    @InputFile
+    @Optional
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public File getMappingFile() {
+        return findMappingFile(getProject());
+    }
+
+    static File findMappingFile(Project project) {
+        String typesFilename = SchemaRenderer.DEFAULT_TYPE_MAPPING_FILENAME;
+        for (String path : new String[]{typesFilename, "xml/" + typesFilename, "../xml/" + typesFilename}) {
+            File mappingFile = project.file(path);
+            if (mappingFile.exists()) {
+                return mappingFile;
+            }
+        }
+        return null;
+    }
+
+    @OutputDirectory
+    public File getOutputSrcDir() {
+        return getProject().file(getDbExtension().getOutputSrcDir());
+    }
+
+    @Input
+    public String getType() {
+        return getDbExtension().getType();
+    }
+
+    @Input
+    public String getDateType() {
+        return getDbExtension().dateType();
+    }
+
+    @Input
+    @Optional
+    public String getBasePackageName() {
+        return getDbExtension().getBasePackageName();
+    }
+
+    @Input
+    public boolean isJavaEESupport() {
+        return getDbExtension().isJavaEESupport();
+    }
+
+    @Input
+    public boolean isInjectionSupport() {
+        return getDbExtension().isInjectionSupport();
+    }
+
+    @Input
+    public boolean isRxJavaSupport() {
+        return getDbExtension().isRxJavaSupport();
+    }
+
+    @Input
+    public boolean isJsr305Support() {
+        return getDbExtension().isJsr305Support();
+    }
+
+    @Input
+    public boolean isSqlQueryBuilderSupport() {
+        return getDbExtension().isSqlQueryBuilderSupport();
+    }
+
+    @Input
+    public boolean isIncludeDatabaseNameInPackage() {
+        return getDbExtension().isIncludeDatabaseNameInPackage();
+    }
+
+    @Input
+    public boolean isParallelGeneration() {
+        return getDbExtension().isParallelGeneration();
+    }
+
+    @Input
+    public boolean isWriteIfChanged() {
+        return getDbExtension().isWriteIfChanged();
+    }
+
+    @Input
+    public boolean isDirtyFieldTracking() {
+        return getDbExtension().isDirtyFieldTracking();
+    }
+
+    @Input
+    public boolean isPrepopulatedDatabases() {
+        return getDbExtension().getPrepopulatedAssetsDir() != null;
+    }
+
+    @Input
+    @Optional
+    public String getJournalMode() {
+        return getDbExtension().getJournalMode();
+    }
+
+    @Input
+    @Optional
+    public String getSynchronous() {
+        return getDbExtension().getSynchronous();
+    }
+
+    @Input
+    @Optional
+    public Integer getCacheSize() {
+        return getDbExtension().getCacheSize();
+    }
+
+    @Input
+    @Optional
+    public Long getMmapSize() {
+        return getDbExtension().getMmapSize();
+    }
+
+    @Input
+    @Optional
+    public String getTempStore() {
+        return getDbExtension().getTempStore();
+    }
+
+    @Input
+    @Optional
+    public Integer getPageSize() {
+        return getDbExtension().getPageSize();
+    }
+
+    @Input
+    public boolean isOptimizeOnClose() {
+        return getDbExtension().isOptimizeOnClose();
+    }
+
+    /**
+     * Schema snapshots (null if incremental migrations are not generated)
+     */
+    @InputFiles
+    @Optional
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public File getSchemaSnapshotDir() {
+        String schemaSnapshotDir = getDbExtension().getSchemaSnapshotDir();
+        return schemaSnapshotDir != null ? getProject().file(schemaSnapshotDir) : null;
+    }
 }
@@ -0,0 +1,78 @@
+package org.dbtools.plugin.tasks;
+
+import org.dbtools.gen.PrepopulatedDatabaseBuilder;
+import org.dbtools.plugin.extensions.DBToolsExtension;
+import org.dbtools.renderer.SchemaRenderer;
+import org.dbtools.renderer.SqliteRenderer;
+import org.dbtools.schema.dbmappings.DatabaseMapping;
+import org.dbtools.schema.schemafile.DatabaseSchema;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+
+/**
+ * Build a ready to ship SQLite database file (tables, indexes, enum rows and seed data) for each database of the schema
+ */
+@CacheableTask
+public class PrepopulateTask extends DefaultTask {
+    @TaskAction
+    public void prepopulate() {
+        if (getDbExtension().getPrepopulatedAssetsDir() == null) {
+            throw new GradleException("dbtools.prepopulatedAssetsDir is not set");
+        }
+
+        DatabaseSchema databaseSchema = DatabaseSchema.readXMLSchema(getSchemaFile().getPath());
+        DatabaseMapping databaseMapping = SchemaRenderer.readXMLTypes(PrepopulatedDatabaseBuilder.class, getMappingFile(), SqliteRenderer.RENDERER_NAME);
+        new PrepopulatedDatabaseBuilder(databaseMapping).build(databaseSchema, getProject().file(getDbExtension().getPrepopulatedAssetsDir()), getSeedDataDir());
+    }
+
+    private DBToolsExtension getDbExtension() {
+        return (DBToolsExtension) getProject().getExtensions().findByName("dbtools");
+    }
+
+    // ===== Inputs / Outputs (used by gradle for up-to-date checks and the build cache) =====
+
+    @InputFile
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public File getSchemaFile() {
+        return getProject().file(getDbExtension().getSchemaFullFilename());
+    }
+
+    /**
+     * Custom type mapping file (null if the default mapping file from the dbtools-gen jar is used).  Same locations as
+     * SchemaRenderer.findXMLTypesFile(...) but relative to the project directory.
+     */
+    @InputFile
+    @Optional
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public File getMappingFile() {
+        return GenClassesTask.findMappingFile(getProject());
+    }
+
+    @InputDirectory
+    @Optional
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public File getSeedDataDir() {
+        String seedDataDir = getDbExtension().getSeedDataDir();
+        return seedDataDir != null ? getProject().file(seedDataDir) : null;
+    }
+
+    /**
+     * [prepopulatedAssetsDir]/databases (only the database files are owned by this task, not the whole assets directory)
+     */
+    @OutputDirectory
+    @Optional
+    public File getPrepopulatedDatabaseDir() {
+        String prepopulatedAssetsDir = getDbExtension().getPrepopulatedAssetsDir();
+        return prepopulatedAssetsDir != null ? new File(getProject().file(prepopulatedAssetsDir), PrepopulatedDatabaseBuilder.ASSET_DIR) : null;
+    }
+}
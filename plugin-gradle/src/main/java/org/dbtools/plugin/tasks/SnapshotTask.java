@@ -0,0 +1,24 @@
+package org.dbtools.plugin.tasks;
+
+import org.dbtools.gen.SchemaSnapshots;
+import org.dbtools.plugin.extensions.DBToolsExtension;
+import org.dbtools.schema.schemafile.DatabaseSchema;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.tasks.TaskAction;
+
+/**
+ * Snapshot the current schema (run when a database version is released)
+ */
+public class SnapshotTask extends DefaultTask {
+    @TaskAction
+    public void snapshot() {
+        DBToolsExtension dbExt = (DBToolsExtension) getProject().getExtensions().findByName("dbtools");
+        if (dbExt.getSchemaSnapshotDir() == null) {
+            throw new GradleException("dbtools.schemaSnapshotDir is not set");
+        }
+
+        DatabaseSchema databaseSchema = DatabaseSchema.readXMLSchema(getProject().file(dbExt.getSchemaFullFilename()).getPath());
+        new SchemaSnapshots(getProject().file(dbExt.getSchemaSnapshotDir()).getPath()).writeSnapshots(databaseSchema);
+    }
+}